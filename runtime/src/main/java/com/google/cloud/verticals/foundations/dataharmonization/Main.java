@@ -21,12 +21,13 @@ import static java.util.Arrays.stream;
 
 import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
 import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
+import com.google.cloud.verticals.foundations.dataharmonization.data.impl.MappedJson;
+import com.google.cloud.verticals.foundations.dataharmonization.data.serialization.impl.JsonDataReader;
 import com.google.cloud.verticals.foundations.dataharmonization.data.serialization.impl.JsonSerializerDeserializer;
 import com.google.cloud.verticals.foundations.dataharmonization.imports.ImportPath;
 import com.google.cloud.verticals.foundations.dataharmonization.imports.impl.FileLoader;
 import com.google.cloud.verticals.foundations.dataharmonization.init.Engine;
 import com.google.cloud.verticals.foundations.dataharmonization.init.initializer.ExternalConfigExtractor;
-import com.google.common.io.ByteStreams;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
@@ -34,7 +35,9 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.Reader;
 import java.nio.file.FileSystems;
 import java.nio.file.Path;
 import java.util.HashMap;
@@ -58,6 +61,12 @@ public final class Main {
     options.addOption(
         list(new Option("i", "input_file_spec", true, "Absolute paths to input JSON files.")));
     options.addOption("o", "output_dir", true, "Absolute path to directory to output JSON files.");
+    options.addOption(
+        "l",
+        "lazy_input",
+        false,
+        "Memory-map input JSON files and only decode the parts the mapping reads. Inputs are"
+            + " read-only, so mappings must copy them before modifying them.");
 
     Option mapping =
         new Option(
@@ -102,9 +111,13 @@ public final class Main {
       Map<Path, Data> inputData = new HashMap<>();
       if (cmd.hasOption("i")) {
         String[] filePaths = cmd.getOptionValues("i");
+        boolean lazy = cmd.hasOption("l");
         inputData =
             stream(filePaths)
-                .collect(Collectors.toMap(FileSystems.getDefault()::getPath, Main::readJson));
+                .collect(
+                    Collectors.toMap(
+                        FileSystems.getDefault()::getPath,
+                        path -> lazy ? mapJson(path) : readJson(path)));
       } else {
         inputData.put(outputDir.resolve("default.json"), NullData.instance);
       }
@@ -154,9 +167,18 @@ public final class Main {
 
   private static Data readJson(String path) {
     File file = new File(path);
-    try (FileInputStream fis = new FileInputStream(file)) {
-      byte[] json = ByteStreams.toByteArray(fis);
-      return new JsonSerializerDeserializer().deserialize(json);
+    try (Reader json = new InputStreamReader(new FileInputStream(file), UTF_8)) {
+      return new JsonDataReader().read(json);
+    } catch (IOException e) {
+      System.err.printf("Unable to read file %s%n", path);
+      e.printStackTrace(System.err);
+      return NullData.instance;
+    }
+  }
+
+  private static Data mapJson(String path) {
+    try {
+      return MappedJson.open(FileSystems.getDefault().getPath(path));
     } catch (IOException e) {
       System.err.printf("Unable to read file %s%n", path);
       e.printStackTrace(System.err);
@@ -29,16 +29,19 @@ import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
 import com.google.cloud.verticals.foundations.dataharmonization.data.Preconditions;
 import com.google.cloud.verticals.foundations.dataharmonization.data.Primitive;
 import com.google.cloud.verticals.foundations.dataharmonization.function.Closure;
+import com.google.cloud.verticals.foundations.dataharmonization.function.Closure.Invoker;
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.RuntimeContext;
 import com.google.cloud.verticals.foundations.dataharmonization.function.java.PluginFunction;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -172,12 +175,15 @@ public final class ArrayFns {
    */
   @PluginFunction
   public static Array where(RuntimeContext context, Array array, Closure predicate) {
-    return context
-        .getDataTypeImplementation()
-        .arrayOf(
-            array.stream()
-                .filter(i -> Ternary.isTruthy(predicate.bindNextFreeParameter(i).execute(context)))
-                .collect(toImmutableList()));
+    Invoker invoker = predicate.invoker(context);
+    ImmutableList.Builder<Data> matches = ImmutableList.builder();
+    for (Iterator<Data> elements = array.elements(); elements.hasNext(); ) {
+      Data element = elements.next();
+      if (Ternary.isTruthy(invoker.invoke(element))) {
+        matches.add(element);
+      }
+    }
+    return context.getDataTypeImplementation().arrayOf(matches.build());
   }
 
   /**
@@ -197,20 +203,16 @@ public final class ArrayFns {
   @PluginFunction
   public static Container where(RuntimeContext context, Container container, Closure predicate) {
     DataTypeImplementation dti = context.getDataTypeImplementation();
+    Invoker invoker = predicate.invoker(context);
     return dti.containerOf(
         container.fields().stream()
             .filter(
                 f ->
                     Ternary.isTruthy(
-                        predicate
-                            .bindNextFreeParameter(
-                                dti.containerOf(
-                                    ImmutableMap.of(
-                                        "field",
-                                        dti.primitiveOf(f),
-                                        "value",
-                                        container.getField(f))))
-                            .execute(context)))
+                        invoker.invoke(
+                            dti.containerOf(
+                                ImmutableMap.of(
+                                    "field", dti.primitiveOf(f), "value", container.getField(f))))))
             .collect(toImmutableMap(Function.identity(), container::getField)));
   }
 
@@ -236,11 +238,9 @@ public final class ArrayFns {
    */
   @PluginFunction
   public static Array groupBy(RuntimeContext context, Array array, Closure keyExtractor) {
+    Invoker invoker = keyExtractor.invoker(context);
     Map<Data, List<Data>> groupByResult =
-        array.stream()
-            .collect(
-                Collectors.groupingBy(
-                    element -> keyExtractor.bindNextFreeParameter(element).execute(context)));
+        array.stream().collect(Collectors.groupingBy(invoker::invoke));
     return context
         .getDataTypeImplementation()
         .arrayOf(
@@ -295,13 +295,14 @@ public final class ArrayFns {
    */
   @PluginFunction
   public static Array uniqueBy(RuntimeContext ctx, Array array, Closure keySelector) {
+    Invoker invoker = keySelector.invoker(ctx);
     return ctx.getDataTypeImplementation()
         .arrayOf(
             new ArrayList<>(
                 array.stream()
                     .collect(
                         Collectors.toMap(
-                            e -> keySelector.bindNextFreeParameter(e).execute(ctx),
+                            invoker::invoke,
                             e -> e,
                             (e1, e2) -> e1,
                             LinkedHashMap<Data, Data>::new))
@@ -365,14 +366,12 @@ public final class ArrayFns {
    * Extracts {@link Primitive} key from given element.
    *
    * @param element {@link Data} object from which to extract key.
-   * @param keySelector {@link Closure} to use for extracting sortBy key.
-   * @param context {@link RuntimeContext} within which to run key selector.
+   * @param keySelector {@link Invoker} of the {@link Closure} to use for extracting sortBy key.
    * @return extracted Primitive key.
    * @throws UnsupportedOperationException if the keySelector provided returns non-Primitive types.
    */
-  private static Primitive selectKeyAsPrimitive(
-      Data element, Closure keySelector, RuntimeContext context) {
-    Data key = keySelector.bindNextFreeParameter(element).execute(context);
+  private static Primitive selectKeyAsPrimitive(Data element, Invoker keySelector) {
+    Data key = keySelector.invoke(element);
     if (!key.isPrimitive()) {
       throw new UnsupportedOperationException(
           String.format("Expected Primitive for sortBy key, but got %s instead.", key.getClass()));
@@ -387,7 +386,8 @@ public final class ArrayFns {
   }
 
   /**
-   * Sorts {@link Array} in sortDirection using key specified by the provided keySelector.
+   * Sorts {@link Array} in sortDirection using key specified by the provided keySelector. The key of
+   * each element is extracted once, and elements with equal keys keep their relative order.
    *
    * @param context {@link RuntimeContext} within which to run key selector.
    * @param array {@link Array} to sort.
@@ -397,15 +397,17 @@ public final class ArrayFns {
    */
   private static Array sortBy(
       RuntimeContext context, Array array, Closure keySelector, SortDirection sortDirection) {
-    Comparator<Primitive> comparator = getComparator(sortDirection);
+    if (array.size() <= 1) {
+      // Nothing to compare, so no keys to extract.
+      return context.getDataTypeImplementation().arrayOf(array.stream().collect(toImmutableList()));
+    }
+    Invoker invoker = keySelector.invoker(context);
+    List<Entry<Primitive, Data>> keyed = new ArrayList<>(array.size());
+    array.stream().forEach(elem -> keyed.add(Map.entry(selectKeyAsPrimitive(elem, invoker), elem)));
+    keyed.sort(Entry.comparingByKey(getComparator(sortDirection)));
     return context
         .getDataTypeImplementation()
-        .arrayOf(
-            array.stream()
-                .sorted(
-                    Comparator.comparing(
-                        elem -> selectKeyAsPrimitive(elem, keySelector, context), comparator))
-                .collect(toImmutableList()));
+        .arrayOf(keyed.stream().map(Entry::getValue).collect(toImmutableList()));
   }
 
   /**
@@ -457,11 +459,8 @@ public final class ArrayFns {
    */
   @PluginFunction
   public static Data reduce(RuntimeContext context, Array array, Data seed, Closure accumulator) {
-    return array.stream()
-        .reduce(
-            seed,
-            (acc, cur) ->
-                accumulator.bindNextFreeParameter(acc).bindNextFreeParameter(cur).execute(context));
+    Invoker invoker = accumulator.invoker(context);
+    return array.stream().reduce(seed, invoker::invoke);
   }
 
   /**
@@ -486,11 +485,8 @@ public final class ArrayFns {
    */
   @PluginFunction
   public static Data reduce(RuntimeContext context, Array array, Closure accumulator) {
-    return array.stream()
-        .reduce(
-            (acc, cur) ->
-                accumulator.bindNextFreeParameter(acc).bindNextFreeParameter(cur).execute(context))
-        .orElse(NullData.instance);
+    Invoker invoker = accumulator.invoker(context);
+    return array.stream().reduce(invoker::invoke).orElse(NullData.instance);
   }
 
   /**
@@ -555,6 +551,7 @@ public final class ArrayFns {
     //    tricky.
     List<Data> unjoinedRight = right.stream().collect(toCollection(ArrayList::new));
     List<Data> joined = new ArrayList<>(left.size() + right.size());
+    Invoker invoker = joinOp.invoker(context);
     left.stream()
         .forEach(
             l -> {
@@ -564,14 +561,7 @@ public final class ArrayFns {
                     if (matched.get() != null) {
                       return;
                     }
-                    matched.set(
-                        Ternary.isTruthy(
-                                joinOp
-                                    .bindNextFreeParameter(l)
-                                    .bindNextFreeParameter(r)
-                                    .execute(context))
-                            ? r
-                            : null);
+                    matched.set(Ternary.isTruthy(invoker.invoke(l, r)) ? r : null);
                   });
               Data join =
                   joined(
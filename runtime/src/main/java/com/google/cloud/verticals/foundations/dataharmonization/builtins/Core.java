@@ -28,6 +28,7 @@ import com.google.cloud.verticals.foundations.dataharmonization.data.DataTypeImp
 import com.google.cloud.verticals.foundations.dataharmonization.data.Dataset;
 import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
 import com.google.cloud.verticals.foundations.dataharmonization.data.Primitive;
+import com.google.cloud.verticals.foundations.dataharmonization.data.impl.DefaultDataTypeImplementation;
 import com.google.cloud.verticals.foundations.dataharmonization.data.path.Path;
 import com.google.cloud.verticals.foundations.dataharmonization.exceptions.WhistleRuntimeException;
 import com.google.cloud.verticals.foundations.dataharmonization.function.Closure;
@@ -153,7 +154,7 @@ public class Core {
     if (data.isNullOrEmpty()) {
       types.add("null");
     }
-    types.add(data.getClass().getSimpleName());
+    types.add(DefaultDataTypeImplementation.implementationName(data));
 
     return types.build();
   }
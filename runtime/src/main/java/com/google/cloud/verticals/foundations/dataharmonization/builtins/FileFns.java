@@ -20,7 +20,7 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 import com.google.cloud.verticals.foundations.dataharmonization.data.Array;
 import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
 import com.google.cloud.verticals.foundations.dataharmonization.data.Primitive;
-import com.google.cloud.verticals.foundations.dataharmonization.data.serialization.impl.JsonSerializerDeserializer;
+import com.google.cloud.verticals.foundations.dataharmonization.data.serialization.impl.JsonDataReader;
 import com.google.cloud.verticals.foundations.dataharmonization.exceptions.WhistleRuntimeException;
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.RuntimeContext;
 import com.google.cloud.verticals.foundations.dataharmonization.function.java.PluginFunction;
@@ -138,7 +138,7 @@ public final class FileFns {
   @PluginFunction
   public static Data loadJson(RuntimeContext context, String path) {
     byte[] data = load(context, path);
-    return JsonSerializerDeserializer.jsonToData(data);
+    return new JsonDataReader(context.getDataTypeImplementation()).deserialize(data);
   }
 
   /**
@@ -16,8 +16,6 @@
 
 package com.google.cloud.verticals.foundations.dataharmonization.builtins;
 
-import static com.google.common.collect.ImmutableList.toImmutableList;
-import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static java.util.Arrays.stream;
 import static java.util.stream.Collectors.joining;
 
@@ -27,13 +25,16 @@ import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
 import com.google.cloud.verticals.foundations.dataharmonization.data.Dataset;
 import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
 import com.google.cloud.verticals.foundations.dataharmonization.function.Closure;
+import com.google.cloud.verticals.foundations.dataharmonization.function.Closure.Invoker;
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.RuntimeContext;
 import com.google.cloud.verticals.foundations.dataharmonization.function.java.PluginFunction;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
-import java.util.stream.IntStream;
 
 /** Builtin function for iteration. */
 public final class Iteration {
@@ -108,13 +109,25 @@ public final class Iteration {
       return NullData.instance;
     }
 
-    return context
-        .getDataTypeImplementation()
-        .arrayOf(
-            IntStream.range(0, iterationSize)
-                .mapToObj(i -> iterate(context, closure, iterables, i))
-                .filter(d -> !d.isNullOrEmpty())
-                .collect(toImmutableList()));
+    Invoker invoker = closure.invoker(context);
+    List<Iterator<Data>> cursors = new ArrayList<>(iterables.length);
+    for (Array iterable : iterables) {
+      cursors.add(iterable.elements());
+    }
+    Data[] freeArgs = new Data[iterables.length];
+    ImmutableList.Builder<Data> results = ImmutableList.builder();
+    for (int i = 0; i < iterationSize; i++) {
+      for (int j = 0; j < iterables.length; j++) {
+        // Empty arrays are iterated as nulls.
+        Iterator<Data> cursor = cursors.get(j);
+        freeArgs[j] = cursor.hasNext() ? cursor.next() : NullData.instance;
+      }
+      Data result = invoker.invoke(freeArgs);
+      if (!result.isNullOrEmpty()) {
+        results.add(result);
+      }
+    }
+    return context.getDataTypeImplementation().arrayOf(results.build());
   }
 
   /**
@@ -190,13 +203,19 @@ public final class Iteration {
       keySet.addAll(container.fields());
     }
 
-    return context
-        .getDataTypeImplementation()
-        .containerOf(
-            keySet.stream()
-                .map(key -> iterate(context, closure, key, iterables))
-                .filter(k -> !k.getValue().isNullOrEmpty())
-                .collect(toImmutableMap(Entry::getKey, Entry::getValue)));
+    Invoker invoker = closure.invoker(context);
+    Data[] freeArgs = new Data[iterables.length];
+    ImmutableMap.Builder<String, Data> results = ImmutableMap.builder();
+    for (String key : keySet) {
+      for (int j = 0; j < iterables.length; j++) {
+        freeArgs[j] = iterables[j].getField(key);
+      }
+      Data result = invoker.invoke(freeArgs);
+      if (!result.isNullOrEmpty()) {
+        results.put(key, result);
+      }
+    }
+    return context.getDataTypeImplementation().containerOf(results.buildOrThrow());
   }
 
   /**
@@ -219,24 +238,6 @@ public final class Iteration {
     return dataset.map(context, closure, false);
   }
 
-  private static Data iterate(
-      RuntimeContext context, Closure closure, Array[] iterables, int index) {
-    for (Array iterable : iterables) {
-      closure = closure.bindNextFreeParameter(iterable.getElement(index));
-    }
-
-    return closure.execute(context);
-  }
-
-  private static Entry<String, Data> iterate(
-      RuntimeContext context, Closure closure, String key, Container... iterables) {
-    for (Container container : iterables) {
-      Data data = container.getField(key);
-      closure = closure.bindNextFreeParameter(data);
-    }
-    return Map.entry(key, closure.execute(context));
-  }
-
   private static int getIterationSize(int currentSize, int nextArraySize) {
     if (currentSize == 0) {
       return nextArraySize;
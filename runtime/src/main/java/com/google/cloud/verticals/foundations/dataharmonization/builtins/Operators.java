@@ -56,20 +56,26 @@ public final class Operators {
    * @throws IllegalArgumentException if the arguments are only {@code number} and {@code boolean}
    * or only {@code boolean}
    */
-  @PluginFunction
+  @PluginFunction(pure = true)
   public static Primitive sum(RuntimeContext context, Primitive first, Primitive... rest) {
-    if (first.string() != null || stream(rest).anyMatch(p -> p.string() != null)) {
-      return context
-          .getDataTypeImplementation()
-          .primitiveOf(stream(rest).map(Object::toString).reduce(first.toString(), String::concat));
-    } else if (first.bool() == null
-        && stream(rest).filter(r -> !r.isNullOrEmpty()).allMatch(p -> p.num() != null)) {
-      return context
-          .getDataTypeImplementation()
-          .primitiveOf(
-              stream(rest)
-                  .map(p -> requireNum(p, "operand"))
-                  .reduce(requireNum(first, "operand"), Double::sum));
+    boolean anyString = first.string() != null;
+    boolean allNumeric = first.bool() == null;
+    for (Primitive p : rest) {
+      anyString |= p.string() != null;
+      allNumeric &= p.isNullOrEmpty() || p.isNumber();
+    }
+    if (anyString) {
+      String result = first.toString();
+      for (Primitive p : rest) {
+        result = result.concat(p.toString());
+      }
+      return context.getDataTypeImplementation().primitiveOf(result);
+    } else if (allNumeric) {
+      double result = requireNum(first, "operand");
+      for (Primitive p : rest) {
+        result += requireNum(p, "operand");
+      }
+      return context.getDataTypeImplementation().primitiveOf(result);
     }
     throw new IllegalArgumentException(
         String.format(
@@ -97,14 +103,13 @@ public final class Operators {
    * @return {@link Primitive} {@code number}
    * @throws IllegalArgumentException if one or more arguments isn't a {@code number}
    */
-  @PluginFunction
+  @PluginFunction(pure = true)
   public static Primitive sub(RuntimeContext context, Primitive first, Primitive... rest) {
-    return context
-        .getDataTypeImplementation()
-        .primitiveOf(
-            stream(rest)
-                .map(d -> requireNum(d, "operand"))
-                .reduce(requireNum(first, "operand"), (a, b) -> a - b));
+    double result = requireNum(first, "operand");
+    for (Primitive p : rest) {
+      result -= requireNum(p, "operand");
+    }
+    return context.getDataTypeImplementation().primitiveOf(result);
   }
 
   /**
@@ -133,7 +138,7 @@ public final class Operators {
    * @param rest the remaining values to compare
    * @return {@link Primitive} {@code boolean}
    */
-  @PluginFunction
+  @PluginFunction(pure = true)
   public static Primitive eq(RuntimeContext context, Data first, Data second, Data... rest) {
     boolean isEq = first.equals(second);
     for (int i = 0; i < rest.length && isEq; i++) {
@@ -163,7 +168,7 @@ public final class Operators {
    * @param rest the remaining values to compare
    * @return {@link Primitive} {@code boolean}
    */
-  @PluginFunction
+  @PluginFunction(pure = true)
   public static Primitive neq(RuntimeContext context, Data first, Data second, Data... rest) {
     return context
         .getDataTypeImplementation()
@@ -187,14 +192,13 @@ public final class Operators {
    * @return {@link Primitive} {@code number}
    * @throws IllegalArgumentException if one or more arguments isn't a {@code number}
    */
-  @PluginFunction
+  @PluginFunction(pure = true)
   public static Primitive mul(RuntimeContext context, Primitive first, Primitive... rest) {
-    return context
-        .getDataTypeImplementation()
-        .primitiveOf(
-            stream(rest)
-                .map(d -> requireNum(d, "operand"))
-                .reduce(requireNum(first, "operand"), (a, b) -> a * b));
+    double result = requireNum(first, "operand");
+    for (Primitive p : rest) {
+      result *= requireNum(p, "operand");
+    }
+    return context.getDataTypeImplementation().primitiveOf(result);
   }
 
   /**
@@ -217,7 +221,7 @@ public final class Operators {
    * @return {@link Primitive} {@code number}
    * @throws IllegalArgumentException if one or more arguments isn't a {@code number}
    */
-  @PluginFunction
+  @PluginFunction(pure = true)
   public static Primitive div(RuntimeContext context, Primitive dividend, Primitive divisor) {
     return context
         .getDataTypeImplementation()
@@ -244,7 +248,7 @@ public final class Operators {
    * @return {@link Primitive} {@code boolean}
    * @throws IllegalArgumentException if one or more values isn't a {@code number}
    */
-  @PluginFunction
+  @PluginFunction(pure = true)
   public static Primitive gt(RuntimeContext context, Primitive left, Primitive right) {
     return context
         .getDataTypeImplementation()
@@ -271,7 +275,7 @@ public final class Operators {
    * @return {@link Primitive} {@code boolean}
    * @throws IllegalArgumentException if one or more values isn't a {@code number}
    */
-  @PluginFunction
+  @PluginFunction(pure = true)
   public static Primitive gtEq(RuntimeContext context, Primitive left, Primitive right) {
     return context
         .getDataTypeImplementation()
@@ -298,7 +302,7 @@ public final class Operators {
    * @return {@link Primitive} {@code boolean}
    * @throws IllegalArgumentException if one or more values isn't a {@code number}
    */
-  @PluginFunction
+  @PluginFunction(pure = true)
   public static Primitive lt(RuntimeContext context, Primitive left, Primitive right) {
     return context
         .getDataTypeImplementation()
@@ -325,7 +329,7 @@ public final class Operators {
    * @return {@link Primitive} {@code boolean}
    * @throws IllegalArgumentException if one or more values isn't a {@code number}
    */
-  @PluginFunction
+  @PluginFunction(pure = true)
   public static Primitive ltEq(RuntimeContext context, Primitive left, Primitive right) {
     return context
         .getDataTypeImplementation()
@@ -356,7 +360,7 @@ public final class Operators {
    * @param data a {@code Data} data type
    * @return {@link Primitive} {@code boolean}
    */
-  @PluginFunction
+  @PluginFunction(pure = true)
   public static Primitive isNotNil(RuntimeContext context, Data data) {
     return context.getDataTypeImplementation().primitiveOf(!data.isNullOrEmpty());
   }
@@ -382,7 +386,7 @@ public final class Operators {
    * @param data a {@code Data} data type
    * @return {@link Primitive} {@code boolean}
    */
-  @PluginFunction
+  @PluginFunction(pure = true)
   public static Primitive isNil(RuntimeContext context, Data data) {
     return context.getDataTypeImplementation().primitiveOf(data.isNullOrEmpty());
   }
@@ -408,7 +412,7 @@ public final class Operators {
    * @param data a {@code Data} data type
    * @return {@link Primitive} {@code boolean}
    */
-  @PluginFunction
+  @PluginFunction(pure = true)
   public static Primitive not(RuntimeContext context, Data data) {
     return context.getDataTypeImplementation().primitiveOf(!Ternary.isTruthy(data));
   }
@@ -497,7 +501,7 @@ public final class Operators {
    * @param data a {@code Data} data type
    * @throws IllegalArgumentException if the argument isn't a {@code number}
    */
-  @PluginFunction
+  @PluginFunction(pure = true)
   public static Primitive floor(RuntimeContext context, Data data) {
     return context
         .getDataTypeImplementation()
@@ -105,19 +105,19 @@ public final class StringFns {
    * @param format A format string, using {@link String#format(String, Object...)} conventions.
    * @param args Arguments to fill into the placeholders.
    */
-  @PluginFunction
+  @PluginFunction(pure = true)
   public static Primitive strFmt(RuntimeContext ctx, String format, Data... args) {
     return ctx.getDataTypeImplementation().primitiveOf(String.format(format, (Object[]) args));
   }
 
   /** Converts all letters in the provided string to upper case. */
-  @PluginFunction
+  @PluginFunction(pure = true)
   public static Primitive toUpper(RuntimeContext ctx, String str) {
     return ctx.getDataTypeImplementation().primitiveOf(Ascii.toUpperCase(str));
   }
 
   /** Converts all letters in the provided string to lower case. */
-  @PluginFunction
+  @PluginFunction(pure = true)
   public static Primitive toLower(RuntimeContext ctx, String str) {
     return ctx.getDataTypeImplementation().primitiveOf(Ascii.toLowerCase(str));
   }
@@ -28,6 +28,7 @@ import com.google.cloud.verticals.foundations.dataharmonization.function.context
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.WrapperContext;
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.impl.DefaultStackFrame;
 import com.google.cloud.verticals.foundations.dataharmonization.function.java.PluginFunction;
+import com.google.cloud.verticals.foundations.dataharmonization.function.whistle.link.LinkedValue;
 import com.google.cloud.verticals.foundations.dataharmonization.init.Engine;
 import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.ValueSource;
 import java.util.function.BiFunction;
@@ -196,6 +197,11 @@ public final class Errors {
       return tryDo(() -> super.evaluate(valueSource));
     }
 
+    @Override
+    public Data evaluateLinked(LinkedValue value) {
+      return tryDo(() -> super.evaluateLinked(value));
+    }
+
     private Data tryDo(Supplier<Data> op) {
       try {
         return op.get();
@@ -16,6 +16,11 @@
 
 package com.google.cloud.verticals.foundations.dataharmonization.data;
 
+import com.google.cloud.verticals.foundations.dataharmonization.data.path.Path;
+import com.google.common.collect.UnmodifiableIterator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
@@ -88,4 +93,49 @@ public interface Array extends Data, TransparentCollection<Array> {
   default Stream<Data> stream() {
     return IntStream.range(0, size()).mapToObj(this::getElement);
   }
+
+  /**
+   * Returns a cursor over the elements in this array, in order. Builtins that visit every element
+   * read them through this rather than {@link #getElement(int)}, so that implementations can walk
+   * their storage directly, and views can be read without being materialized.
+   */
+  default Iterator<Data> elements() {
+    return new UnmodifiableIterator<Data>() {
+      private int index;
+
+      @Override
+      public boolean hasNext() {
+        return index < size();
+      }
+
+      @Override
+      public Data next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return getElement(index++);
+      }
+    };
+  }
+
+  /**
+   * Returns true iff this array supports {@link #newArray(List)}. Wildcards in a {@link Path}
+   * collect their matches through such arrays in a single pass, rather than projecting with {@link
+   * #getThrough}.
+   */
+  default boolean isCollectable() {
+    return false;
+  }
+
+  /**
+   * Returns a new, writable array of the same kind as those {@link #getThrough} and {@link
+   * #flatten} return, holding the given elements. The elements are not copied.
+   *
+   * @throws UnsupportedOperationException if this array is not {@link #isCollectable()
+   *     collectable}.
+   */
+  default Array newArray(List<Data> elements) {
+    throw new UnsupportedOperationException(
+        String.format("%s does not support creating new arrays", getClass().getSimpleName()));
+  }
 }
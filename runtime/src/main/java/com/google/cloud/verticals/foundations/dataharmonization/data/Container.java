@@ -16,6 +16,8 @@
 
 package com.google.cloud.verticals.foundations.dataharmonization.data;
 
+import com.google.cloud.verticals.foundations.dataharmonization.data.merge.MergeMode;
+import com.google.cloud.verticals.foundations.dataharmonization.data.path.Path;
 import com.google.common.collect.Sets;
 import java.util.Set;
 import javax.annotation.Nonnull;
@@ -53,6 +55,35 @@ public interface Container extends Data {
   @Nonnull
   Set<String> fields();
 
+  /**
+   * Merges all fields of the given container into this one. Fields that this container already has
+   * are merged with the strategy the given mode selects for their current value, other fields are
+   * set to the inbound value as is. Returns the modified container. This may or may not operate
+   * in-place (implementation dependent).
+   *
+   * <p>The inbound fields are charged to the given {@link DataTypeImplementation} as writes (see
+   * {@link DataTypeImplementation#beforeWrite}) before any of them is merged.
+   *
+   * @param inbound the container whose fields to merge into this one.
+   * @param mode selects the strategy used to merge fields present in both containers.
+   * @param dti the data type implementation to create nested values with.
+   */
+  default Container mergeFrom(Container inbound, MergeMode mode, DataTypeImplementation dti) {
+    Set<String> inboundFields = inbound.fields();
+    Set<String> currentFields = fields();
+    dti.beforeWrite(inboundFields.size());
+    Container result = this;
+    for (String field : inboundFields) {
+      Data value = inbound.getField(field);
+      if (currentFields.contains(field)) {
+        Data existing = result.getField(field);
+        value = mode.getStrategy(existing).merge(dti, existing, value, Path.empty());
+      }
+      result = result.setField(field, value);
+    }
+    return result;
+  }
+
   @Override
   default boolean isContainer() {
     return true;
@@ -32,6 +32,14 @@ public interface DataTypeImplementation extends Serializable {
   /** Returns an empty Container implementation. */
   Container emptyContainer();
 
+  /**
+   * Returns an empty Container implementation with room for the given number of fields, for callers
+   * that know how many fields they are about to set. Defaults to {@link #emptyContainer()}.
+   */
+  default Container emptyContainer(int expectedFields) {
+    return emptyContainer();
+  }
+
   /** Returns a Container implementation filled with the given items. */
   Container containerOf(Map<String, ? extends Data> items);
 
@@ -61,4 +69,38 @@ public interface DataTypeImplementation extends Serializable {
 
   /** Returns a Primitive representation of the given boolean. */
   Primitive primitiveOf(Boolean bool);
+
+  /** Returns a Primitive representation of the given unboxed number. */
+  default Primitive primitiveOf(double num) {
+    return primitiveOf(Double.valueOf(num));
+  }
+
+  /** Returns a Primitive representation of the given unboxed boolean. */
+  default Primitive primitiveOf(boolean bool) {
+    return primitiveOf(Boolean.valueOf(bool));
+  }
+
+  /**
+   * Called before the given number of fields or elements are written into existing containers or
+   * arrays, by {@code Path.set} and the merge strategies, so that implementations can account for
+   * the memory they take. Does nothing by default.
+   */
+  default void beforeWrite(int entries) {}
+
+  /**
+   * Returns true iff the given data, created by this implementation, is a shared instance that is
+   * handed out for every equal value (such as a cached small number), and so takes no memory of its
+   * own. Returns false by default.
+   */
+  default boolean isShared(Data data) {
+    return false;
+  }
+
+  /**
+   * Returns the implementation that actually creates the data, for implementations that wrap
+   * another one. Data created by either is interchangeable. Returns this implementation by default.
+   */
+  default DataTypeImplementation unwrap() {
+    return this;
+  }
 }
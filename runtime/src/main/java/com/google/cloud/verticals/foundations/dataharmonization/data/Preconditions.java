@@ -58,6 +58,9 @@ public final class Preconditions {
    * @param name the name of the parameter being verified, used in the error.
    */
   public static double requireNum(Data data, String name) {
+    if (data != null && data.isPrimitive() && data.asPrimitive().isNumber()) {
+      return data.asPrimitive().numValue();
+    }
     if (data == null || data.isNullOrEmpty()) {
       return 0;
     }
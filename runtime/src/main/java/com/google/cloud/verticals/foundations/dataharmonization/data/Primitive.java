@@ -31,6 +31,19 @@ public interface Primitive extends Data {
   /** Returns the boolean value of this primitive or null if it is not a boolean. */
   Boolean bool();
 
+  /**
+   * Returns true iff this primitive is numeric, i.e. {@link #num()} is not null. Implementations
+   * that hold unboxed numbers override this and {@link #numValue()} so callers can avoid boxing.
+   */
+  default boolean isNumber() {
+    return num() != null;
+  }
+
+  /** Returns the numeric value of this primitive, which must be {@link #isNumber() numeric}. */
+  default double numValue() {
+    return num();
+  }
+
   /** Returns the rounded numeric value of this primitive or null if it is not numeric. */
   default Long rounded() {
     return num() != null ? round(num()) : null;
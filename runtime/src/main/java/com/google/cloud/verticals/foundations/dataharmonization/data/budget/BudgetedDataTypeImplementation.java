@@ -0,0 +1,136 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.verticals.foundations.dataharmonization.data.budget;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Array;
+import com.google.cloud.verticals.foundations.dataharmonization.data.Container;
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.DataTypeImplementation;
+import com.google.cloud.verticals.foundations.dataharmonization.data.Primitive;
+import com.google.cloud.verticals.foundations.dataharmonization.data.impl.DefaultDataTypeImplementation;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * A {@link DataTypeImplementation} that charges a {@link MemoryBudget} for the data it creates (and
+ * for the entries written into it, see {@link #beforeWrite}), and otherwise delegates to another
+ * implementation. Charges are estimated the same way as {@link DataSize#estimate}, except that
+ * instances the delegate shares between values (see {@link DataTypeImplementation#isShared}) are
+ * free.
+ *
+ * <p>Only data created through the runtime context's implementation is charged. Code that creates
+ * data through a fixed implementation, such as {@link DefaultDataTypeImplementation#instance},
+ * bypasses the budget.
+ */
+public final class BudgetedDataTypeImplementation implements DataTypeImplementation {
+  private final DataTypeImplementation delegate;
+  private final MemoryBudget budget;
+
+  public BudgetedDataTypeImplementation(DataTypeImplementation delegate, MemoryBudget budget) {
+    this.delegate = delegate;
+    this.budget = budget;
+  }
+
+  /** Returns the implementation that creates the data. */
+  public DataTypeImplementation getDelegate() {
+    return delegate;
+  }
+
+  /** Returns the budget charged for the data. */
+  public MemoryBudget getBudget() {
+    return budget;
+  }
+
+  @Override
+  public Array emptyArray() {
+    budget.charge(DataSize.ARRAY);
+    return delegate.emptyArray();
+  }
+
+  @Override
+  public Array arrayOf(Collection<? extends Data> items) {
+    budget.charge(DataSize.ARRAY + DataSize.ENTRY * items.size());
+    return delegate.arrayOf(items);
+  }
+
+  @Override
+  public Container emptyContainer() {
+    budget.charge(DataSize.CONTAINER);
+    return delegate.emptyContainer();
+  }
+
+  @Override
+  public Container emptyContainer(int expectedFields) {
+    budget.charge(DataSize.CONTAINER);
+    return delegate.emptyContainer(expectedFields);
+  }
+
+  @Override
+  public Container containerOf(Map<String, ? extends Data> items) {
+    budget.charge(DataSize.CONTAINER + DataSize.ENTRY * items.size());
+    return delegate.containerOf(items);
+  }
+
+  @Override
+  public Primitive primitiveOf(Double num) {
+    return charge(delegate.primitiveOf(num), DataSize.PRIMITIVE);
+  }
+
+  @Override
+  public Primitive primitiveOf(String str) {
+    Primitive primitive = delegate.primitiveOf(str);
+    return str != null ? charge(primitive, DataSize.ofString(str)) : primitive;
+  }
+
+  @Override
+  public Primitive primitiveOf(Boolean bool) {
+    // Booleans are shared instances, so they take no memory.
+    return delegate.primitiveOf(bool);
+  }
+
+  @Override
+  public Primitive primitiveOf(double num) {
+    return charge(delegate.primitiveOf(num), DataSize.PRIMITIVE);
+  }
+
+  @Override
+  public Primitive primitiveOf(boolean bool) {
+    return delegate.primitiveOf(bool);
+  }
+
+  @Override
+  public void beforeWrite(int entries) {
+    budget.charge(DataSize.ENTRY * entries);
+    delegate.beforeWrite(entries);
+  }
+
+  @Override
+  public boolean isShared(Data data) {
+    return delegate.isShared(data);
+  }
+
+  @Override
+  public DataTypeImplementation unwrap() {
+    return delegate.unwrap();
+  }
+
+  private Primitive charge(Primitive primitive, long bytes) {
+    if (!delegate.isShared(primitive)) {
+      budget.charge(bytes);
+    }
+    return primitive;
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.verticals.foundations.dataharmonization.data.budget;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Array;
+import com.google.cloud.verticals.foundations.dataharmonization.data.Container;
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
+import com.google.cloud.verticals.foundations.dataharmonization.data.impl.MappedArray;
+import com.google.cloud.verticals.foundations.dataharmonization.data.impl.MappedContainer;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Estimates the memory retained by {@link Data} trees, in bytes.
+ *
+ * <p>Estimates assume a 64-bit JVM with compressed references and roughly follow the layout of the
+ * default data implementations. They are meant to be compared against each other and against a
+ * {@link MemoryBudget}, not to be exact. Values reachable through more than one path are only
+ * counted once, and memory-mapped input is not counted since it lives outside the heap.
+ */
+public final class DataSize {
+  /** The size of a container without fields. */
+  public static final long CONTAINER = 64;
+
+  /** The size of an array without elements. */
+  public static final long ARRAY = 56;
+
+  /** The size of each field of a container or element of an array, excluding its value. */
+  public static final long ENTRY = 40;
+
+  /** The size of a number, or of any other value not accounted for otherwise. */
+  public static final long PRIMITIVE = 24;
+
+  /** The size of a string primitive, excluding its characters. */
+  public static final long STRING = 56;
+
+  private DataSize() {}
+
+  /** Returns the size of a string primitive with the given string. */
+  public static long ofString(String str) {
+    return STRING + str.length();
+  }
+
+  /** Returns the estimated size of the given data and everything reachable from it. */
+  public static long estimate(Data data) {
+    Set<Data> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+    // Iterate rather than recurse, as input trees can be deeper than the Java stack.
+    Deque<Data> pending = new ArrayDeque<>();
+    pending.push(data);
+    long size = 0;
+    while (!pending.isEmpty()) {
+      Data current = pending.pop();
+      if (current == null
+          || current == NullData.instance
+          || current instanceof MappedContainer
+          || current instanceof MappedArray) {
+        continue;
+      }
+      if (current.isPrimitive()) {
+        String str = current.asPrimitive().string();
+        // Booleans are shared instances.
+        size += str != null ? ofString(str) : current.asPrimitive().bool() != null ? 0 : PRIMITIVE;
+      } else if (current.isContainer()) {
+        if (!visited.add(current)) {
+          continue;
+        }
+        Container container = current.asContainer();
+        size += CONTAINER;
+        for (String field : container.fields()) {
+          size += ENTRY + field.length();
+          pending.push(container.getField(field));
+        }
+      } else if (current.isArray()) {
+        if (!visited.add(current)) {
+          continue;
+        }
+        Array array = current.asArray();
+        size += ARRAY + ENTRY * array.size();
+        for (int i = 0; i < array.size(); i++) {
+          pending.push(array.getElement(i));
+        }
+      } else {
+        size += PRIMITIVE;
+      }
+    }
+    return size;
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.verticals.foundations.dataharmonization.data.budget;
+
+import com.google.cloud.verticals.foundations.dataharmonization.exceptions.MemoryBudgetExceededException;
+import java.io.Serializable;
+
+/**
+ * Tracks the approximate memory used by the data of one transform at a time against a maximum.
+ *
+ * <p>The budget cannot tell when data becomes garbage, so nothing is released during a transform:
+ * usage only grows, and the usage at the end of a transform is also its peak. Once the maximum has
+ * been exceeded, every further charge fails as well, so that error handlers in Whistle code cannot
+ * keep allocating.
+ *
+ * <p>Budgets are not thread-safe, and are meant to be used by a single engine.
+ */
+public final class MemoryBudget implements Serializable {
+  private final long maxBytes;
+  private long usedBytes;
+  private boolean exceeded;
+
+  /**
+   * @param maxBytes the maximum number of bytes each transform may use.
+   */
+  public MemoryBudget(long maxBytes) {
+    if (maxBytes <= 0) {
+      throw new IllegalArgumentException("Memory budget must be positive, got " + maxBytes);
+    }
+    this.maxBytes = maxBytes;
+  }
+
+  /** Returns the maximum number of bytes each transform may use. */
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+
+  /** Returns the number of bytes used by the current (or last) transform so far. */
+  public long getUsedBytes() {
+    return usedBytes;
+  }
+
+  /**
+   * Starts accounting for a new transform whose input takes the given number of bytes (see {@link
+   * DataSize#estimate}). The input counts towards the usage, but only allocations fail the budget.
+   */
+  public void reset(long inputBytes) {
+    usedBytes = inputBytes;
+    exceeded = false;
+  }
+
+  /**
+   * Adds the given number of bytes to the usage.
+   *
+   * @throws MemoryBudgetExceededException if the usage is now above the maximum, or already was.
+   */
+  public void charge(long bytes) {
+    usedBytes += bytes;
+    if (exceeded || usedBytes > maxBytes) {
+      exceeded = true;
+      throw new MemoryBudgetExceededException(usedBytes, maxBytes);
+    }
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.verticals.foundations.dataharmonization.data.budget;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.DataTypeImplementation;
+import com.google.cloud.verticals.foundations.dataharmonization.function.context.RuntimeContext;
+import com.google.cloud.verticals.foundations.dataharmonization.function.context.WrapperContext;
+
+/**
+ * A {@link WrapperContext} that creates all data with a {@link BudgetedDataTypeImplementation}, so
+ * that the data created by the functions it runs is charged to a {@link MemoryBudget}.
+ */
+public final class MemoryBudgetContext extends WrapperContext<MemoryBudgetContext> {
+  private final BudgetedDataTypeImplementation dataTypeImplementation;
+
+  /**
+   * @param innerContext the context to wrap.
+   * @param budget the budget to charge, for data created with the inner context's {@link
+   *     DataTypeImplementation}.
+   */
+  public MemoryBudgetContext(RuntimeContext innerContext, MemoryBudget budget) {
+    this(
+        innerContext,
+        new BudgetedDataTypeImplementation(innerContext.getDataTypeImplementation(), budget));
+  }
+
+  private MemoryBudgetContext(
+      RuntimeContext innerContext, BudgetedDataTypeImplementation dataTypeImplementation) {
+    super(innerContext, MemoryBudgetContext.class);
+    this.dataTypeImplementation = dataTypeImplementation;
+  }
+
+  @Override
+  protected MemoryBudgetContext rewrap(RuntimeContext innerContext) {
+    return new MemoryBudgetContext(innerContext, dataTypeImplementation);
+  }
+
+  @Override
+  public DataTypeImplementation getDataTypeImplementation() {
+    return dataTypeImplementation;
+  }
+
+  /** Returns the budget charged for the data created in this context. */
+  public MemoryBudget getBudget() {
+    return dataTypeImplementation.getBudget();
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.verticals.foundations.dataharmonization.data.impl;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.Primitive;
+
+/**
+ * BooleanPrimitive is a {@link Primitive} holding a boolean. Apart from deep copies, there are only
+ * two instances, {@link #TRUE} and {@link #FALSE}, which equal (and have the same hash code as) any
+ * other primitive holding the same boolean.
+ */
+public final class BooleanPrimitive implements Primitive {
+  public static final BooleanPrimitive TRUE = new BooleanPrimitive(true);
+  public static final BooleanPrimitive FALSE = new BooleanPrimitive(false);
+
+  private final boolean bool;
+
+  private BooleanPrimitive(boolean bool) {
+    this.bool = bool;
+  }
+
+  /** Returns the primitive of the given boolean. */
+  public static BooleanPrimitive of(boolean bool) {
+    return bool ? TRUE : FALSE;
+  }
+
+  @Override
+  public Double num() {
+    return null;
+  }
+
+  @Override
+  public String string() {
+    return null;
+  }
+
+  @Override
+  public Boolean bool() {
+    return bool;
+  }
+
+  @Override
+  public boolean isNullOrEmpty() {
+    return false;
+  }
+
+  @Override
+  public Data deepCopy() {
+    return new BooleanPrimitive(bool);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (o instanceof BooleanPrimitive) {
+      return bool == ((BooleanPrimitive) o).bool;
+    }
+    if (!(o instanceof Data) || !((Data) o).isPrimitive()) {
+      return false;
+    }
+    Primitive other = ((Data) o).asPrimitive();
+    return Boolean.valueOf(bool).equals(other.bool())
+        && other.num() == null
+        && other.string() == null;
+  }
+
+  /** Returns the same hash code as {@link DefaultPrimitive}, i.e. of {@code [bool, null, null]}. */
+  @Override
+  public int hashCode() {
+    return 31 * 31 * (31 + Boolean.hashCode(bool));
+  }
+
+  @Override
+  public String toString() {
+    return String.valueOf(bool);
+  }
+
+  private Object readResolve() {
+    return of(bool);
+  }
+}
@@ -0,0 +1,406 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.verticals.foundations.dataharmonization.data.impl;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Container;
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * CompactContainer is a {@link Container} optimized for the small objects that make up most mapping
+ * outputs.
+ *
+ * <p>Up to {@link #MAX_COMPACT_FIELDS} fields are stored in an array, indexed by a {@link Shape}
+ * that holds the field names. Shapes are shared by all containers that had the same fields added in
+ * the same order, so each such container only holds its values. Containers that grow past {@link
+ * #MAX_COMPACT_FIELDS} fields switch to a {@link HashMap}, like {@link DefaultContainer}.
+ *
+ * <p>Shapes live as long as the JVM, so their number is capped, both per shape and in total. Once
+ * the cap is reached, containers that need a new shape switch to a {@link HashMap} instead. Common
+ * shapes are created early and keep being shared, while uncommon ones (e.g. from field names that
+ * come from the data) do not accumulate.
+ *
+ * <p>CompactContainers are equal to (and have the same hash code as) other containers with the same
+ * non-empty fields.
+ */
+public class CompactContainer implements Container {
+  /** The maximum number of fields stored compactly. */
+  public static final int MAX_COMPACT_FIELDS = 8;
+
+  private static final Data[] NO_VALUES = new Data[0];
+
+  // Exactly one of shape (with values) and map is set.
+  private transient Shape shape;
+  private transient Data[] values;
+  private transient HashMap<String, Data> map;
+
+  // The cached hash code of this container, see HashCache.
+  transient volatile long hashStamp;
+
+  public CompactContainer() {
+    this.shape = Shape.EMPTY;
+    this.values = NO_VALUES;
+  }
+
+  /**
+   * Create a Container by copying items from some existing map. The items are not cloned; the copy
+   * is shallow.
+   */
+  public CompactContainer(Map<String, ? extends Data> container) {
+    this();
+    putAll(container);
+  }
+
+  private CompactContainer(Shape shape, Data[] values) {
+    this.shape = shape;
+    this.values = values;
+  }
+
+  private void putAll(Map<String, ? extends Data> container) {
+    if (container.size() > MAX_COMPACT_FIELDS) {
+      map = new HashMap<>(container);
+      shape = null;
+      values = null;
+      return;
+    }
+    for (Map.Entry<String, ? extends Data> entry : container.entrySet()) {
+      setField(entry.getKey(), entry.getValue());
+    }
+  }
+
+  @Nonnull
+  @Override
+  public Data getField(String field) {
+    if (map != null) {
+      return map.getOrDefault(field, NullData.instance);
+    }
+    int index = shape.indexOf(field);
+    return index < 0 ? NullData.instance : values[index];
+  }
+
+  @CanIgnoreReturnValue
+  @Override
+  public CompactContainer setField(@Nonnull String field, Data value) {
+    hashStamp = HashCache.invalidate(hashStamp);
+    if (map != null) {
+      map.put(field, value);
+      return this;
+    }
+    int index = shape.indexOf(field);
+    if (index >= 0) {
+      values[index] = value;
+      return this;
+    }
+    int size = shape.size();
+    Shape next = size == MAX_COMPACT_FIELDS ? null : shape.with(field);
+    if (next == null) {
+      switchToMap();
+      map.put(field, value);
+      return this;
+    }
+    if (size == values.length) {
+      values = Arrays.copyOf(values, size == 0 ? 2 : Math.min(size * 2, MAX_COMPACT_FIELDS));
+    }
+    values[size] = value;
+    shape = next;
+    return this;
+  }
+
+  @CanIgnoreReturnValue
+  @Override
+  public Container removeField(@Nonnull String field) {
+    hashStamp = HashCache.invalidate(hashStamp);
+    if (map != null) {
+      map.remove(field);
+      return this;
+    }
+    int index = shape.indexOf(field);
+    if (index < 0) {
+      return this;
+    }
+    // Removal is rare, so rebuild the shape from the remaining fields instead of keeping removal
+    // transitions.
+    Shape remaining = Shape.EMPTY;
+    Data[] remainingValues = new Data[values.length];
+    for (int i = 0, j = 0; i < shape.size(); i++) {
+      if (i != index) {
+        remaining = remaining.with(shape.keys[i]);
+        if (remaining == null) {
+          switchToMap();
+          map.remove(field);
+          return this;
+        }
+        remainingValues[j++] = values[i];
+      }
+    }
+    shape = remaining;
+    values = remainingValues;
+    return this;
+  }
+
+  private void switchToMap() {
+    map = new HashMap<>(MAX_COMPACT_FIELDS * 4);
+    for (int i = 0; i < shape.size(); i++) {
+      map.put(shape.keys[i], values[i]);
+    }
+    shape = null;
+    values = null;
+  }
+
+  @Nonnull
+  @Override
+  public Set<String> fields() {
+    return map != null ? ImmutableSortedSet.copyOf(map.keySet()) : shape.sortedKeys();
+  }
+
+  @Override
+  public boolean isNullOrEmpty() {
+    if (map != null) {
+      return map.values().stream().allMatch(v -> v == null || v.isNullOrEmpty());
+    }
+    for (int i = 0; i < shape.size(); i++) {
+      if (values[i] != null && !values[i].isNullOrEmpty()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public Data deepCopy() {
+    if (map != null) {
+      Map<String, Data> copy = new HashMap<>(map.size() * 2);
+      map.forEach((k, v) -> copy.put(k, v.deepCopy()));
+      return new CompactContainer(copy);
+    }
+    Data[] copy = new Data[values.length];
+    for (int i = 0; i < shape.size(); i++) {
+      copy[i] = values[i].deepCopy();
+    }
+    return new CompactContainer(shape, copy);
+  }
+
+  @Override
+  public boolean isWritable() {
+    return true;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (!(o instanceof Data) || !((Data) o).isContainer()) {
+      return false;
+    }
+    final Container other = ((Data) o).asContainer();
+    if (HashCache.knownUnequal(this, other)) {
+      return false;
+    }
+
+    if (other.nonNullFields().size() != nonNullFields().size()) {
+      return false;
+    }
+    for (String field : fields()) {
+      if (!other.getField(field).equals(getField(field))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the same hash code as a {@link Map} of the non-empty fields, like DefaultContainer. The
+   * hash code is cached until this container or any value in it is modified (see {@link
+   * HashCache}).
+   */
+  @Override
+  public int hashCode() {
+    int epoch = HashCache.epoch();
+    long stamp = hashStamp;
+    if (HashCache.isValid(stamp, epoch)) {
+      return HashCache.hash(stamp);
+    }
+
+    int hash = 0;
+    boolean empty = true;
+    boolean stable = true;
+    int size = map != null ? map.size() : shape.size();
+    Iterator<Map.Entry<String, Data>> entries = map != null ? map.entrySet().iterator() : null;
+    for (int i = 0; i < size; i++) {
+      String field;
+      Data value;
+      if (entries != null) {
+        Map.Entry<String, Data> entry = entries.next();
+        field = entry.getKey();
+        value = entry.getValue();
+      } else {
+        field = shape.keys[i];
+        value = values[i];
+      }
+      if (value == null) {
+        continue;
+      }
+      int valueHash = value.hashCode();
+      stable &= HashCache.isStable(value, epoch);
+      if (!value.isNullOrEmpty()) {
+        hash += field.hashCode() ^ valueHash;
+        empty = false;
+      }
+    }
+    if (empty) {
+      hash = NullData.instance.hashCode();
+    }
+    if (stable) {
+      hashStamp = HashCache.stamp(epoch, hash);
+    }
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    Iterator<String> i = fields().iterator();
+    if (!i.hasNext()) {
+      return "{}";
+    }
+    StringBuilder sb = new StringBuilder();
+    sb.append('{');
+    for (; ; ) {
+      String key = i.next();
+      sb.append(key);
+      sb.append('=');
+      sb.append(getField(key));
+      if (!i.hasNext()) {
+        return sb.append('}').toString();
+      }
+      sb.append(',').append(' ');
+    }
+  }
+
+  /** Serializes the fields in sorted order, so that equal containers serialize identically. */
+  private void writeObject(ObjectOutputStream oos) throws IOException {
+    Map<String, Data> sorted = new LinkedHashMap<>();
+    for (String field : fields()) {
+      sorted.put(field, getField(field));
+    }
+    oos.writeObject(sorted);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void readObject(ObjectInputStream ois) throws ClassNotFoundException, IOException {
+    shape = Shape.EMPTY;
+    values = NO_VALUES;
+    putAll((Map<String, Data>) ois.readObject());
+  }
+
+  /**
+   * The field names of a compact container, in the order they were added. Adding a field to a shape
+   * yields the same shape every time, so containers built the same way share their shapes.
+   */
+  static final class Shape {
+    static final Shape EMPTY = new Shape(new String[0]);
+
+    /** The maximum number of shapes that a shape has one more field than. */
+    static final int MAX_TRANSITIONS = 64;
+
+    /** The maximum number of shapes, across all shapes. */
+    static final int MAX_SHAPES = 16384;
+
+    // Only counts shapes that were added to a transition table. Threads that race to add shapes may
+    // exceed MAX_SHAPES by a few.
+    private static final AtomicInteger count = new AtomicInteger();
+
+    private final String[] keys;
+    private volatile ConcurrentHashMap<String, Shape> transitions;
+    private volatile ImmutableSortedSet<String> sortedKeys;
+
+    private Shape(String[] keys) {
+      this.keys = keys;
+    }
+
+    int size() {
+      return keys.length;
+    }
+
+    int indexOf(String key) {
+      for (int i = 0; i < keys.length; i++) {
+        if (keys[i] == key || keys[i].equals(key)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    /**
+     * Returns the shape with the given (absent) key added at the end, or null if that shape does
+     * not exist yet and no more shapes can be added.
+     */
+    @Nullable
+    Shape with(String key) {
+      ConcurrentHashMap<String, Shape> transitions = this.transitions;
+      if (transitions == null) {
+        synchronized (this) {
+          transitions = this.transitions;
+          if (transitions == null) {
+            transitions = new ConcurrentHashMap<>(4);
+            this.transitions = transitions;
+          }
+        }
+      }
+      Shape next = transitions.get(key);
+      if (next != null) {
+        return next;
+      }
+      if (transitions.size() >= MAX_TRANSITIONS || count.get() >= MAX_SHAPES) {
+        return null;
+      }
+      String[] nextKeys = Arrays.copyOf(keys, keys.length + 1);
+      nextKeys[keys.length] = key;
+      next = new Shape(nextKeys);
+      Shape existing = transitions.putIfAbsent(key, next);
+      if (existing != null) {
+        return existing;
+      }
+      count.incrementAndGet();
+      return next;
+    }
+
+    ImmutableSortedSet<String> sortedKeys() {
+      ImmutableSortedSet<String> sorted = sortedKeys;
+      if (sorted == null) {
+        sorted = ImmutableSortedSet.copyOf(keys);
+        sortedKeys = sorted;
+      }
+      return sorted;
+    }
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.verticals.foundations.dataharmonization.data.impl;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Container;
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.DataTypeImplementation;
+import java.util.Map;
+
+/** DTI of CompactContainer, with the arrays and primitives of DefaultDataTypeImplementation. */
+public class CompactDataTypeImplementation extends DefaultDataTypeImplementation {
+  public static final DataTypeImplementation instance = new CompactDataTypeImplementation();
+
+  @Override
+  public Container emptyContainer() {
+    return new CompactContainer();
+  }
+
+  @Override
+  public Container emptyContainer(int expectedFields) {
+    return new CompactContainer();
+  }
+
+  @Override
+  public Container containerOf(Map<String, ? extends Data> items) {
+    return new CompactContainer(items);
+  }
+}
@@ -26,15 +26,16 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * DefaultArray is a simple implementation of the {@link Array} interface, backed by a {@link
@@ -42,7 +43,11 @@ import javax.annotation.Nonnull;
  */
 public class DefaultArray implements Array {
   private List<Data> array;
-  private Set<Integer> fixedElements = new HashSet<>();
+  // Allocated on the first fixed element, as most arrays never have any.
+  @Nullable private BitSet fixedElements;
+
+  // The cached hash code of this array, see HashCache.
+  transient volatile long hashStamp;
 
   public DefaultArray() {
     this(ImmutableList.of());
@@ -65,6 +70,7 @@ public class DefaultArray implements Array {
   @CanIgnoreReturnValue
   @Override
   public DefaultArray setElement(int index, @Nonnull Data value) {
+    hashStamp = HashCache.invalidate(hashStamp);
     if (index >= size()) {
       array.addAll(Collections.nCopies(index - size() + 1, NullData.instance));
     }
@@ -74,13 +80,16 @@ public class DefaultArray implements Array {
 
   @Override
   public Array setFixedElement(int index, @Nonnull Data value) {
-    fixedElements.add(index);
+    if (fixedElements == null) {
+      fixedElements = new BitSet();
+    }
+    fixedElements.set(index);
     return setElement(index, value);
   }
 
   @Override
   public boolean isFixed(int index) {
-    return fixedElements.contains(index);
+    return fixedElements != null && fixedElements.get(index);
   }
 
   @Override
@@ -119,6 +128,16 @@ public class DefaultArray implements Array {
         stream().flatMap(d -> d.asArray().stream()).collect(Collectors.toList()));
   }
 
+  @Override
+  public boolean isCollectable() {
+    return true;
+  }
+
+  @Override
+  public Array newArray(List<Data> elements) {
+    return new DefaultArray(elements);
+  }
+
   @Override
   public boolean equals(final Object o) {
     if (o == this) {
@@ -128,7 +147,7 @@ public class DefaultArray implements Array {
       return false;
     }
     final Array other = ((Data) o).asArray();
-    if (other.size() != size()) {
+    if (other.size() != size() || HashCache.knownUnequal(this, other)) {
       return false;
     }
     for (int i = 0; i < size(); ++i) {
@@ -139,12 +158,31 @@ public class DefaultArray implements Array {
     return true;
   }
 
+  /**
+   * Returns the same hash code as a {@link List} of the elements. The hash code is cached until
+   * this array or any value in it is modified (see {@link HashCache}).
+   */
   @Override
   public int hashCode() {
+    int epoch = HashCache.epoch();
+    long stamp = hashStamp;
+    if (HashCache.isValid(stamp, epoch)) {
+      return HashCache.hash(stamp);
+    }
+
+    int hash = 1;
+    boolean stable = true;
+    for (Data element : array) {
+      hash = 31 * hash + (element == null ? 0 : element.hashCode());
+      stable &= HashCache.isStable(element, epoch);
+    }
     if (isNullOrEmpty()) {
-      return NullData.instance.hashCode();
+      hash = NullData.instance.hashCode();
+    }
+    if (stable) {
+      hashStamp = HashCache.stamp(epoch, hash);
     }
-    return Objects.hashCode(array);
+    return hash;
   }
 
   @Override
@@ -154,12 +192,22 @@ public class DefaultArray implements Array {
 
   private void writeObject(ObjectOutputStream oos) throws IOException {
     oos.writeObject(array);
-    oos.writeObject(fixedElements);
+    // Fixed elements are written as a set of indices, as they were before being kept as bits.
+    Set<Integer> fixed = new HashSet<>();
+    if (fixedElements != null) {
+      fixedElements.stream().forEach(fixed::add);
+    }
+    oos.writeObject(fixed);
   }
 
   @SuppressWarnings("unchecked")
   private void readObject(ObjectInputStream ois) throws ClassNotFoundException, IOException {
     array = (List<Data>) ois.readObject();
-    fixedElements = (Set<Integer>) ois.readObject();
+    Set<Integer> fixed = (Set<Integer>) ois.readObject();
+    fixedElements = null;
+    if (!fixed.isEmpty()) {
+      fixedElements = new BitSet();
+      fixed.forEach(fixedElements::set);
+    }
   }
 }
@@ -22,7 +22,10 @@ import static java.util.stream.Collectors.toMap;
 
 import com.google.cloud.verticals.foundations.dataharmonization.data.Container;
 import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.DataTypeImplementation;
 import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
+import com.google.cloud.verticals.foundations.dataharmonization.data.merge.MergeMode;
+import com.google.cloud.verticals.foundations.dataharmonization.data.path.Path;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSortedSet;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
@@ -34,7 +37,6 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 import javax.annotation.Nonnull;
 
@@ -45,16 +47,29 @@ import javax.annotation.Nonnull;
 public class DefaultContainer implements Container {
   private Map<String, Data> container;
 
+  // The number of fields whose values can never become empty (see isStablyNonEmpty). While there
+  // are any, this container is known to be non-empty without looking at its fields.
+  private transient int stablyNonEmptyFields;
+
+  // The cached hash code of this container, see HashCache.
+  transient volatile long hashStamp;
+
   public DefaultContainer() {
     this(ImmutableMap.of());
   }
 
+  /** Create an empty Container with room for the given number of fields. */
+  public DefaultContainer(int expectedFields) {
+    this.container = new HashMap<>(expectedFields * 2);
+  }
+
   /**
    * Create a Container by copying items from some existing map. The items are not cloned; the copy
    * is shallow.
    */
   public DefaultContainer(Map<String, ? extends Data> container) {
     this.container = new HashMap<>(container);
+    countStablyNonEmptyFields();
   }
 
   @Nonnull
@@ -66,14 +81,47 @@ public class DefaultContainer implements Container {
   @CanIgnoreReturnValue
   @Override
   public DefaultContainer setField(@Nonnull String field, Data value) {
-    container.put(field, value);
+    hashStamp = HashCache.invalidate(hashStamp);
+    Data previous = container.put(field, value);
+    stablyNonEmptyFields += stablyNonEmpty(value) - stablyNonEmpty(previous);
     return this;
   }
 
   @CanIgnoreReturnValue
   @Override
   public Container removeField(@Nonnull String field) {
-    container.remove(field);
+    hashStamp = HashCache.invalidate(hashStamp);
+    stablyNonEmptyFields -= stablyNonEmpty(container.remove(field));
+    return this;
+  }
+
+  /**
+   * Merges the fields of another DefaultContainer by iterating its map directly, without copying
+   * (and sorting) the field names of either container. If the inbound container is larger than this
+   * one, the map is first grown to hold both at once rather than rehashed repeatedly as fields are
+   * added. Other containers are merged field by field (see {@link Container#mergeFrom}).
+   */
+  @CanIgnoreReturnValue
+  @Override
+  public Container mergeFrom(Container inbound, MergeMode mode, DataTypeImplementation dti) {
+    if (!(inbound instanceof DefaultContainer) || inbound == this) {
+      return Container.super.mergeFrom(inbound, mode, dti);
+    }
+    Map<String, Data> fields = ((DefaultContainer) inbound).container;
+    dti.beforeWrite(fields.size());
+    if (fields.size() > container.size()) {
+      Map<String, Data> grown = new HashMap<>((container.size() + fields.size()) * 2);
+      grown.putAll(container);
+      container = grown;
+    }
+    for (Map.Entry<String, Data> entry : fields.entrySet()) {
+      Data value = entry.getValue();
+      Data existing = container.get(entry.getKey());
+      if (existing != null) {
+        value = mode.getStrategy(existing).merge(dti, existing, value, Path.empty());
+      }
+      setField(entry.getKey(), value);
+    }
     return this;
   }
 
@@ -83,6 +131,23 @@ public class DefaultContainer implements Container {
     return ImmutableSortedSet.copyOf(container.keySet());
   }
 
+  /**
+   * Returns true iff none of the fields has a non-empty value. This is constant time if any field
+   * holds a non-empty primitive or array, and otherwise stops at the first non-empty field.
+   */
+  @Override
+  public boolean isNullOrEmpty() {
+    if (stablyNonEmptyFields > 0) {
+      return false;
+    }
+    for (Data value : container.values()) {
+      if (value != null && !value.isNullOrEmpty()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   @Override
   public Data deepCopy() {
     // Deep clone the values.
@@ -108,26 +173,61 @@ public class DefaultContainer implements Container {
       return false;
     }
     final Container other = ((Data) o).asContainer();
+    if (HashCache.knownUnequal(this, other)) {
+      return false;
+    }
 
-    Set<String> otherFieldsNonNull = other.nonNullFields();
-    Set<String> nonNullFields = nonNullFields();
-    if (otherFieldsNonNull.size() != nonNullFields.size()) {
+    int otherNonEmptyFields =
+        other instanceof DefaultContainer
+            ? ((DefaultContainer) other).nonEmptyFieldCount()
+            : other.nonNullFields().size();
+    if (otherNonEmptyFields != nonEmptyFieldCount()) {
       return false;
     }
-    for (String field : fields()) {
-      if (!other.getField(field).equals(getField(field))) {
+    for (Map.Entry<String, Data> field : container.entrySet()) {
+      if (!other.getField(field.getKey()).equals(field.getValue())) {
         return false;
       }
     }
     return true;
   }
 
+  /**
+   * Returns the same hash code as a {@link Map} of the non-empty fields. The hash code is cached
+   * until this container or any value in it is modified (see {@link HashCache}).
+   */
   @Override
   public int hashCode() {
-    if (isNullOrEmpty()) {
-      return NullData.instance.hashCode();
+    int epoch = HashCache.epoch();
+    long stamp = hashStamp;
+    if (HashCache.isValid(stamp, epoch)) {
+      return HashCache.hash(stamp);
+    }
+
+    int hash = 0;
+    boolean empty = true;
+    boolean stable = true;
+    for (Map.Entry<String, Data> field : container.entrySet()) {
+      Data value = field.getValue();
+      if (value == null) {
+        continue;
+      }
+      // Empty values are hashed too, so that they cache their hash codes and invalidate this one
+      // when they are filled in.
+      int valueHash = value.hashCode();
+      stable &= HashCache.isStable(value, epoch);
+      if (!value.isNullOrEmpty()) {
+        hash += field.getKey().hashCode() ^ valueHash;
+        empty = false;
+      }
     }
-    return Objects.hashCode(removeEmptyFields().container);
+    if (empty) {
+      hash = NullData.instance.hashCode();
+    }
+    if (stable) {
+      hashStamp = HashCache.stamp(epoch, hash);
+    }
+    return hash;
   }
 
   @Override
@@ -172,11 +272,40 @@ public class DefaultContainer implements Container {
   @SuppressWarnings("unchecked")
   private void readObject(ObjectInputStream ois) throws ClassNotFoundException, IOException {
     container = (HashMap<String, Data>) ois.readObject();
+    countStablyNonEmptyFields();
+  }
+
+  private void countStablyNonEmptyFields() {
+    stablyNonEmptyFields = 0;
+    for (Data value : container.values()) {
+      stablyNonEmptyFields += stablyNonEmpty(value);
+    }
   }
 
-  private DefaultContainer removeEmptyFields() {
-    ImmutableMap<String, Data> container =
-        nonNullFields().stream().collect(toImmutableMap(f -> f, this::getField));
-    return new DefaultContainer(container);
+  /**
+   * Returns 1 if the given value is non-empty and can never become empty, 0 otherwise. Primitives
+   * are immutable, and arrays never shrink, so their emptiness cannot change after they are set;
+   * containers can have their fields removed (or emptied), so they are never stably non-empty.
+   */
+  private static int stablyNonEmpty(Data value) {
+    return (value instanceof DefaultPrimitive
+                || value instanceof NumberPrimitive
+                || value instanceof StringPrimitive
+                || value instanceof BooleanPrimitive
+                || value instanceof DefaultArray
+                || value instanceof PackedArray)
+            && !value.isNullOrEmpty()
+        ? 1
+        : 0;
+  }
+
+  private int nonEmptyFieldCount() {
+    int count = 0;
+    for (Data value : container.values()) {
+      if (value != null && !value.isNullOrEmpty()) {
+        count++;
+      }
+    }
+    return count;
   }
 }
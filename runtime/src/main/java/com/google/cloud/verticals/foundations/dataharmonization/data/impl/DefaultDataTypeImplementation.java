@@ -20,10 +20,15 @@ import com.google.cloud.verticals.foundations.dataharmonization.data.Container;
 import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
 import com.google.cloud.verticals.foundations.dataharmonization.data.DataTypeImplementation;
 import com.google.cloud.verticals.foundations.dataharmonization.data.Primitive;
+import com.google.cloud.verticals.foundations.dataharmonization.data.path.ProjectedArray;
 import java.util.Collection;
 import java.util.Map;
 
-/** DTI of DefaultArray, DefaultContainer, and DefaultPrimitive. */
+/**
+ * DTI of DefaultArray and DefaultContainer. Primitives are {@link NumberPrimitive}s, {@link
+ * StringPrimitive}s and {@link BooleanPrimitive}s, shared for booleans, small integers and the
+ * empty string. Arrays created from only numbers or only strings are {@link PackedArray}s.
+ */
 public class DefaultDataTypeImplementation implements DataTypeImplementation {
   public static final DataTypeImplementation instance = new DefaultDataTypeImplementation();
 
@@ -34,7 +39,7 @@ public class DefaultDataTypeImplementation implements DataTypeImplementation {
 
   @Override
   public Array arrayOf(Collection<? extends Data> items) {
-    return new DefaultArray(items);
+    return PackedArray.isPackable(items) ? PackedArray.of(items) : new DefaultArray(items);
   }
 
   @Override
@@ -42,6 +47,11 @@ public class DefaultDataTypeImplementation implements DataTypeImplementation {
     return new DefaultContainer();
   }
 
+  @Override
+  public Container emptyContainer(int expectedFields) {
+    return new DefaultContainer(expectedFields);
+  }
+
   @Override
   public Container containerOf(Map<String, ? extends Data> items) {
     return new DefaultContainer(items);
@@ -49,16 +59,55 @@ public class DefaultDataTypeImplementation implements DataTypeImplementation {
 
   @Override
   public Primitive primitiveOf(Double num) {
-    return new DefaultPrimitive(num);
+    return num == null ? new DefaultPrimitive((Double) null) : NumberPrimitive.of(num);
+  }
+
+  @Override
+  public Primitive primitiveOf(double num) {
+    return NumberPrimitive.of(num);
   }
 
   @Override
   public Primitive primitiveOf(String str) {
-    return new DefaultPrimitive(str);
+    return str == null ? new DefaultPrimitive((String) null) : StringPrimitive.of(str);
   }
 
   @Override
   public Primitive primitiveOf(Boolean bool) {
-    return new DefaultPrimitive(bool);
+    return bool == null ? new DefaultPrimitive((Boolean) null) : BooleanPrimitive.of(bool);
+  }
+
+  @Override
+  public Primitive primitiveOf(boolean bool) {
+    return BooleanPrimitive.of(bool);
+  }
+
+  /**
+   * Returns the name of the implementation of the given data, as reported in type names and error
+   * messages. The unboxed primitives and packed arrays this implementation creates are reported as
+   * the {@link DefaultPrimitive}s and {@link DefaultArray}s they stand in for, and wildcard
+   * projections as the arrays they materialize.
+   */
+  public static String implementationName(Data data) {
+    if (data instanceof ProjectedArray) {
+      return implementationName(((ProjectedArray) data).materialize());
+    }
+    if (data instanceof NumberPrimitive
+        || data instanceof StringPrimitive
+        || data instanceof BooleanPrimitive) {
+      return DefaultPrimitive.class.getSimpleName();
+    }
+    if (data instanceof PackedArray) {
+      return DefaultArray.class.getSimpleName();
+    }
+    return data.getClass().getSimpleName();
+  }
+
+  @Override
+  public boolean isShared(Data data) {
+    return data == BooleanPrimitive.TRUE
+        || data == BooleanPrimitive.FALSE
+        || data == StringPrimitive.EMPTY
+        || (data instanceof NumberPrimitive && ((NumberPrimitive) data).isCached());
   }
 }
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.verticals.foundations.dataharmonization.data.impl;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Memoizes the hash codes of mutable {@link Data} trees.
+ *
+ * <p>The hash code of a container or array depends on everything below it, but values do not know
+ * their parents, so they cannot invalidate their parents' cached hash codes when they change.
+ * Instead, hash codes are cached in a stamp together with the current epoch, a global counter that
+ * is advanced whenever a value with a cached hash code is modified. A stamp is valid for as long as
+ * the epoch has not moved. Values only cache hash codes computed from children that are immutable
+ * or have valid stamps themselves, so modifying any part of a cached tree invalidates the whole
+ * tree.
+ *
+ * <p>Modifying a value whose hash code was never computed, which is what most mappings do, only
+ * costs a read of its stamp.
+ */
+final class HashCache {
+  /** The stamp of values without a cached hash code. It is never valid. */
+  static final long NO_STAMP = 0;
+
+  // Starts at 1, so that NO_STAMP never matches the current epoch.
+  private static final AtomicInteger epoch = new AtomicInteger(1);
+
+  private HashCache() {}
+
+  /** Returns the current epoch. */
+  static int epoch() {
+    return epoch.get();
+  }
+
+  /** Returns a stamp caching the given hash code, computed at the given epoch. */
+  static long stamp(int epoch, int hash) {
+    return ((long) epoch << 32) | (hash & 0xFFFFFFFFL);
+  }
+
+  /** Returns true iff the given stamp caches a hash code computed at the given epoch. */
+  static boolean isValid(long stamp, int epoch) {
+    return (int) (stamp >>> 32) == epoch;
+  }
+
+  /** Returns the hash code cached in the given stamp. */
+  static int hash(long stamp) {
+    return (int) stamp;
+  }
+
+  /**
+   * Must be called before modifying a value with the given stamp. Advances the epoch if the value
+   * had a cached hash code (invalidating all cached hash codes), and returns the stamp the value
+   * should have instead.
+   */
+  static long invalidate(long stamp) {
+    if (stamp != NO_STAMP && epoch.incrementAndGet() == 0) {
+      epoch.compareAndSet(0, 1);
+    }
+    return NO_STAMP;
+  }
+
+  /**
+   * Returns true iff the hash code of the given value cannot change until the epoch moves on from
+   * the given one, i.e. the value is immutable (or read-only) or has a hash code cached at that
+   * epoch.
+   */
+  static boolean isStable(Data value, int epoch) {
+    long stamp = stampOf(value);
+    if (stamp != NO_STAMP) {
+      return isValid(stamp, epoch);
+    }
+    return value == null
+        || value instanceof NullData
+        || value instanceof NumberPrimitive
+        || value instanceof StringPrimitive
+        || value instanceof BooleanPrimitive
+        || value instanceof DefaultPrimitive
+        || value instanceof MappedContainer
+        || value instanceof MappedArray;
+  }
+
+  /**
+   * Returns true iff both values have valid cached hash codes, and they differ (so the values are
+   * not equal). Never computes hash codes.
+   */
+  static boolean knownUnequal(Data a, Data b) {
+    long stampA = stampOf(a);
+    long stampB = stampOf(b);
+    if (stampA == NO_STAMP || stampB == NO_STAMP || hash(stampA) == hash(stampB)) {
+      return false;
+    }
+    int current = epoch();
+    return isValid(stampA, current) && isValid(stampB, current);
+  }
+
+  private static long stampOf(Data value) {
+    if (value instanceof DefaultContainer) {
+      return ((DefaultContainer) value).hashStamp;
+    }
+    if (value instanceof DefaultArray) {
+      return ((DefaultArray) value).hashStamp;
+    }
+    if (value instanceof PackedArray) {
+      return ((PackedArray) value).hashStamp;
+    }
+    if (value instanceof CompactContainer) {
+      return ((CompactContainer) value).hashStamp;
+    }
+    return NO_STAMP;
+  }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.verticals.foundations.dataharmonization.data.impl;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Array;
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
+import com.google.cloud.verticals.foundations.dataharmonization.data.path.Path;
+import com.google.common.collect.UnmodifiableIterator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+
+/**
+ * A read-only {@link Array} for a JSON array in a {@link MappedJson} file. The offsets of its
+ * elements are found when it is first read, and elements are decoded (and kept) when they are first
+ * read.
+ */
+public final class MappedArray implements Array {
+  private final transient MappedJson json;
+  private final transient int offset;
+
+  private transient volatile int[] elementOffsets;
+  // Racing threads may both decode an element, but the results are equal and read-only.
+  private transient volatile Data[] elements;
+  private transient volatile int hash;
+
+  MappedArray(MappedJson json, int offset) {
+    this.json = json;
+    this.offset = offset;
+  }
+
+  private int[] elementOffsets() {
+    int[] offsets = elementOffsets;
+    if (offsets != null) {
+      return offsets;
+    }
+    offsets = new int[8];
+    int count = 0;
+    int p = json.skipWhitespace(offset + 1);
+    if (json.byteAt(p) != ']') {
+      while (true) {
+        if (count == offsets.length) {
+          offsets = Arrays.copyOf(offsets, count * 2);
+        }
+        offsets[count++] = p;
+        p = json.skipWhitespace(json.skipValue(p));
+        byte b = json.byteAt(p);
+        if (b == ']') {
+          break;
+        }
+        if (b != ',') {
+          throw json.malformed(p);
+        }
+        p = json.skipWhitespace(p + 1);
+      }
+    }
+    offsets = Arrays.copyOf(offsets, count);
+    elements = new Data[count];
+    elementOffsets = offsets;
+    return offsets;
+  }
+
+  @Nonnull
+  @Override
+  public Data getElement(int index) {
+    int[] offsets = elementOffsets();
+    if (index < 0 || index >= offsets.length) {
+      return NullData.instance;
+    }
+    return decode(offsets, elements, index);
+  }
+
+  private Data decode(int[] offsets, Data[] decoded, int index) {
+    Data element = decoded[index];
+    if (element == null) {
+      element = json.valueAt(offsets[index]);
+      decoded[index] = element;
+    }
+    return element;
+  }
+
+  /** Finds the offsets of the elements once, rather than for each element. */
+  @Override
+  public Iterator<Data> elements() {
+    int[] offsets = elementOffsets();
+    Data[] decoded = elements;
+    return new UnmodifiableIterator<Data>() {
+      private int index;
+
+      @Override
+      public boolean hasNext() {
+        return index < offsets.length;
+      }
+
+      @Override
+      public Data next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return decode(offsets, decoded, index++);
+      }
+    };
+  }
+
+  @Override
+  public Array setElement(int index, @Nonnull Data value) {
+    throw new UnsupportedOperationException(
+        String.format("Cannot set element %d of read-only mapped input; copy it first.", index));
+  }
+
+  @Override
+  public int size() {
+    return elementOffsets().length;
+  }
+
+  /** Returns a fully decoded, writable copy of this array. */
+  @Override
+  public Data deepCopy() {
+    List<Data> copy = new ArrayList<>(size());
+    for (int i = 0; i < size(); i++) {
+      copy.add(getElement(i).deepCopy());
+    }
+    return new DefaultArray(copy);
+  }
+
+  @Override
+  public boolean isWritable() {
+    return false;
+  }
+
+  @Override
+  public Array getThrough(Path remainingPath) {
+    return new DefaultArray(
+        stream()
+            .map(remainingPath::get)
+            .filter(d -> !d.isNullOrEmpty())
+            .collect(Collectors.toList()));
+  }
+
+  @Override
+  public Array flatten() {
+    return new DefaultArray(
+        stream().flatMap(d -> d.asArray().stream()).collect(Collectors.toList()));
+  }
+
+  @Override
+  public boolean isCollectable() {
+    return true;
+  }
+
+  @Override
+  public Array newArray(List<Data> elements) {
+    return new DefaultArray(elements);
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (!(o instanceof Data) || !((Data) o).isArray()) {
+      return false;
+    }
+    final Array other = ((Data) o).asArray();
+    if (other.size() != size()) {
+      return false;
+    }
+    for (int i = 0; i < size(); ++i) {
+      if (!other.getElement(i).equals(getElement(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the same hash code as a {@link List} of the elements, like DefaultArray. The data
+   * cannot change, so the hash code is computed once.
+   */
+  @Override
+  public int hashCode() {
+    int h = hash;
+    if (h != 0) {
+      return h;
+    }
+    if (size() == 0) {
+      h = NullData.instance.hashCode();
+    } else {
+      h = 1;
+      for (int i = 0; i < size(); i++) {
+        h = 31 * h + getElement(i).hashCode();
+      }
+    }
+    hash = h;
+    return h;
+  }
+
+  @Override
+  public String toString() {
+    return stream().map(String::valueOf).collect(Collectors.joining(", ", "[", "]"));
+  }
+
+  /** Mapped files cannot be serialized, so a decoded copy is serialized instead. */
+  private Object writeReplace() {
+    return deepCopy();
+  }
+}
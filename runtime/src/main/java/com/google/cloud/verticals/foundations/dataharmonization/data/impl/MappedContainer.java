@@ -0,0 +1,204 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.verticals.foundations.dataharmonization.data.impl;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Container;
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
+import com.google.common.collect.ImmutableSortedSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+
+/**
+ * A read-only {@link Container} for a JSON object in a {@link MappedJson} file. The offsets of its
+ * fields are found when it is first read, and field values are decoded (and kept) when they are
+ * first read.
+ */
+public final class MappedContainer implements Container {
+  private final transient MappedJson json;
+  private final transient int offset;
+
+  private transient volatile Map<String, Integer> fieldOffsets;
+  private final transient Map<String, Data> values = new ConcurrentHashMap<>();
+  private transient volatile int hash;
+
+  MappedContainer(MappedJson json, int offset) {
+    this.json = json;
+    this.offset = offset;
+  }
+
+  private Map<String, Integer> fieldOffsets() {
+    Map<String, Integer> offsets = fieldOffsets;
+    if (offsets != null) {
+      return offsets;
+    }
+    offsets = new HashMap<>();
+    int p = json.skipWhitespace(offset + 1);
+    if (json.byteAt(p) != '}') {
+      while (true) {
+        String field = json.stringAt(p);
+        p = json.skipWhitespace(json.skipValue(p));
+        if (json.byteAt(p) != ':') {
+          throw json.malformed(p);
+        }
+        p = json.skipWhitespace(p + 1);
+        // Like Gson, later duplicates of a field win.
+        offsets.put(field, p);
+        p = json.skipWhitespace(json.skipValue(p));
+        byte b = json.byteAt(p);
+        if (b == '}') {
+          break;
+        }
+        if (b != ',') {
+          throw json.malformed(p);
+        }
+        p = json.skipWhitespace(p + 1);
+      }
+    }
+    fieldOffsets = offsets;
+    return offsets;
+  }
+
+  @Nonnull
+  @Override
+  public Data getField(String field) {
+    Data value = values.get(field);
+    if (value != null) {
+      return value;
+    }
+    Integer fieldOffset = fieldOffsets().get(field);
+    if (fieldOffset == null) {
+      return NullData.instance;
+    }
+    return values.computeIfAbsent(field, f -> json.valueAt(fieldOffset));
+  }
+
+  @Override
+  public Container setField(@Nonnull String field, Data value) {
+    throw new UnsupportedOperationException(
+        String.format("Cannot set field %s of read-only mapped input; copy it first.", field));
+  }
+
+  @Override
+  public Container removeField(@Nonnull String field) {
+    throw new UnsupportedOperationException(
+        String.format("Cannot remove field %s of read-only mapped input; copy it first.", field));
+  }
+
+  @Nonnull
+  @Override
+  public Set<String> fields() {
+    return ImmutableSortedSet.copyOf(fieldOffsets().keySet());
+  }
+
+  @Override
+  public boolean isNullOrEmpty() {
+    for (String field : fieldOffsets().keySet()) {
+      if (!getField(field).isNullOrEmpty()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Returns a fully decoded, writable copy of this container. */
+  @Override
+  public Data deepCopy() {
+    Map<String, Data> copy = new HashMap<>();
+    for (String field : fieldOffsets().keySet()) {
+      copy.put(field, getField(field).deepCopy());
+    }
+    return new DefaultContainer(copy);
+  }
+
+  @Override
+  public boolean isWritable() {
+    return false;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (!(o instanceof Data) || !((Data) o).isContainer()) {
+      return false;
+    }
+    final Container other = ((Data) o).asContainer();
+
+    if (other.nonNullFields().size() != nonNullFields().size()) {
+      return false;
+    }
+    for (String field : fieldOffsets().keySet()) {
+      if (!other.getField(field).equals(getField(field))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the same hash code as a {@link Map} of the non-empty fields, like DefaultContainer. The
+   * data cannot change, so the hash code is computed once.
+   */
+  @Override
+  public int hashCode() {
+    int h = hash;
+    if (h != 0) {
+      return h;
+    }
+    for (String field : fieldOffsets().keySet()) {
+      Data value = getField(field);
+      if (!value.isNullOrEmpty()) {
+        h += field.hashCode() ^ value.hashCode();
+      }
+    }
+    if (h == 0) {
+      h = NullData.instance.hashCode();
+    }
+    hash = h;
+    return h;
+  }
+
+  @Override
+  public String toString() {
+    Iterator<String> i = fields().iterator();
+    if (!i.hasNext()) {
+      return "{}";
+    }
+    StringBuilder sb = new StringBuilder();
+    sb.append('{');
+    for (; ; ) {
+      String key = i.next();
+      sb.append(key);
+      sb.append('=');
+      sb.append(getField(key));
+      if (!i.hasNext()) {
+        return sb.append('}').toString();
+      }
+      sb.append(',').append(' ');
+    }
+  }
+
+  /** Mapped files cannot be serialized, so a decoded copy is serialized instead. */
+  private Object writeReplace() {
+    return deepCopy();
+  }
+}
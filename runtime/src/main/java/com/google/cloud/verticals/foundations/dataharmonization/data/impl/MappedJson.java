@@ -0,0 +1,292 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.verticals.foundations.dataharmonization.data.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Read-only {@link Data} backed by a memory-mapped JSON file, for inputs too large to be read into
+ * memory as a whole.
+ *
+ * <p>Opening a file makes a single pass over it to build a structural index: the offsets of the
+ * opening and closing brackets of every object and array. Nothing else is decoded up front. Objects
+ * and arrays are represented by {@link MappedContainer}s and {@link MappedArray}s that find the
+ * offsets of their own fields or elements the first time they are read (using the index to skip
+ * over nested values), and decode values only when a mapping reads them. Mappings that only read a
+ * small part of a huge input thus only need heap for that part, plus eight bytes per object and
+ * array for the index.
+ *
+ * <p>Mapped data cannot be modified. Its {@link Data#deepCopy() copies} (and serialized forms) are
+ * fully decoded, writable DefaultContainers and DefaultArrays.
+ */
+public final class MappedJson {
+  private final ByteBuffer buffer;
+  // The offsets of the opening brackets of all objects and arrays, in order, and of the matching
+  // closing brackets.
+  private final int[] opens;
+  private final int[] closes;
+
+  private MappedJson(ByteBuffer buffer, int[] opens, int[] closes) {
+    this.buffer = buffer;
+    this.opens = opens;
+    this.closes = closes;
+  }
+
+  /**
+   * Maps the given JSON file into memory and returns the read-only Data it holds. Returns {@link
+   * NullData} for files that are empty or hold only {@code null}.
+   *
+   * @throws IOException if the file cannot be read, or is larger than 2GB.
+   * @throws IllegalArgumentException if the file does not hold a single JSON value.
+   */
+  public static Data open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException(
+            String.format("%s is too large to be mapped (%d bytes).", file, size));
+      }
+      // The mapping stays valid after the channel is closed.
+      return read(channel.map(MapMode.READ_ONLY, 0, size));
+    }
+  }
+
+  /** Returns the read-only Data held by the given JSON. */
+  static Data read(ByteBuffer buffer) {
+    MappedJson json = index(buffer);
+    int start = json.skipWhitespace(0);
+    if (start == buffer.limit()) {
+      return NullData.instance;
+    }
+    int end = json.skipWhitespace(json.skipValue(start));
+    if (end != buffer.limit()) {
+      throw json.malformed(end);
+    }
+    return json.valueAt(start);
+  }
+
+  private static MappedJson index(ByteBuffer buffer) {
+    int limit = buffer.limit();
+    int[] opens = new int[16];
+    int[] closes = new int[16];
+    int count = 0;
+    // Indices (into opens) of the objects and arrays that are still open.
+    int[] stack = new int[16];
+    int depth = 0;
+
+    for (int i = 0; i < limit; i++) {
+      byte b = buffer.get(i);
+      if (b == '"') {
+        i = stringEnd(buffer, i) - 1;
+      } else if (b == '{' || b == '[') {
+        if (count == opens.length) {
+          opens = Arrays.copyOf(opens, count * 2);
+          closes = Arrays.copyOf(closes, count * 2);
+        }
+        if (depth == stack.length) {
+          stack = Arrays.copyOf(stack, depth * 2);
+        }
+        opens[count] = i;
+        stack[depth++] = count++;
+      } else if (b == '}' || b == ']') {
+        if (depth == 0 || buffer.get(opens[stack[depth - 1]]) != (b == '}' ? '{' : '[')) {
+          throw new IllegalArgumentException(
+              String.format("Malformed JSON: unbalanced '%c' at offset %d", (char) b, i));
+        }
+        closes[stack[--depth]] = i;
+      }
+    }
+    if (depth > 0) {
+      throw new IllegalArgumentException(
+          String.format("Malformed JSON: unclosed bracket at offset %d", opens[stack[depth - 1]]));
+    }
+    return new MappedJson(buffer, Arrays.copyOf(opens, count), Arrays.copyOf(closes, count));
+  }
+
+  byte byteAt(int offset) {
+    if (offset >= buffer.limit()) {
+      throw malformed(offset);
+    }
+    return buffer.get(offset);
+  }
+
+  /** Returns the offset of the first non-whitespace byte at or after the given one. */
+  int skipWhitespace(int offset) {
+    int limit = buffer.limit();
+    while (offset < limit) {
+      byte b = buffer.get(offset);
+      if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+        break;
+      }
+      offset++;
+    }
+    return offset;
+  }
+
+  /** Returns the offset just past the value starting at the given offset. */
+  int skipValue(int offset) {
+    byte b = byteAt(offset);
+    if (b == '{' || b == '[') {
+      int index = Arrays.binarySearch(opens, offset);
+      return closes[index] + 1;
+    }
+    if (b == '"') {
+      return stringEnd(buffer, offset);
+    }
+    int limit = buffer.limit();
+    while (offset < limit) {
+      b = buffer.get(offset);
+      if (b == ',' || b == '}' || b == ']' || b == ' ' || b == '\n' || b == '\r' || b == '\t') {
+        break;
+      }
+      offset++;
+    }
+    return offset;
+  }
+
+  /** Returns the offset just past the string whose opening quote is at the given offset. */
+  private static int stringEnd(ByteBuffer buffer, int offset) {
+    int limit = buffer.limit();
+    for (int i = offset + 1; i < limit; i++) {
+      byte b = buffer.get(i);
+      if (b == '\\') {
+        i++;
+      } else if (b == '"') {
+        return i + 1;
+      }
+    }
+    throw new IllegalArgumentException(
+        String.format("Malformed JSON: unterminated string at offset %d", offset));
+  }
+
+  /** Decodes the value starting at the given offset. */
+  Data valueAt(int offset) {
+    byte b = byteAt(offset);
+    switch (b) {
+      case '{':
+        return new MappedContainer(this, offset);
+      case '[':
+        return new MappedArray(this, offset);
+      case '"':
+        return DefaultDataTypeImplementation.instance.primitiveOf(stringAt(offset));
+      default:
+        String literal = ascii(offset, skipValue(offset));
+        switch (literal) {
+          case "null":
+            return NullData.instance;
+          case "true":
+            return DefaultDataTypeImplementation.instance.primitiveOf(true);
+          case "false":
+            return DefaultDataTypeImplementation.instance.primitiveOf(false);
+          default:
+            try {
+              return DefaultDataTypeImplementation.instance.primitiveOf(
+                  Double.parseDouble(literal));
+            } catch (NumberFormatException e) {
+              throw malformed(offset);
+            }
+        }
+    }
+  }
+
+  /** Decodes the string whose opening quote is at the given offset. */
+  String stringAt(int offset) {
+    if (byteAt(offset) != '"') {
+      throw malformed(offset);
+    }
+    int end = stringEnd(buffer, offset) - 1;
+    byte[] bytes = new byte[end - offset - 1];
+    boolean escaped = false;
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = buffer.get(offset + 1 + i);
+      escaped |= bytes[i] == '\\';
+    }
+    if (!escaped) {
+      return new String(bytes, UTF_8);
+    }
+
+    // Multi-byte UTF-8 sequences never contain a backslash, so the runs between escapes can be
+    // decoded separately.
+    StringBuilder sb = new StringBuilder(bytes.length);
+    int run = 0;
+    for (int i = 0; i < bytes.length; i++) {
+      if (bytes[i] != '\\') {
+        continue;
+      }
+      sb.append(new String(bytes, run, i - run, UTF_8));
+      if (++i == bytes.length) {
+        throw malformed(offset + 1 + i);
+      }
+      switch (bytes[i]) {
+        case 'b':
+          sb.append('\b');
+          break;
+        case 'f':
+          sb.append('\f');
+          break;
+        case 'n':
+          sb.append('\n');
+          break;
+        case 'r':
+          sb.append('\r');
+          break;
+        case 't':
+          sb.append('\t');
+          break;
+        case 'u':
+          if (i + 4 >= bytes.length) {
+            throw malformed(offset + 1 + i);
+          }
+          try {
+            sb.append((char) Integer.parseInt(new String(bytes, i + 1, 4, UTF_8), 16));
+          } catch (NumberFormatException e) {
+            throw malformed(offset + 1 + i);
+          }
+          i += 4;
+          break;
+        default:
+          // \", \\ and \/ stand for themselves.
+          sb.append((char) bytes[i]);
+          break;
+      }
+      run = i + 1;
+    }
+    return sb.append(new String(bytes, run, bytes.length - run, UTF_8)).toString();
+  }
+
+  private String ascii(int start, int end) {
+    char[] chars = new char[end - start];
+    for (int i = 0; i < chars.length; i++) {
+      chars[i] = (char) buffer.get(start + i);
+    }
+    return new String(chars);
+  }
+
+  IllegalArgumentException malformed(int offset) {
+    return new IllegalArgumentException(
+        String.format("Malformed JSON: unexpected input at offset %d", offset));
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.verticals.foundations.dataharmonization.data.impl;
+
+import static com.google.common.math.DoubleMath.fuzzyEquals;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.Primitive;
+
+/**
+ * NumberPrimitive is a {@link Primitive} holding an unboxed number. It equals (and has the same
+ * hash code as) any other primitive holding the same number.
+ */
+public final class NumberPrimitive implements Primitive {
+  private static final int MIN_CACHED = -128;
+  private static final int MAX_CACHED = 1024;
+  private static final NumberPrimitive[] CACHE = new NumberPrimitive[MAX_CACHED - MIN_CACHED + 1];
+
+  static {
+    for (int i = 0; i < CACHE.length; i++) {
+      CACHE[i] = new NumberPrimitive(i + MIN_CACHED);
+    }
+  }
+
+  private final double num;
+
+  private NumberPrimitive(double num) {
+    this.num = num;
+  }
+
+  /** Returns a primitive of the given number, shared for small integers. */
+  public static NumberPrimitive of(double num) {
+    int integer = (int) num;
+    if (integer == num
+        && integer >= MIN_CACHED
+        && integer <= MAX_CACHED
+        // -0.0 is not equal to 0.0 as a Double, so it is not cached.
+        && (integer != 0 || Double.doubleToRawLongBits(num) == 0)) {
+      return CACHE[integer - MIN_CACHED];
+    }
+    return new NumberPrimitive(num);
+  }
+
+  /** Returns a new primitive of the given number, which is not shared with any other. */
+  static NumberPrimitive unshared(double num) {
+    return new NumberPrimitive(num);
+  }
+
+  /** Returns true iff this is one of the instances shared for small integers. */
+  boolean isCached() {
+    int integer = (int) num;
+    return integer >= MIN_CACHED && integer <= MAX_CACHED && CACHE[integer - MIN_CACHED] == this;
+  }
+
+  @Override
+  public Double num() {
+    return num;
+  }
+
+  @Override
+  public boolean isNumber() {
+    return true;
+  }
+
+  @Override
+  public double numValue() {
+    return num;
+  }
+
+  @Override
+  public String string() {
+    return null;
+  }
+
+  @Override
+  public Boolean bool() {
+    return null;
+  }
+
+  @Override
+  public boolean isNullOrEmpty() {
+    return false;
+  }
+
+  @Override
+  public Data deepCopy() {
+    return new NumberPrimitive(num);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (o instanceof NumberPrimitive) {
+      return Double.doubleToLongBits(num) == Double.doubleToLongBits(((NumberPrimitive) o).num);
+    }
+    if (!(o instanceof Data) || !((Data) o).isPrimitive()) {
+      return false;
+    }
+    Primitive other = ((Data) o).asPrimitive();
+    return Double.valueOf(num).equals(other.num())
+        && other.string() == null
+        && other.bool() == null;
+  }
+
+  /** Returns the same hash code as {@link DefaultPrimitive}, i.e. of {@code [null, num, null]}. */
+  @Override
+  public int hashCode() {
+    return 31 * (31 * 31 + Double.hashCode(num));
+  }
+
+  @Override
+  public String toString() {
+    long rounded = Math.round(num);
+    if (fuzzyEquals(num, rounded, Math.ulp((double) rounded))) {
+      return String.valueOf(rounded);
+    }
+    return String.valueOf(num);
+  }
+}
@@ -0,0 +1,349 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.verticals.foundations.dataharmonization.data.impl;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Array;
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
+import com.google.cloud.verticals.foundations.dataharmonization.data.path.Path;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * PackedArray is an {@link Array} optimized for arrays of numbers or of strings, such as
+ * observation values or code lists.
+ *
+ * <p>Arrays made up only of {@link NumberPrimitive}s are stored as a {@code double[]}, and arrays
+ * made up only of {@link StringPrimitive}s as a {@code String[]}; the primitives themselves are
+ * only created when elements are read. Setting an element that does not fit the packed
+ * representation (or leaving a gap) switches the array to a list of elements, like {@link
+ * DefaultArray}.
+ */
+public final class PackedArray implements Array {
+  // Exactly one of nums, strs and elements is set. The packed arrays may be longer than size.
+  private transient double[] nums;
+  private transient String[] strs;
+  private transient ArrayList<Data> elements;
+  private transient int size;
+
+  @Nullable private transient BitSet fixedElements;
+
+  // The cached hash code of this array, see HashCache.
+  transient volatile long hashStamp;
+
+  private PackedArray(double[] nums, String[] strs, ArrayList<Data> elements, int size) {
+    this.nums = nums;
+    this.strs = strs;
+    this.elements = elements;
+    this.size = size;
+  }
+
+  /**
+   * Returns true iff the given items are all numbers, or all strings, and there is at least one.
+   */
+  public static boolean isPackable(Collection<? extends Data> items) {
+    if (items.isEmpty()) {
+      return false;
+    }
+    Data first = items.iterator().next();
+    Class<?> type = first == null ? null : first.getClass();
+    if (type != NumberPrimitive.class && type != StringPrimitive.class) {
+      return false;
+    }
+    for (Data item : items) {
+      if (item == null || item.getClass() != type) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Create an array holding the given items, packed if they are {@link #isPackable packable}. The
+   * items are not cloned; the copy is shallow.
+   */
+  public static PackedArray of(Collection<? extends Data> items) {
+    if (!isPackable(items)) {
+      return new PackedArray(null, null, new ArrayList<>(items), items.size());
+    }
+    int i = 0;
+    if (items.iterator().next() instanceof NumberPrimitive) {
+      double[] nums = new double[items.size()];
+      for (Data item : items) {
+        nums[i++] = ((NumberPrimitive) item).numValue();
+      }
+      return new PackedArray(nums, null, null, nums.length);
+    }
+    String[] strs = new String[items.size()];
+    for (Data item : items) {
+      strs[i++] = ((StringPrimitive) item).string();
+    }
+    return new PackedArray(null, strs, null, strs.length);
+  }
+
+  /** Returns true iff the elements are stored packed, as numbers or strings. */
+  boolean isPacked() {
+    return elements == null;
+  }
+
+  @Nonnull
+  @Override
+  public Data getElement(int index) {
+    if (index >= size) {
+      return NullData.instance;
+    }
+    if (nums != null) {
+      // Like the elements of a DefaultArray, those of different arrays (e.g. of a deep copy) are
+      // different instances.
+      return NumberPrimitive.unshared(nums[index]);
+    }
+    if (strs != null) {
+      return StringPrimitive.of(strs[index]);
+    }
+    return elements.get(index);
+  }
+
+  @CanIgnoreReturnValue
+  @Override
+  public PackedArray setElement(int index, @Nonnull Data value) {
+    hashStamp = HashCache.invalidate(hashStamp);
+    if (index >= 0 && index <= size) {
+      if (nums != null && value instanceof NumberPrimitive) {
+        nums = ensureCapacity(nums, index);
+        nums[index] = ((NumberPrimitive) value).numValue();
+        size = Math.max(size, index + 1);
+        return this;
+      }
+      if (strs != null && value instanceof StringPrimitive) {
+        strs = ensureCapacity(strs, index);
+        strs[index] = value.asPrimitive().string();
+        size = Math.max(size, index + 1);
+        return this;
+      }
+    }
+    unpack();
+    if (index >= size) {
+      elements.addAll(Collections.nCopies(index - size + 1, NullData.instance));
+      size = elements.size();
+    }
+    elements.set(index, value);
+    return this;
+  }
+
+  private static double[] ensureCapacity(double[] array, int index) {
+    return index < array.length
+        ? array
+        : Arrays.copyOf(array, Math.max(index + 1, array.length * 2));
+  }
+
+  private static String[] ensureCapacity(String[] array, int index) {
+    return index < array.length
+        ? array
+        : Arrays.copyOf(array, Math.max(index + 1, array.length * 2));
+  }
+
+  /** Switches to storing the elements as a list. */
+  private void unpack() {
+    if (elements != null) {
+      return;
+    }
+    ArrayList<Data> unpacked = new ArrayList<>(size + 1);
+    for (int i = 0; i < size; i++) {
+      unpacked.add(getElement(i));
+    }
+    elements = unpacked;
+    nums = null;
+    strs = null;
+  }
+
+  @Override
+  public Array setFixedElement(int index, @Nonnull Data value) {
+    if (fixedElements == null) {
+      fixedElements = new BitSet();
+    }
+    fixedElements.set(index);
+    return setElement(index, value);
+  }
+
+  @Override
+  public boolean isFixed(int index) {
+    return fixedElements != null && fixedElements.get(index);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Data deepCopy() {
+    if (nums != null) {
+      return new PackedArray(Arrays.copyOf(nums, size), null, null, size);
+    }
+    if (strs != null) {
+      return new PackedArray(null, Arrays.copyOf(strs, size), null, size);
+    }
+    ArrayList<Data> copy = new ArrayList<>(size);
+    for (Data element : elements) {
+      copy.add(element.deepCopy());
+    }
+    return new PackedArray(null, null, copy, size);
+  }
+
+  @Override
+  public boolean isWritable() {
+    return true;
+  }
+
+  @Override
+  public Stream<Data> stream() {
+    return elements != null ? elements.stream() : Array.super.stream();
+  }
+
+  @Override
+  public Array getThrough(Path remainingPath) {
+    return of(
+        stream()
+            .map(remainingPath::get)
+            .filter(d -> !d.isNullOrEmpty())
+            .collect(Collectors.toList()));
+  }
+
+  @Override
+  public Array flatten() {
+    return of(stream().flatMap(d -> d.asArray().stream()).collect(Collectors.toList()));
+  }
+
+  @Override
+  public boolean isCollectable() {
+    return true;
+  }
+
+  @Override
+  public Array newArray(List<Data> elements) {
+    return of(elements);
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (!(o instanceof Data) || !((Data) o).isArray()) {
+      return false;
+    }
+    final Array other = ((Data) o).asArray();
+    if (other.size() != size || HashCache.knownUnequal(this, other)) {
+      return false;
+    }
+    if (other instanceof PackedArray) {
+      PackedArray packed = (PackedArray) other;
+      if (nums != null && packed.nums != null) {
+        // Like NumberPrimitive, compares numbers as Doubles.
+        for (int i = 0; i < size; i++) {
+          if (Double.doubleToLongBits(nums[i]) != Double.doubleToLongBits(packed.nums[i])) {
+            return false;
+          }
+        }
+        return true;
+      }
+      if (strs != null && packed.strs != null) {
+        for (int i = 0; i < size; i++) {
+          if (!strs[i].equals(packed.strs[i])) {
+            return false;
+          }
+        }
+        return true;
+      }
+    }
+    for (int i = 0; i < size; ++i) {
+      if (!other.getElement(i).equals(getElement(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the same hash code as a {@link java.util.List} of the elements, like DefaultArray. The
+   * hash code is cached until this array or any value in it is modified (see {@link HashCache}).
+   */
+  @Override
+  public int hashCode() {
+    int epoch = HashCache.epoch();
+    long stamp = hashStamp;
+    if (HashCache.isValid(stamp, epoch)) {
+      return HashCache.hash(stamp);
+    }
+
+    int hash = 1;
+    boolean stable = true;
+    for (int i = 0; i < size; i++) {
+      Data element = getElement(i);
+      hash = 31 * hash + (element == null ? 0 : element.hashCode());
+      stable &= HashCache.isStable(element, epoch);
+    }
+    if (size == 0) {
+      hash = NullData.instance.hashCode();
+    }
+    if (stable) {
+      hashStamp = HashCache.stamp(epoch, hash);
+    }
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append('[');
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        sb.append(',').append(' ');
+      }
+      sb.append(getElement(i));
+    }
+    return sb.append(']').toString();
+  }
+
+  private void writeObject(ObjectOutputStream oos) throws IOException {
+    oos.writeInt(size);
+    oos.writeObject(nums == null ? null : Arrays.copyOf(nums, size));
+    oos.writeObject(strs == null ? null : Arrays.copyOf(strs, size));
+    oos.writeObject(elements);
+    oos.writeObject(fixedElements);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void readObject(ObjectInputStream ois) throws ClassNotFoundException, IOException {
+    size = ois.readInt();
+    nums = (double[]) ois.readObject();
+    strs = (String[]) ois.readObject();
+    elements = (ArrayList<Data>) ois.readObject();
+    fixedElements = (BitSet) ois.readObject();
+  }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.verticals.foundations.dataharmonization.data.impl;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Array;
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
+import com.google.cloud.verticals.foundations.dataharmonization.data.path.Path;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+
+/**
+ * PersistentArray is an {@link Array} whose {@link #deepCopy()} shares its elements with the copy,
+ * rather than copying them.
+ *
+ * <p>Like {@link PersistentContainer}, a copy shares its elements with the original until either of
+ * them is modified or hands out one of its writable elements, and writable elements that were
+ * handed out (or set) before the array is copied are never shared with the copy.
+ */
+public class PersistentArray implements Array {
+  private List<Data> array;
+  private Set<Integer> fixedElements = new HashSet<>();
+
+  // Whether the elements may be shared with copies of this array.
+  private transient boolean shared;
+
+  // Whether writable elements may be referenced from outside this array, having been handed out
+  // (e.g. by getElement or stream) or passed to setElement. Never set while shared.
+  private transient boolean handedOut;
+
+  public PersistentArray() {
+    this(new ArrayList<>(), false);
+  }
+
+  /**
+   * Create an array by copying items from some existing list. The items are not cloned; the copy is
+   * shallow.
+   */
+  public PersistentArray(Collection<? extends Data> array) {
+    this(new ArrayList<>(array), false);
+    handedOut = true;
+  }
+
+  private PersistentArray(List<Data> array, boolean shared) {
+    this.array = array;
+    this.shared = shared;
+  }
+
+  /** Stops sharing elements with copies, by copying them and (lazily) their writable values. */
+  private void own() {
+    if (!shared) {
+      return;
+    }
+    array = copyElements(array);
+    shared = false;
+  }
+
+  /** Returns a list of the given elements, with (lazy) copies of the writable ones. */
+  private static List<Data> copyElements(List<Data> elements) {
+    List<Data> copy = new ArrayList<>(elements.size());
+    for (Data element : elements) {
+      copy.add(isShareable(element) ? element.deepCopy() : element);
+    }
+    return copy;
+  }
+
+  private static boolean isShareable(Data element) {
+    return element != null && element.isWritable();
+  }
+
+  @Nonnull
+  @Override
+  public Data getElement(int index) {
+    if (index >= size()) {
+      return NullData.instance;
+    }
+    Data element = array.get(index);
+    if (isShareable(element)) {
+      if (shared) {
+        own();
+        element = array.get(index);
+      }
+      handedOut = true;
+    }
+    return element;
+  }
+
+  @CanIgnoreReturnValue
+  @Override
+  public PersistentArray setElement(int index, @Nonnull Data value) {
+    own();
+    if (index >= size()) {
+      array.addAll(Collections.nCopies(index - size() + 1, NullData.instance));
+    }
+    array.set(index, value);
+    handedOut |= isShareable(value);
+    return this;
+  }
+
+  @Override
+  public Array setFixedElement(int index, @Nonnull Data value) {
+    fixedElements.add(index);
+    return setElement(index, value);
+  }
+
+  @Override
+  public boolean isFixed(int index) {
+    return fixedElements.contains(index);
+  }
+
+  @Override
+  public int size() {
+    return array.size();
+  }
+
+  @Override
+  public Data deepCopy() {
+    if (handedOut) {
+      return new PersistentArray(copyElements(array), false);
+    }
+    shared = true;
+    return new PersistentArray(array, true);
+  }
+
+  @Override
+  public boolean isWritable() {
+    return true;
+  }
+
+  @Override
+  public Stream<Data> stream() {
+    own();
+    handedOut = true;
+    return array.stream();
+  }
+
+  @Override
+  public Array getThrough(Path remainingPath) {
+    return new PersistentArray(
+        stream()
+            .map(remainingPath::get)
+            .filter(d -> !d.isNullOrEmpty())
+            .collect(Collectors.toList()));
+  }
+
+  @Override
+  public Array flatten() {
+    return new PersistentArray(
+        stream().flatMap(d -> d.asArray().stream()).collect(Collectors.toList()));
+  }
+
+  @Override
+  public boolean isCollectable() {
+    return true;
+  }
+
+  @Override
+  public Array newArray(List<Data> elements) {
+    return new PersistentArray(elements);
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (!(o instanceof Data) || !((Data) o).isArray()) {
+      return false;
+    }
+    final Array other = ((Data) o).asArray();
+    if (other instanceof PersistentArray && ((PersistentArray) other).array == array) {
+      return true;
+    }
+    if (other.size() != size()) {
+      return false;
+    }
+    for (int i = 0; i < size(); ++i) {
+      if (!other.getElement(i).equals(array.get(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    if (isNullOrEmpty()) {
+      return NullData.instance.hashCode();
+    }
+    return array.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return array.toString();
+  }
+
+  private void writeObject(ObjectOutputStream oos) throws IOException {
+    oos.writeObject(array);
+    oos.writeObject(fixedElements);
+    oos.writeBoolean(shared);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void readObject(ObjectInputStream ois) throws ClassNotFoundException, IOException {
+    array = (List<Data>) ois.readObject();
+    fixedElements = (Set<Integer>) ois.readObject();
+    shared = ois.readBoolean();
+  }
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.verticals.foundations.dataharmonization.data.impl;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Container;
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Sets;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
+
+/**
+ * PersistentContainer is a {@link Container} whose {@link #deepCopy()} shares its fields with the
+ * copy, rather than copying them.
+ *
+ * <p>A copy shares its fields with the original until either of them is modified, or hands out one
+ * of its writable values (e.g. a nested container, which the caller may then modify). At that point
+ * the container copies its own fields, and lazily copies each writable value the same way, so only
+ * the path to what is read or modified is ever copied.
+ *
+ * <p>Writable values that were handed out (or set) before a container is copied may still be
+ * modified through references held elsewhere, so they are never shared with the copy: the original
+ * keeps them, and the copy gets (lazy) copies of its writable values instead. Copying is constant
+ * time unless such values were handed out, and linear in the number of fields otherwise.
+ */
+public class PersistentContainer implements Container {
+  private Map<String, Data> fields;
+
+  // Whether fields may be shared with copies of this container.
+  private transient boolean shared;
+
+  // Whether writable values may be referenced from outside this container, having been handed out
+  // by getField or passed to setField. Never set while shared.
+  private transient boolean handedOut;
+
+  public PersistentContainer() {
+    this(new HashMap<>(), false);
+  }
+
+  /**
+   * Create a Container by copying items from some existing map. The items are not cloned; the copy
+   * is shallow.
+   */
+  public PersistentContainer(Map<String, ? extends Data> container) {
+    this(new HashMap<>(container), false);
+    handedOut = true;
+  }
+
+  private PersistentContainer(Map<String, Data> fields, boolean shared) {
+    this.fields = fields;
+    this.shared = shared;
+  }
+
+  /** Stops sharing fields with copies, by copying them and (lazily) their writable values. */
+  private void own() {
+    if (!shared) {
+      return;
+    }
+    fields = copyValues(fields);
+    shared = false;
+  }
+
+  /** Returns a map of the given fields, with (lazy) copies of their writable values. */
+  private static HashMap<String, Data> copyValues(Map<String, Data> fields) {
+    HashMap<String, Data> copy = new HashMap<>(fields);
+    copy.replaceAll((field, value) -> isShareable(value) ? value.deepCopy() : value);
+    return copy;
+  }
+
+  private static boolean isShareable(Data value) {
+    return value != null && value.isWritable();
+  }
+
+  @Nonnull
+  @Override
+  public Data getField(String field) {
+    Data value = fields.getOrDefault(field, NullData.instance);
+    if (isShareable(value)) {
+      if (shared) {
+        own();
+        value = fields.get(field);
+      }
+      handedOut = true;
+    }
+    return value;
+  }
+
+  @CanIgnoreReturnValue
+  @Override
+  public PersistentContainer setField(@Nonnull String field, Data value) {
+    own();
+    fields.put(field, value);
+    handedOut |= isShareable(value);
+    return this;
+  }
+
+  @CanIgnoreReturnValue
+  @Override
+  public Container removeField(@Nonnull String field) {
+    if (fields.containsKey(field)) {
+      own();
+      fields.remove(field);
+    }
+    return this;
+  }
+
+  @Nonnull
+  @Override
+  public Set<String> fields() {
+    return ImmutableSortedSet.copyOf(fields.keySet());
+  }
+
+  @Override
+  public Set<String> nonNullFields() {
+    return Sets.filter(
+        fields(),
+        f -> {
+          Data value = fields.get(f);
+          return value != null && !value.isNullOrEmpty();
+        });
+  }
+
+  @Override
+  public boolean isNullOrEmpty() {
+    for (Data value : fields.values()) {
+      if (value != null && !value.isNullOrEmpty()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public Data deepCopy() {
+    if (handedOut) {
+      return new PersistentContainer(copyValues(fields), false);
+    }
+    shared = true;
+    return new PersistentContainer(fields, true);
+  }
+
+  @Override
+  public boolean isWritable() {
+    return true;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (!(o instanceof Data) || !((Data) o).isContainer()) {
+      return false;
+    }
+    final Container other = ((Data) o).asContainer();
+    if (other instanceof PersistentContainer && ((PersistentContainer) other).fields == fields) {
+      return true;
+    }
+
+    if (other.nonNullFields().size() != nonNullFields().size()) {
+      return false;
+    }
+    for (Map.Entry<String, Data> field : fields.entrySet()) {
+      Data value = field.getValue() == null ? NullData.instance : field.getValue();
+      if (!other.getField(field.getKey()).equals(value)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Returns the same hash code as a {@link Map} of the non-empty fields, like DefaultContainer. */
+  @Override
+  public int hashCode() {
+    if (isNullOrEmpty()) {
+      return NullData.instance.hashCode();
+    }
+    int hash = 0;
+    for (Map.Entry<String, Data> field : fields.entrySet()) {
+      Data value = field.getValue();
+      if (value != null && !value.isNullOrEmpty()) {
+        hash += field.getKey().hashCode() ^ value.hashCode();
+      }
+    }
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    Iterator<String> i = fields().iterator();
+    if (!i.hasNext()) {
+      return "{}";
+    }
+    StringBuilder sb = new StringBuilder();
+    sb.append('{');
+    for (; ; ) {
+      String key = i.next();
+      sb.append(key);
+      sb.append('=');
+      sb.append(fields.get(key));
+      if (!i.hasNext()) {
+        return sb.append('}').toString();
+      }
+      sb.append(',').append(' ');
+    }
+  }
+
+  /**
+   * Serializes the fields in sorted order, so that equal containers serialize identically. Whether
+   * they are shared is kept, since copies deserialized together still share their values.
+   */
+  private void writeObject(ObjectOutputStream oos) throws IOException {
+    Map<String, Data> sorted = new LinkedHashMap<>();
+    for (String field : fields()) {
+      sorted.put(field, fields.get(field));
+    }
+    oos.writeObject(sorted);
+    oos.writeBoolean(shared);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void readObject(ObjectInputStream ois) throws ClassNotFoundException, IOException {
+    fields = new HashMap<>((Map<String, Data>) ois.readObject());
+    shared = ois.readBoolean();
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.verticals.foundations.dataharmonization.data.impl;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
+import com.google.cloud.verticals.foundations.dataharmonization.data.Primitive;
+
+/**
+ * StringPrimitive is a {@link Primitive} holding a string. It equals (and has the same hash code
+ * as) any other primitive holding the same string. Like {@link DefaultPrimitive}, the empty string
+ * is null or empty.
+ */
+public final class StringPrimitive implements Primitive {
+  /** The empty string. */
+  public static final StringPrimitive EMPTY = new StringPrimitive("");
+
+  private final String str;
+
+  private StringPrimitive(String str) {
+    this.str = str;
+  }
+
+  /** Returns a primitive of the given (non-null) string, shared for the empty string. */
+  public static StringPrimitive of(String str) {
+    return str.isEmpty() ? EMPTY : new StringPrimitive(str);
+  }
+
+  @Override
+  public Double num() {
+    return null;
+  }
+
+  @Override
+  public String string() {
+    return str;
+  }
+
+  @Override
+  public Boolean bool() {
+    return null;
+  }
+
+  @Override
+  public boolean isNullOrEmpty() {
+    return str.isEmpty();
+  }
+
+  @Override
+  public Data deepCopy() {
+    return new StringPrimitive(str);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (o instanceof StringPrimitive) {
+      return str.equals(((StringPrimitive) o).str);
+    }
+    if (!(o instanceof Data) || !((Data) o).isPrimitive()) {
+      return false;
+    }
+    Primitive other = ((Data) o).asPrimitive();
+    return (str.equals(other.string()) && other.num() == null && other.bool() == null)
+        || (isNullOrEmpty() && other.isNullOrEmpty());
+  }
+
+  /** Returns the same hash code as {@link DefaultPrimitive}, i.e. of {@code [null, null, str]}. */
+  @Override
+  public int hashCode() {
+    if (isNullOrEmpty()) {
+      return NullData.instance.hashCode();
+    }
+    return 31 * 31 * 31 + str.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return str;
+  }
+}
@@ -28,13 +28,16 @@ public class AppendMergeStrategy implements MergeStrategy {
 
   @Override
   public Data merge(DataTypeImplementation dti, Data current, Data inbound, Path pathInCurrent) {
-    Data target = pathInCurrent.get(current);
-    if (!target.isArray()) {
-      throw new IllegalArgumentException(
-          String.format(
-              "Cannot append to %s. Was it meant to be an array?", Core.prettyTypes(target)));
-    }
-    target = target.asArray().setElement(target.asArray().size(), inbound);
-    return pathInCurrent.set(dti, current, target);
+    return pathInCurrent.update(
+        dti,
+        current,
+        target -> {
+          if (!target.isArray()) {
+            throw new IllegalArgumentException(
+                String.format(
+                    "Cannot append to %s. Was it meant to be an array?", Core.prettyTypes(target)));
+          }
+          return target.asArray().setElement(target.asArray().size(), inbound);
+        });
   }
 }
@@ -21,7 +21,6 @@ import com.google.cloud.verticals.foundations.dataharmonization.data.Container;
 import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
 import com.google.cloud.verticals.foundations.dataharmonization.data.DataTypeImplementation;
 import com.google.cloud.verticals.foundations.dataharmonization.data.path.Path;
-import java.util.Set;
 
 /**
  * Implements default merge strategy.
@@ -49,8 +48,10 @@ public final class DefaultMergeStrategy implements MergeStrategy {
   @Override
   public Data merge(
       DataTypeImplementation dti, Data currentRoot, Data inbound, Path pathInCurrent) {
-    Data current = pathInCurrent.get(currentRoot);
+    return pathInCurrent.update(dti, currentRoot, current -> merge(dti, current, inbound));
+  }
 
+  private static Data merge(DataTypeImplementation dti, Data current, Data inbound) {
     Data mergeResult;
     if (current.isNullOrEmpty()) {
       mergeResult = inbound;
@@ -68,7 +69,7 @@ public final class DefaultMergeStrategy implements MergeStrategy {
     } else {
       mergeResult = inbound;
     }
-    return pathInCurrent.set(dti, currentRoot, mergeResult);
+    return mergeResult;
   }
 
   private static Data mergeArrays(
@@ -83,6 +84,7 @@ public final class DefaultMergeStrategy implements MergeStrategy {
       inbound = inbound.deepCopy().asArray();
     }
 
+    dataTypeImplementation.beforeWrite(inbound.size());
     for (int i = 0; i < inbound.size(); i++) {
       if (inbound.isFixed(i)) {
         current =
@@ -104,18 +106,7 @@ public final class DefaultMergeStrategy implements MergeStrategy {
     if (current.isNullOrEmpty()) {
       return inbound;
     }
-    Set<String> ccFields = current.fields();
-    for (String f : inbound.fields()) {
-      current =
-          current.setField(
-              f,
-              ccFields.contains(f)
-                  ? current
-                      .getField(f)
-                      .merge(inbound.getField(f), dataTypeImplementation)
-                  : inbound.getField(f));
-    }
-    return current;
+    return current.mergeFrom(inbound, MergeMode.MERGE, dataTypeImplementation);
   }
 
   private static void verifyNotMergingIntoImmutable(Data current, Data inbound) {
@@ -32,7 +32,10 @@ public class ExtendMergeStrategy implements MergeStrategy {
 
   @Override
   public Data merge(DataTypeImplementation dti, Data current, Data inbound, Path pathInCurrent) {
-    Data target = pathInCurrent.get(current);
+    return pathInCurrent.update(dti, current, target -> extendTarget(dti, target, inbound));
+  }
+
+  private static Data extendTarget(DataTypeImplementation dti, Data target, Data inbound) {
     if (target.isArray()) {
       if (!inbound.isArray()) {
         throw new IllegalArgumentException(
@@ -40,6 +43,7 @@ public class ExtendMergeStrategy implements MergeStrategy {
                 "%s cannot be extended with %s. Did you mean to 'append'?",
                 Core.prettyTypes(target), Core.prettyTypes(inbound)));
       }
+      dti.beforeWrite(inbound.asArray().size());
       target = concat(target.asArray(), inbound.asArray());
     } else if (target.isContainer()) {
       if (!inbound.isContainer()) {
@@ -48,6 +52,7 @@ public class ExtendMergeStrategy implements MergeStrategy {
                 "%s cannot be extended with %s. Was the target meant to be an array?",
                 Core.prettyTypes(target), Core.prettyTypes(inbound)));
       }
+      dti.beforeWrite(inbound.asContainer().fields().size());
       target = extend(target.asContainer(), inbound.asContainer());
     } else {
       throw new IllegalArgumentException(
@@ -55,7 +60,7 @@ public class ExtendMergeStrategy implements MergeStrategy {
               "'extend' is not applicable to %s. Was it meant to be an array or container?",
               Core.prettyTypes(target)));
     }
-    return pathInCurrent.set(dti, current, target);
+    return target;
   }
 
   public static Array concat(Array a, Array b) {
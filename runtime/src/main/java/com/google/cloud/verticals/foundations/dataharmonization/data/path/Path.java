@@ -20,6 +20,8 @@ import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
 import com.google.cloud.verticals.foundations.dataharmonization.data.DataTypeImplementation;
 import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
 import com.google.common.base.VerifyException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import java.io.IOException;
 import java.io.ObjectInputStream;
@@ -28,6 +30,8 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.UnaryOperator;
 
 /** Path represents a JSONPath style path through Data. */
 public final class Path implements Serializable {
@@ -49,10 +53,35 @@ public final class Path implements Serializable {
   /** Character delimiting to path segments. */
   static final char SEGMENT_DELIM_CHAR = '.';
 
+  /** The maximum number of parsed paths to cache. */
+  private static final int MAX_PARSED = 4096;
+
+  // Paths are immutable, so those parsed from the same strings over and over can be shared.
+  private static final Cache<String, Path> parsed =
+      CacheBuilder.newBuilder().maximumSize(MAX_PARSED).build();
+
+  private static final Path EMPTY = new Path(ImmutableList.of());
+
   private List<PathSegment> segments;
 
+  // True iff any segment is a projection (see PathSegment#isProjection).
+  private transient boolean hasProjections;
+
+  // The paths returned by from(int), created on first use.
+  private transient volatile AtomicReferenceArray<Path> suffixes;
+
   private Path(List<PathSegment> segments) {
     this.segments = segments;
+    this.hasProjections = hasProjections(segments);
+  }
+
+  private static boolean hasProjections(List<PathSegment> segments) {
+    for (PathSegment segment : segments) {
+      if (segment.isProjection()) {
+        return true;
+      }
+    }
+    return false;
   }
 
   /**
@@ -69,9 +98,24 @@ public final class Path implements Serializable {
    *   <li>A wildcard like [*], literally.
    * </ul>
    *
+   * <p>Paths parsed from strings are cached, so parsing the same string again (as sources, targets
+   * and {@code get} calls do every time they execute) returns the same path without parsing it.
+   *
    * @param path The path to parse.
    */
   public static Path parse(CharSequence path) {
+    if (!(path instanceof String)) {
+      return parseUncached(path);
+    }
+    Path result = parsed.getIfPresent(path);
+    if (result == null) {
+      result = parseUncached(path);
+      parsed.put((String) path, result);
+    }
+    return result;
+  }
+
+  private static Path parseUncached(CharSequence path) {
     if (path == null || path.length() == 0) {
       return empty();
     }
@@ -119,7 +163,7 @@ public final class Path implements Serializable {
       segments.set(lastWildcardIndex, new Wildcard(/* flatten */ false));
     }
 
-    return new Path(segments);
+    return new Path(ImmutableList.copyOf(segments));
   }
 
   private static void consumeField(ConsumeResult result, CharSequence path, int i) {
@@ -206,7 +250,7 @@ public final class Path implements Serializable {
 
   /** Creates an empty path. get(R) returns R, and set(R, x) returns x without modifying R. */
   public static Path empty() {
-    return new Path(ImmutableList.of());
+    return EMPTY;
   }
 
   public static Path of(Collection<PathSegment> segments) {
@@ -220,13 +264,62 @@ public final class Path implements Serializable {
    *     this path does not exist under the root.
    */
   public Data get(Data root) {
-    if (segments.isEmpty()) {
-      return root;
+    return get(root, 0);
+  }
+
+  /**
+   * Applies the segments of this {@link Path} from the given index on to the given {@link Data} and
+   * returns the value, like {@code from(fromSegment).get(root)}.
+   *
+   * <p>Segments are applied one after the other, without allocating. Only {@link
+   * PathSegment#isProjection() projections} (i.e. wildcards) are handed the rest of the path, to
+   * apply it to each value they project through.
+   *
+   * @param root the value to apply the path to.
+   * @param fromSegment the index of the first segment to apply.
+   * @return the value at the location under the given root, or {@link NullData} if some part of
+   *     this path does not exist under the root.
+   */
+  public Data get(Data root, int fromSegment) {
+    Data current = root;
+    if (!hasProjections) {
+      for (int i = fromSegment; i < segments.size(); i++) {
+        current = segments.get(i).get(current);
+      }
+      return current;
+    }
+    for (int i = fromSegment; i < segments.size(); i++) {
+      PathSegment segment = segments.get(i);
+      if (segment.isProjection()) {
+        return segment.get(current, this, i + 1);
+      }
+      current = segment.get(current);
     }
+    return current;
+  }
 
-    PathSegment head = segments.get(0);
-    Path rest = new Path(segments.subList(1, segments.size()));
-    return head.get(root, rest);
+  /**
+   * Returns the path made of the segments of this one from the given index on. The returned paths
+   * are remembered, so asking for the same suffix again does not allocate.
+   */
+  public Path from(int fromSegment) {
+    if (fromSegment == 0) {
+      return this;
+    }
+    if (fromSegment >= segments.size()) {
+      return EMPTY;
+    }
+    AtomicReferenceArray<Path> suffixes = this.suffixes;
+    if (suffixes == null) {
+      suffixes = new AtomicReferenceArray<>(segments.size());
+      this.suffixes = suffixes;
+    }
+    Path suffix = suffixes.get(fromSegment);
+    if (suffix == null) {
+      suffix = new Path(segments.subList(fromSegment, segments.size()));
+      suffixes.set(fromSegment, suffix);
+    }
+    return suffix;
   }
 
   /**
@@ -241,6 +334,7 @@ public final class Path implements Serializable {
    *     returned.
    */
   public Data set(DataTypeImplementation dti, Data root, Data value) {
+    dti.beforeWrite(1);
     return set(dti, root, value, 0);
   }
 
@@ -259,6 +353,48 @@ public final class Path implements Serializable {
     return container;
   }
 
+  /**
+   * Replaces the value at the location specified by this {@link Path} under the given {@link Data}
+   * with the result of the given function, which is passed the current value (or {@link NullData}
+   * if there is none). This is the same as {@code set(dti, root, update.apply(get(root)))}, but the
+   * path is only walked once: every segment is resolved to read the current value, and the same
+   * parents are then written to on the way back up.
+   *
+   * <p>Missing intermediate values are created like in {@link #set}, but are only attached to their
+   * parents after the function returns, so nothing is modified if it throws.
+   *
+   * @param dti used to supply empty containers and arrays when intermediate value is missing.
+   * @param root the parent data to apply the path to, and under which to set the new value.
+   * @param update computes the new value from the current one.
+   * @return if a new root was created, this new parent is returned. Otherwise the given root is
+   *     returned.
+   */
+  public Data update(DataTypeImplementation dti, Data root, UnaryOperator<Data> update) {
+    if (hasProjections) {
+      // Wildcards are read through but cannot be written to, so keep the failure set would have.
+      return set(dti, root, update.apply(get(root)));
+    }
+    dti.beforeWrite(1);
+    return update(dti, root, update, 0);
+  }
+
+  private Data update(
+      DataTypeImplementation dti,
+      Data container,
+      UnaryOperator<Data> update,
+      int pathSegmentIndex) {
+    if (pathSegmentIndex >= segments.size()) {
+      return update.apply(container);
+    }
+    PathSegment segment = segments.get(pathSegmentIndex);
+    if (container == null || (container.isNullOrEmpty() && !container.isWritable())) {
+      container = segment.create(dti);
+    }
+
+    Data value = update(dti, segment.get(container), update, pathSegmentIndex + 1);
+    return segment.set(container, value);
+  }
+
   private void writeObject(ObjectOutputStream stream) throws IOException {
     stream.writeObject(ImmutableList.copyOf(segments));
   }
@@ -266,6 +402,7 @@ public final class Path implements Serializable {
   @SuppressWarnings("unchecked") // The cast is fine, object is written above.
   private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
     segments = (List<PathSegment>) stream.readObject();
+    hasProjections = hasProjections(segments);
   }
 
   // Auto-generated equality members.
@@ -298,6 +435,16 @@ public final class Path implements Serializable {
     return segments.hashCode();
   }
 
+  /** Returns the number of segments in this path. */
+  int size() {
+    return segments.size();
+  }
+
+  /** Returns the segment at the given index. */
+  PathSegment segment(int index) {
+    return segments.get(index);
+  }
+
   /** Returns true iff this path is an empty path. */
   public boolean isEmpty() {
     return segments.isEmpty();
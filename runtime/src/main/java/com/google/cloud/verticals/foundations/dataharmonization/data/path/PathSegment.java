@@ -88,6 +88,27 @@ public interface PathSegment extends Serializable {
     return remainingPath.get(get(data));
   }
 
+  /**
+   * Retrieves the value of this segment from the given data and applies the segments of the given
+   * path from {@code nextSegment} on to it. This is the same as {@link #get(Data, Path)} with
+   * {@code path.from(nextSegment)} as the remaining path, but lets {@link Path#get(Data, int)} walk
+   * through paths without creating a remaining path for each segment.
+   */
+  @Nonnull
+  default Data get(@Nonnull Data data, Path path, int nextSegment) {
+    return path.get(get(data), nextSegment);
+  }
+
+  /**
+   * Returns true if this segment applies the remaining path to many values (like a {@link
+   * Wildcard}), instead of selecting a single value that the remaining path is then applied to.
+   * {@link Path#get(Data, int)} hands the remaining path to projections (through {@link #get(Data,
+   * Path, int)}), and applies all other segments with {@link #get(Data)} alone.
+   */
+  default boolean isProjection() {
+    return false;
+  }
+
   @Nonnull
   Data get(@Nonnull Data data);
 
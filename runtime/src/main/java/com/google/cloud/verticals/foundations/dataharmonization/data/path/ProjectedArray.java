@@ -0,0 +1,179 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.verticals.foundations.dataharmonization.data.path;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Array;
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Iterators;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * The result of applying a {@link Wildcard} in a {@link Path} to a {@link Array#isCollectable()
+ * collectable} array: a view of the matches, which creates the array of the same kind holding them
+ * (see {@link Array#newArray}) only once it is needed.
+ *
+ * <p>The matches are read directly, so builtins that only visit the elements (through {@link
+ * #elements()}) or read the size never create that array; it is materialized when this one is
+ * modified, copied, projected through or serialized, and afterwards all operations go to it. The
+ * matches themselves are found eagerly, since the data they were found in may be modified later.
+ */
+public final class ProjectedArray implements Array {
+  // The array the matches were found in, and the matches, until materialized.
+  @Nullable private transient Array source;
+  @Nullable private transient List<Data> matches;
+  @Nullable private transient Array materialized;
+
+  ProjectedArray(Array source, List<Data> matches) {
+    this.source = source;
+    this.matches = matches;
+  }
+
+  /** Returns the array holding the matches, creating it the first time it is needed. */
+  public Array materialize() {
+    if (materialized == null) {
+      materialized = source.newArray(matches);
+      source = null;
+      matches = null;
+    }
+    return materialized;
+  }
+
+  @VisibleForTesting
+  boolean isMaterialized() {
+    return materialized != null;
+  }
+
+  @Nonnull
+  @Override
+  public Data getElement(int index) {
+    if (materialized != null) {
+      return materialized.getElement(index);
+    }
+    return index < matches.size() ? matches.get(index) : NullData.instance;
+  }
+
+  @Override
+  public Array setElement(int index, @Nonnull Data value) {
+    materialized = materialize().setElement(index, value);
+    return this;
+  }
+
+  @Override
+  public Array setFixedElement(int index, @Nonnull Data value) {
+    materialized = materialize().setFixedElement(index, value);
+    return this;
+  }
+
+  @Override
+  public boolean isFixed(int index) {
+    return materialized != null && materialized.isFixed(index);
+  }
+
+  @Override
+  public int size() {
+    return materialized != null ? materialized.size() : matches.size();
+  }
+
+  @Override
+  public Iterator<Data> elements() {
+    return materialized != null
+        ? materialized.elements()
+        : Iterators.unmodifiableIterator(matches.iterator());
+  }
+
+  @Override
+  public Stream<Data> stream() {
+    return materialized != null ? materialized.stream() : matches.stream();
+  }
+
+  @Override
+  public Data deepCopy() {
+    return materialize().deepCopy();
+  }
+
+  @Override
+  public boolean isWritable() {
+    return true;
+  }
+
+  @Override
+  public Array getThrough(Path remainingPath) {
+    return materialize().getThrough(remainingPath);
+  }
+
+  @Override
+  public Array flatten() {
+    return materialize().flatten();
+  }
+
+  @Override
+  public boolean isCollectable() {
+    return materialized != null ? materialized.isCollectable() : source.isCollectable();
+  }
+
+  @Override
+  public Array newArray(List<Data> elements) {
+    return materialized != null ? materialized.newArray(elements) : source.newArray(elements);
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (materialized != null) {
+      return materialized.equals(o);
+    }
+    if (o == this) {
+      return true;
+    }
+    if (!(o instanceof Data) || !((Data) o).isArray()) {
+      return false;
+    }
+    final Array other = ((Data) o).asArray();
+    if (other.size() != matches.size()) {
+      return false;
+    }
+    for (int i = 0; i < matches.size(); ++i) {
+      if (!other.getElement(i).equals(matches.get(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Returns the same hash code as a {@link List} of the elements, like the built-in arrays. */
+  @Override
+  public int hashCode() {
+    if (materialized != null) {
+      return materialized.hashCode();
+    }
+    return matches.isEmpty() ? NullData.instance.hashCode() : matches.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return materialized != null ? materialized.toString() : matches.toString();
+  }
+
+  /** The view itself is not serialized, only the array it materializes. */
+  private Object writeReplace() {
+    return materialize();
+  }
+}
@@ -16,15 +16,26 @@
 
 package com.google.cloud.verticals.foundations.dataharmonization.data.path;
 
+import com.google.cloud.verticals.foundations.dataharmonization.data.Array;
 import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
 import com.google.cloud.verticals.foundations.dataharmonization.data.DataTypeImplementation;
 import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
 import com.google.cloud.verticals.foundations.dataharmonization.data.TransparentCollection;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import javax.annotation.Nonnull;
 
 /**
  * A Wildcard path segment projects through all elements in an array. That is, the remainder of the
  * path is applied to each element in the array, and the results are composed back into an array.
+ *
+ * <p>When applied as part of a {@link Path} to a {@link Array#isCollectable() collectable} array,
+ * the matches are collected in a single pass and returned as a {@link ProjectedArray}: nested
+ * wildcards whose results would be flattened add their matches directly, rather than each creating
+ * an intermediate array (and {@link TransparentCollection#flatten() flattening} it). Other
+ * collections, like datasets, are projected through with {@link
+ * TransparentCollection#getThrough(Path)}.
  */
 public final class Wildcard implements PathSegment {
   private final boolean flatten;
@@ -74,6 +85,67 @@ public final class Wildcard implements PathSegment {
     return got;
   }
 
+  @Nonnull
+  @Override
+  public Data get(@Nonnull Data data, Path path, int nextSegment) {
+    if (data.isNullOrEmpty() || !isCollectable(data)) {
+      return get(data, path.from(nextSegment));
+    }
+    Array array = data.asArray();
+    List<Data> matches = new ArrayList<>(array.size());
+    collect(array, path, nextSegment, matches);
+    return new ProjectedArray(array, matches);
+  }
+
+  private static boolean isCollectable(Data data) {
+    return data.isArray() && data.asArray().isCollectable();
+  }
+
+  /**
+   * Adds the matches of the segments of the given path from {@code nextSegment} on, applied to each
+   * element of the given array, to the given list. These are the elements {@link #get(Data, Path)}
+   * would return.
+   */
+  private void collect(Array array, Path path, int nextSegment, List<Data> matches) {
+    int segments = path.size();
+    for (Iterator<Data> elements = array.elements(); elements.hasNext(); ) {
+      Data value = elements.next();
+      int segment = nextSegment;
+      while (segment < segments && !path.segment(segment).isProjection()) {
+        value = path.segment(segment).get(value);
+        segment++;
+      }
+      if (segment < segments) {
+        PathSegment projection = path.segment(segment);
+        if (flatten
+            && projection instanceof Wildcard
+            && !value.isNullOrEmpty()
+            && isCollectable(value)) {
+          // The nested matches would be flattened into ours, so add them directly.
+          ((Wildcard) projection).collect(value.asArray(), path, segment + 1, matches);
+          continue;
+        }
+        value = projection.get(value, path, segment + 1);
+      }
+
+      if (value.isNullOrEmpty()) {
+        continue;
+      }
+      if (flatten) {
+        for (Iterator<Data> nested = value.asArray().elements(); nested.hasNext(); ) {
+          matches.add(nested.next());
+        }
+      } else {
+        matches.add(value);
+      }
+    }
+  }
+
+  @Override
+  public boolean isProjection() {
+    return true;
+  }
+
   @Override
   public Data set(@Nonnull Data data, Data value) {
     throw new UnsupportedOperationException("Setting through wildcards is not yet supported");
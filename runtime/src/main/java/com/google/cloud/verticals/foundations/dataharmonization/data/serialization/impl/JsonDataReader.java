@@ -0,0 +1,159 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.verticals.foundations.dataharmonization.data.serialization.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Container;
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.DataTypeImplementation;
+import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
+import com.google.cloud.verticals.foundations.dataharmonization.data.impl.DefaultDataTypeImplementation;
+import com.google.cloud.verticals.foundations.dataharmonization.data.serialization.Deserializer;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JsonDataReader deserializes JSON into {@link Data} in a single pass over a Gson {@link
+ * JsonReader}, creating each value through a {@link DataTypeImplementation} as soon as its tokens
+ * are read. No intermediate string or {@link com.google.gson.JsonElement} tree of the document is
+ * held in memory, and bytes are decoded as UTF-8 while they are read.
+ *
+ * <p>Field names are interned per document, so that containers read from the same document (e.g.
+ * the elements of an array of similar objects) share their field name strings.
+ *
+ * <p>Documents are parsed as leniently as {@link com.google.gson.Gson#fromJson(Reader, Class)}
+ * does, and failures are reported with the same exceptions.
+ */
+public final class JsonDataReader implements Deserializer {
+  private final DataTypeImplementation dti;
+
+  public JsonDataReader() {
+    this(DefaultDataTypeImplementation.instance);
+  }
+
+  /**
+   * @param dti the {@link DataTypeImplementation} to create the read values with.
+   */
+  public JsonDataReader(DataTypeImplementation dti) {
+    this.dti = dti;
+  }
+
+  /**
+   * Deserializes UTF-8 encoded JSON into {@link Data}.
+   *
+   * @param json the bytes of the JSON document.
+   * @return the document as Data, or {@link NullData} if the document is null or empty.
+   */
+  @Override
+  public Data deserialize(byte[] json) {
+    return read(new InputStreamReader(new ByteArrayInputStream(json), UTF_8));
+  }
+
+  /** Deserializes a json string into Data. */
+  @Override
+  public Data deserialize(String json) {
+    return read(new StringReader(json));
+  }
+
+  /**
+   * Reads a single JSON document into {@link Data}. The reader is read to its end but not closed.
+   *
+   * @param json the reader to read the JSON document from.
+   * @return the document as Data, or {@link NullData} if the document is null or empty.
+   */
+  public Data read(Reader json) {
+    JsonReader reader = new JsonReader(json);
+    reader.setLenient(true);
+    JsonToken first;
+    Data result;
+    try {
+      try {
+        first = reader.peek();
+      } catch (EOFException e) {
+        // An empty document.
+        return NullData.instance;
+      }
+      result = readValue(reader, new HashMap<>());
+    } catch (IOException | IllegalStateException e) {
+      throw new JsonSyntaxException(e);
+    }
+
+    // Like Gson, only the document itself is read leniently, so trailing data is malformed.
+    reader.setLenient(false);
+    try {
+      if (first != JsonToken.NULL && reader.peek() != JsonToken.END_DOCUMENT) {
+        throw new JsonIOException("JSON document was not fully consumed.");
+      }
+    } catch (MalformedJsonException e) {
+      throw new JsonSyntaxException(e);
+    } catch (IOException e) {
+      throw new JsonIOException(e);
+    }
+    return result;
+  }
+
+  private Data readValue(JsonReader reader, Map<String, String> names) throws IOException {
+    JsonToken token = reader.peek();
+    switch (token) {
+      case BEGIN_OBJECT:
+        Container container = dti.emptyContainer();
+        reader.beginObject();
+        while (reader.hasNext()) {
+          String name = reader.nextName();
+          String interned = names.putIfAbsent(name, name);
+          container =
+              container.setField(interned != null ? interned : name, readValue(reader, names));
+        }
+        reader.endObject();
+        return container;
+      case BEGIN_ARRAY:
+        // Arrays are created from all their elements at once, so that the implementation can pick
+        // a layout for them, e.g. a PackedArray for numbers or strings.
+        List<Data> elements = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+          elements.add(readValue(reader, names));
+        }
+        reader.endArray();
+        return dti.arrayOf(elements);
+      case STRING:
+        return dti.primitiveOf(reader.nextString());
+      case NUMBER:
+        return dti.primitiveOf(reader.nextDouble());
+      case BOOLEAN:
+        return dti.primitiveOf(reader.nextBoolean());
+      case NULL:
+        reader.nextNull();
+        return NullData.instance;
+      default:
+        throw new IllegalStateException(String.format("Unexpected JSON token %s", token));
+    }
+  }
+}
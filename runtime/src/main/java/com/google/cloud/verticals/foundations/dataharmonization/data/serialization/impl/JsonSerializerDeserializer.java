@@ -40,6 +40,8 @@ public class JsonSerializerDeserializer implements Serializer<Data>, Deserialize
 
   private static final JsonSerializerDeserializer jsonSerializerDeserializer;
 
+  private static final JsonDataReader reader = new JsonDataReader();
+
   static {
     GsonBuilder gsonBuilder = new GsonBuilder();
     gsonBuilder.registerTypeAdapter(Primitive.class, new PrimitiveJsonSerializer());
@@ -79,22 +81,21 @@ public class JsonSerializerDeserializer implements Serializer<Data>, Deserialize
   }
 
   /**
-   * Deserializes a byte array into a {@link Data} object using Gson and custom {@link
-   * com.google.gson.JsonDeserializer} TypeAdapter classes supporting {@link Primitive}, {@link
-   * Container}, and {@link Array}
+   * Deserializes a UTF-8 encoded byte array into a {@link Data} object in a single streaming pass
+   * (see {@link JsonDataReader}).
    *
    * @param serializedJson the array of bytes to convert to a {@link Data} object
    * @return {@link Data} object represented by the incoming array of bytes.
    */
   @Override
   public Data deserialize(byte[] serializedJson) {
-    return NullData.wrapNull(gson.fromJson(new String(serializedJson, UTF_8), Data.class));
+    return reader.deserialize(serializedJson);
   }
 
   /** Deserializes a json string into Data. */
   @Override
   public Data deserialize(String serializedJson) {
-    return NullData.wrapNull(gson.fromJson(serializedJson, Data.class));
+    return reader.deserialize(serializedJson);
   }
 
   /**
@@ -22,7 +22,9 @@ import com.google.cloud.verticals.foundations.dataharmonization.debug.proto.Debu
 import com.google.cloud.verticals.foundations.dataharmonization.debug.proto.Debug.FunctionInfo.FunctionType;
 import com.google.cloud.verticals.foundations.dataharmonization.debug.proto.Debug.Source;
 import com.google.cloud.verticals.foundations.dataharmonization.debug.proto.Debug.SourcePosition;
+import com.google.cloud.verticals.foundations.dataharmonization.function.context.StackFrame;
 import com.google.cloud.verticals.foundations.dataharmonization.function.java.PluginFunction;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.DeclaredVariables;
 import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.FieldMapping;
 import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.FunctionCall;
 import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.FunctionDefinition;
@@ -38,11 +40,11 @@ import java.io.Serializable;
 import java.lang.reflect.Method;
 
 /**
- * Contains information useful for debugging about a particular state of execution. That is, a
- * DebugInfo contains what is essentially metadata information about a snapshot of the Program
- * Counter (if Whistle had a Program Counter). A DebugInfo should be created when a function is
- * entered and `callSiteToNextStackFrame` should be updated as this function is pushed down the
- * stack.
+ * Contains information useful for debugging about a particular function. That is, a DebugInfo
+ * contains what is essentially metadata information about a snapshot of the Program Counter (if
+ * Whistle had a Program Counter). A DebugInfo is immutable, and should be created once per function
+ * and shared by all of its stack frames. The callsite to the next stack frame is tracked by the
+ * {@link StackFrame} itself (see {@link StackFrame#getCallSiteToNextStackFrame()}).
  */
 public final class DebugInfo implements Serializable {
   /** FileInfo representing the lack of any file information. */
@@ -63,7 +65,6 @@ public final class DebugInfo implements Serializable {
   private final Source currentSource;
   private final FunctionInfo functionInfo;
   private final String pkg;
-  private Source callSiteToNextStackFrame;
 
   private DebugInfo(
       FileInfo currentFile, Source currentSource, FunctionInfo functionInfo, String pkg) {
@@ -71,7 +72,6 @@ public final class DebugInfo implements Serializable {
     this.currentSource = currentSource;
     this.functionInfo = functionInfo;
     this.pkg = pkg;
-    this.callSiteToNextStackFrame = UNKNOWN_SOURCE;
   }
 
   /** Create a DebugInfo for a Whistle proto-based Function. */
@@ -138,6 +138,8 @@ public final class DebugInfo implements Serializable {
       parser = FileInfo.parser();
     } else if (entryType == FunctionInfo.class) {
       parser = FunctionInfo.parser();
+    } else if (entryType == DeclaredVariables.class) {
+      parser = DeclaredVariables.parser();
     } else {
       throw new IllegalArgumentException(
           String.format("Class %s is not a valid Meta entry type", entryType.getName()));
@@ -179,19 +181,12 @@ public final class DebugInfo implements Serializable {
   }
 
   /**
-   * Sets the callsite to the next stack frame on this DebugInfo. This is useful for tracking calls
-   * along with the context information of the place where the call was made.
+   * Returns the location in the original source code of a callsite (i.e. the {@link Meta} of a
+   * {@link FunctionCall} or {@link FieldMapping}) within the function represented by this
+   * DebugInfo. Callsites without source information default to the current source.
    */
-  public void setCallsiteToNextStackFrame(FunctionCall call) {
-    callSiteToNextStackFrame =
-        getMetaEntry(call.getMeta(), TranspilerData.SOURCE_META_KEY, Source.class, currentSource);
-  }
-
-  /** Sets the callsite to the current mapping. This helps with tracing callsite of target write. */
-  public void setCallsiteToNextStackFrame(FieldMapping mapping) {
-    callSiteToNextStackFrame =
-        getMetaEntry(
-            mapping.getMeta(), TranspilerData.SOURCE_META_KEY, Source.class, currentSource);
+  public Source getCallSiteSource(Meta callSite) {
+    return getMetaEntry(callSite, TranspilerData.SOURCE_META_KEY, Source.class, currentSource);
   }
 
   /** The current file represented by this point of execution. */
@@ -209,14 +204,6 @@ public final class DebugInfo implements Serializable {
     return functionInfo;
   }
 
-  /**
-   * A location of a function call in the original source code that resulted in the stack frame
-   * above this one being pushed.
-   */
-  public Source getCallSiteToNextStackFrame() {
-    return callSiteToNextStackFrame;
-  }
-
   /** The package of the function represented by this DebugInfo */
   public String getPackage() {
     return pkg;
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.verticals.foundations.dataharmonization.exceptions;
+
+/**
+ * Thrown when a transform uses more memory than its budget allows (see {@link
+ * com.google.cloud.verticals.foundations.dataharmonization.init.Engine.Builder#setMemoryBudget}).
+ * Like any other exception thrown by a function, it reaches the caller of the transform as the
+ * cause of a {@link WhistleRuntimeException}.
+ */
+public class MemoryBudgetExceededException extends RuntimeException {
+  private final long usedBytes;
+  private final long maxBytes;
+
+  public MemoryBudgetExceededException(long usedBytes, long maxBytes) {
+    super(
+        String.format(
+            "Transform used about %d bytes of memory, exceeding its budget of %d bytes.",
+            usedBytes, maxBytes));
+    this.usedBytes = usedBytes;
+    this.maxBytes = maxBytes;
+  }
+
+  /** Returns the approximate number of bytes used when the budget was exceeded. */
+  public long getUsedBytes() {
+    return usedBytes;
+  }
+
+  /** Returns the budget that was exceeded, in bytes. */
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+}
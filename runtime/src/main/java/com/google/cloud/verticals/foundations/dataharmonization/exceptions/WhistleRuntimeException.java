@@ -120,7 +120,7 @@ public class WhistleRuntimeException extends RuntimeException {
     ImmutableList.Builder<StackTraceElement> elements = ImmutableList.builder();
     Source callSiteToLastFn =
         cursor != null && cursor.getDebugInfo() != null
-            ? cursor.getDebugInfo().getCallSiteToNextStackFrame()
+            ? cursor.getCallSiteToNextStackFrame()
             : DebugInfo.UNKNOWN_SOURCE;
 
     // Go down the stack, looking for frames that the user should care about (i.e. skipping ones in
@@ -166,7 +166,7 @@ public class WhistleRuntimeException extends RuntimeException {
 
         callSiteToLastFn =
             callerWasNotNative
-                ? cursor.getParent().getDebugInfo().getCallSiteToNextStackFrame()
+                ? cursor.getParent().getCallSiteToNextStackFrame()
                 : DebugInfo.UNKNOWN_SOURCE;
       }
 
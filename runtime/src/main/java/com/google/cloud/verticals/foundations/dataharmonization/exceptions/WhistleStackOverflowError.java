@@ -30,7 +30,15 @@ import java.util.Map;
 public class WhistleStackOverflowError extends StackOverflowError {
 
   public WhistleStackOverflowError(StackFrame stackFrame) {
-    super(generateStackStats(stackFrame));
+    this(stackFrame, DefaultBuilder.STACK_FRAMES_LIMIT);
+  }
+
+  /**
+   * @param stackFrame the stack frame that exceeded the limit.
+   * @param limit the maximum number of stack frames that was exceeded.
+   */
+  public WhistleStackOverflowError(StackFrame stackFrame, int limit) {
+    super(generateStackStats(stackFrame, limit));
   }
 
   /** Overrides this method to disable original Java stack trace. */
@@ -39,7 +47,7 @@ public class WhistleStackOverflowError extends StackOverflowError {
     return this;
   }
 
-  private static String generateStackStats(StackFrame stackFrame) {
+  private static String generateStackStats(StackFrame stackFrame, int limit) {
     Map<String, Integer> stats = new HashMap<>();
     for (StackFrame ancestor = stackFrame.getParent();
         ancestor != null;
@@ -51,7 +59,7 @@ public class WhistleStackOverflowError extends StackOverflowError {
     list.sort(Map.Entry.comparingByValue(Comparator.reverseOrder()));
     StringBuilder stringBuilder =
         new StringBuilder("Number of stack frames exceed the max limit: ")
-            .append(DefaultBuilder.STACK_FRAMES_LIMIT)
+            .append(limit)
             .append("\n");
     stringBuilder.append("<The top of the stack> ").append(stackFrame.getName()).append("\n");
     stringBuilder.append("<Statistics of the stack>");
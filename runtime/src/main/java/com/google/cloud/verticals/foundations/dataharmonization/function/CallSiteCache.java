@@ -0,0 +1,252 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.verticals.foundations.dataharmonization.function;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
+import com.google.cloud.verticals.foundations.dataharmonization.data.wrappers.WrapperData;
+import com.google.cloud.verticals.foundations.dataharmonization.function.context.Registries;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.FunctionCall;
+import com.google.cloud.verticals.foundations.dataharmonization.registry.PackageRegistry;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * A polymorphic inline cache for the overload resolution of a single call site (i.e. a single
+ * {@link FunctionCall}). It remembers the overload group the call site resolved to, and which
+ * overload was selected for up to {@link #MAX_SELECTIONS} distinct shapes of arguments, such that
+ * in the steady state executing a call is a few class checks followed by a direct {@link
+ * CallableFunction#call}.
+ *
+ * <p>The cache is only consulted when its result is guaranteed to be the same as a full lookup:
+ *
+ * <ul>
+ *   <li>The overload group is re-resolved whenever the {@link Registries}, the packages to search,
+ *       or the {@link PackageRegistry#getVersion() version} of any of the searched registries
+ *       change.
+ *   <li>Selections are only cached for the {@link DefaultOverloadSelector}, whose choice depends
+ *       only on the classes (and for {@link NullData} parameters, emptiness) of the arguments, and
+ *       never for variadic overloads or {@link WrapperData} arguments whose distance depends on the
+ *       argument contents.
+ * </ul>
+ */
+public final class CallSiteCache {
+  /** The maximum number of argument shapes remembered per call site. */
+  static final int MAX_SELECTIONS = 4;
+
+  private static final LoadingCache<FunctionCall, CallSiteCache> callSites =
+      CacheBuilder.newBuilder().weakKeys().build(CacheLoader.from(CallSiteCache::new));
+
+  private volatile OverloadGroup group;
+
+  CallSiteCache() {}
+
+  /**
+   * Returns the cache for the given call site, or null if the call does not represent a distinct
+   * call site (i.e. it is the default instance used for programmatically created closures). Call
+   * sites are compared by identity.
+   */
+  @Nullable
+  public static CallSiteCache forCall(FunctionCall call) {
+    if (call == FunctionCall.getDefaultInstance()) {
+      return null;
+    }
+    return callSites.getUnchecked(call);
+  }
+
+  /**
+   * Returns the cached overload group for the given packages, or null if there is none or it is no
+   * longer valid.
+   */
+  @Nullable
+  OverloadGroup getGroup(Registries registries, Set<String> packages) {
+    OverloadGroup current = group;
+    if (current != null && current.isValid(registries, packages)) {
+      return current;
+    }
+    return null;
+  }
+
+  /**
+   * Caches the given overloads, found for the given packages, if all their registries support
+   * versioning. Returns the new group, or null if it cannot be cached.
+   */
+  @Nullable
+  OverloadGroup putGroup(
+      Registries registries, Set<String> packages, ImmutableList<CallableFunction> overloads) {
+    String[] pkgs = packages.toArray(new String[0]);
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    PackageRegistry<CallableFunction>[] pkgRegistries = new PackageRegistry[pkgs.length];
+    long[] versions = new long[pkgs.length];
+    for (int i = 0; i < pkgs.length; i++) {
+      pkgRegistries[i] = registries.getFunctionRegistry(pkgs[i]);
+      versions[i] = pkgRegistries[i].getVersion();
+      if (versions[i] < 0) {
+        return null;
+      }
+    }
+    OverloadGroup newGroup =
+        new OverloadGroup(registries, packages, pkgs, pkgRegistries, versions, overloads);
+    group = newGroup;
+    return newGroup;
+  }
+
+  /**
+   * The overloads a call site resolved to, and the selections made from them. Opaque outside this
+   * package, where it only serves to tell whether a call site still resolves the same way (see
+   * {@link DefaultClosure#getCachedGroup}).
+   */
+  public static final class OverloadGroup {
+    private final Registries registries;
+    private final Set<String> packages;
+    private final String[] packageNames;
+    private final PackageRegistry<CallableFunction>[] packageRegistries;
+    private final long[] versions;
+    private final ImmutableList<CallableFunction> overloads;
+    private final boolean selectionsCacheable;
+    private final boolean checksEmptiness;
+    private volatile Selection[] selections = new Selection[0];
+
+    private OverloadGroup(
+        Registries registries,
+        Set<String> packages,
+        String[] packageNames,
+        PackageRegistry<CallableFunction>[] packageRegistries,
+        long[] versions,
+        ImmutableList<CallableFunction> overloads) {
+      this.registries = registries;
+      this.packages = packages;
+      this.packageNames = packageNames;
+      this.packageRegistries = packageRegistries;
+      this.versions = versions;
+      this.overloads = overloads;
+
+      boolean anyVariadic = false;
+      boolean anyNullParam = false;
+      for (CallableFunction overload : overloads) {
+        anyVariadic |= overload.getSignature().isVariadic();
+        anyNullParam |= overload.getSignature().getArgs().contains(NullData.class);
+      }
+      this.selectionsCacheable = !anyVariadic;
+      this.checksEmptiness = anyNullParam;
+    }
+
+    private boolean isValid(Registries registries, Set<String> packages) {
+      // Package sets come from immutable PackageContexts or are created per call, so an identity
+      // check covers the common case and equality the rest.
+      if (this.registries != registries
+          || (this.packages != packages && !this.packages.equals(packages))) {
+        return false;
+      }
+      for (int i = 0; i < packageNames.length; i++) {
+        PackageRegistry<CallableFunction> registry =
+            registries.getFunctionRegistry(packageNames[i]);
+        if (registry != packageRegistries[i] || registry.getVersion() != versions[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /** Returns all overloads in this group. */
+    ImmutableList<CallableFunction> getOverloads() {
+      return overloads;
+    }
+
+    /**
+     * Returns the overload previously selected for arguments of the same shape as the given ones,
+     * or null if there is none.
+     */
+    @Nullable
+    CallableFunction getSelection(Data[] args) {
+      if (!selectionsCacheable) {
+        return null;
+      }
+      for (Selection selection : selections) {
+        if (selection.matches(args, checksEmptiness)) {
+          return selection.selected;
+        }
+      }
+      return null;
+    }
+
+    /** Remembers the given overload as the selection for arguments shaped like the given ones. */
+    void putSelection(Data[] args, CallableFunction selected) {
+      if (!selectionsCacheable) {
+        return;
+      }
+      Class<?>[] classes = new Class<?>[args.length];
+      boolean[] empty = new boolean[args.length];
+      for (int i = 0; i < args.length; i++) {
+        if (args[i] instanceof WrapperData) {
+          return;
+        }
+        classes[i] = args[i] == null ? null : args[i].getClass();
+        empty[i] = checksEmptiness && args[i] != null && args[i].isNullOrEmpty();
+      }
+
+      Selection[] current = selections;
+      if (current.length >= MAX_SELECTIONS) {
+        // Megamorphic call site, stop caching.
+        return;
+      }
+      Selection[] updated = new Selection[current.length + 1];
+      System.arraycopy(current, 0, updated, 0, current.length);
+      updated[current.length] = new Selection(classes, empty, selected);
+      selections = updated;
+    }
+  }
+
+  /** A selected overload and the argument shape it was selected for. */
+  private static final class Selection {
+    private final Class<?>[] classes;
+    private final boolean[] empty;
+    private final CallableFunction selected;
+
+    private Selection(Class<?>[] classes, boolean[] empty, CallableFunction selected) {
+      this.classes = classes;
+      this.empty = empty;
+      this.selected = selected;
+    }
+
+    private boolean matches(Data[] args, boolean checksEmptiness) {
+      if (args.length != classes.length) {
+        return false;
+      }
+      for (int i = 0; i < args.length; i++) {
+        Data arg = args[i];
+        if (arg == null) {
+          if (classes[i] != null) {
+            return false;
+          }
+          continue;
+        }
+        if (arg.getClass() != classes[i]) {
+          return false;
+        }
+        if (checksEmptiness && arg.isNullOrEmpty() != empty[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -20,6 +20,7 @@ import com.google.cloud.verticals.foundations.dataharmonization.builtins.Builtin
 import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
 import com.google.cloud.verticals.foundations.dataharmonization.debug.DebugInfo;
 import com.google.cloud.verticals.foundations.dataharmonization.debug.proto.Debug.FunctionInfo.FunctionType;
+import com.google.cloud.verticals.foundations.dataharmonization.function.context.FrameLayout;
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.PackageContext;
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.RuntimeContext;
 import com.google.cloud.verticals.foundations.dataharmonization.function.signature.Signature;
@@ -102,8 +103,26 @@ public abstract class CallableFunction implements Registrable {
     return current;
   }
 
+  /**
+   * Returns the layout of the variables in this function's stack frames, or null if it has no fixed
+   * set of variables. By default returns null.
+   */
+  public FrameLayout getFrameLayout() {
+    return null;
+  }
+
   public abstract DebugInfo getDebugInfo();
 
+  /**
+   * Returns true iff this function is pure, i.e. its result depends only on its arguments and the
+   * {@link com.google.cloud.verticals.foundations.dataharmonization.data.DataTypeImplementation} of
+   * the calling context, and calling it has no side effects. Calls to pure functions with constant
+   * arguments may be folded into their result. By default returns false.
+   */
+  public boolean isPure() {
+    return false;
+  }
+
   @Override
   public int hashCode() {
     return Objects.hashCode(getSignature());
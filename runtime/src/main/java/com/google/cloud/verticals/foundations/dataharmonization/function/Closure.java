@@ -46,6 +46,25 @@ public interface Closure extends Data {
    */
   Data execute(RuntimeContext context);
 
+  /**
+   * Returns an {@link Invoker} that executes this closure in the given context, with its free
+   * parameters bound to the values passed to each invocation. This is equivalent to calling {@link
+   * #bindNextFreeParameter} for each value and executing the result, but lets implementations avoid
+   * copying the closure for every invocation and resolve the function it calls only once. It should
+   * be used whenever a closure is executed repeatedly, e.g. once per element of an array.
+   *
+   * <p>Invokers do not modify this closure.
+   */
+  default Invoker invoker(RuntimeContext context) {
+    return freeArgs -> {
+      Closure bound = this;
+      for (Data freeArg : freeArgs) {
+        bound = bound.bindNextFreeParameter(freeArg);
+      }
+      return bound.execute(context);
+    };
+  }
+
   /**
    * Returns the number of unbound parameters. {@link #bindNextFreeParameter(Data)} must be called
    * this many times (but note that it copies, see {@link #bindNextFreeParameter(Data)}.
@@ -63,6 +82,26 @@ public interface Closure extends Data {
    */
   String getName();
 
+  /** Repeatedly executes a {@link Closure} with different values for its free parameters. */
+  @FunctionalInterface
+  interface Invoker {
+    /**
+     * Executes the closure with its free parameters bound to the given values, in order. The given
+     * array is not retained, so callers may reuse it between invocations.
+     */
+    Data invoke(Data... freeArgs);
+
+    /** Executes the closure with its only free parameter bound to the given value. */
+    default Data invoke(Data freeArg) {
+      return invoke(new Data[] {freeArg});
+    }
+
+    /** Executes the closure with its two free parameters bound to the given values, in order. */
+    default Data invoke(Data first, Data second) {
+      return invoke(new Data[] {first, second});
+    }
+  }
+
   /** Represents a free (unbound) argument in a closure. */
   final class FreeParameter implements Data {
     private final String name;
@@ -19,7 +19,6 @@ import com.google.cloud.verticals.foundations.dataharmonization.data.Container;
 import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
 import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
 import com.google.cloud.verticals.foundations.dataharmonization.data.impl.DefaultDataTypeImplementation;
-import com.google.cloud.verticals.foundations.dataharmonization.debug.DebugInfo;
 import com.google.cloud.verticals.foundations.dataharmonization.exceptions.NoMatchingOverloadsException;
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.RuntimeContext;
 import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.FunctionCall;
@@ -37,8 +36,8 @@ import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * DefaultClosure implements Closure and (a readonly) {@link Container} to allow it to be passed to
@@ -73,16 +72,20 @@ public class DefaultClosure implements Container, Closure {
   private final FunctionReference functionRef;
   private final SortedSet<Integer> freeArgIndices;
   private final FunctionCall originalCall;
+  // Overload resolution cache of the call site this closure was created at, if any.
+  @Nullable private final transient CallSiteCache callSite;
 
   private DefaultClosure(
       FunctionReference functionRef,
       Data[] args,
       SortedSet<Integer> freeArgIndices,
-      FunctionCall originalCall) {
+      FunctionCall originalCall,
+      @Nullable CallSiteCache callSite) {
     this.args = args;
     this.functionRef = functionRef;
     this.freeArgIndices = freeArgIndices;
     this.originalCall = originalCall;
+    this.callSite = callSite;
   }
   /**
    * Create a new closure with the given name and arguments.
@@ -92,12 +95,32 @@ public class DefaultClosure implements Container, Closure {
    */
   public static DefaultClosure create(FunctionReference functionRef, Data... args) {
     return new DefaultClosure(
-        functionRef, args, Collections.emptySortedSet(), FunctionCall.getDefaultInstance());
+        functionRef, args, Collections.emptySortedSet(), FunctionCall.getDefaultInstance(), null);
   }
 
   public static DefaultClosure create(
       FunctionReference functionRef, SortedSet<Integer> freeArgIndices, Data... args) {
-    return new DefaultClosure(functionRef, args, freeArgIndices, FunctionCall.getDefaultInstance());
+    return new DefaultClosure(
+        functionRef, args, freeArgIndices, FunctionCall.getDefaultInstance(), null);
+  }
+
+  /**
+   * Create a new closure with the given name and already evaluated arguments, originating from the
+   * given {@link FunctionCall}.
+   *
+   * @param functionRef Reference to the function to call.
+   * @param freeArgIndices Indices of the free parameters in args. Must not be modified afterwards.
+   * @param originalCall The call this closure is created for, used for debugging information.
+   * @param callSite The overload resolution cache for originalCall, or null to not cache.
+   * @param args Arguments to pass to the function.
+   */
+  public static DefaultClosure create(
+      FunctionReference functionRef,
+      SortedSet<Integer> freeArgIndices,
+      FunctionCall originalCall,
+      @Nullable CallSiteCache callSite,
+      Data... args) {
+    return new DefaultClosure(functionRef, args, freeArgIndices, originalCall, callSite);
   }
   /**
    * Converts the given {@link FunctionCall} to a {@link Data} based {@link Closure}. Arguments that
@@ -134,7 +157,8 @@ public class DefaultClosure implements Container, Closure {
         new FunctionReference(proto.getReference().getPackage(), proto.getReference().getName()),
         args,
         Collections.unmodifiableSortedSet(freeArgIndices),
-        proto);
+        proto,
+        CallSiteCache.forCall(proto));
   }
 
   @Nonnull
@@ -174,7 +198,8 @@ public class DefaultClosure implements Container, Closure {
 
   @Override
   public Data deepCopy() {
-    return new DefaultClosure(functionRef.deepCopy(), args.clone(), freeArgIndices, originalCall);
+    return new DefaultClosure(
+        functionRef.deepCopy(), args.clone(), freeArgIndices, originalCall, callSite);
   }
 
   @Override
@@ -210,8 +235,21 @@ public class DefaultClosure implements Container, Closure {
     Data[] args = this.args.clone();
     int arg = freeArgIndices.first();
     args[arg] = value;
-    return new DefaultClosure(functionRef, args, freeArgIndices.tailSet(arg + 1), originalCall);
+    return new DefaultClosure(
+        functionRef, args, freeArgIndices.tailSet(arg + 1), originalCall, callSite);
+  }
+
+  /**
+   * Returns an invoker that binds the free parameters of this closure positionally, without copying
+   * the closure or its free argument indices for each invocation. The called function is resolved
+   * through the closure's {@link CallSiteCache}, or for closures not created from a call site
+   * through one owned by the invoker, so its overloads are only looked up once.
+   */
+  @Override
+  public Invoker invoker(RuntimeContext context) {
+    return new BoundInvoker(context);
   }
+
   /**
    * Executes this closure.
    *
@@ -221,45 +259,147 @@ public class DefaultClosure implements Container, Closure {
    */
   @Override
   public Data execute(RuntimeContext context) {
-    DebugInfo callerInfo = context.top().getDebugInfo();
-    if (callerInfo != null) {
-      callerInfo.setCallsiteToNextStackFrame(originalCall);
+    if (context.tracksCallSites()) {
+      context.top().setCallSiteToNextStackFrame(originalCall.getMeta());
     }
 
     if (!freeArgIndices.isEmpty()) {
       throw new UnsupportedOperationException("Function call contains unbound free parameters.");
     }
-    Set<String> packagesToCheck = new HashSet<>();
-    if (functionRef.getPackageName() != null
-        && functionRef.getPackageName().equals(FunctionReference.WILDCARD_PACKAGE_NAME)) {
-      packagesToCheck.addAll(context.getRegistries().getAllRegisteredPackages());
+    return resolveAndCall(context, functionRef, callSite, args);
+  }
+
+  /**
+   * Calls the function referenced by the given call with the given (fully bound) arguments. This is
+   * equivalent to, but cheaper than, creating a closure for the call and executing it.
+   *
+   * @param context The runtime context to use for execution.
+   * @param functionRef Reference to the function to call.
+   * @param originalCall The call being executed, used for debugging information.
+   * @param callSite The overload resolution cache for originalCall, or null to not cache.
+   * @param args Arguments to pass to the function.
+   * @return The result of the execution.
+   */
+  public static Data invoke(
+      RuntimeContext context,
+      FunctionReference functionRef,
+      FunctionCall originalCall,
+      @Nullable CallSiteCache callSite,
+      Data... args) {
+    if (context.tracksCallSites()) {
+      context.top().setCallSiteToNextStackFrame(originalCall.getMeta());
+    }
+    return resolveAndCall(context, functionRef, callSite, args);
+  }
+
+  private static Data resolveAndCall(
+      RuntimeContext context,
+      FunctionReference functionRef,
+      @Nullable CallSiteCache callSite,
+      Data[] args) {
+    return resolve(context, functionRef, callSite, args).call(context, args);
+  }
+
+  /**
+   * Returns the overload of the referenced function that a call with the given arguments would
+   * execute, without executing it.
+   *
+   * @param context The runtime context to resolve the function in.
+   * @param functionRef Reference to the function to resolve.
+   * @param callSite The overload resolution cache of the call, or null to not cache.
+   * @param args Arguments that would be passed to the function.
+   */
+  public static CallableFunction resolve(
+      RuntimeContext context,
+      FunctionReference functionRef,
+      @Nullable CallSiteCache callSite,
+      Data... args) {
+    Set<String> packagesToCheck = getPackagesToCheck(context, functionRef);
+    // The set of registered packages is not versioned, so wildcard calls are never cached.
+    boolean cacheable = callSite != null && !isWildcard(functionRef);
+
+    CallSiteCache.OverloadGroup group =
+        cacheable ? callSite.getGroup(context.getRegistries(), packagesToCheck) : null;
+    if (group == null) {
+      ImmutableList<CallableFunction> overloads =
+          findOverloads(context, functionRef, packagesToCheck);
+      if (overloads.isEmpty()) {
+        suggestFunctionNames(context, functionRef, packagesToCheck);
+      }
+      if (!cacheable) {
+        return context.getOverloadSelector().select(overloads, args);
+      }
+      group = callSite.putGroup(context.getRegistries(), packagesToCheck, overloads);
+      if (group == null) {
+        return context.getOverloadSelector().select(overloads, args);
+      }
+    }
+
+    // Selections depend only on argument shapes for the default selector.
+    OverloadSelector selector = context.getOverloadSelector();
+    boolean cacheSelection = selector.getClass() == DefaultOverloadSelector.class;
+    CallableFunction overload = cacheSelection ? group.getSelection(args) : null;
+    if (overload == null) {
+      overload = selector.select(group.getOverloads(), args);
+      if (cacheSelection) {
+        group.putSelection(args, overload);
+      }
+    }
+    return overload;
+  }
+
+  /**
+   * Returns the overload group cached at the given call site if it is still valid in the given
+   * context and overloads are selected by the {@link DefaultOverloadSelector}, or null otherwise.
+   * For as long as this returns the same group, calls at the call site with the same arguments
+   * resolve to the same overload.
+   *
+   * @param context The runtime context the call would be resolved in.
+   * @param functionRef Reference to the called function.
+   * @param callSite The overload resolution cache of the call.
+   */
+  @Nullable
+  public static CallSiteCache.OverloadGroup getCachedGroup(
+      RuntimeContext context, FunctionReference functionRef, @Nullable CallSiteCache callSite) {
+    if (callSite == null
+        || isWildcard(functionRef)
+        || context.getOverloadSelector().getClass() != DefaultOverloadSelector.class) {
+      return null;
+    }
+    return callSite.getGroup(context.getRegistries(), getPackagesToCheck(context, functionRef));
+  }
+
+  private static boolean isWildcard(FunctionReference functionRef) {
+    return functionRef.getPackageName() != null
+        && functionRef.getPackageName().equals(FunctionReference.WILDCARD_PACKAGE_NAME);
+  }
+
+  private static Set<String> getPackagesToCheck(
+      RuntimeContext context, FunctionReference functionRef) {
+    if (isWildcard(functionRef)) {
+      return new HashSet<>(context.getRegistries().getAllRegisteredPackages());
     } else if (functionRef.getPackageName() != null
         && functionRef.getPackageName().trim().length() > 0) {
-      packagesToCheck.add(functionRef.getPackageName());
-    } else {
-      packagesToCheck.addAll(context.getCurrentPackageContext().getGloballyAliasedPackages());
-    }
-    Set<CallableFunction> overloads =
-        packagesToCheck.stream()
-            .map(
-                pkg ->
-                    context
-                        .getRegistries()
-                        .getFunctionRegistry(pkg)
-                        .getOverloads(ImmutableSet.of(pkg), functionRef.getFunctionName()))
-            .reduce(
-                new HashSet<>(),
-                (a, b) -> Stream.concat(a.stream(), b.stream()).collect(Collectors.toSet()));
-    if (overloads.isEmpty()) {
-      suggestFunctionNames(context, packagesToCheck);
+      return ImmutableSet.of(functionRef.getPackageName());
     }
+    return context.getCurrentPackageContext().getGloballyAliasedPackages();
+  }
 
-    CallableFunction overload =
-        context.getOverloadSelector().select(ImmutableList.copyOf(overloads), getArgs());
-    return overload.call(context, getArgs());
+  private static ImmutableList<CallableFunction> findOverloads(
+      RuntimeContext context, FunctionReference functionRef, Set<String> packagesToCheck) {
+    Set<CallableFunction> overloads = new HashSet<>();
+    for (String pkg : packagesToCheck) {
+      overloads.addAll(
+          context
+              .getRegistries()
+              .getFunctionRegistry(pkg)
+              .getOverloads(ImmutableSet.of(pkg), functionRef.getFunctionName()));
+    }
+    return ImmutableList.copyOf(overloads);
   }
 
-  private void suggestFunctionNames(RuntimeContext context, Set<String> packagesToCheck) {
+  private static void suggestFunctionNames(
+      RuntimeContext context, FunctionReference functionRef, Set<String> packagesToCheck) {
     Set<String> bestMatchNames =
         packagesToCheck.stream()
             .map(
@@ -300,6 +440,55 @@ public class DefaultClosure implements Container, Closure {
     return String.format("%s::%s", functionRef.getPackageName(), functionRef.getFunctionName());
   }
 
+  /** {@link Invoker} for a {@link DefaultClosure}, see {@link #invoker}. */
+  private final class BoundInvoker implements Invoker {
+    private final RuntimeContext context;
+    private final int[] freeIndices;
+    private final CallSiteCache cache;
+
+    private BoundInvoker(RuntimeContext context) {
+      this.context = context;
+      this.freeIndices = freeArgIndices.stream().mapToInt(Integer::intValue).toArray();
+      this.cache = callSite != null ? callSite : new CallSiteCache();
+    }
+
+    @Override
+    public Data invoke(Data freeArg) {
+      checkFreeArgCount(1);
+      Data[] bound = args.clone();
+      bound[freeIndices[0]] = freeArg;
+      return DefaultClosure.invoke(context, functionRef, originalCall, cache, bound);
+    }
+
+    @Override
+    public Data invoke(Data first, Data second) {
+      checkFreeArgCount(2);
+      Data[] bound = args.clone();
+      bound[freeIndices[0]] = first;
+      bound[freeIndices[1]] = second;
+      return DefaultClosure.invoke(context, functionRef, originalCall, cache, bound);
+    }
+
+    @Override
+    public Data invoke(Data... freeArgs) {
+      checkFreeArgCount(freeArgs.length);
+      Data[] bound = args.clone();
+      for (int i = 0; i < freeArgs.length; i++) {
+        bound[freeIndices[i]] = freeArgs[i];
+      }
+      return DefaultClosure.invoke(context, functionRef, originalCall, cache, bound);
+    }
+
+    private void checkFreeArgCount(int count) {
+      if (count > freeIndices.length) {
+        throw new UnsupportedOperationException("Function call has no free parameters to bind.");
+      }
+      if (count < freeIndices.length) {
+        throw new UnsupportedOperationException("Function call contains unbound free parameters.");
+      }
+    }
+  }
+
   /** Storage class for a function name and package. */
   public static class FunctionReference implements Container {
     /** The Container key to get the package name. */
@@ -76,6 +76,31 @@ public class NativeUnaryClosure implements Closure {
     return new NativeUnaryClosure(delegate, value);
   }
 
+  @Override
+  public Invoker invoker(RuntimeContext context) {
+    return new Invoker() {
+      @Override
+      public Data invoke(Data freeArg) {
+        if (isBound) {
+          throw new IllegalStateException("Cannot re-bind already bound free parameter.");
+        }
+        return delegate.apply(context, freeArg);
+      }
+
+      @Override
+      public Data invoke(Data... freeArgs) {
+        if (freeArgs.length == 1) {
+          return invoke(freeArgs[0]);
+        }
+        Closure bound = NativeUnaryClosure.this;
+        for (Data value : freeArgs) {
+          bound = bound.bindNextFreeParameter(value);
+        }
+        return bound.execute(context);
+      }
+    };
+  }
+
   @Override
   public Data execute(RuntimeContext context) {
     if (!isBound) {
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.verticals.foundations.dataharmonization.function.context;
+
+import com.google.common.collect.ImmutableMap;
+import java.io.Serializable;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * The fixed layout of the variables in the {@link StackFrame}s of a single function: every variable
+ * the function is known to declare is assigned a slot index, such that stack frames supporting
+ * layouts can store it in an array rather than a map. Slots are assigned in the order the names
+ * were given in, so for example a function's arguments can be given first to have their slot
+ * indices match their argument indices.
+ *
+ * <p>Layouts are immutable and shared between all stack frames of a function.
+ */
+public final class FrameLayout implements Serializable {
+  private final String[] names;
+  private final ImmutableMap<String, Integer> slots;
+
+  private FrameLayout(String[] names) {
+    this.names = names;
+    ImmutableMap.Builder<String, Integer> slots = ImmutableMap.builder();
+    for (int i = 0; i < names.length; i++) {
+      slots.put(names[i], i);
+    }
+    this.slots = slots.buildOrThrow();
+  }
+
+  /** Creates a layout of the given variable names. Duplicate names are assigned a single slot. */
+  public static FrameLayout of(Iterable<String> names) {
+    Set<String> unique = new LinkedHashSet<>();
+    names.forEach(unique::add);
+    return new FrameLayout(unique.toArray(new String[0]));
+  }
+
+  /** Returns the slot index of the variable with the given name, or -1 if it has none. */
+  public int slotOf(String name) {
+    Integer slot = slots.get(name);
+    return slot == null ? -1 : slot;
+  }
+
+  /** Returns the name of the variable in the given slot. */
+  public String nameOf(int slot) {
+    return names[slot];
+  }
+
+  /** Returns the number of slots in this layout. */
+  public int size() {
+    return names.length;
+  }
+
+  @Override
+  public String toString() {
+    return "FrameLayout" + slots.keySet();
+  }
+}
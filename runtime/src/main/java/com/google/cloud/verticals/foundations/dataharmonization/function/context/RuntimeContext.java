@@ -26,6 +26,7 @@ import com.google.cloud.verticals.foundations.dataharmonization.function.context
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.impl.NoopCancellationToken;
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.storage.ContextStorage;
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.storage.impl.DefaultContextStorage;
+import com.google.cloud.verticals.foundations.dataharmonization.function.whistle.link.LinkedValue;
 import com.google.cloud.verticals.foundations.dataharmonization.imports.ImportProcessor;
 import com.google.cloud.verticals.foundations.dataharmonization.plugin.Option;
 import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.ValueSource;
@@ -33,6 +34,7 @@ import com.google.common.collect.ImmutableSet;
 import java.io.Serializable;
 import java.util.Set;
 import java.util.function.BiFunction;
+import javax.annotation.Nullable;
 
 /**
  * A common context containing information like the current stack. Importantly, used for calling
@@ -82,11 +84,19 @@ public interface RuntimeContext extends Serializable {
             .setDebugInfo(function.getDebugInfo())
             .setName(function.getName())
             .setInheritParentVars(function.getSignature().getInheritsParentVars());
+    FrameLayout layout = function.getFrameLayout();
+    if (layout != null) {
+      builder.setLayout(layout);
+    }
     RuntimeContext newContext =
         newContextFromFrame(builder, function.getLocalPackageContext(getCurrentPackageContext()));
+    SegmentedStack segmentedStack = getSegmentedStack();
     try {
       updateCurrent(newContext);
-      Data result = delegate.apply(newContext, args);
+      Data result =
+          segmentedStack != null && segmentedStack.startsSegment(newContext.top())
+              ? segmentedStack.run(newContext, args, delegate)
+              : delegate.apply(newContext, args);
       if (getCancellation().isCancelled()) {
         throw new CancelledException(getCancellation());
       }
@@ -103,6 +113,14 @@ public interface RuntimeContext extends Serializable {
   /** Evaluates the given {@link ValueSource} into a {@link Data} value. */
   Data evaluate(ValueSource valueSource);
 
+  /**
+   * Evaluates the given pre-linked {@link LinkedValue} into a {@link Data} value. Implementations
+   * that intercept {@link #evaluate(ValueSource)} should intercept this method the same way.
+   */
+  default Data evaluateLinked(LinkedValue value) {
+    return value.evaluate(this);
+  }
+
   /** Returns the {@link Registries} associated to this {@code RuntimeContext}. */
   Registries getRegistries();
 
@@ -145,6 +163,23 @@ public interface RuntimeContext extends Serializable {
    */
   Data finish(Data ret);
 
+  /**
+   * Returns true iff calls made in this context should be recorded on the calling stack frame (see
+   * {@link StackFrame#setCallSiteToNextStackFrame}).
+   */
+  default boolean tracksCallSites() {
+    return true;
+  }
+
+  /**
+   * Returns the {@link SegmentedStack} that deeply nested calls made in this context run on, or
+   * null if they all run on the calling thread's stack.
+   */
+  @Nullable
+  default SegmentedStack getSegmentedStack() {
+    return null;
+  }
+
   default CancellationToken getCancellation() {
     return new NoopCancellationToken();
   }
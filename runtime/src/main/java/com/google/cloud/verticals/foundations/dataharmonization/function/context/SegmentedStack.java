@@ -0,0 +1,380 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.verticals.foundations.dataharmonization.function.context;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.exceptions.WhistleStackOverflowError;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.VerifyException;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+/**
+ * Runs deeply nested Whistle calls on a chain of Java thread stacks ("segments") rather than on the
+ * stack of the calling thread alone.
+ *
+ * <p>Whistle {@link StackFrame}s already live on the heap, but every Whistle call also takes a
+ * number of Java frames ({@link RuntimeContext#wrap}, {@code callInternal}, evaluation of the
+ * function body, ...). The Whistle stack is split into segments of {@link #getFramesPerSegment()}
+ * frames. The calling thread runs the first one, and a call that starts the next one is handed off
+ * to that segment's thread, with a stack of {@link #SEGMENT_STACK_SIZE} bytes, while the calling
+ * thread waits for its result. The Java stack needed by the calling thread is thus bounded no
+ * matter how deep the Whistle stack grows, so worker threads can run with small stacks while
+ * recursion depth is only bounded by {@link #getMaxDepth()}.
+ *
+ * <p>Each thread that calls into a segmented stack gets its own chain of segments, one per level,
+ * which the segments it hands off to share. A segment's thread is created the first time a call
+ * reaches its level and serves every later call at that level, so a loop or tree walk at a segment
+ * boundary does not create a thread per call. It exits after being idle for {@link
+ * #KEEP_ALIVE_SECONDS}. Segments also carry over the {@link InheritableThreadLocal}s of the thread
+ * that created them, as they were at that time, but not plain {@link ThreadLocal}s. The {@link
+ * RuntimeContext#current() current context} is set explicitly for every call.
+ *
+ * <p>At most {@link #MAX_SEGMENTS} segments are alive at once across all segmented stacks. Idle
+ * segments are retired early to make room for new ones, and a call that needs a segment beyond that
+ * fails with a {@link WhistleStackOverflowError}. Interrupting a thread waiting for a segment
+ * interrupts that segment, which in turn interrupts any segment it waits for, and waits for it to
+ * finish.
+ */
+public final class SegmentedStack implements Serializable {
+  /** The default number of Whistle stack frames run on each segment. */
+  public static final int DEFAULT_FRAMES_PER_SEGMENT = 32;
+
+  /** The size in bytes of the Java stack of each segment. */
+  public static final long SEGMENT_STACK_SIZE = 8L << 20;
+
+  /** The maximum number of segments alive at once, across all segmented stacks. */
+  public static final int MAX_SEGMENTS = 1024;
+
+  /** The number of seconds after which an idle segment's thread exits. */
+  public static final long KEEP_ALIVE_SECONDS = 30;
+
+  @VisibleForTesting static final Semaphore SEGMENTS = new Semaphore(MAX_SEGMENTS);
+
+  // Segments waiting for their next call, which are retired when no segments are left.
+  private static final Set<Segment> idle = ConcurrentHashMap.newKeySet();
+
+  private static final AtomicInteger segmentCount = new AtomicInteger();
+
+  private final int maxDepth;
+  private final int framesPerSegment;
+
+  // The chain of segments of each thread, shared with the segments of that chain. Chains are only
+  // used by one of their threads at a time, as each one waits for the segment it hands off to.
+  private final transient ThreadLocal<List<Segment>> chains = new ThreadLocal<>();
+
+  /**
+   * @param maxDepth the maximum number of Whistle stack frames, beyond which calls fail with a
+   *     {@link WhistleStackOverflowError}.
+   */
+  public SegmentedStack(int maxDepth) {
+    this(maxDepth, DEFAULT_FRAMES_PER_SEGMENT);
+  }
+
+  /**
+   * @param maxDepth the maximum number of Whistle stack frames, beyond which calls fail with a
+   *     {@link WhistleStackOverflowError}.
+   * @param framesPerSegment the number of Whistle stack frames run on each segment.
+   */
+  public SegmentedStack(int maxDepth, int framesPerSegment) {
+    if (maxDepth <= 0) {
+      throw new IllegalArgumentException("Max stack depth must be positive, got " + maxDepth);
+    }
+    if (framesPerSegment <= 0) {
+      throw new IllegalArgumentException(
+          "Frames per stack segment must be positive, got " + framesPerSegment);
+    }
+    this.maxDepth = maxDepth;
+    this.framesPerSegment = framesPerSegment;
+  }
+
+  /** Returns the maximum number of Whistle stack frames. */
+  public int getMaxDepth() {
+    return maxDepth;
+  }
+
+  /** Returns the number of Whistle stack frames run on each segment. */
+  public int getFramesPerSegment() {
+    return framesPerSegment;
+  }
+
+  /** Returns true iff the call that pushed the given stack frame should run on a new segment. */
+  public boolean startsSegment(StackFrame frame) {
+    int count = frame.getCount();
+    return count > 0 && count % framesPerSegment == 0;
+  }
+
+  /**
+   * Runs the given function body on the segment of the calling thread's chain for the depth of the
+   * given context's {@link RuntimeContext#top() top} frame, with the given context as the {@link
+   * RuntimeContext#current() current} one, and waits for its result. Anything the body throws is
+   * rethrown as is.
+   *
+   * @throws WhistleStackOverflowError if the segment does not exist yet and {@link #MAX_SEGMENTS}
+   *     segments are already alive.
+   * @throws IllegalStateException if the calling thread is interrupted.
+   */
+  public Data run(
+      RuntimeContext context, Data[] args, BiFunction<RuntimeContext, Data[], Data> delegate) {
+    if (Thread.currentThread().isInterrupted()) {
+      throw new IllegalStateException("Interrupted before starting a stack segment.");
+    }
+    Call call = new Call(context, args, delegate);
+    Segment segment = submit(context.top(), call);
+    try {
+      return call.result.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new VerifyException(cause);
+    } catch (InterruptedException e) {
+      // Forward the interrupt down the chain of segments, and do not leave them running after this
+      // call has returned.
+      segment.thread.interrupt();
+      try {
+        Uninterruptibles.getUninterruptibly(call.result);
+      } catch (ExecutionException ignored) {
+        // The call failed anyway.
+      }
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for a stack segment.", e);
+    }
+  }
+
+  /**
+   * Hands the given task to the segment of the calling thread's chain at the level of the given
+   * frame, creating the segment if it does not exist yet, has exited, or is already busy (which
+   * only happens if frames are pushed out of order, e.g. by a closure executed in an older
+   * context). The latter does not replace the busy segment in the chain.
+   */
+  private Segment submit(StackFrame top, Call call) {
+    List<Segment> chain = chains.get();
+    if (chain == null) {
+      chain = new ArrayList<>();
+      chains.set(chain);
+    }
+    int level = top.getCount() / framesPerSegment;
+    while (chain.size() <= level) {
+      chain.add(null);
+    }
+    Segment segment = chain.get(level);
+    if (segment != null && segment.submit(call)) {
+      return segment;
+    }
+    if (!acquireSegment()) {
+      throw new WhistleStackOverflowError(top, top.getCount());
+    }
+    Segment created;
+    try {
+      created = new Segment(chain, call);
+      created.thread.start();
+    } catch (RuntimeException | Error e) {
+      SEGMENTS.release();
+      throw e;
+    }
+    if (segment == null || segment.hasExited()) {
+      chain.set(level, created);
+    }
+    return created;
+  }
+
+  /**
+   * Takes one of the {@link #MAX_SEGMENTS}. If none are left, idle segments of any chain are
+   * retired to make room.
+   */
+  private static boolean acquireSegment() {
+    return SEGMENTS.tryAcquire() || (retireIdleSegments() && SEGMENTS.tryAcquire());
+  }
+
+  /**
+   * Makes all idle segments exit, and waits briefly for them to do so. Returns true iff there were
+   * any.
+   */
+  @VisibleForTesting
+  static boolean retireIdleSegments() {
+    List<Thread> retired = new ArrayList<>();
+    for (Segment segment : idle) {
+      if (segment.retire()) {
+        retired.add(segment.thread);
+      }
+    }
+    for (Thread thread : retired) {
+      Uninterruptibles.joinUninterruptibly(thread, 1, TimeUnit.SECONDS);
+    }
+    return !retired.isEmpty();
+  }
+
+  /** Returns true iff the calling thread's chain has a live segment at the given level. */
+  @VisibleForTesting
+  boolean hasSegment(int level) {
+    List<Segment> chain = chains.get();
+    return chain != null
+        && level < chain.size()
+        && chain.get(level) != null
+        && !chain.get(level).hasExited();
+  }
+
+  /** Serialized stacks start with no segments. */
+  private Object readResolve() {
+    return new SegmentedStack(maxDepth, framesPerSegment);
+  }
+
+  /** A function body to run on a segment, and its result. */
+  private static final class Call {
+    private final RuntimeContext context;
+    private final Data[] args;
+    private final BiFunction<RuntimeContext, Data[], Data> delegate;
+    private final CompletableFuture<Data> result = new CompletableFuture<>();
+
+    Call(RuntimeContext context, Data[] args, BiFunction<RuntimeContext, Data[], Data> delegate) {
+      this.context = context;
+      this.args = args;
+      this.delegate = delegate;
+    }
+  }
+
+  /** A thread running the calls handed to one level of a chain, one at a time. */
+  private final class Segment implements Runnable {
+    private final List<Segment> chain;
+    private final Thread thread;
+    // Guarded by this. A segment is busy from the time a call is submitted until it has returned.
+    private Call call;
+    private boolean busy;
+    private boolean exited;
+
+    Segment(List<Segment> chain, Call firstCall) {
+      this.chain = chain;
+      this.call = firstCall;
+      this.busy = true;
+      this.thread =
+          new Thread(
+              null,
+              this,
+              "whistle-stack-segment-" + segmentCount.incrementAndGet(),
+              SEGMENT_STACK_SIZE);
+      thread.setDaemon(true);
+    }
+
+    synchronized boolean submit(Call call) {
+      if (busy || exited) {
+        return false;
+      }
+      idle.remove(this);
+      this.call = call;
+      busy = true;
+      notifyAll();
+      return true;
+    }
+
+    synchronized boolean hasExited() {
+      return exited;
+    }
+
+    /** Makes this segment exit if it is idle, and returns true iff it does. */
+    synchronized boolean retire() {
+      if (busy || exited) {
+        return false;
+      }
+      exited = true;
+      notifyAll();
+      return true;
+    }
+
+    @Override
+    public void run() {
+      chains.set(chain);
+      try {
+        Call next;
+        while ((next = take()) != null) {
+          // Drop an interrupt meant for a previous call that arrived after it returned.
+          Thread.interrupted();
+          execute(next);
+        }
+      } finally {
+        synchronized (this) {
+          exited = true;
+        }
+        idle.remove(this);
+        SEGMENTS.release();
+      }
+    }
+
+    private void execute(Call next) {
+      Data value = null;
+      Throwable failure = null;
+      try {
+        RuntimeContext.updateCurrent(next.context);
+        value = next.delegate.apply(next.context, next.args);
+      } catch (Throwable t) {
+        failure = t;
+      } finally {
+        RuntimeContext.updateCurrent(null);
+      }
+      // Become available before the caller resumes, so that its next call at this level can reuse
+      // this segment.
+      synchronized (this) {
+        busy = false;
+      }
+      if (failure != null) {
+        next.result.completeExceptionally(failure);
+      } else {
+        next.result.complete(value);
+      }
+    }
+
+    /**
+     * Waits for the next call to run. Returns null once the segment has been idle for {@link
+     * #KEEP_ALIVE_SECONDS}, or has been retired.
+     */
+    private synchronized Call take() {
+      if (call == null) {
+        idle.add(this);
+      }
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(KEEP_ALIVE_SECONDS);
+      while (call == null) {
+        long remaining = deadline - System.nanoTime();
+        if (exited || remaining <= 0) {
+          exited = true;
+          return null;
+        }
+        try {
+          TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        } catch (InterruptedException e) {
+          // Interrupts only concern the call that was running, if any.
+        }
+      }
+      Call next = call;
+      call = null;
+      return next;
+    }
+  }
+}
@@ -18,7 +18,9 @@ package com.google.cloud.verticals.foundations.dataharmonization.function.contex
 
 import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
 import com.google.cloud.verticals.foundations.dataharmonization.debug.DebugInfo;
+import com.google.cloud.verticals.foundations.dataharmonization.debug.proto.Debug.Source;
 import com.google.cloud.verticals.foundations.dataharmonization.function.whistle.WhistleFunction;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.Meta;
 import java.io.Serializable;
 import java.util.Set;
 
@@ -58,6 +60,32 @@ public interface StackFrame extends Serializable {
    */
   void setLocalVar(String name, Data value);
 
+  /**
+   * Returns the {@link FrameLayout} of this stack frame's variables, or null if this stack frame
+   * does not store variables by slot.
+   */
+  default FrameLayout getLayout() {
+    return null;
+  }
+
+  /**
+   * Returns the variable in the given slot of this stack frame's {@link #getLayout() layout}. This
+   * is equivalent to {@link #getVar(String)} with the slot's name, but implementations supporting
+   * layouts should avoid looking up the name.
+   */
+  default Data getVar(int slot) {
+    return getVar(getLayout().nameOf(slot));
+  }
+
+  /**
+   * Overwrites the variable in the given slot of this stack frame's {@link #getLayout() layout}.
+   * This is equivalent to {@link #setVar(String, Data)} with the slot's name, but implementations
+   * supporting layouts should avoid looking up the name.
+   */
+  default void setVar(int slot, Data value) {
+    setVar(getLayout().nameOf(slot), value);
+  }
+
   /** Returns this stack frame's parent (i.e. the stack frame just below it in the stack). */
   StackFrame getParent();
 
@@ -88,6 +116,21 @@ public interface StackFrame extends Serializable {
   /** Returns the debugging info for the function that this stack frame was created for. */
   DebugInfo getDebugInfo();
 
+  /**
+   * Records the call (or mapping) in this stack frame's function that is about to push the next
+   * stack frame, by the {@link Meta} of its proto. The meta is only kept by reference, and its
+   * source information is only unpacked when {@link #getCallSiteToNextStackFrame()} is called.
+   */
+  default void setCallSiteToNextStackFrame(Meta callSite) {}
+
+  /**
+   * A location of a function call in the original source code that resulted in the stack frame
+   * above this one being pushed.
+   */
+  default Source getCallSiteToNextStackFrame() {
+    return DebugInfo.UNKNOWN_SOURCE;
+  }
+
   /** Returns the number of stack frames below it in the stack. **/
   int getCount();
 
@@ -109,6 +152,24 @@ public interface StackFrame extends Serializable {
 
     Builder setDebugInfo(DebugInfo debugInfo);
 
+    /**
+     * Set the layout of the variables of the stack frame to be built, or null for none. See {@link
+     * StackFrame#getLayout()}. Builders of stack frames that do not support layouts may ignore it.
+     */
+    default Builder setLayout(FrameLayout layout) {
+      return this;
+    }
+
+    /**
+     * Set the maximum number of stack frames in the stack of the frame to be built, beyond which
+     * building fails with a {@link
+     * com.google.cloud.verticals.foundations.dataharmonization.exceptions.WhistleStackOverflowError}.
+     * Builders that do not limit the stack depth may ignore it.
+     */
+    default Builder setMaxDepth(int maxDepth) {
+      return this;
+    }
+
     /** build the stack frame with the properties set on the builder. */
     StackFrame build();
   }
@@ -21,6 +21,7 @@ import com.google.cloud.verticals.foundations.dataharmonization.function.Callabl
 import com.google.cloud.verticals.foundations.dataharmonization.function.Closure;
 import com.google.cloud.verticals.foundations.dataharmonization.function.DefaultClosure;
 import com.google.cloud.verticals.foundations.dataharmonization.function.OverloadSelector;
+import com.google.cloud.verticals.foundations.dataharmonization.function.whistle.link.LinkedValue;
 import com.google.cloud.verticals.foundations.dataharmonization.imports.ImportProcessor;
 import com.google.cloud.verticals.foundations.dataharmonization.plugin.Option;
 import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.FunctionCall;
@@ -81,6 +82,15 @@ public abstract class WrapperContext<T extends WrapperContext<T>> implements Run
     return innerContext.evaluate(valueSource);
   }
 
+  @Override
+  public Data evaluateLinked(LinkedValue value) {
+    if (value.isFunctionCall()) {
+      // Same as above, calls need to be evaluated with this wrapper as the context.
+      return value.evaluate(this);
+    }
+    return innerContext.evaluateLinked(value);
+  }
+
   protected Data evaluateFunctionCall(FunctionCall functionCall) {
     Closure closure = DefaultClosure.create(this, functionCall);
     if (functionCall.getBuildClosure()) {
@@ -145,6 +155,17 @@ public abstract class WrapperContext<T extends WrapperContext<T>> implements Run
     return innerContext.finish(returnData);
   }
 
+  @Override
+  public boolean tracksCallSites() {
+    return innerContext.tracksCallSites();
+  }
+
+  @Override
+  @Nullable
+  public SegmentedStack getSegmentedStack() {
+    return innerContext.getSegmentedStack();
+  }
+
   @Override
   public CancellationToken getCancellation() {
     return innerContext.getCancellation();
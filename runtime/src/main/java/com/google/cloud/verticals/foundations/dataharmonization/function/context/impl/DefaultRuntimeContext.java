@@ -18,7 +18,6 @@ package com.google.cloud.verticals.foundations.dataharmonization.function.contex
 
 import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
 import com.google.cloud.verticals.foundations.dataharmonization.data.DataTypeImplementation;
-import com.google.cloud.verticals.foundations.dataharmonization.data.impl.DefaultDataTypeImplementation;
 import com.google.cloud.verticals.foundations.dataharmonization.function.DefaultClosure;
 import com.google.cloud.verticals.foundations.dataharmonization.function.DefaultOverloadSelector;
 import com.google.cloud.verticals.foundations.dataharmonization.function.OverloadSelector;
@@ -29,10 +28,12 @@ import com.google.cloud.verticals.foundations.dataharmonization.function.context
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.RuntimeContext;
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.RuntimeContextImplementation;
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.RuntimeContextMonitor;
+import com.google.cloud.verticals.foundations.dataharmonization.function.context.SegmentedStack;
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.StackFrame;
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.impl.serialization.RuntimeContextComponentSerializer;
 import com.google.cloud.verticals.foundations.dataharmonization.function.whistle.WhistleFunction;
 import com.google.cloud.verticals.foundations.dataharmonization.imports.ImportProcessor;
+import com.google.cloud.verticals.foundations.dataharmonization.init.Engine;
 import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.PipelineConfig;
 import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.ValueSource;
 import java.io.IOException;
@@ -58,6 +59,9 @@ public class DefaultRuntimeContext implements RuntimeContext {
   private final StackFrame stackBottom;
   private final CancellationToken cancellationToken;
   private final transient Set<RuntimeContextMonitor> monitors;
+  private final boolean trackCallSites;
+  @Nullable private final SegmentedStack segmentedStack;
+  private final DataTypeImplementation dataTypeImplementation;
 
   public DefaultRuntimeContext(
       PackageContext packageContext,
@@ -68,6 +72,32 @@ public class DefaultRuntimeContext implements RuntimeContext {
       MetaData metaData,
       CancellationToken cancellationToken,
       Set<RuntimeContextMonitor> monitors) {
+    this(
+        packageContext,
+        stackTop,
+        stackBottom,
+        registries,
+        importProcessor,
+        metaData,
+        cancellationToken,
+        monitors,
+        !Engine.isCallSiteTrackingDisabled(metaData),
+        Engine.getSegmentedStack(metaData),
+        Engine.getDataTypeImplementation(metaData));
+  }
+
+  private DefaultRuntimeContext(
+      PackageContext packageContext,
+      StackFrame stackTop,
+      StackFrame stackBottom,
+      Registries registries,
+      ImportProcessor importProcessor,
+      MetaData metaData,
+      CancellationToken cancellationToken,
+      Set<RuntimeContextMonitor> monitors,
+      boolean trackCallSites,
+      @Nullable SegmentedStack segmentedStack,
+      DataTypeImplementation dataTypeImplementation) {
     this.selector = new DefaultOverloadSelector();
     this.packageContext = packageContext;
     this.stackTop = stackTop;
@@ -77,6 +107,9 @@ public class DefaultRuntimeContext implements RuntimeContext {
     this.metaData = metaData;
     this.monitors = monitors;
     this.cancellationToken = cancellationToken;
+    this.trackCallSites = trackCallSites;
+    this.segmentedStack = segmentedStack;
+    this.dataTypeImplementation = dataTypeImplementation;
   }
 
   public DefaultRuntimeContext(
@@ -143,6 +176,9 @@ public class DefaultRuntimeContext implements RuntimeContext {
   @Override
   public RuntimeContext newContextFromFrame(
       StackFrame.Builder frameBuilder, PackageContext localPackageContext) {
+    if (segmentedStack != null) {
+      frameBuilder.setMaxDepth(segmentedStack.getMaxDepth());
+    }
     return new DefaultRuntimeContext(
         localPackageContext,
         frameBuilder.setParent(stackTop).build(),
@@ -151,7 +187,10 @@ public class DefaultRuntimeContext implements RuntimeContext {
         importProcessor,
         metaData,
         cancellationToken,
-        monitors);
+        monitors,
+        trackCallSites,
+        segmentedStack,
+        dataTypeImplementation);
   }
 
   @Override
@@ -171,8 +210,18 @@ public class DefaultRuntimeContext implements RuntimeContext {
 
   @Override
   public DataTypeImplementation getDataTypeImplementation() {
-    // TODO(): Pass from ctor
-    return DefaultDataTypeImplementation.instance;
+    return dataTypeImplementation;
+  }
+
+  @Override
+  public boolean tracksCallSites() {
+    return trackCallSites;
+  }
+
+  @Override
+  @Nullable
+  public SegmentedStack getSegmentedStack() {
+    return segmentedStack;
   }
 
   @Override
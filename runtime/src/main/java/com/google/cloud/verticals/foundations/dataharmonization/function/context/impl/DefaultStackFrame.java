@@ -19,9 +19,12 @@ package com.google.cloud.verticals.foundations.dataharmonization.function.contex
 import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
 import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
 import com.google.cloud.verticals.foundations.dataharmonization.debug.DebugInfo;
+import com.google.cloud.verticals.foundations.dataharmonization.debug.proto.Debug.Source;
 import com.google.cloud.verticals.foundations.dataharmonization.exceptions.WhistleStackOverflowError;
+import com.google.cloud.verticals.foundations.dataharmonization.function.context.FrameLayout;
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.StackFrame;
 import com.google.cloud.verticals.foundations.dataharmonization.function.whistle.WhistleFunction;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.Meta;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import java.util.HashMap;
@@ -39,6 +42,9 @@ public class DefaultStackFrame implements StackFrame {
   private final DebugInfo debugInfo;
   private final int count;
 
+  // The meta of the call that pushed the next stack frame, unpacked only when needed.
+  private Meta callSiteToNextStackFrame;
+
   // varToParentCaches are built on demand, and are thus transient. They do not contain any data
   // that can't be reconstructed when needed.
   private transient Map<String, StackFrame> varToParentCacheReads;
@@ -163,6 +169,7 @@ public class DefaultStackFrame implements StackFrame {
         .setDebugInfo(debugInfo)
         .build();
     variables.forEach(copy::setLocalVar);
+    copy.setCallSiteToNextStackFrame(callSiteToNextStackFrame);
     return copy;
   }
 
@@ -171,6 +178,18 @@ public class DefaultStackFrame implements StackFrame {
     return debugInfo;
   }
 
+  @Override
+  public void setCallSiteToNextStackFrame(Meta callSite) {
+    callSiteToNextStackFrame = callSite;
+  }
+
+  @Override
+  public Source getCallSiteToNextStackFrame() {
+    return debugInfo == null || callSiteToNextStackFrame == null
+        ? DebugInfo.UNKNOWN_SOURCE
+        : debugInfo.getCallSiteSource(callSiteToNextStackFrame);
+  }
+
   @Override
   public int getCount() {
     return count;
@@ -220,6 +239,8 @@ public class DefaultStackFrame implements StackFrame {
     private String name;
     private boolean inheritParentVars;
     private DebugInfo debugInfo;
+    private FrameLayout layout;
+    private int maxDepth = STACK_FRAMES_LIMIT;
 
     @CanIgnoreReturnValue
     @Override
@@ -249,12 +270,33 @@ public class DefaultStackFrame implements StackFrame {
       return this;
     }
 
+    /**
+     * Sets the layout of the stack frame to be built. If a layout is set, a {@link SlotStackFrame}
+     * is built instead of a {@link DefaultStackFrame}.
+     */
+    @CanIgnoreReturnValue
+    @Override
+    public Builder setLayout(FrameLayout layout) {
+      this.layout = layout;
+      return this;
+    }
+
+    /** Sets the maximum stack depth, which is {@link #STACK_FRAMES_LIMIT} by default. */
+    @CanIgnoreReturnValue
+    @Override
+    public Builder setMaxDepth(int maxDepth) {
+      this.maxDepth = maxDepth;
+      return this;
+    }
+
     @Override
     public StackFrame build() {
-      DefaultStackFrame stackFrame = new DefaultStackFrame(parent, name, inheritParentVars,
-          this.debugInfo);
-      if (stackFrame.getCount() >= STACK_FRAMES_LIMIT) {
-        throw new WhistleStackOverflowError(stackFrame);
+      StackFrame stackFrame =
+          layout == null
+              ? new DefaultStackFrame(parent, name, inheritParentVars, this.debugInfo)
+              : new SlotStackFrame(layout, parent, name, inheritParentVars, this.debugInfo);
+      if (stackFrame.getCount() >= maxDepth) {
+        throw new WhistleStackOverflowError(stackFrame, maxDepth);
       }
       return stackFrame;
     }
@@ -33,6 +33,7 @@ import com.google.cloud.verticals.foundations.dataharmonization.function.context
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.RuntimeContextImplementation;
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.RuntimeContextMonitor;
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.StackFrame;
+import com.google.cloud.verticals.foundations.dataharmonization.function.whistle.link.LinkedValue;
 import com.google.cloud.verticals.foundations.dataharmonization.imports.ImportProcessor;
 import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.PipelineConfig;
 import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.PipelineConfig.Import;
@@ -115,6 +116,11 @@ public class InitializationContext implements RuntimeContext {
     return getInitializedContext().evaluate(valueSource);
   }
 
+  @Override
+  public Data evaluateLinked(LinkedValue value) {
+    return getInitializedContext().evaluateLinked(value);
+  }
+
   public Data evaluateImport(Import importMsg, PipelineConfig config) {
     ImportInfo importInfo;
     try {
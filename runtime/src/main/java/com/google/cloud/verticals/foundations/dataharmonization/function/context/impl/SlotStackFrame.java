@@ -0,0 +1,337 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.verticals.foundations.dataharmonization.function.context.impl;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
+import com.google.cloud.verticals.foundations.dataharmonization.debug.DebugInfo;
+import com.google.cloud.verticals.foundations.dataharmonization.debug.proto.Debug.Source;
+import com.google.cloud.verticals.foundations.dataharmonization.function.context.FrameLayout;
+import com.google.cloud.verticals.foundations.dataharmonization.function.context.StackFrame;
+import com.google.cloud.verticals.foundations.dataharmonization.function.context.impl.DefaultStackFrame.DefaultBuilder;
+import com.google.cloud.verticals.foundations.dataharmonization.function.whistle.WhistleFunction;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.Meta;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * A stack frame that stores the variables of its {@link FrameLayout} in an array, indexed by slot.
+ * Variables outside of the layout (e.g. ones set by plugins) are stored by name, like in {@link
+ * DefaultStackFrame}.
+ *
+ * <p>Variables inherited from parent frames (see {@link #inheritsParentVars()}) are resolved to the
+ * frame (and slot) that holds them on first access, after which they are accessed directly.
+ */
+public final class SlotStackFrame implements StackFrame {
+  private final FrameLayout layout;
+  private final Data[] slots;
+  private final StackFrame parent;
+  private final String name;
+  private final boolean inheritParentVars;
+  private final DebugInfo debugInfo;
+  private final int count;
+  private final int outputSlot;
+
+  // The meta of the call that pushed the next stack frame, unpacked only when needed.
+  private Meta callSiteToNextStackFrame;
+
+  // Variables outside of the layout, created on demand.
+  private HashMap<String, Data> overflow;
+
+  // Inherited slots are resolved on demand, and are thus transient. A slot that is not inherited
+  // resolves to this frame.
+  private transient Binding[] readBindings;
+  private transient Binding[] writeBindings;
+
+  SlotStackFrame(
+      FrameLayout layout,
+      StackFrame parent,
+      String name,
+      boolean inheritParentVars,
+      DebugInfo debugInfo) {
+    this.layout = layout;
+    this.slots = new Data[layout.size()];
+    this.parent = parent;
+    this.name = name;
+    this.inheritParentVars = inheritParentVars;
+    this.debugInfo = debugInfo;
+    this.count = parent == null ? 0 : parent.getCount() + 1;
+    this.outputSlot = layout.slotOf(WhistleFunction.OUTPUT_VAR);
+  }
+
+  @Override
+  public FrameLayout getLayout() {
+    return layout;
+  }
+
+  @Override
+  public Data getVar(String name) {
+    int slot = layout.slotOf(name);
+    if (slot >= 0) {
+      return getVar(slot);
+    }
+    if (overflow != null && overflow.containsKey(name)) {
+      return overflow.get(name);
+    }
+    if (inheritParentVars && canInheritVar(name)) {
+      StackFrame owner = findAncestor(name, /* closest */ true);
+      if (owner != null) {
+        return owner.getVar(name);
+      }
+    }
+    return NullData.instance;
+  }
+
+  @Override
+  public Data getVar(int slot) {
+    Data value = slots[slot];
+    if (value != null) {
+      return value;
+    }
+    if (inheritParentVars && slot != outputSlot) {
+      Binding binding = resolve(slot, /* reads */ true);
+      if (binding.frame != this) {
+        return binding.get();
+      }
+    }
+    return NullData.instance;
+  }
+
+  @Override
+  public void setVar(String name, Data value) {
+    int slot = layout.slotOf(name);
+    if (slot >= 0) {
+      setVar(slot, value);
+      return;
+    }
+    if (inheritParentVars && canInheritVar(name)) {
+      StackFrame owner = findAncestor(name, /* closest */ false);
+      if (owner != null) {
+        owner.setLocalVar(name, value);
+        return;
+      }
+    }
+    setLocalVar(name, value);
+  }
+
+  @Override
+  public void setVar(int slot, Data value) {
+    if (inheritParentVars && slot != outputSlot) {
+      Binding binding = resolve(slot, /* reads */ false);
+      if (binding.frame != this) {
+        binding.set(value);
+        return;
+      }
+    }
+    slots[slot] = value;
+  }
+
+  @Override
+  public void setLocalVar(String name, Data value) {
+    int slot = layout.slotOf(name);
+    if (slot >= 0) {
+      slots[slot] = value;
+      return;
+    }
+    if (overflow == null) {
+      overflow = new HashMap<>();
+    }
+    overflow.put(name, value);
+  }
+
+  private boolean hasLocalVar(String name) {
+    int slot = layout.slotOf(name);
+    if (slot >= 0) {
+      return slots[slot] != null;
+    }
+    return overflow != null && overflow.containsKey(name);
+  }
+
+  private boolean canInheritVar(String name) {
+    // The output var is a special case. Each stack frame should have its own.
+    return !WhistleFunction.OUTPUT_VAR.equals(name);
+  }
+
+  /**
+   * Returns the ancestor that holds the given variable, or null if none does. Only ancestors up to
+   * (and including) the first one that does not inherit its parent's variables are searched.
+   *
+   * @param closest true iff the closest ancestor holding the variable should be returned (i.e. for
+   *     reads). Otherwise the furthest one is returned (i.e. for writes).
+   */
+  @Nullable
+  private StackFrame findAncestor(String name, boolean closest) {
+    StackFrame found = null;
+    for (StackFrame ancestor = parent; ancestor != null; ) {
+      boolean holds =
+          ancestor instanceof SlotStackFrame
+              ? ((SlotStackFrame) ancestor).hasLocalVar(name)
+              : ancestor.getVars().contains(name);
+      if (holds) {
+        found = ancestor;
+        if (closest) {
+          break;
+        }
+      }
+      ancestor = ancestor.inheritsParentVars() ? ancestor.getParent() : null;
+    }
+    return found;
+  }
+
+  private Binding resolve(int slot, boolean reads) {
+    Binding[] bindings = reads ? readBindings : writeBindings;
+    if (bindings == null) {
+      bindings = new Binding[slots.length];
+      if (reads) {
+        readBindings = bindings;
+      } else {
+        writeBindings = bindings;
+      }
+    }
+    Binding binding = bindings[slot];
+    if (binding == null) {
+      String var = layout.nameOf(slot);
+      StackFrame owner = findAncestor(var, reads);
+      binding =
+          owner == null
+              ? new Binding(this, slot, var)
+              : new Binding(
+                  owner, owner instanceof SlotStackFrame ? owner.getLayout().slotOf(var) : -1, var);
+      bindings[slot] = binding;
+    }
+    return binding;
+  }
+
+  @Override
+  public StackFrame getParent() {
+    return parent;
+  }
+
+  @Override
+  public Builder newBuilder() {
+    return new DefaultBuilder().setParent(this);
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public Set<String> getVars() {
+    Set<String> vars = new LinkedHashSet<>();
+    for (int i = 0; i < slots.length; i++) {
+      if (slots[i] != null) {
+        vars.add(layout.nameOf(i));
+      }
+    }
+    if (overflow != null) {
+      vars.addAll(overflow.keySet());
+    }
+    return vars;
+  }
+
+  @Override
+  public boolean inheritsParentVars() {
+    return inheritParentVars;
+  }
+
+  @Override
+  public StackFrame stackCopy() {
+    StackFrame parentCopy = parent == null ? null : parent.stackCopy();
+    SlotStackFrame copy =
+        new SlotStackFrame(layout, parentCopy, name, inheritParentVars, debugInfo);
+    System.arraycopy(slots, 0, copy.slots, 0, slots.length);
+    if (overflow != null) {
+      copy.overflow = new HashMap<>(overflow);
+    }
+    copy.callSiteToNextStackFrame = callSiteToNextStackFrame;
+    return copy;
+  }
+
+  @Override
+  public DebugInfo getDebugInfo() {
+    return debugInfo;
+  }
+
+  @Override
+  public void setCallSiteToNextStackFrame(Meta callSite) {
+    callSiteToNextStackFrame = callSite;
+  }
+
+  @Override
+  public Source getCallSiteToNextStackFrame() {
+    return debugInfo == null || callSiteToNextStackFrame == null
+        ? DebugInfo.UNKNOWN_SOURCE
+        : debugInfo.getCallSiteSource(callSiteToNextStackFrame);
+  }
+
+  @Override
+  public int getCount() {
+    return count;
+  }
+
+  @Override
+  public boolean equals(@Nullable Object object) {
+    if (!(object instanceof SlotStackFrame)) {
+      return false;
+    }
+    SlotStackFrame that = (SlotStackFrame) object;
+    return Objects.equals(this.getVars(), that.getVars())
+        && Objects.equals(this.getParent(), that.getParent())
+        && Objects.equals(this.getName(), that.getName())
+        && this.inheritParentVars == that.inheritParentVars
+        && this.count == that.count;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(getVars(), parent, name, inheritParentVars);
+  }
+
+  /** The frame, and if it has a layout the slot, that holds an inherited variable. */
+  private static final class Binding {
+    private final StackFrame frame;
+    private final int slot;
+    private final String name;
+
+    private Binding(StackFrame frame, int slot, String name) {
+      this.frame = frame;
+      this.slot = slot;
+      this.name = name;
+    }
+
+    private Data get() {
+      if (slot >= 0) {
+        Data value = ((SlotStackFrame) frame).slots[slot];
+        return value == null ? NullData.instance : value;
+      }
+      return frame.getVar(name);
+    }
+
+    private void set(Data value) {
+      if (slot >= 0) {
+        ((SlotStackFrame) frame).slots[slot] = value;
+      } else {
+        frame.setLocalVar(name, value);
+      }
+    }
+  }
+}
@@ -59,6 +59,10 @@ public class JavaFunction extends CallableFunction {
   protected final Signature signature;
   protected final List<Converter<?>> converters = new ArrayList<>();
   protected final boolean firstArgIsRuntimeContext;
+  private final boolean pure;
+
+  // Debug info is derived entirely from the java method, so it is not serialized.
+  private transient volatile DebugInfo debugInfo;
 
   // A placeholder package name for testing purposes;
   public static final String DEFAULT_PACKAGE_NAME = "defaultJavaPkg";
@@ -112,6 +116,9 @@ public class JavaFunction extends CallableFunction {
     this.signature =
         generateSignature(
             packageName, javaFunction, converters, firstArgIsRuntimeContext, inheritParentVars);
+    this.pure =
+        javaFunction.isAnnotationPresent(PluginFunction.class)
+            && javaFunction.getAnnotation(PluginFunction.class).pure();
   }
 
   /**
@@ -371,9 +378,20 @@ public class JavaFunction extends CallableFunction {
     return signature;
   }
 
+  /** Returns true iff the wrapped method is annotated as {@link PluginFunction#pure()}. */
+  @Override
+  public boolean isPure() {
+    return pure;
+  }
+
   @Override
   public DebugInfo getDebugInfo() {
-    return DebugInfo.fromJavaFunction(signature.getPackageName(), javaFunction);
+    DebugInfo info = debugInfo;
+    if (info == null) {
+      info = DebugInfo.fromJavaFunction(signature.getPackageName(), javaFunction);
+      debugInfo = info;
+    }
+    return info;
   }
 
   private void writeObject(ObjectOutputStream oos) throws Exception {
@@ -29,4 +29,13 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.RUNTIME)
 public @interface PluginFunction {
   boolean inheritParentVars() default false;
+
+  /**
+   * Whether this function is pure, i.e. its result depends only on its arguments (and the {@link
+   * com.google.cloud.verticals.foundations.dataharmonization.data.DataTypeImplementation} it is
+   * created with) and calling it has no side effects. Calls to pure functions with constant
+   * arguments may be evaluated once and their result reused (see {@link
+   * com.google.cloud.verticals.foundations.dataharmonization.function.CallableFunction#isPure()}).
+   */
+  boolean pure() default false;
 }
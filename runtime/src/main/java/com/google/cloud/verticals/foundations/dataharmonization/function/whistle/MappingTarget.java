@@ -53,6 +53,16 @@ public abstract class MappingTarget implements Target {
     updateTarget(ctx, target);
   }
 
+  /** Returns the path on the target value that is written to. */
+  public Path getPath() {
+    return path;
+  }
+
+  /** Returns the mode used to merge values into the target. */
+  public MergeMode getMergeMode() {
+    return mergeMode;
+  }
+
   /** Writes back the updated target value. */
   protected abstract void updateTarget(RuntimeContext ctx, Data updatedTarget);
 
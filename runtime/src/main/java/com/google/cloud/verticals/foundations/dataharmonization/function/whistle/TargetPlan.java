@@ -0,0 +1,129 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.verticals.foundations.dataharmonization.function.whistle;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.merge.MergeMode;
+import com.google.cloud.verticals.foundations.dataharmonization.data.path.Path;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.FieldMapping;
+import com.google.cloud.verticals.foundations.dataharmonization.registry.PackageRegistry;
+import com.google.cloud.verticals.foundations.dataharmonization.target.Target;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import javax.annotation.Nullable;
+
+/**
+ * The pre-resolved builtin target of a single {@link FieldMapping}: the {@link Target.Constructor}
+ * chosen for it, and the {@link MappingTarget} (i.e. the parsed {@link Path} and {@link MergeMode})
+ * it constructed. Builtin targets are immutable, so once planned, writing to a field or var costs
+ * only the merge itself.
+ *
+ * <p>A plan is only made for the {@link VarTarget} and {@link SideTarget} constructors (whose
+ * results depend only on their arguments), and is discarded whenever the target registry it was
+ * resolved from is replaced or {@link PackageRegistry#getVersion() modified}.
+ */
+public final class TargetPlan {
+  private final PackageRegistry<Target.Constructor> registry;
+  private final long version;
+  private final Target.Constructor constructor;
+  private final MappingTarget target;
+
+  private TargetPlan(
+      PackageRegistry<Target.Constructor> registry,
+      long version,
+      Target.Constructor constructor,
+      MappingTarget target) {
+    this.registry = registry;
+    this.version = version;
+    this.constructor = constructor;
+    this.target = target;
+  }
+
+  /**
+   * Creates a plan for the given target, constructed by the given constructor out of the given
+   * registry at the given version. Returns null if the target cannot be planned.
+   */
+  @Nullable
+  static TargetPlan create(
+      PackageRegistry<Target.Constructor> registry,
+      long version,
+      Target.Constructor constructor,
+      Target target) {
+    if (version < 0
+        || !(target instanceof MappingTarget)
+        || (constructor.getClass() != VarTarget.Constructor.class
+            && constructor.getClass() != SideTarget.Constructor.class)) {
+      return null;
+    }
+    return new TargetPlan(registry, version, constructor, (MappingTarget) target);
+  }
+
+  /** Returns true iff this plan was resolved from the current state of the given registry. */
+  boolean isValidFor(PackageRegistry<Target.Constructor> registry) {
+    return this.registry == registry && registry.getVersion() == version;
+  }
+
+  /** Returns the constructor that was chosen for the mapping. */
+  public Target.Constructor getConstructor() {
+    return constructor;
+  }
+
+  /** Returns the target to write the mapping to. */
+  public MappingTarget getTarget() {
+    return target;
+  }
+
+  /** Returns the parsed path the mapping writes to. */
+  public Path getPath() {
+    return target.getPath();
+  }
+
+  /** Returns the merge mode the mapping writes with. */
+  public MergeMode getMergeMode() {
+    return target.getMergeMode();
+  }
+
+  /** Holds the most recent {@link TargetPlan} of a single {@link FieldMapping}. */
+  public static final class Slot {
+    private static final LoadingCache<FieldMapping, Slot> slots =
+        CacheBuilder.newBuilder().weakKeys().build(CacheLoader.from(Slot::new));
+
+    private volatile TargetPlan plan;
+
+    /** Returns the slot for the given mapping. Mappings are compared by identity. */
+    public static Slot forMapping(FieldMapping mapping) {
+      return slots.getUnchecked(mapping);
+    }
+
+    /** Returns the plan in this slot if it is still valid for the given registry, else null. */
+    @Nullable
+    TargetPlan get(PackageRegistry<Target.Constructor> registry) {
+      TargetPlan current = plan;
+      return current != null && current.isValidFor(registry) ? current : null;
+    }
+
+    /** Returns the current plan in this slot, valid or not. */
+    @Nullable
+    public TargetPlan peek() {
+      return plan;
+    }
+
+    void set(@Nullable TargetPlan plan) {
+      this.plan = plan;
+    }
+  }
+}
@@ -19,38 +19,51 @@ package com.google.cloud.verticals.foundations.dataharmonization.function.whistl
 import static java.util.Arrays.stream;
 import static java.util.stream.Collectors.joining;
 
+import com.google.cloud.verticals.foundations.dataharmonization.TranspilerData;
 import com.google.cloud.verticals.foundations.dataharmonization.builtins.Builtins;
 import com.google.cloud.verticals.foundations.dataharmonization.builtins.Core;
 import com.google.cloud.verticals.foundations.dataharmonization.builtins.Iteration;
 import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.DataTypeImplementation;
 import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
+import com.google.cloud.verticals.foundations.dataharmonization.data.merge.DefaultMergeStrategy;
+import com.google.cloud.verticals.foundations.dataharmonization.data.path.PathSegment;
 import com.google.cloud.verticals.foundations.dataharmonization.debug.DebugInfo;
 import com.google.cloud.verticals.foundations.dataharmonization.exceptions.NoMatchingOverloadsException;
 import com.google.cloud.verticals.foundations.dataharmonization.function.CallableFunction;
 import com.google.cloud.verticals.foundations.dataharmonization.function.Closure;
 import com.google.cloud.verticals.foundations.dataharmonization.function.DefaultClosure.FunctionReference;
 import com.google.cloud.verticals.foundations.dataharmonization.function.NativeUnaryClosure;
+import com.google.cloud.verticals.foundations.dataharmonization.function.context.FrameLayout;
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.PackageContext;
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.RuntimeContext;
+import com.google.cloud.verticals.foundations.dataharmonization.function.context.StackFrame;
 import com.google.cloud.verticals.foundations.dataharmonization.function.signature.Signature;
 import com.google.cloud.verticals.foundations.dataharmonization.function.whistle.VarTarget.Constructor;
+import com.google.cloud.verticals.foundations.dataharmonization.function.whistle.link.LinkedMapping;
+import com.google.cloud.verticals.foundations.dataharmonization.function.whistle.link.Linker;
 import com.google.cloud.verticals.foundations.dataharmonization.modifier.arg.ArgModifier;
+import com.google.cloud.verticals.foundations.dataharmonization.plugin.ConfigOptions;
 import com.google.cloud.verticals.foundations.dataharmonization.plugin.Option;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.DeclaredVariables;
 import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.FieldMapping;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.FieldMapping.TargetCase;
 import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.FunctionDefinition;
 import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.FunctionDefinition.Argument;
 import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.PipelineConfig;
+import com.google.cloud.verticals.foundations.dataharmonization.registry.PackageRegistry;
+import com.google.cloud.verticals.foundations.dataharmonization.registry.Registry;
 import com.google.cloud.verticals.foundations.dataharmonization.registry.util.LevenshteinDistance;
 import com.google.cloud.verticals.foundations.dataharmonization.target.Target;
 import com.google.common.collect.ImmutableSet;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
-import java.util.stream.IntStream;
 
 /** {@link CallableFunction} implementation for a Whistle {@link FunctionDefinition}. */
 public class WhistleFunction extends CallableFunction {
@@ -61,6 +74,24 @@ public class WhistleFunction extends CallableFunction {
   private final Signature signature;
   private final PackageContext packageContext;
 
+  // Debug info is derived entirely from the protos, so it is not serialized.
+  private transient volatile DebugInfo debugInfo;
+
+  // Options are resolved against the option registry on the first call, and are not serialized.
+  private transient volatile ConfigOptions configOptions;
+
+  // The frame layout is derived entirely from the proto, so it is not serialized. The argument and
+  // output slots are written before the layout is published.
+  private transient volatile FrameLayout frameLayout;
+  private transient int[] argSlots;
+  private transient int outputSlot;
+
+  // Linked mappings are derived entirely from the proto, so they are not serialized. A deserialized
+  // function that was linked will re-link itself on its first call, with the data type
+  // implementation of the context it is called in.
+  private boolean linkingEnabled;
+  private transient volatile LinkedMapping[] linkedMappings;
+
   public WhistleFunction(
       FunctionDefinition proto, PipelineConfig declaringConfig, PackageContext packageContext) {
     this.proto = proto;
@@ -78,6 +109,48 @@ public class WhistleFunction extends CallableFunction {
         proto.getInheritParentVars());
   }
 
+  /**
+   * Generates the layout of this function's stack frames. Arguments come first, such that their
+   * slots match their indices, followed by the output var and all variables declared in the
+   * function.
+   */
+  private static FrameLayout generateFrameLayout(FunctionDefinition proto) {
+    List<String> names = new ArrayList<>();
+    proto.getArgsList().forEach(arg -> names.add(arg.getName()));
+    names.add(OUTPUT_VAR);
+    names.addAll(
+        DebugInfo.getMetaEntry(
+                proto.getMeta(),
+                TranspilerData.VARIABLES_META_KEY,
+                DeclaredVariables.class,
+                DeclaredVariables.getDefaultInstance())
+            .getNamesList());
+    // Protos that were not transpiled (or transpiled before variables were recorded) still have all
+    // their variables declared by var targets.
+    for (FieldMapping mapping : proto.getMappingList()) {
+      if (mapping.hasVar()) {
+        names.add(mapping.getVar().getName());
+      }
+    }
+    return FrameLayout.of(names);
+  }
+
+  @Override
+  public FrameLayout getFrameLayout() {
+    FrameLayout layout = frameLayout;
+    if (layout == null) {
+      layout = generateFrameLayout(proto);
+      int[] slots = new int[proto.getArgsCount()];
+      for (int i = 0; i < slots.length; i++) {
+        slots[i] = layout.slotOf(proto.getArgs(i).getName());
+      }
+      argSlots = slots;
+      outputSlot = layout.slotOf(OUTPUT_VAR);
+      frameLayout = layout;
+    }
+    return layout;
+  }
+
   @Override
   protected Data callInternal(RuntimeContext context, Data... args) {
     // make sure argument number matches the function signature.
@@ -91,51 +164,176 @@ public class WhistleFunction extends CallableFunction {
     bindArgs(context, args);
 
     // Toggle options and execute mappings.
-    Option.withConfig(
-        new HashSet<>(declaringConfig.getOptionsList()), context, this::executeMappings);
+    executeMappings(getConfigOptions(context).apply(context));
+
+    StackFrame top = context.top();
+    return top.getLayout() == getFrameLayout() ? top.getVar(outputSlot) : top.getVar(OUTPUT_VAR);
+  }
 
-    return context.top().getVar(OUTPUT_VAR);
+  private ConfigOptions getConfigOptions(RuntimeContext context) {
+    Registry<Option> registry = context.getRegistries().getOptionRegistry();
+    ConfigOptions options = configOptions;
+    if (options == null || !options.isValidFor(registry)) {
+      options = ConfigOptions.forConfig(declaringConfig, registry);
+      configOptions = options;
+    }
+    return options;
+  }
+
+  /**
+   * Lowers this function's mappings into a pre-linked execution tree (see {@link Linker}), which is
+   * then used for all subsequent calls instead of interpreting the proto.
+   *
+   * @param dataTypeImplementation the {@link DataTypeImplementation} the function will be called
+   *     with, which constants are created with at link time.
+   */
+  public void link(DataTypeImplementation dataTypeImplementation) {
+    linkingEnabled = true;
+    linkedMappings = new Linker(dataTypeImplementation, getFrameLayout()).link(proto);
+  }
+
+  /** Returns true iff {@link #link} has been called on this function. */
+  public boolean isLinked() {
+    return linkingEnabled;
+  }
+
+  private LinkedMapping[] getLinkedMappings(RuntimeContext context) {
+    LinkedMapping[] linked = linkedMappings;
+    if (linked == null) {
+      link(context.getDataTypeImplementation().unwrap());
+      linked = linkedMappings;
+    }
+    return linked;
   }
 
   private void executeMappings(RuntimeContext context) {
+    if (linkingEnabled) {
+      LinkedMapping[] mappings = getLinkedMappings(context);
+      int i = 0;
+      while (i < mappings.length) {
+        if (mappings[i].getOutputFieldRun() > 0) {
+          i = executeOutputFieldRun(context, mappings, i);
+        } else {
+          executeLinkedMapping(
+              context, mappings[i], context.evaluateLinked(mappings[i].getValue()));
+          i++;
+        }
+      }
+      return;
+    }
+
     for (FieldMapping mapping : proto.getMappingList()) {
       Data source = context.evaluate(mapping.getValue());
       Target target = getTarget(context, mapping);
-      if (mapping.getIterateSource()) {
-        Closure targetClosure = new NativeUnaryClosure(new TargetWriteFunction(target, context));
-        if (source.isNullOrEmpty()) {
-          continue;
-        }
-        if (source.isArray()) {
-          Iteration.iterate(context, targetClosure, source.asArray());
-        } else if (source.isContainer()) {
-          Iteration.iterate(context, targetClosure, source.asContainer());
-        } else if (source.isDataset()) {
-          Iteration.iterate(context, targetClosure, source.asDataset());
-        } else {
-          throw new IllegalArgumentException(
-              String.format(
-                  "Cannot iterate %s (a non-iterable %s) into target %s",
-                  source, source.getClass().getSimpleName(), target));
-        }
+      executeMapping(context, mapping, source, target);
+    }
+  }
+
+  private void executeLinkedMapping(RuntimeContext context, LinkedMapping mapping, Data source) {
+    Target target =
+        mapping.getBuiltinTargetName() != null
+            ? builtinSink(
+                context,
+                mapping.getTargetPlanSlot(),
+                mapping.getBuiltinTargetName(),
+                mapping.getBuiltinTargetArgs())
+            : getTarget(context, mapping.getProto());
+    executeMapping(context, mapping.getProto(), source, target);
+  }
+
+  /**
+   * Executes the run of mappings to distinct output fields that starts at the given index (see
+   * {@link LinkedMapping#getOutputFieldRun()}), and returns the index of the first mapping after
+   * it.
+   *
+   * <p>Each value is still evaluated and written in order, but values are set on the output
+   * container directly, without looking up their targets, as long as the field is still empty (so
+   * that merging would just set it). The output container is created with room for all fields of
+   * the run if it does not exist yet. Any other write (e.g. into a field a called function already
+   * wrote to, or before the target has been planned) goes through the mapping's target as usual.
+   */
+  private int executeOutputFieldRun(RuntimeContext context, LinkedMapping[] mappings, int start) {
+    int end = start + mappings[start].getOutputFieldRun();
+    StackFrame top = context.top();
+    boolean bySlot = top.getLayout() == getFrameLayout();
+    PackageRegistry<Target.Constructor> registry = context.getRegistries().getTargetRegistry();
+    DataTypeImplementation dti = context.getDataTypeImplementation();
+    for (int i = start; i < end; i++) {
+      LinkedMapping mapping = mappings[i];
+      Data source = context.evaluateLinked(mapping.getValue());
+      if (!bySlot || mapping.getTargetPlanSlot().get(registry) == null) {
+        executeLinkedMapping(context, mapping, source);
+        continue;
+      }
+      if (source.isNullOrEmpty()) {
+        // Writing nothing to a field is skipped, see VarTarget.
+        continue;
+      }
+      Data output = top.getVar(outputSlot);
+      PathSegment field = mapping.getOutputField();
+      boolean create = output.isNullOrEmpty() && !output.isWritable();
+      if (output.getMergeStrategy() != DefaultMergeStrategy.INSTANCE
+          || (!create && (!output.isContainer() || !field.get(output).isNullOrEmpty()))) {
+        executeLinkedMapping(context, mapping, source);
+        continue;
+      }
+      if (context.tracksCallSites()) {
+        top.setCallSiteToNextStackFrame(mapping.getProto().getMeta());
+      }
+      dti.beforeWrite(1);
+      if (create) {
+        output = dti.emptyContainer(end - i);
+      }
+      top.setVar(outputSlot, field.set(output, source));
+    }
+    return end;
+  }
+
+  private static void executeMapping(
+      RuntimeContext context, FieldMapping mapping, Data source, Target target) {
+    if (mapping.getIterateSource()) {
+      Closure targetClosure = new NativeUnaryClosure(new TargetWriteFunction(target, context));
+      if (source.isNullOrEmpty()) {
+        return;
+      }
+      if (source.isArray()) {
+        Iteration.iterate(context, targetClosure, source.asArray());
+      } else if (source.isContainer()) {
+        Iteration.iterate(context, targetClosure, source.asContainer());
+      } else if (source.isDataset()) {
+        Iteration.iterate(context, targetClosure, source.asDataset());
       } else {
-        // add debugging info to callSiteToNextFrame here.
-        DebugInfo callerInfo = context.top().getDebugInfo();
-        if (callerInfo != null) {
-          callerInfo.setCallsiteToNextStackFrame(mapping);
-        }
-        target.write(context, source);
+        throw new IllegalArgumentException(
+            String.format(
+                "Cannot iterate %s (a non-iterable %s) into target %s",
+                source, source.getClass().getSimpleName(), target));
+      }
+    } else {
+      // add debugging info to callSiteToNextFrame here.
+      if (context.tracksCallSites()) {
+        context.top().setCallSiteToNextStackFrame(mapping.getMeta());
       }
+      target.write(context, source);
     }
   }
 
   private Target getTarget(RuntimeContext context, FieldMapping mapping) {
+    if (mapping.getTargetCase() == TargetCase.CUSTOM_SINK) {
+      return customSink(context, mapping);
+    }
+
+    // Builtin targets only need to be constructed once per mapping.
+    TargetPlan.Slot slot = TargetPlan.Slot.forMapping(mapping);
+    TargetPlan plan = slot.get(context.getRegistries().getTargetRegistry());
+    if (plan != null) {
+      return plan.getTarget();
+    }
+
     switch (mapping.getTargetCase()) {
-      case CUSTOM_SINK:
-        return customSink(context, mapping);
       case VAR:
         return builtinSink(
             context,
+            slot,
             Constructor.TARGET_NAME,
             context.getDataTypeImplementation().primitiveOf(mapping.getVar().getName()),
             context.getDataTypeImplementation().primitiveOf(mapping.getVar().getPath()));
@@ -148,12 +346,14 @@ public class WhistleFunction extends CallableFunction {
           case LOCAL:
             return builtinSink(
                 context,
+                slot,
                 Constructor.TARGET_NAME,
                 context.getDataTypeImplementation().primitiveOf(OUTPUT_VAR),
                 context.getDataTypeImplementation().primitiveOf(field));
           case SIDE:
             return builtinSink(
                 context,
+                slot,
                 SideTarget.Constructor.TARGET_NAME,
                 context.getDataTypeImplementation().primitiveOf(field));
           case UNRECOGNIZED:
@@ -166,22 +366,35 @@ public class WhistleFunction extends CallableFunction {
         // By default - write to $this.
         return builtinSink(
             context,
+            slot,
             Constructor.TARGET_NAME,
             context.getDataTypeImplementation().primitiveOf(OUTPUT_VAR),
             context.getDataTypeImplementation().primitiveOf(""));
     }
   }
 
-  private Target builtinSink(RuntimeContext context, String name, Data... args) {
+  /**
+   * Constructs the builtin target with the given name and args. If a valid {@link TargetPlan} is in
+   * the given slot, its target is returned instead, otherwise the resolved target is planned into
+   * it.
+   */
+  private Target builtinSink(
+      RuntimeContext context, TargetPlan.Slot slot, String name, Data... args) {
+    PackageRegistry<Target.Constructor> registry = context.getRegistries().getTargetRegistry();
+    TargetPlan plan = slot.get(registry);
+    if (plan != null) {
+      return plan.getTarget();
+    }
+
+    // Read the version before resolving, so concurrent modifications invalidate the plan.
+    long version = registry.getVersion();
     // TODO(rpolyano): Give targets signatures and use regular overload selection.
     Set<Target.Constructor> overloads =
-        context
-            .getRegistries()
-            .getTargetRegistry()
-            .getOverloads(ImmutableSet.of(Builtins.PACKAGE_NAME), name);
+        registry.getOverloads(ImmutableSet.of(Builtins.PACKAGE_NAME), name);
 
     boolean multiple = false;
     Target matching = null;
+    Target.Constructor matchingConstructor = null;
     for (Target.Constructor overload : overloads) {
       try {
         Target target = overload.construct(context, args);
@@ -190,6 +403,7 @@ public class WhistleFunction extends CallableFunction {
           break;
         }
         matching = target;
+        matchingConstructor = overload;
       } catch (IllegalArgumentException ex) {
         // Noop.
       }
@@ -227,6 +441,7 @@ public class WhistleFunction extends CallableFunction {
                   .collect(joining("\n\t"))));
     }
 
+    slot.set(TargetPlan.create(registry, version, matchingConstructor, matching));
     return matching;
   }
 
@@ -273,19 +488,19 @@ public class WhistleFunction extends CallableFunction {
   }
 
   private void bindArgs(RuntimeContext context, Data[] args) {
-    IntStream.range(0, proto.getArgsCount())
-        .forEach(
-            i ->
-                context
-                    .top()
-                    .setVar(
-                        proto.getArgs(i).getName(),
-                        modifyArg(
-                            context
-                                .getRegistries()
-                                .getArgModifierRegistry()
-                                .get(proto.getArgs(i).getModifier()),
-                            args[i])));
+    StackFrame top = context.top();
+    boolean bySlot = top.getLayout() == getFrameLayout();
+    for (int i = 0; i < proto.getArgsCount(); i++) {
+      Data value =
+          modifyArg(
+              context.getRegistries().getArgModifierRegistry().get(proto.getArgs(i).getModifier()),
+              args[i]);
+      if (bySlot) {
+        top.setVar(argSlots[i], value);
+      } else {
+        top.setVar(proto.getArgs(i).getName(), value);
+      }
+    }
   }
 
   private Data modifyArg(ArgModifier argMod, Data arg) {
@@ -325,7 +540,12 @@ public class WhistleFunction extends CallableFunction {
 
   @Override
   public DebugInfo getDebugInfo() {
-    return DebugInfo.fromFunction(declaringConfig, proto);
+    DebugInfo info = debugInfo;
+    if (info == null) {
+      info = DebugInfo.fromFunction(declaringConfig, proto);
+      debugInfo = info;
+    }
+    return info;
   }
 
   public PipelineConfig getPipelineConfig() {
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.verticals.foundations.dataharmonization.function.whistle.link;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.DataTypeImplementation;
+import com.google.cloud.verticals.foundations.dataharmonization.function.CallSiteCache;
+import com.google.cloud.verticals.foundations.dataharmonization.function.CallableFunction;
+import com.google.cloud.verticals.foundations.dataharmonization.function.DefaultClosure;
+import com.google.cloud.verticals.foundations.dataharmonization.function.context.RuntimeContext;
+import javax.annotation.Nullable;
+
+/**
+ * A call whose arguments are all constants (or themselves folded calls), e.g. {@code "urn:" +
+ * "oid"} or a string interpolation without dynamic parts.
+ *
+ * <p>If the overload the call resolves to is {@link CallableFunction#isPure() pure} and returned a
+ * primitive, the result is remembered and returned without executing the function again for as long
+ * as the call keeps resolving to the same overload in contexts with the same {@link
+ * DataTypeImplementation}. Failed calls are never remembered.
+ *
+ * <p>While the overload group cached at the call site stays valid (see {@link
+ * DefaultClosure#getCachedGroup}) and folded arguments still return their remembered results, the
+ * arguments are the same as when the result was remembered, so neither the arguments are evaluated
+ * nor the overload is resolved. Otherwise the call is resolved as usual, and the remembered result
+ * is only reused if it resolves to the same overload.
+ */
+final class FoldedCall extends LinkedValue {
+  private final LinkedFunctionCall call;
+  private volatile Folded folded;
+
+  FoldedCall(LinkedFunctionCall call) {
+    super(call.getProto());
+    this.call = call;
+  }
+
+  @Override
+  public boolean isFunctionCall() {
+    return true;
+  }
+
+  @Override
+  public Data evaluate(RuntimeContext context) {
+    Data value = getFolded(context);
+    if (value != null) {
+      return value;
+    }
+
+    LinkedValue[] args = call.getArgs();
+    Data[] values = new Data[args.length];
+    for (int i = 0; i < args.length; i++) {
+      values[i] = context.evaluateLinked(args[i]);
+    }
+
+    CallableFunction function =
+        DefaultClosure.resolve(context, call.getReference(), call.getCallSite(), values);
+    DataTypeImplementation dti = context.getDataTypeImplementation();
+    CallSiteCache.OverloadGroup group =
+        DefaultClosure.getCachedGroup(context, call.getReference(), call.getCallSite());
+    Folded current = folded;
+    if (current != null && current.function == function && current.dti == dti) {
+      if (current.group != group) {
+        folded = new Folded(function, group, dti, values, current.value);
+      }
+      return current.value;
+    }
+
+    if (context.tracksCallSites()) {
+      context.top().setCallSiteToNextStackFrame(call.getCall().getMeta());
+    }
+    Data result = function.call(context, values);
+    if (function.isPure() && result.isPrimitive()) {
+      folded = new Folded(function, group, dti, values, result);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the remembered result if it is known to still be the result of this call in the given
+   * context without evaluating the arguments, or null if the call has to be evaluated.
+   */
+  @Nullable
+  private Data getFolded(RuntimeContext context) {
+    Folded current = folded;
+    if (current == null
+        || current.group == null
+        || current.dti != context.getDataTypeImplementation()
+        || current.group
+            != DefaultClosure.getCachedGroup(context, call.getReference(), call.getCallSite())) {
+      return null;
+    }
+    LinkedValue[] args = call.getArgs();
+    for (int i = 0; i < args.length; i++) {
+      // Constants are the same for the same data type implementation, folded calls only if they
+      // still return the same result.
+      if (args[i] instanceof FoldedCall
+          && ((FoldedCall) args[i]).getFolded(context) != current.args[i]) {
+        return null;
+      }
+    }
+    return current.value;
+  }
+
+  /** Returns the call that is folded. */
+  LinkedFunctionCall getCall() {
+    return call;
+  }
+
+  /** The result of a pure call, and what it was computed with. */
+  private static final class Folded {
+    private final CallableFunction function;
+    @Nullable private final CallSiteCache.OverloadGroup group;
+    private final DataTypeImplementation dti;
+    private final Data[] args;
+    private final Data value;
+
+    private Folded(
+        CallableFunction function,
+        @Nullable CallSiteCache.OverloadGroup group,
+        DataTypeImplementation dti,
+        Data[] args,
+        Data value) {
+      this.function = function;
+      this.group = group;
+      this.dti = dti;
+      this.args = args;
+      this.value = value;
+    }
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.verticals.foundations.dataharmonization.function.whistle.link;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.function.CallSiteCache;
+import com.google.cloud.verticals.foundations.dataharmonization.function.Closure.FreeParameter;
+import com.google.cloud.verticals.foundations.dataharmonization.function.DefaultClosure;
+import com.google.cloud.verticals.foundations.dataharmonization.function.DefaultClosure.FunctionReference;
+import com.google.cloud.verticals.foundations.dataharmonization.function.context.RuntimeContext;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.FunctionCall;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.ValueSource;
+import java.util.Collections;
+import java.util.SortedSet;
+import javax.annotation.Nullable;
+
+/**
+ * Pre-linked form of a {@link FunctionCall}. The {@link FunctionReference}, free parameters and
+ * argument values are all resolved when linking, such that evaluating the call only evaluates the
+ * arguments and invokes the callee with them. A {@link DefaultClosure} is only created for calls
+ * that build closures or have free parameters.
+ */
+public final class LinkedFunctionCall extends LinkedValue {
+  private final FunctionCall call;
+  private final FunctionReference reference;
+  @Nullable private final CallSiteCache callSite;
+  private final SortedSet<Integer> freeArgIndices;
+  // Each element is either a FreeParameter, or null if the arg needs to be evaluated from args.
+  private final Data[] freeParams;
+  private final LinkedValue[] args;
+
+  LinkedFunctionCall(
+      ValueSource proto,
+      FunctionCall call,
+      SortedSet<Integer> freeArgIndices,
+      FreeParameter[] freeParams,
+      LinkedValue[] args) {
+    super(proto);
+    this.call = call;
+    this.reference =
+        new FunctionReference(call.getReference().getPackage(), call.getReference().getName());
+    this.callSite = CallSiteCache.forCall(call);
+    this.freeArgIndices = Collections.unmodifiableSortedSet(freeArgIndices);
+    this.freeParams = freeParams;
+    this.args = args;
+  }
+
+  @Override
+  public boolean isFunctionCall() {
+    return true;
+  }
+
+  @Override
+  public Data evaluate(RuntimeContext context) {
+    if (call.getBuildClosure()) {
+      return createClosure(context);
+    }
+    if (freeArgIndices.isEmpty()) {
+      return DefaultClosure.invoke(context, reference, call, callSite, evaluateArgs(context));
+    }
+    return createClosure(context).execute(context);
+  }
+
+  /**
+   * Evaluates the arguments of this call and creates a {@link DefaultClosure} from them, without
+   * executing it. Equivalent to {@link DefaultClosure#create(RuntimeContext, FunctionCall)}.
+   */
+  DefaultClosure createClosure(RuntimeContext context) {
+    return DefaultClosure.create(reference, freeArgIndices, call, callSite, evaluateArgs(context));
+  }
+
+  /** Evaluates the arguments of this call, with its free parameters in their places. */
+  private Data[] evaluateArgs(RuntimeContext context) {
+    Data[] values = new Data[args.length];
+    for (int i = 0; i < args.length; i++) {
+      if (freeParams[i] != null) {
+        values[i] = freeParams[i];
+      } else if (args[i] instanceof LinkedFunctionCall
+          && ((LinkedFunctionCall) args[i]).call.getBuildClosure()) {
+        values[i] = ((LinkedFunctionCall) args[i]).createClosure(context);
+      } else {
+        values[i] = context.evaluateLinked(args[i]);
+      }
+    }
+    return values;
+  }
+
+  /** Returns the {@link FunctionCall} this call was linked from. */
+  public FunctionCall getCall() {
+    return call;
+  }
+
+  /** Returns the reference to the called function. */
+  public FunctionReference getReference() {
+    return reference;
+  }
+
+  /** Returns the overload resolution cache of this call. */
+  @Nullable
+  CallSiteCache getCallSite() {
+    return callSite;
+  }
+
+  /** Returns true iff this call has free parameters. */
+  boolean hasFreeParameters() {
+    return !freeArgIndices.isEmpty();
+  }
+
+  /** Returns the linked arguments of this call. Free parameters are null. */
+  LinkedValue[] getArgs() {
+    return args;
+  }
+}
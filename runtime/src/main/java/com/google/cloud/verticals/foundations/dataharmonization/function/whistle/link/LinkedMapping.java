@@ -0,0 +1,129 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.verticals.foundations.dataharmonization.function.whistle.link;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.path.PathSegment;
+import com.google.cloud.verticals.foundations.dataharmonization.function.whistle.TargetPlan;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.FieldMapping;
+import javax.annotation.Nullable;
+
+/**
+ * Pre-linked form of a {@link FieldMapping}. Holds the linked value, and for builtin targets
+ * (fields and vars) the name and constant arguments of the target to construct. Other targets (i.e.
+ * custom sinks) are still constructed from the proto.
+ *
+ * <p>Mappings that write to a single constant field of {@code $this} (e.g. {@code field: value})
+ * also hold that field. Runs of consecutive such mappings to distinct fields are marked on their
+ * first mapping (see {@link #getOutputFieldRun()}), so that they can be written into a single
+ * output container without going through their targets.
+ */
+public final class LinkedMapping {
+  private final FieldMapping proto;
+  private final LinkedValue value;
+  @Nullable private final String builtinTargetName;
+  @Nullable private final Data[] builtinTargetArgs;
+  private final TargetPlan.Slot targetPlanSlot;
+  @Nullable private final PathSegment outputField;
+  private final int outputFieldRun;
+
+  LinkedMapping(
+      FieldMapping proto,
+      LinkedValue value,
+      @Nullable String builtinTargetName,
+      @Nullable Data[] builtinTargetArgs) {
+    this(proto, value, builtinTargetName, builtinTargetArgs, null, 0);
+  }
+
+  LinkedMapping(
+      FieldMapping proto,
+      LinkedValue value,
+      @Nullable String builtinTargetName,
+      @Nullable Data[] builtinTargetArgs,
+      @Nullable PathSegment outputField,
+      int outputFieldRun) {
+    this.proto = proto;
+    this.value = value;
+    this.builtinTargetName = builtinTargetName;
+    this.builtinTargetArgs = builtinTargetArgs;
+    this.targetPlanSlot = TargetPlan.Slot.forMapping(proto);
+    this.outputField = outputField;
+    this.outputFieldRun = outputFieldRun;
+  }
+
+  /** Returns a copy of this mapping that starts a run of the given number of output fields. */
+  LinkedMapping withOutputFieldRun(int outputFieldRun) {
+    return new LinkedMapping(
+        proto, value, builtinTargetName, builtinTargetArgs, outputField, outputFieldRun);
+  }
+
+  /** Returns the {@link FieldMapping} this mapping was linked from. */
+  public FieldMapping getProto() {
+    return proto;
+  }
+
+  /** Returns the linked value of this mapping. */
+  public LinkedValue getValue() {
+    return value;
+  }
+
+  /** Returns true iff the source of this mapping should be iterated into the target. */
+  public boolean isIterateSource() {
+    return proto.getIterateSource();
+  }
+
+  /**
+   * Returns the name of the builtin target constructor to write with, or null if the target should
+   * be constructed from {@link #getProto()}.
+   */
+  @Nullable
+  public String getBuiltinTargetName() {
+    return builtinTargetName;
+  }
+
+  /**
+   * Returns the arguments for the builtin target constructor, or null if the target should be
+   * constructed from {@link #getProto()}.
+   */
+  @Nullable
+  public Data[] getBuiltinTargetArgs() {
+    return builtinTargetArgs;
+  }
+
+  /** Returns the slot holding the {@link TargetPlan} of the builtin target of this mapping. */
+  public TargetPlan.Slot getTargetPlanSlot() {
+    return targetPlanSlot;
+  }
+
+  /**
+   * Returns the field of {@code $this} this mapping writes to, or null if it does not write to a
+   * single constant field of {@code $this} (with the default merge mode, and without iterating its
+   * source).
+   */
+  @Nullable
+  public PathSegment getOutputField() {
+    return outputField;
+  }
+
+  /**
+   * Returns the number of consecutive mappings, starting with this one, that write to distinct
+   * {@link #getOutputField() output fields}, or 0 if no such run starts at this mapping.
+   */
+  public int getOutputFieldRun() {
+    return outputFieldRun;
+  }
+}
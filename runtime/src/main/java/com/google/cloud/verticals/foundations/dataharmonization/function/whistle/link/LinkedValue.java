@@ -0,0 +1,124 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.verticals.foundations.dataharmonization.function.whistle.link;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.DataTypeImplementation;
+import com.google.cloud.verticals.foundations.dataharmonization.data.Primitive;
+import com.google.cloud.verticals.foundations.dataharmonization.function.context.FrameLayout;
+import com.google.cloud.verticals.foundations.dataharmonization.function.context.RuntimeContext;
+import com.google.cloud.verticals.foundations.dataharmonization.function.context.StackFrame;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.ValueSource;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+
+/**
+ * A LinkedValue is the pre-linked form of a {@link ValueSource}. It is produced once by the {@link
+ * Linker} and evaluated many times, without re-reading the proto it was created from.
+ *
+ * <p>LinkedValues should not be evaluated directly, but rather through {@link
+ * RuntimeContext#evaluateLinked(LinkedValue)} so that context implementations can intercept
+ * evaluation the same way they would for {@link RuntimeContext#evaluate(ValueSource)}.
+ */
+public abstract class LinkedValue {
+  private final ValueSource proto;
+
+  protected LinkedValue(ValueSource proto) {
+    this.proto = proto;
+  }
+
+  /** Evaluates this value in the given context. */
+  public abstract Data evaluate(RuntimeContext context);
+
+  /** Returns the {@link ValueSource} this value was linked from. */
+  public ValueSource getProto() {
+    return proto;
+  }
+
+  /**
+   * Returns true iff this value is a function call (or closure creation), which needs to be
+   * evaluated with the outermost context wrapping it.
+   */
+  public boolean isFunctionCall() {
+    return false;
+  }
+
+  /**
+   * Reads a variable from the top stack frame. The variable is read by slot if the frame has the
+   * layout it was linked with, otherwise by name.
+   */
+  static final class Local extends LinkedValue {
+    private final String name;
+    @Nullable private final FrameLayout layout;
+    private final int slot;
+
+    Local(ValueSource proto, @Nullable FrameLayout layout) {
+      super(proto);
+      this.name = proto.getFromLocal();
+      this.slot = layout == null ? -1 : layout.slotOf(name);
+      this.layout = slot < 0 ? null : layout;
+    }
+
+    @Override
+    public Data evaluate(RuntimeContext context) {
+      StackFrame top = context.top();
+      if (layout != null && top.getLayout() == layout) {
+        return top.getVar(slot);
+      }
+      return top.getVar(name);
+    }
+  }
+
+  /**
+   * A constant {@link Primitive}. The value is created once for the {@link DataTypeImplementation}
+   * it was linked with, and re-created for any other one. Implementations that wrap the linked one
+   * (see {@link DataTypeImplementation#unwrap}) share the value.
+   */
+  static final class Constant extends LinkedValue {
+    private final DataTypeImplementation dti;
+    private final Primitive value;
+    private final Function<DataTypeImplementation, Primitive> factory;
+
+    Constant(
+        ValueSource proto,
+        DataTypeImplementation dti,
+        Function<DataTypeImplementation, Primitive> factory) {
+      super(proto);
+      this.dti = dti;
+      this.value = factory.apply(dti);
+      this.factory = factory;
+    }
+
+    @Override
+    public Data evaluate(RuntimeContext context) {
+      DataTypeImplementation current = context.getDataTypeImplementation();
+      return current == dti || current.unwrap() == dti ? value : factory.apply(current);
+    }
+  }
+
+  /** Falls back to interpreting the original {@link ValueSource}. */
+  static final class Interpreted extends LinkedValue {
+    Interpreted(ValueSource proto) {
+      super(proto);
+    }
+
+    @Override
+    public Data evaluate(RuntimeContext context) {
+      return context.evaluate(getProto());
+    }
+  }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.verticals.foundations.dataharmonization.function.whistle.link;
+
+import static com.google.cloud.verticals.foundations.dataharmonization.function.whistle.WhistleFunction.OUTPUT_VAR;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.DataTypeImplementation;
+import com.google.cloud.verticals.foundations.dataharmonization.data.path.Path;
+import com.google.cloud.verticals.foundations.dataharmonization.data.path.PathSegment;
+import com.google.cloud.verticals.foundations.dataharmonization.function.Closure.FreeParameter;
+import com.google.cloud.verticals.foundations.dataharmonization.function.context.FrameLayout;
+import com.google.cloud.verticals.foundations.dataharmonization.function.whistle.SideTarget;
+import com.google.cloud.verticals.foundations.dataharmonization.function.whistle.VarTarget;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.FieldMapping;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.FunctionCall;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.FunctionDefinition;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.ValueSource;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.ValueSource.SourceCase;
+import com.google.common.base.VerifyException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import javax.annotation.Nullable;
+
+/**
+ * Lowers {@link FunctionDefinition} protos into trees of {@link LinkedMapping}s and {@link
+ * LinkedValue}s. Anything the linker does not understand is left to be interpreted from the proto
+ * at runtime, so a linked function always behaves exactly as its interpreted counterpart.
+ *
+ * <p>Constants are created once when linking, and calls with only constant arguments are linked as
+ * {@link FoldedCall}s, which reuse the result of pure functions instead of recomputing it.
+ * Consecutive mappings to distinct constant fields of {@code $this} are marked as runs (see {@link
+ * LinkedMapping#getOutputFieldRun()}).
+ */
+public final class Linker {
+  private final DataTypeImplementation dti;
+  @Nullable private final FrameLayout layout;
+
+  /**
+   * @param dti the {@link DataTypeImplementation} to create constants with. Constants are
+   *     re-created at runtime if the executing context uses a different one.
+   */
+  public Linker(DataTypeImplementation dti) {
+    this(dti, null);
+  }
+
+  /**
+   * @param dti the {@link DataTypeImplementation} to create constants with. Constants are
+   *     re-created at runtime if the executing context uses a different one.
+   * @param layout the {@link FrameLayout} of the function being linked. Variables in the layout are
+   *     read by slot whenever the function executes in a stack frame with this layout.
+   */
+  public Linker(DataTypeImplementation dti, @Nullable FrameLayout layout) {
+    this.dti = dti;
+    this.layout = layout;
+  }
+
+  /** Links all the mappings in the given function definition. */
+  public LinkedMapping[] link(FunctionDefinition def) {
+    LinkedMapping[] mappings = new LinkedMapping[def.getMappingCount()];
+    for (int i = 0; i < mappings.length; i++) {
+      mappings[i] = link(def.getMapping(i));
+    }
+    markOutputFieldRuns(mappings);
+    return mappings;
+  }
+
+  /**
+   * Marks the first mapping of every run of at least two consecutive mappings that write to
+   * distinct output fields. A field written twice ends the run, so that the second write is merged
+   * into the first as usual.
+   */
+  private static void markOutputFieldRuns(LinkedMapping[] mappings) {
+    Set<PathSegment> fields = new HashSet<>();
+    int i = 0;
+    while (i < mappings.length) {
+      int start = i;
+      fields.clear();
+      while (i < mappings.length
+          && mappings[i].getOutputField() != null
+          && fields.add(mappings[i].getOutputField())) {
+        i++;
+      }
+      if (i - start > 1) {
+        mappings[start] = mappings[start].withOutputFieldRun(i - start);
+      }
+      if (i == start) {
+        i++;
+      }
+    }
+  }
+
+  /** Links the given mapping's value and (if it is a builtin) target. */
+  public LinkedMapping link(FieldMapping mapping) {
+    LinkedValue value = link(mapping.getValue());
+    switch (mapping.getTargetCase()) {
+      case VAR:
+        return new LinkedMapping(
+            mapping,
+            value,
+            VarTarget.Constructor.TARGET_NAME,
+            new Data[] {
+              dti.primitiveOf(mapping.getVar().getName()),
+              dti.primitiveOf(mapping.getVar().getPath())
+            });
+      case FIELD:
+        String field = mapping.getField().getPath();
+        if (field.equals(OUTPUT_VAR)) {
+          field = "";
+        }
+        switch (mapping.getField().getType()) {
+          case LOCAL:
+            return new LinkedMapping(
+                mapping,
+                value,
+                VarTarget.Constructor.TARGET_NAME,
+                new Data[] {dti.primitiveOf(OUTPUT_VAR), dti.primitiveOf(field)},
+                mapping.getIterateSource() ? null : outputField(field),
+                0);
+          case SIDE:
+            return new LinkedMapping(
+                mapping,
+                value,
+                SideTarget.Constructor.TARGET_NAME,
+                new Data[] {dti.primitiveOf(field)});
+          default:
+            // Let the interpreter report the error.
+            return new LinkedMapping(mapping, value, null, null);
+        }
+      case TARGET_NOT_SET:
+        return new LinkedMapping(
+            mapping,
+            value,
+            VarTarget.Constructor.TARGET_NAME,
+            new Data[] {dti.primitiveOf(OUTPUT_VAR), dti.primitiveOf("")});
+      default:
+        return new LinkedMapping(mapping, value, null, null);
+    }
+  }
+
+  /**
+   * Returns the segment of the given path if it is a single field, i.e. a write to it only sets a
+   * top-level field of {@code $this}. Returns null otherwise, including for paths that fail to
+   * parse (the interpreter reports those when the mapping is executed).
+   */
+  @Nullable
+  private static PathSegment outputField(String field) {
+    Path path;
+    try {
+      path = Path.parse(field);
+    } catch (VerifyException e) {
+      return null;
+    }
+    if (path.getSegments().size() != 1 || !path.getSegments().get(0).isField()) {
+      return null;
+    }
+    return path.getSegments().get(0);
+  }
+
+  /** Links the given value source. */
+  public LinkedValue link(ValueSource valueSource) {
+    switch (valueSource.getSourceCase()) {
+      case FROM_LOCAL:
+        return new LinkedValue.Local(valueSource, layout);
+      case FUNCTION_CALL:
+        return linkCall(valueSource);
+      case CONST_STRING:
+        String str = valueSource.getConstString();
+        return new LinkedValue.Constant(valueSource, dti, d -> d.primitiveOf(str));
+      case CONST_INT:
+        Double num = Double.valueOf(valueSource.getConstInt());
+        return new LinkedValue.Constant(valueSource, dti, d -> d.primitiveOf(num));
+      case CONST_FLOAT:
+        Double flt = valueSource.getConstFloat();
+        return new LinkedValue.Constant(valueSource, dti, d -> d.primitiveOf(flt));
+      case CONST_BOOL:
+        Boolean bool = valueSource.getConstBool();
+        return new LinkedValue.Constant(valueSource, dti, d -> d.primitiveOf(bool));
+      default:
+        return new LinkedValue.Interpreted(valueSource);
+    }
+  }
+
+  @SuppressWarnings("deprecation") // Older protos may still carry iterated arguments.
+  private LinkedValue linkCall(ValueSource valueSource) {
+    FunctionCall call = valueSource.getFunctionCall();
+    int numArgs = call.getArgsCount();
+    TreeSet<Integer> freeArgIndices = new TreeSet<>();
+    FreeParameter[] freeParams = new FreeParameter[numArgs];
+    LinkedValue[] args = new LinkedValue[numArgs];
+    for (int i = 0; i < numArgs; i++) {
+      ValueSource arg = call.getArgs(i);
+      if (arg.getIterate()) {
+        // Not supported - let the interpreter report the error.
+        return new LinkedValue.Interpreted(valueSource);
+      }
+      if (arg.getSourceCase() == SourceCase.FREE_PARAMETER) {
+        freeArgIndices.add(i);
+        freeParams[i] = new FreeParameter(arg.getFreeParameter());
+        continue;
+      }
+      args[i] = link(arg);
+    }
+    LinkedFunctionCall linked =
+        new LinkedFunctionCall(valueSource, call, freeArgIndices, freeParams, args);
+    return isFoldable(linked) ? new FoldedCall(linked) : linked;
+  }
+
+  /**
+   * Returns true iff the given call is executed right away (i.e. is not a closure) with only
+   * constant arguments, such that its result can be folded if it calls a pure function.
+   */
+  private static boolean isFoldable(LinkedFunctionCall call) {
+    if (call.getCall().getBuildClosure() || call.hasFreeParameters()) {
+      return false;
+    }
+    for (LinkedValue arg : call.getArgs()) {
+      if (!(arg instanceof LinkedValue.Constant) && !(arg instanceof FoldedCall)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
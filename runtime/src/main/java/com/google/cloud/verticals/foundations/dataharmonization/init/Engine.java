@@ -20,7 +20,14 @@ import com.google.cloud.verticals.foundations.dataharmonization.builtins.Builtin
 import com.google.cloud.verticals.foundations.dataharmonization.builtins.BuiltinsConfig;
 import com.google.cloud.verticals.foundations.dataharmonization.builtins.error.Errors;
 import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.DataTypeImplementation;
 import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
+import com.google.cloud.verticals.foundations.dataharmonization.data.budget.DataSize;
+import com.google.cloud.verticals.foundations.dataharmonization.data.budget.MemoryBudget;
+import com.google.cloud.verticals.foundations.dataharmonization.data.budget.MemoryBudgetContext;
+import com.google.cloud.verticals.foundations.dataharmonization.data.impl.CompactDataTypeImplementation;
+import com.google.cloud.verticals.foundations.dataharmonization.data.impl.DefaultDataTypeImplementation;
+import com.google.cloud.verticals.foundations.dataharmonization.data.impl.PersistentDataTypeImplementation;
 import com.google.cloud.verticals.foundations.dataharmonization.function.CallableFunction;
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.CancellationToken;
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.MetaData;
@@ -28,10 +35,12 @@ import com.google.cloud.verticals.foundations.dataharmonization.function.context
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.Registries;
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.RuntimeContext;
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.RuntimeContextImplementation;
+import com.google.cloud.verticals.foundations.dataharmonization.function.context.SegmentedStack;
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.WrapperContext;
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.impl.DefaultMetaData;
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.impl.DefaultRegistries;
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.impl.DefaultRuntimeContext.DefaultImplementation;
+import com.google.cloud.verticals.foundations.dataharmonization.function.context.impl.DefaultStackFrame;
 import com.google.cloud.verticals.foundations.dataharmonization.function.whistle.WhistleFunction;
 import com.google.cloud.verticals.foundations.dataharmonization.imports.ImportPath;
 import com.google.cloud.verticals.foundations.dataharmonization.imports.ImportProcessor;
@@ -60,9 +69,11 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Function;
+import javax.annotation.Nullable;
 
 /**
  * The main entry point of Whistle ELP (go/dh-whistle-elp). Each instance of {@code Engine} class
@@ -70,14 +81,21 @@ import java.util.function.Function;
  */
 public class Engine implements AutoCloseable {
   private static final String NO_DATA_IN_EX_METAKEY = "NO_DATA_IN_EX";
+  private static final String NO_CALL_SITES_METAKEY = "NO_CALL_SITES";
+  private static final String SEGMENTED_STACK_METAKEY = "SEGMENTED_STACK";
+  private static final String DATA_TYPE_IMPLEMENTATION_METAKEY = "DATA_TYPE_IMPLEMENTATION";
+  private static final String MEMORY_BUDGET_METAKEY = "MEMORY_BUDGET";
 
   private final RuntimeContext context;
   private final CallableFunction entryPoint;
+  @Nullable private final MemoryBudget memoryBudget;
   private boolean closed = false;
 
-  private Engine(RuntimeContext context, CallableFunction entryPoint) {
+  private Engine(
+      RuntimeContext context, CallableFunction entryPoint, @Nullable MemoryBudget memoryBudget) {
     this.context = context;
     this.entryPoint = entryPoint;
+    this.memoryBudget = memoryBudget;
   }
 
   public RuntimeContext getRuntimeContext() {
@@ -94,6 +112,57 @@ public class Engine implements AutoCloseable {
         && context.getMetaData().<Boolean>getSerializableMeta(NO_DATA_IN_EX_METAKEY);
   }
 
+  /**
+   * Returns true if the given metadata has the no call site tracking flag set. This means that
+   * stack frames do not record the calls that pushed the frames above them, and stack traces will
+   * have no line numbers.
+   */
+  public static boolean isCallSiteTrackingDisabled(MetaData metaData) {
+    return metaData != null
+        && metaData.getSerializableMeta(NO_CALL_SITES_METAKEY) != null
+        && metaData.<Boolean>getSerializableMeta(NO_CALL_SITES_METAKEY);
+  }
+
+  /**
+   * Returns the {@link SegmentedStack} that deep calls should run on, as set by {@link
+   * Builder#setMaxStackDepth}, or null if they should all run on the calling thread.
+   */
+  @Nullable
+  public static SegmentedStack getSegmentedStack(MetaData metaData) {
+    return metaData == null
+        ? null
+        : metaData.<SegmentedStack>getSerializableMeta(SEGMENTED_STACK_METAKEY);
+  }
+
+  /**
+   * Returns the {@link DataTypeImplementation} that runtime contexts should create data with, as
+   * set by {@link Builder#setDataTypeImplementation}, or {@link
+   * DefaultDataTypeImplementation#instance} if none was set.
+   */
+  public static DataTypeImplementation getDataTypeImplementation(MetaData metaData) {
+    DataTypeImplementation dti =
+        metaData == null ? null : metaData.getSerializableMeta(DATA_TYPE_IMPLEMENTATION_METAKEY);
+    return dti == null ? DefaultDataTypeImplementation.instance : dti;
+  }
+
+  /**
+   * Returns the maximum number of bytes the data of each transform may take, as set by {@link
+   * Builder#setMemoryBudget}, or 0 if transforms are not budgeted.
+   */
+  public static long getMemoryBudget(MetaData metaData) {
+    Long budget = metaData == null ? null : metaData.getSerializableMeta(MEMORY_BUDGET_METAKEY);
+    return budget == null ? 0 : budget;
+  }
+
+  /**
+   * Returns the approximate peak memory, in bytes, taken by the data of the last (or current)
+   * transform, including its input, or -1 if transforms are not budgeted (see {@link
+   * Builder#setMemoryBudget}).
+   */
+  public long getPeakMemoryUsage() {
+    return memoryBudget == null ? -1 : memoryBudget.getUsedBytes();
+  }
+
   /**
    * Transforms the input data with the type of {@code InT} using the initialized config and returns
    * the result in type {@code OutT}. This methods serves as a base method for implementing
@@ -115,6 +184,9 @@ public class Engine implements AutoCloseable {
     if (closed) {
       throw new IllegalStateException("This engine has already been closed.");
     }
+    if (memoryBudget != null) {
+      memoryBudget.reset(DataSize.estimate(args));
+    }
     Data ret = entryPoint.call(context, args);
     return context.finish(ret);
   }
@@ -161,6 +233,23 @@ public class Engine implements AutoCloseable {
     // Flag to remove all data from exceptions/errors. False by default.
     private boolean noDataInExceptions = false;
 
+    // Flag to track call sites for stack traces. True by default.
+    private boolean callSiteTracking = true;
+
+    // Flag to pre-link all Whistle functions during initialization. False by default.
+    private boolean prelink = false;
+
+    // Maximum Whistle stack depth when running on a segmented stack. 0 (the default) disables it.
+    private int maxStackDepth = 0;
+    private int framesPerStackSegment = SegmentedStack.DEFAULT_FRAMES_PER_SEGMENT;
+
+    // Implementation of the data created by Whistle code. Null (the default) selects
+    // DefaultDataTypeImplementation.
+    private DataTypeImplementation dataTypeImplementation;
+
+    // Maximum bytes of data per transform. 0 (the default) disables the budget.
+    private long memoryBudget = 0;
+
     private Function<RuntimeContext, WrapperContext<?>> wrappers;
 
     /**
@@ -261,8 +350,19 @@ public class Engine implements AutoCloseable {
      */
     public InitializedBuilder initialize(MetaData metaData) throws IOException {
       InitializedBuilder initializedBuilder = new InitializedBuilder(wrappers);
+      initializedBuilder.prelink = prelink;
       // Set noDataInException flag.
       metaData.setSerializableMeta(NO_DATA_IN_EX_METAKEY, noDataInExceptions);
+      // Set call site tracking flag.
+      metaData.setSerializableMeta(NO_CALL_SITES_METAKEY, !callSiteTracking);
+      // Set segmented stack.
+      metaData.setSerializableMeta(
+          SEGMENTED_STACK_METAKEY,
+          maxStackDepth > 0 ? new SegmentedStack(maxStackDepth, framesPerStackSegment) : null);
+      // Set data type implementation.
+      metaData.setSerializableMeta(DATA_TYPE_IMPLEMENTATION_METAKEY, dataTypeImplementation);
+      // Set memory budget.
+      metaData.setSerializableMeta(MEMORY_BUDGET_METAKEY, memoryBudget > 0 ? memoryBudget : null);
       initializedBuilder.metaData = metaData;
       initializedBuilder.importProcessor = new DefaultImportProcessor();
       // Run mock config to construct map from original function to mocks
@@ -308,6 +408,10 @@ public class Engine implements AutoCloseable {
               ImmutableSet.of(initializedBuilder.mainConfigProto.getPackageName()),
               initializedBuilder.mainConfigProto.getPackageName(),
               mainConfig.getImportPath());
+
+      if (prelink) {
+        linkAll(initializedBuilder.registries, getDataTypeImplementation(metaData));
+      }
       return initializedBuilder;
     }
 
@@ -376,11 +480,112 @@ public class Engine implements AutoCloseable {
       }
     }
 
+    private static void linkAll(Registries registries, DataTypeImplementation dti) {
+      Set<PackageRegistry<CallableFunction>> visited =
+          Collections.newSetFromMap(new IdentityHashMap<>());
+      for (String pkg : registries.getAllRegisteredPackages()) {
+        PackageRegistry<CallableFunction> registry = registries.getFunctionRegistry(pkg);
+        if (registry == null || !visited.add(registry)) {
+          continue;
+        }
+        for (CallableFunction function : registry.getAll()) {
+          if (function instanceof WhistleFunction) {
+            ((WhistleFunction) function).link(dti);
+          }
+        }
+      }
+    }
+
     @CanIgnoreReturnValue
     public Builder setNoDataInExceptions(boolean noDataInExceptions) {
       this.noDataInExceptions = noDataInExceptions;
       return this;
     }
+
+    /**
+     * Enables or disables tracking of call sites. When enabled (the default), every stack frame
+     * records the call it last made, such that stack traces of errors point at the lines that made
+     * each call. Disabling it saves this bookkeeping on every call, at the cost of stack traces
+     * without line numbers.
+     */
+    @CanIgnoreReturnValue
+    public Builder setCallSiteTracking(boolean callSiteTracking) {
+      this.callSiteTracking = callSiteTracking;
+      return this;
+    }
+
+    /**
+     * Enables pre-linking of all Whistle functions when the engine is initialized. Pre-linked
+     * functions resolve their targets, constants and function references once, instead of
+     * re-interpreting the config protos on every call. Behaviour is otherwise identical.
+     */
+    @CanIgnoreReturnValue
+    public Builder setPrelink(boolean prelink) {
+      this.prelink = prelink;
+      return this;
+    }
+
+    /**
+     * Allows Whistle calls to nest up to the given depth, instead of the default {@link
+     * DefaultStackFrame.DefaultBuilder#STACK_FRAMES_LIMIT}. Deep calls then run on a {@link
+     * SegmentedStack}, so recursion depth is no longer bounded by the Java stack of the calling
+     * thread.
+     */
+    @CanIgnoreReturnValue
+    public Builder setMaxStackDepth(int maxStackDepth) {
+      if (maxStackDepth <= 0) {
+        throw new IllegalArgumentException("Max stack depth must be positive.");
+      }
+      this.maxStackDepth = maxStackDepth;
+      return this;
+    }
+
+    /**
+     * Sets the number of Whistle stack frames run on each thread of the {@link SegmentedStack}
+     * enabled by {@link #setMaxStackDepth}, including the calling thread. Fewer frames need less
+     * Java stack per thread, but more threads for the same depth. Defaults to {@link
+     * SegmentedStack#DEFAULT_FRAMES_PER_SEGMENT}.
+     */
+    @CanIgnoreReturnValue
+    public Builder setFramesPerStackSegment(int framesPerStackSegment) {
+      if (framesPerStackSegment <= 0) {
+        throw new IllegalArgumentException("Frames per stack segment must be positive.");
+      }
+      this.framesPerStackSegment = framesPerStackSegment;
+      return this;
+    }
+
+    /**
+     * Sets the {@link DataTypeImplementation} used to create the arrays, containers and primitives
+     * produced by Whistle code, e.g. {@link CompactDataTypeImplementation#instance} for smaller
+     * containers or {@link PersistentDataTypeImplementation#instance} for constant time deep copies.
+     * Defaults to {@link DefaultDataTypeImplementation#instance}.
+     */
+    @CanIgnoreReturnValue
+    public Builder setDataTypeImplementation(DataTypeImplementation dataTypeImplementation) {
+      this.dataTypeImplementation = dataTypeImplementation;
+      return this;
+    }
+
+    /**
+     * Limits the memory that the data of each transform may take to approximately the given number
+     * of bytes, including the input (see {@link DataSize#estimate}). Arrays, containers and
+     * primitives created by Whistle code, and fields and elements written into them, are charged as
+     * they are created. A transform that exceeds its budget fails with a {@link
+     * com.google.cloud.verticals.foundations.dataharmonization.exceptions.WhistleRuntimeException}
+     * caused by a {@link
+     * com.google.cloud.verticals.foundations.dataharmonization.exceptions.MemoryBudgetExceededException},
+     * instead of running the whole JVM out of memory. The peak usage of each transform is available
+     * from {@link Engine#getPeakMemoryUsage}.
+     */
+    @CanIgnoreReturnValue
+    public Builder setMemoryBudget(long maxBytes) {
+      if (maxBytes <= 0) {
+        throw new IllegalArgumentException("Memory budget must be positive.");
+      }
+      this.memoryBudget = maxBytes;
+      return this;
+    }
   }
 
   /** Initialized Builder for {@link Engine}. */
@@ -392,6 +597,7 @@ public class Engine implements AutoCloseable {
     private PackageContext packageContext;
     private PipelineConfig mainConfigProto;
     private Registries registries;
+    private boolean prelink;
 
     public InitializedBuilder() {
       wrapper = null;
@@ -420,9 +626,19 @@ public class Engine implements AutoCloseable {
         context = wrapper.apply(context);
       }
 
-      return new Engine(
-          context,
-          new WhistleFunction(mainConfigProto.getRootBlock(), mainConfigProto, packageContext));
+      MemoryBudget memoryBudget = null;
+      long maxBytes = getMemoryBudget(metaData);
+      if (maxBytes > 0) {
+        memoryBudget = new MemoryBudget(maxBytes);
+        context = new MemoryBudgetContext(context, memoryBudget);
+      }
+
+      WhistleFunction rootFunction =
+          new WhistleFunction(mainConfigProto.getRootBlock(), mainConfigProto, packageContext);
+      if (prelink) {
+        rootFunction.link(getDataTypeImplementation(metaData));
+      }
+      return new Engine(context, rootFunction, memoryBudget);
     }
 
     /**
@@ -125,4 +125,10 @@ public class MockFunctionRegistry implements PackageRegistry<CallableFunction> {
   public Set<CallableFunction> getAllInPackage(String packageNames) {
     return backing.getAllInPackage(packageNames);
   }
+
+  @Override
+  public long getVersion() {
+    // Mocks are fixed at construction, so only the backing registry can change.
+    return backing.getVersion();
+  }
 }
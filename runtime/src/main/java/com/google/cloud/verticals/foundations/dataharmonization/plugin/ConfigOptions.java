@@ -0,0 +1,145 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.verticals.foundations.dataharmonization.plugin;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+
+import com.google.cloud.verticals.foundations.dataharmonization.function.context.RuntimeContext;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.PipelineConfig;
+import com.google.cloud.verticals.foundations.dataharmonization.registry.Registry;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+
+/**
+ * The options of a {@link PipelineConfig}, resolved against an option registry once and shared by
+ * all functions declared in that config.
+ *
+ * <p>Entering a function toggles the enabled options of the calling context to the function's
+ * options (see {@link #apply}). The options to disable and enable for that are remembered for the
+ * set of options last entered from, so repeated calls from the same option set (usually calls
+ * between functions of the same config) only compare that set instead of recomputing the
+ * differences. Configs without options are entered from contexts without options for free.
+ */
+public final class ConfigOptions {
+  /** The options of configs that enable none. */
+  public static final ConfigOptions EMPTY = new ConfigOptions(null, ImmutableMap.of());
+
+  private static final Cache<PipelineConfig, ConfigOptions> resolved =
+      CacheBuilder.newBuilder().weakKeys().build();
+
+  // The registry the options were resolved against, or null if there were none to resolve.
+  @Nullable private final Registry<Option> registry;
+  private final ImmutableMap<Option, PipelineConfig.Option> optionToConfig;
+  private final ImmutableSet<Option> options;
+
+  private volatile Transition lastTransition;
+
+  private ConfigOptions(
+      @Nullable Registry<Option> registry,
+      ImmutableMap<Option, PipelineConfig.Option> optionToConfig) {
+    this.registry = registry;
+    this.optionToConfig = optionToConfig;
+    this.options = optionToConfig.keySet();
+  }
+
+  /**
+   * Returns the options of the given config, resolved against the given registry. Results are
+   * cached per config (compared by identity) for as long as they are resolved against the same
+   * registry.
+   */
+  public static ConfigOptions forConfig(PipelineConfig config, Registry<Option> registry) {
+    if (config.getOptionsCount() == 0) {
+      return EMPTY;
+    }
+    ConfigOptions options = resolved.getIfPresent(config);
+    if (options == null || !options.isValidFor(registry)) {
+      options = resolve(config.getOptionsList(), registry);
+      resolved.put(config, options);
+    }
+    return options;
+  }
+
+  /** Resolves the given option protos against the given registry, without caching. */
+  public static ConfigOptions resolve(
+      Collection<PipelineConfig.Option> configs, Registry<Option> registry) {
+    if (configs.isEmpty()) {
+      return EMPTY;
+    }
+    return new ConfigOptions(
+        registry,
+        ImmutableSet.copyOf(configs).stream()
+            .collect(toImmutableMap(c -> registry.get(c.getName()), Function.identity())));
+  }
+
+  /** Returns true iff these options can be used with (i.e. were resolved against) the registry. */
+  public boolean isValidFor(Registry<Option> registry) {
+    return this.registry == null || this.registry == registry;
+  }
+
+  /** Returns the resolved options. */
+  public ImmutableSet<Option> getOptions() {
+    return options;
+  }
+
+  /**
+   * Returns a context that has exactly these options enabled, by disabling and enabling options on
+   * the given one as needed. Returns the given context itself if it already has exactly these
+   * options enabled.
+   */
+  public RuntimeContext apply(RuntimeContext context) {
+    Set<Option> current = context.enabledOptions();
+    if (options.isEmpty() && current.isEmpty()) {
+      return context;
+    }
+
+    Transition transition = lastTransition;
+    if (transition == null || !transition.from.equals(current)) {
+      transition = new Transition(ImmutableSet.copyOf(current), options);
+      lastTransition = transition;
+    }
+
+    RuntimeContext finalContext = context;
+    for (Option option : transition.disable) {
+      finalContext = option.disable(finalContext);
+    }
+    for (Option option : transition.enable) {
+      finalContext = option.enable(finalContext, optionToConfig.get(option));
+    }
+    return finalContext;
+  }
+
+  /** The options to disable and enable to go from one set of enabled options to another. */
+  private static final class Transition {
+    private final ImmutableSet<Option> from;
+    private final ImmutableList<Option> disable;
+    private final ImmutableList<Option> enable;
+
+    private Transition(ImmutableSet<Option> from, ImmutableSet<Option> to) {
+      this.from = from;
+      this.disable = ImmutableList.copyOf(Sets.difference(from, to));
+      this.enable = ImmutableList.copyOf(Sets.difference(to, from));
+    }
+  }
+}
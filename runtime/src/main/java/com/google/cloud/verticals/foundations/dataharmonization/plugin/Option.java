@@ -15,7 +15,6 @@
  */
 package com.google.cloud.verticals.foundations.dataharmonization.plugin;
 
-import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
 
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.MetaData;
@@ -25,13 +24,11 @@ import com.google.cloud.verticals.foundations.dataharmonization.function.context
 import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.PipelineConfig;
 import com.google.cloud.verticals.foundations.dataharmonization.registry.Registrable;
 import com.google.cloud.verticals.foundations.dataharmonization.registry.Registry;
-import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.function.Consumer;
-import java.util.function.Function;
 
 /** Represents an option that can be enabled at the top of a Whistle file. */
 public interface Option extends Registrable {
@@ -69,26 +66,21 @@ public interface Option extends Registrable {
       Set<PipelineConfig.Option> newOptionSet,
       RuntimeContext context,
       Consumer<RuntimeContext> body) {
-    Set<Option> currentOptionSet = context.enabledOptions();
-
-    ImmutableMap<Option, PipelineConfig.Option> newOptionToConfig =
-        newOptionSet.stream()
-            .collect(
-                toImmutableMap(
-                    c -> context.getRegistries().getOptionRegistry().get(c.getName()),
-                    Function.identity()));
-
-    Set<Option> disable = Sets.difference(currentOptionSet, newOptionToConfig.keySet());
-    Set<Option> enable = Sets.difference(newOptionToConfig.keySet(), currentOptionSet);
-
-    RuntimeContext finalContext = context;
-    for (Option option : disable) {
-      finalContext = option.disable(finalContext);
-    }
+    withConfig(
+        newOptionSet.isEmpty()
+            ? ConfigOptions.EMPTY
+            : ConfigOptions.resolve(newOptionSet, context.getRegistries().getOptionRegistry()),
+        context,
+        body);
+  }
 
-    for (Option option : enable) {
-      finalContext = option.enable(finalContext, newOptionToConfig.get(option));
-    }
+  /**
+   * Runs the given body in a context with exactly the given (pre-resolved) options enabled. See
+   * {@link ConfigOptions#apply}.
+   */
+  static void withConfig(
+      ConfigOptions newOptions, RuntimeContext context, Consumer<RuntimeContext> body) {
+    RuntimeContext finalContext = newOptions.apply(context);
 
     body.accept(finalContext);
 
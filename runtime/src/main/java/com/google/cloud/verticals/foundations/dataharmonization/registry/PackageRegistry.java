@@ -51,4 +51,13 @@ public interface PackageRegistry<RegistrantT extends Registrable> extends Serial
 
   /** Returns a set of all the overloads for a given package */
   Set<RegistrantT> getAllInPackage(String packageNames);
+
+  /**
+   * Returns a number that changes every time this registry is modified, such that results of {@link
+   * #getOverloads} can be cached for as long as the version stays the same. Returns -1 if this
+   * registry does not track modifications, in which case its results may not be cached.
+   */
+  default long getVersion() {
+    return -1;
+  }
 }
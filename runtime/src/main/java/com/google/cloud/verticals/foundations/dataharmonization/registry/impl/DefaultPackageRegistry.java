@@ -45,6 +45,7 @@ public class DefaultPackageRegistry<RegistrantT extends Registrable>
     implements PackageRegistry<RegistrantT> {
   private final Map<String, Map<String, Set<RegistrantT>>> packageNameToRegNameToReg =
       new HashMap<>();
+  private volatile long version = 0;
 
   @Override
   public void register(@Nonnull String packageName, @Nonnull RegistrantT reg) {
@@ -60,6 +61,7 @@ public class DefaultPackageRegistry<RegistrantT extends Registrable>
     }
     regNameToReg.put(reg.getName(), regs);
     packageNameToRegNameToReg.put(packageName, regNameToReg);
+    version++;
   }
 
   @Override
@@ -127,4 +129,9 @@ public class DefaultPackageRegistry<RegistrantT extends Registrable>
         packageNameToRegNameToReg.getOrDefault(packageName, new HashMap<>());
     return packageOverloads.values().stream().flatMap(e -> e.stream()).collect(Collectors.toSet());
   }
+
+  @Override
+  public long getVersion() {
+    return version;
+  }
 }
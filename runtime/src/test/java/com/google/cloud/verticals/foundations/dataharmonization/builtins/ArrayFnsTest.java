@@ -38,7 +38,11 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.cloud.verticals.foundations.dataharmonization.builtins.options.SingleNullArrayExperiment;
@@ -85,18 +89,23 @@ public class ArrayFnsTest {
   @Before
   public void setup() {
     // mock basic self-returning Closure function for use in sortBy testing
-    selfExtractor = mock(Closure.class);
+    selfExtractor = realClosure();
     when(selfExtractor.bindNextFreeParameter(any()))
         .thenAnswer(
             (Answer<Closure>)
                 invocation -> {
                   Object[] args = invocation.getArguments();
-                  Closure tmpClosure = mock(Closure.class);
+                  Closure tmpClosure = realClosure();
                   when(tmpClosure.execute(any())).thenReturn((Data) args[0]);
                   return tmpClosure;
                 });
   }
 
+  /** Returns a mock closure whose default methods (e.g. its invoker) call through to the stubs. */
+  private static Closure realClosure() {
+    return mock(Closure.class, CALLS_REAL_METHODS);
+  }
+
   @Test
   public void arrayOf_emptyArray() {
     Array expected = testDTI().emptyArray();
@@ -261,13 +270,14 @@ public class ArrayFnsTest {
             .arrayOf(ImmutableList.of(testDTI().primitiveOf(102.), testDTI().primitiveOf("baz")));
     Array toSort = testDTI().arrayOf(ImmutableList.of(second, first, fourth, third));
     Array expected = testDTI().arrayOf(ImmutableList.of(first, second, third, fourth));
-    Closure basicArrayExtractor = mock(Closure.class); // returns first Array element
+    // Returns the first Array element.
+    Closure basicArrayExtractor = realClosure();
     when(basicArrayExtractor.bindNextFreeParameter(any()))
         .thenAnswer(
             (Answer<Closure>)
                 invocation -> {
                   Object[] args = invocation.getArguments();
-                  Closure tmpClosure = mock(Closure.class);
+                  Closure tmpClosure = realClosure();
                   when(tmpClosure.execute(any())).thenReturn(((Array) args[0]).getElement(0));
                   return tmpClosure;
                 });
@@ -307,13 +317,14 @@ public class ArrayFnsTest {
                     .buildOrThrow());
     Array toSort = testDTI().arrayOf(ImmutableList.of(second, first, fourth, third));
     Array expected = testDTI().arrayOf(ImmutableList.of(first, second, third, fourth));
-    Closure basicContainerExtractor = mock(Closure.class); // returns "id" field value
+    // Returns the "id" field value.
+    Closure basicContainerExtractor = realClosure();
     when(basicContainerExtractor.bindNextFreeParameter(any()))
         .thenAnswer(
             (Answer<Closure>)
                 invocation -> {
                   Object[] args = invocation.getArguments();
-                  Closure tmpClosure = mock(Closure.class);
+                  Closure tmpClosure = realClosure();
                   when(tmpClosure.execute(any())).thenReturn(((Container) args[0]).getField("id"));
                   return tmpClosure;
                 });
@@ -536,13 +547,13 @@ public class ArrayFnsTest {
 
   @Test
   public void where_emptyArray_noop() {
-    Array result = ArrayFns.where(new TestContext(), emptyArray(), mock(Closure.class));
+    Array result = ArrayFns.where(new TestContext(), emptyArray(), realClosure());
     assertTrue(result.isNullOrEmpty());
   }
 
   @Test
   public void where_closure_filters() {
-    Closure filter = mock(Closure.class);
+    Closure filter = realClosure();
     Data[] elem = new Data[1];
     when(filter.bindNextFreeParameter(any()))
         .then(
@@ -565,9 +576,33 @@ public class ArrayFnsTest {
         arrayOf(new TestContext(), testDTI().primitiveOf(2.0), testDTI().primitiveOf(3.0)), result);
   }
 
+  @Test
+  public void where_readsElementsThroughCursor() {
+    Closure filter = realClosure();
+    Data[] elem = new Data[1];
+    when(filter.bindNextFreeParameter(any()))
+        .then(
+            i -> {
+              elem[0] = i.getArgument(0);
+              return filter;
+            });
+    when(filter.execute(any())).then(i -> testDTI().primitiveOf(elem[0].asPrimitive().num() > 1.0));
+    Array array = mock(Array.class);
+    when(array.size()).thenReturn(2);
+    when(array.elements())
+        .thenReturn(
+            ImmutableList.<Data>of(testDTI().primitiveOf(1.0), testDTI().primitiveOf(2.0))
+                .iterator());
+
+    Array result = ArrayFns.where(new TestContext(), array, filter);
+
+    assertDCAPEquals(arrayOf(new TestContext(), testDTI().primitiveOf(2.0)), result);
+    verify(array, never()).getElement(anyInt());
+  }
+
   @Test
   public void where_closure_filtersAll() {
-    Closure filter = mock(Closure.class);
+    Closure filter = realClosure();
     when(filter.bindNextFreeParameter(any())).thenReturn(filter);
     when(filter.execute(any())).thenReturn(testDTI().primitiveOf(false));
     Array result =
@@ -585,7 +620,7 @@ public class ArrayFnsTest {
 
   @Test
   public void where_closure_filtersNone() {
-    Closure filter = mock(Closure.class);
+    Closure filter = realClosure();
     when(filter.bindNextFreeParameter(any())).thenReturn(filter);
     when(filter.execute(any())).thenReturn(testDTI().primitiveOf(true));
     Array result =
@@ -609,13 +644,13 @@ public class ArrayFnsTest {
 
   @Test
   public void whereContainer_emptyContainer_noop() {
-    Container result = ArrayFns.where(new TestContext(), emptyContainer(), mock(Closure.class));
+    Container result = ArrayFns.where(new TestContext(), emptyContainer(), realClosure());
     assertTrue(result.isNullOrEmpty());
   }
 
   @Test
   public void whereContainer_closure_filters() {
-    Closure filter = mock(Closure.class);
+    Closure filter = realClosure();
     Data[] elem = new Data[1];
     when(filter.bindNextFreeParameter(any()))
         .then(
@@ -661,7 +696,7 @@ public class ArrayFnsTest {
 
   @Test
   public void whereContainer_closure_filtersAll() {
-    Closure filter = mock(Closure.class);
+    Closure filter = realClosure();
     when(filter.bindNextFreeParameter(any())).thenReturn(filter);
     when(filter.execute(any())).thenReturn(testDTI().primitiveOf(false));
     Container actual =
@@ -683,7 +718,7 @@ public class ArrayFnsTest {
 
   @Test
   public void whereContainer_closure_filtersNone() {
-    Closure filter = mock(Closure.class);
+    Closure filter = realClosure();
     when(filter.bindNextFreeParameter(any())).thenReturn(filter);
     when(filter.execute(any())).thenReturn(testDTI().primitiveOf(true));
     Container sampleContainer =
@@ -703,7 +738,7 @@ public class ArrayFnsTest {
 
   @Test
   public void whereNull_returnsNull() {
-    NullData result = ArrayFns.where(NullData.instance, mock(Closure.class));
+    NullData result = ArrayFns.where(NullData.instance, realClosure());
     assertTrue(result.isNullOrEmpty());
 
     // Ensure it gets chosen when null is given.
@@ -720,13 +755,13 @@ public class ArrayFnsTest {
 
   @Test
   public void groupBy_null_returnsEmpty() {
-    Closure closure = mock(Closure.class);
+    Closure closure = realClosure();
     assertThat(groupBy(new TestContext(), NullData.instance, closure).isNullOrEmpty()).isTrue();
   }
 
   @Test
   public void groupBy_closure_groupsAll() {
-    Closure closure = mock(Closure.class);
+    Closure closure = realClosure();
     when(closure.bindNextFreeParameter(any())).thenReturn(closure);
     Data key = testDTI().containerOf(ImmutableMap.of("hello", testDTI().primitiveOf("world")));
     when(closure.execute(any())).thenReturn(key);
@@ -745,7 +780,7 @@ public class ArrayFnsTest {
 
   @Test
   public void groupBy_closure_groups() {
-    Closure closure = mock(Closure.class);
+    Closure closure = realClosure();
     Data[] elem = new Data[1];
     when(closure.bindNextFreeParameter(any()))
         .then(
@@ -1042,7 +1077,7 @@ public class ArrayFnsTest {
   }
 
   private Closure twoKeySelector() {
-    Closure keySelector = mock(Closure.class);
+    Closure keySelector = realClosure();
     List<Data> elementSingleton = new ArrayList<>();
     AtomicInteger elementIdx = new AtomicInteger(-1);
     when(keySelector.bindNextFreeParameter(any()))
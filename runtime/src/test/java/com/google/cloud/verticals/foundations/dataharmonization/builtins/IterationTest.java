@@ -24,7 +24,11 @@ import static com.google.cloud.verticals.foundations.dataharmonization.utils.Ass
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.cloud.verticals.foundations.dataharmonization.data.Array;
@@ -34,6 +38,7 @@ import com.google.cloud.verticals.foundations.dataharmonization.data.Dataset;
 import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
 import com.google.cloud.verticals.foundations.dataharmonization.function.Closure;
 import com.google.cloud.verticals.foundations.dataharmonization.function.java.TestContext;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import java.util.ArrayList;
 import java.util.List;
@@ -51,7 +56,7 @@ public class IterationTest {
 
   private static Closure mockClosure(
       List<Data> bindings, int numFree, Function<List<Data>, Data> fn) {
-    Closure closure = mock(Closure.class);
+    Closure closure = realClosure();
     when(closure.getNumFreeParams()).then(i -> numFree - bindings.size());
     when(closure.bindNextFreeParameter(any()))
         .then(
@@ -65,17 +70,21 @@ public class IterationTest {
     return closure;
   }
 
+  /** Returns a mock closure whose default methods (e.g. its invoker) call through to the stubs. */
+  private static Closure realClosure() {
+    return mock(Closure.class, CALLS_REAL_METHODS);
+  }
+
   @Test
   public void iterate_noArgs_null() {
-    assertTrue(Iteration.iterate(mock(Closure.class)).isNullOrEmpty());
+    assertTrue(Iteration.iterate(realClosure()).isNullOrEmpty());
   }
 
   @Test
   public void iterate_nulls_null() {
-    assertTrue(Iteration.iterate(mock(Closure.class), NullData.instance).isNullOrEmpty());
+    assertTrue(Iteration.iterate(realClosure(), NullData.instance).isNullOrEmpty());
     assertTrue(
-        Iteration.iterate(mock(Closure.class), NullData.instance, NullData.instance)
-            .isNullOrEmpty());
+        Iteration.iterate(realClosure(), NullData.instance, NullData.instance).isNullOrEmpty());
   }
 
   @Test
@@ -97,7 +106,7 @@ public class IterationTest {
         () ->
             Iteration.iterate(
                 new TestContext(),
-                mock(Closure.class), // No free params - invalid
+                realClosure(), // No free params - invalid
                 arrayOf(mock(Data.class), 3)));
   }
 
@@ -157,6 +166,19 @@ public class IterationTest {
     assertDCAPEquals(arrayOf(testDTI().primitiveOf(1.)), result);
   }
 
+  @Test
+  public void iterate_readsElementsThroughCursor() {
+    Array array = mock(Array.class);
+    when(array.size()).thenReturn(2);
+    when(array.elements())
+        .thenReturn(
+            ImmutableList.<Data>of(testDTI().primitiveOf(1.), testDTI().primitiveOf(2.))
+                .iterator());
+    Array result = Iteration.iterate(new TestContext(), mockClosure(1, x -> x.get(0)), array);
+    assertDCAPEquals(arrayOf(testDTI().primitiveOf(1.), testDTI().primitiveOf(2.)), result);
+    verify(array, never()).getElement(anyInt());
+  }
+
   @Test
   public void iterate_zippedArray_iterates() {
     Array one =
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.verticals.foundations.dataharmonization.data.budget;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Container;
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.DataTypeImplementation;
+import com.google.cloud.verticals.foundations.dataharmonization.data.impl.DefaultDataTypeImplementation;
+import com.google.cloud.verticals.foundations.dataharmonization.data.path.Path;
+import com.google.cloud.verticals.foundations.dataharmonization.exceptions.MemoryBudgetExceededException;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for BudgetedDataTypeImplementation. */
+@RunWith(JUnit4.class)
+public class BudgetedDataTypeImplementationTest {
+  private static final DataTypeImplementation DEFAULT = DefaultDataTypeImplementation.instance;
+
+  @Test
+  public void allocations_charged() {
+    MemoryBudget budget = new MemoryBudget(Long.MAX_VALUE);
+    DataTypeImplementation dti = new BudgetedDataTypeImplementation(DEFAULT, budget);
+
+    dti.emptyContainer();
+    dti.emptyContainer(10);
+    dti.arrayOf(ImmutableList.of(DEFAULT.primitiveOf(1.0), DEFAULT.primitiveOf(2.0)));
+    dti.containerOf(ImmutableMap.of("a", DEFAULT.primitiveOf(true)));
+    dti.primitiveOf("abc");
+    dti.primitiveOf(1.5);
+    dti.primitiveOf(true);
+
+    assertEquals(
+        DataSize.CONTAINER
+            + DataSize.CONTAINER
+            + DataSize.ARRAY
+            + 2 * DataSize.ENTRY
+            + DataSize.CONTAINER
+            + DataSize.ENTRY
+            + DataSize.ofString("abc")
+            + DataSize.PRIMITIVE,
+        budget.getUsedBytes());
+  }
+
+  @Test
+  public void sharedPrimitives_notCharged() {
+    MemoryBudget budget = new MemoryBudget(Long.MAX_VALUE);
+    DataTypeImplementation dti = new BudgetedDataTypeImplementation(DEFAULT, budget);
+
+    dti.primitiveOf(1.0);
+    dti.primitiveOf(Double.valueOf(-1));
+    dti.primitiveOf("");
+    dti.primitiveOf(false);
+    assertEquals(0, budget.getUsedBytes());
+
+    dti.primitiveOf(1e9);
+    dti.primitiveOf(Double.valueOf(0.5));
+    assertEquals(2 * DataSize.PRIMITIVE, budget.getUsedBytes());
+  }
+
+  @Test
+  public void pathSet_chargesIntermediatesAndWrite() {
+    MemoryBudget budget = new MemoryBudget(Long.MAX_VALUE);
+    DataTypeImplementation dti = new BudgetedDataTypeImplementation(DEFAULT, budget);
+
+    Data result = Path.parse("a.b").set(dti, null, DEFAULT.primitiveOf(1.0));
+
+    assertEquals(
+        1.0, result.asContainer().getField("a").asContainer().getField("b").asPrimitive().num(), 0);
+    assertEquals(2 * DataSize.CONTAINER + DataSize.ENTRY, budget.getUsedBytes());
+  }
+
+  @Test
+  public void exceeded_throws() {
+    MemoryBudget budget = new MemoryBudget(DataSize.CONTAINER * 10);
+    DataTypeImplementation dti = new BudgetedDataTypeImplementation(DEFAULT, budget);
+
+    assertThrows(
+        MemoryBudgetExceededException.class,
+        () -> {
+          for (int i = 0; i < 100; i++) {
+            Container unused = dti.emptyContainer();
+          }
+        });
+  }
+}
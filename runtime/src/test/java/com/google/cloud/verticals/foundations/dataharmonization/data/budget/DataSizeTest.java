@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.verticals.foundations.dataharmonization.data.budget;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Array;
+import com.google.cloud.verticals.foundations.dataharmonization.data.Container;
+import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
+import com.google.cloud.verticals.foundations.dataharmonization.data.impl.DefaultArray;
+import com.google.cloud.verticals.foundations.dataharmonization.data.impl.DefaultContainer;
+import com.google.cloud.verticals.foundations.dataharmonization.data.impl.NumberPrimitive;
+import com.google.cloud.verticals.foundations.dataharmonization.data.impl.StringPrimitive;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for DataSize. */
+@RunWith(JUnit4.class)
+public class DataSizeTest {
+  @Test
+  public void estimate_primitives() {
+    assertEquals(0, DataSize.estimate(NullData.instance));
+    assertEquals(DataSize.PRIMITIVE, DataSize.estimate(NumberPrimitive.of(1)));
+    assertEquals(DataSize.STRING + 3, DataSize.estimate(StringPrimitive.of("abc")));
+  }
+
+  @Test
+  public void estimate_tree_sumsEntriesAndValues() {
+    Array array = new DefaultArray();
+    array.setElement(0, NumberPrimitive.of(1));
+    array.setElement(1, StringPrimitive.of("ab"));
+    Container container = new DefaultContainer();
+    container.setField("abc", array);
+
+    assertEquals(
+        DataSize.CONTAINER
+            + DataSize.ENTRY
+            + 3
+            + DataSize.ARRAY
+            + 2 * DataSize.ENTRY
+            + DataSize.PRIMITIVE
+            + DataSize.STRING
+            + 2,
+        DataSize.estimate(container));
+  }
+
+  @Test
+  public void estimate_sharedValue_countedOnce() {
+    Container child = new DefaultContainer();
+    child.setField("a", NumberPrimitive.of(1));
+    Array array = new DefaultArray();
+    array.setElement(0, child);
+    array.setElement(1, child);
+
+    assertEquals(
+        DataSize.ARRAY + 2 * DataSize.ENTRY + DataSize.estimate(child), DataSize.estimate(array));
+  }
+
+  @Test
+  public void estimate_deepTree_doesNotOverflowStack() {
+    Array root = new DefaultArray();
+    Array current = root;
+    for (int i = 0; i < 100000; i++) {
+      Array next = new DefaultArray();
+      current.setElement(0, next);
+      current = next;
+    }
+
+    assertTrue(DataSize.estimate(root) > 100000 * DataSize.ARRAY);
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.verticals.foundations.dataharmonization.data.budget;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import com.google.cloud.verticals.foundations.dataharmonization.exceptions.MemoryBudgetExceededException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for MemoryBudget. */
+@RunWith(JUnit4.class)
+public class MemoryBudgetTest {
+  @Test
+  public void constructor_nonPositive_throws() {
+    assertThrows(IllegalArgumentException.class, () -> new MemoryBudget(0));
+  }
+
+  @Test
+  public void charge_withinBudget_addsUp() {
+    MemoryBudget budget = new MemoryBudget(100);
+    budget.reset(10);
+
+    budget.charge(40);
+    budget.charge(50);
+
+    assertEquals(100, budget.getUsedBytes());
+  }
+
+  @Test
+  public void charge_exceeded_throwsUntilReset() {
+    MemoryBudget budget = new MemoryBudget(100);
+    budget.reset(0);
+
+    MemoryBudgetExceededException ex =
+        assertThrows(MemoryBudgetExceededException.class, () -> budget.charge(101));
+    assertEquals(101, ex.getUsedBytes());
+    assertEquals(100, ex.getMaxBytes());
+    // Even small charges keep failing, so error handlers cannot keep allocating.
+    assertThrows(MemoryBudgetExceededException.class, () -> budget.charge(0));
+
+    budget.reset(0);
+    budget.charge(100);
+    assertEquals(100, budget.getUsedBytes());
+  }
+
+  @Test
+  public void reset_largeInput_failsFirstCharge() {
+    MemoryBudget budget = new MemoryBudget(100);
+    budget.reset(200);
+
+    assertEquals(200, budget.getUsedBytes());
+    assertThrows(MemoryBudgetExceededException.class, () -> budget.charge(1));
+  }
+}
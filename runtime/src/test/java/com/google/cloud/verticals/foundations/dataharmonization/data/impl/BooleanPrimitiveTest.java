@@ -0,0 +1,71 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.verticals.foundations.dataharmonization.data.impl;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Primitive;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for BooleanPrimitive. */
+@RunWith(JUnit4.class)
+public class BooleanPrimitiveTest {
+
+  @Test
+  public void of_returnsSingletons() {
+    assertThat(BooleanPrimitive.of(true)).isSameInstanceAs(BooleanPrimitive.TRUE);
+    assertThat(BooleanPrimitive.of(false)).isSameInstanceAs(BooleanPrimitive.FALSE);
+  }
+
+  @Test
+  public void matchesDefaultPrimitive() {
+    for (boolean value : new boolean[] {true, false}) {
+      Primitive bool = BooleanPrimitive.of(value);
+      Primitive reference = new DefaultPrimitive(value);
+
+      assertEquals(reference, bool);
+      assertEquals(bool, reference);
+      assertEquals(reference.hashCode(), bool.hashCode());
+      assertEquals(reference.toString(), bool.toString());
+    }
+    assertNotEquals(BooleanPrimitive.TRUE, BooleanPrimitive.FALSE);
+  }
+
+  @Test
+  public void deserialize_returnsSingleton() throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+      oos.writeObject(BooleanPrimitive.TRUE);
+    }
+    try (ObjectInputStream ois =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      assertThat(ois.readObject()).isSameInstanceAs(BooleanPrimitive.TRUE);
+    }
+  }
+
+  @Test
+  public void checkDataInvariants() {
+    new DataImplementationSemanticsTest(() -> BooleanPrimitive.TRUE).testAll();
+  }
+}
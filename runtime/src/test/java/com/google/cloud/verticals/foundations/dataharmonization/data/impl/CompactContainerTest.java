@@ -0,0 +1,222 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.verticals.foundations.dataharmonization.data.impl;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Container;
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
+import com.google.common.collect.ImmutableMap;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Random;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for CompactContainer. */
+@RunWith(JUnit4.class)
+public class CompactContainerTest {
+
+  @Test
+  public void isNullOrEmpty_emptyContainer_returnsTrue() {
+    assertTrue(new CompactContainer().isNullOrEmpty());
+  }
+
+  @Test
+  public void isNullOrEmpty_onlyEmptyFields_returnsTrue() {
+    Container container =
+        new CompactContainer()
+            .setField("a", NullData.instance)
+            .setField("b", new CompactContainer().setField("c", NullData.instance));
+    assertTrue(container.isNullOrEmpty());
+  }
+
+  @Test
+  public void getField_setFields_returnsThem() {
+    Container container =
+        new CompactContainer()
+            .setField("a", new DefaultPrimitive(1.0))
+            .setField("b", new DefaultPrimitive("two"));
+
+    assertEquals(1.0, container.getField("a").asPrimitive().num(), 0.0);
+    assertEquals("two", container.getField("b").asPrimitive().string());
+    assertTrue(container.getField("c").isNullOrEmpty());
+    assertThat(container.fields()).containsExactly("a", "b").inOrder();
+  }
+
+  @Test
+  public void setField_existingField_overwrites() {
+    Container container =
+        new CompactContainer()
+            .setField("a", new DefaultPrimitive(1.0))
+            .setField("a", new DefaultPrimitive(2.0));
+
+    assertEquals(2.0, container.getField("a").asPrimitive().num(), 0.0);
+    assertThat(container.fields()).containsExactly("a");
+  }
+
+  @Test
+  public void fields_sameFieldsInSameOrder_sharesShape() {
+    Container first = new CompactContainer().setField("b", NullData.instance);
+    first.setField("a", NullData.instance);
+    Container second = new CompactContainer().setField("b", new DefaultPrimitive(1.0));
+    second.setField("a", new DefaultPrimitive(2.0));
+
+    assertThat(second.fields()).isSameInstanceAs(first.fields());
+    assertThat(second.fields()).containsExactly("a", "b").inOrder();
+  }
+
+  @Test
+  public void setField_pastMaxTransitions_switchesToMap() {
+    for (int i = 0; i < CompactContainer.Shape.MAX_TRANSITIONS; i++) {
+      new CompactContainer()
+          .setField("parent", NullData.instance)
+          .setField("child" + i, NullData.instance);
+    }
+
+    Container first =
+        new CompactContainer()
+            .setField("parent", new DefaultPrimitive(1.0))
+            .setField("uncommon", new DefaultPrimitive(2.0));
+    Container second =
+        new CompactContainer()
+            .setField("parent", new DefaultPrimitive(3.0))
+            .setField("uncommon", new DefaultPrimitive(4.0));
+
+    assertThat(second.fields()).isNotSameInstanceAs(first.fields());
+    assertThat(second.fields()).containsExactly("parent", "uncommon");
+    assertEquals(2.0, first.getField("uncommon").asPrimitive().num(), 0.0);
+    assertEquals(4.0, second.getField("uncommon").asPrimitive().num(), 0.0);
+    second.removeField("parent");
+    assertThat(second.fields()).containsExactly("uncommon");
+  }
+
+  @Test
+  public void setField_pastMaxCompactFields_keepsAllFields() {
+    Container container = new CompactContainer();
+    for (int i = 0; i < CompactContainer.MAX_COMPACT_FIELDS * 2; i++) {
+      container.setField("f" + i, new DefaultPrimitive((double) i));
+    }
+
+    for (int i = 0; i < CompactContainer.MAX_COMPACT_FIELDS * 2; i++) {
+      assertEquals((double) i, container.getField("f" + i).asPrimitive().num(), 0.0);
+    }
+    assertThat(container.fields()).hasSize(CompactContainer.MAX_COMPACT_FIELDS * 2);
+  }
+
+  @Test
+  public void removeField_existingField_removesIt() {
+    Container container =
+        new CompactContainer()
+            .setField("a", new DefaultPrimitive(1.0))
+            .setField("b", new DefaultPrimitive(2.0))
+            .setField("c", new DefaultPrimitive(3.0));
+
+    container.removeField("b");
+
+    assertThat(container.fields()).containsExactly("a", "c");
+    assertEquals(1.0, container.getField("a").asPrimitive().num(), 0.0);
+    assertEquals(3.0, container.getField("c").asPrimitive().num(), 0.0);
+    assertTrue(container.getField("b").isNullOrEmpty());
+  }
+
+  @Test
+  public void deepCopy_copiesValues() {
+    Container child = new CompactContainer().setField("b", new DefaultPrimitive(1.0));
+    Container container = new CompactContainer().setField("a", child);
+
+    Container copy = container.deepCopy().asContainer();
+    child.setField("b", new DefaultPrimitive(2.0));
+
+    assertEquals(1.0, copy.getField("a").asContainer().getField("b").asPrimitive().num(), 0.0);
+  }
+
+  @Test
+  public void serialize_roundTrips() throws Exception {
+    Container container =
+        new CompactContainer(
+            ImmutableMap.of("a", new DefaultPrimitive(1.0), "b", new DefaultPrimitive("two")));
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+      oos.writeObject(container);
+    }
+    Data copy;
+    try (ObjectInputStream ois =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      copy = (Data) ois.readObject();
+    }
+
+    assertEquals(container, copy);
+    assertThat(copy.asContainer().fields()).isSameInstanceAs(container.fields());
+  }
+
+  @Test
+  public void randomMutations_equivalentToDefaultContainer() {
+    Random random = new Random(42);
+    for (int run = 0; run < 100; run++) {
+      Container compact = new CompactContainer();
+      Container reference = new DefaultContainer();
+      for (int step = 0; step < 40; step++) {
+        String field = "f" + random.nextInt(CompactContainer.MAX_COMPACT_FIELDS + 4);
+        switch (random.nextInt(4)) {
+          case 0:
+            compact.removeField(field);
+            reference.removeField(field);
+            break;
+          case 1:
+            compact.setField(field, NullData.instance);
+            reference.setField(field, NullData.instance);
+            break;
+          default:
+            Data value = new DefaultPrimitive((double) random.nextInt(3));
+            compact.setField(field, value);
+            reference.setField(field, value);
+            break;
+        }
+        assertEquals(reference.fields(), compact.fields());
+        assertEquals(reference.isNullOrEmpty(), compact.isNullOrEmpty());
+        assertEquals(reference, compact);
+        assertEquals(compact, reference);
+        assertEquals(reference.hashCode(), compact.hashCode());
+        assertEquals(reference.toString(), compact.toString());
+      }
+    }
+  }
+
+  @Test
+  public void equals_nullData_isNullOrEmpty() {
+    assertEquals(new CompactContainer(), NullData.instance);
+    assertEquals(NullData.instance, new CompactContainer());
+    assertFalse(
+        new CompactContainer().setField("a", new DefaultPrimitive(1.0)).equals(NullData.instance));
+  }
+
+  @Test
+  public void checkDataInvariants() {
+    new DataImplementationSemanticsTest(CompactContainer::new).testAll();
+    new DataImplementationSemanticsTest(
+            () -> new CompactContainer(ImmutableMap.of("field1", new DefaultPrimitive(1.0))))
+        .testAll();
+  }
+}
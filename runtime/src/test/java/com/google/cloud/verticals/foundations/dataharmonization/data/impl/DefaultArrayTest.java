@@ -32,6 +32,10 @@ import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
 import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
 import com.google.cloud.verticals.foundations.dataharmonization.data.path.Path;
 import com.google.common.collect.ImmutableList;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.Collections;
 import java.util.stream.IntStream;
 import org.junit.Test;
@@ -287,6 +291,49 @@ public class DefaultArrayTest {
     assertTrue(got.isNullOrEmpty());
   }
 
+  @Test
+  public void hashCode_matchesListOfElements() {
+    Data a = new DefaultPrimitive("a");
+    Data b = new DefaultContainer().setField("b", new DefaultPrimitive(1.0));
+    Array array = new DefaultArray(ImmutableList.of(a, NullData.instance, b));
+
+    assertEquals(ImmutableList.of(a, NullData.instance, b).hashCode(), array.hashCode());
+    assertEquals(NullData.instance.hashCode(), new DefaultArray().hashCode());
+  }
+
+  @Test
+  public void hashCode_elementModified_changes() {
+    DefaultContainer element = new DefaultContainer().setField("a", new DefaultPrimitive(1.0));
+    Array array = new DefaultArray().setElement(0, element);
+    int before = array.hashCode();
+
+    element.setField("a", new DefaultPrimitive(2.0));
+
+    assertNotEquals(before, array.hashCode());
+    assertEquals(array.deepCopy().hashCode(), array.hashCode());
+  }
+
+  @Test
+  public void setFixedElement_serialized_keepsFixedElements() throws Exception {
+    DefaultArray array = new DefaultArray();
+    array.setElement(0, new DefaultPrimitive(1.0));
+    array.setFixedElement(2, new DefaultPrimitive(2.0));
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+      oos.writeObject(array);
+    }
+    Array copy;
+    try (ObjectInputStream ois =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      copy = (Array) ois.readObject();
+    }
+
+    assertEquals(array, copy);
+    assertFalse(copy.isFixed(0));
+    assertTrue(copy.isFixed(2));
+  }
+
   @Test
   public void checkDataInvariants() {
     // empty array
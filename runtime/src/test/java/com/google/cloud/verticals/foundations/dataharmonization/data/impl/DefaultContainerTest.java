@@ -16,6 +16,7 @@
 
 package com.google.cloud.verticals.foundations.dataharmonization.data.impl;
 
+import static com.google.cloud.verticals.foundations.dataharmonization.data.impl.TestDataTypeImplementation.testDTI;
 import static com.google.cloud.verticals.foundations.dataharmonization.mock.MockData.containerOf;
 import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.assertEquals;
@@ -29,8 +30,19 @@ import com.google.cloud.verticals.foundations.dataharmonization.data.Container;
 import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
 import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
 import com.google.cloud.verticals.foundations.dataharmonization.data.Primitive;
+import com.google.cloud.verticals.foundations.dataharmonization.data.merge.MergeMode;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -284,6 +296,292 @@ public class DefaultContainerTest {
     assertEquals(nullData, emptyContainer);
   }
 
+  @Test
+  public void isNullOrEmpty_nestedEmptyContainers_returnsTrue() {
+    Container container =
+        new DefaultContainer()
+            .setField("a", new DefaultContainer().setField("b", new DefaultContainer()))
+            .setField("c", new DefaultPrimitive((String) null));
+    assertTrue(container.isNullOrEmpty());
+  }
+
+  @Test
+  public void isNullOrEmpty_nestedChildEmptiedAfterSet_returnsTrue() {
+    Container child = new DefaultContainer().setField("b", new DefaultPrimitive(1.0));
+    Container container = new DefaultContainer().setField("a", child);
+    assertFalse(container.isNullOrEmpty());
+
+    child.removeField("b");
+
+    assertTrue(container.isNullOrEmpty());
+  }
+
+  @Test
+  public void isNullOrEmpty_primitiveOverwrittenAndRemoved_tracksChanges() {
+    Container container = new DefaultContainer().setField("a", new DefaultPrimitive(1.0));
+    container.setField("a", NullData.instance);
+    assertTrue(container.isNullOrEmpty());
+
+    container.setField("a", new DefaultArray().setElement(0, NullData.instance));
+    assertFalse(container.isNullOrEmpty());
+
+    container.removeField("a");
+    assertTrue(container.isNullOrEmpty());
+  }
+
+  @Test
+  public void isNullOrEmpty_serialized_keepsTracking() throws Exception {
+    Container container = new DefaultContainer().setField("a", new DefaultPrimitive(1.0));
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+      oos.writeObject(container);
+    }
+    Container copy;
+    try (ObjectInputStream ois =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      copy = (Container) ois.readObject();
+    }
+
+    assertFalse(copy.isNullOrEmpty());
+    copy.removeField("a");
+    assertTrue(copy.isNullOrEmpty());
+  }
+
+  @Test
+  public void isNullOrEmpty_randomMutations_matchesNonNullFields() {
+    Random random = new Random(42);
+    String[] fields = {"a", "b", "c", "d"};
+    for (int run = 0; run < 200; run++) {
+      List<Container> containers = new ArrayList<>();
+      containers.add(new DefaultContainer());
+      for (int step = 0; step < 30; step++) {
+        Container target = containers.get(random.nextInt(containers.size()));
+        String field = fields[random.nextInt(fields.length)];
+        switch (random.nextInt(6)) {
+          case 0:
+            target.removeField(field);
+            break;
+          case 1:
+            target.setField(field, NullData.instance);
+            break;
+          case 2:
+            target.setField(field, new DefaultPrimitive(random.nextBoolean() ? "" : "x"));
+            break;
+          case 3:
+            target.setField(
+                field,
+                random.nextBoolean()
+                    ? new DefaultArray()
+                    : new DefaultArray().setElement(0, NullData.instance));
+            break;
+          default:
+            Container child = new DefaultContainer();
+            containers.add(child);
+            target.setField(field, child);
+            break;
+        }
+        for (Container container : containers) {
+          assertEquals(
+              container.toString(), isNullOrEmptyByFields(container), container.isNullOrEmpty());
+        }
+      }
+    }
+  }
+
+  /** Emptiness as defined by {@link Container#nonNullFields()}, applied recursively. */
+  private static boolean isNullOrEmptyByFields(Data data) {
+    if (!data.isContainer()) {
+      return data.isNullOrEmpty();
+    }
+    Container container = data.asContainer();
+    return container.fields().stream().allMatch(f -> isNullOrEmptyByFields(container.getField(f)));
+  }
+
+  @Test
+  public void hashCode_matchesMapOfNonEmptyFields() {
+    Data a = new DefaultPrimitive("a");
+    Data b = new DefaultArray().setElement(0, new DefaultPrimitive(1.0));
+    DefaultContainer container =
+        new DefaultContainer(ImmutableMap.of("a", a, "b", b, "c", new DefaultContainer()));
+
+    assertEquals(ImmutableMap.of("a", a, "b", b).hashCode(), container.hashCode());
+    assertEquals(NullData.instance.hashCode(), new DefaultContainer().hashCode());
+  }
+
+  @Test
+  public void hashCode_nestedValueModified_changes() {
+    DefaultArray array = new DefaultArray().setElement(0, new DefaultPrimitive(1.0));
+    DefaultContainer child = new DefaultContainer().setField("b", array);
+    DefaultContainer parent = new DefaultContainer().setField("a", child);
+    int before = parent.hashCode();
+
+    array.setElement(0, new DefaultPrimitive(2.0));
+
+    assertNotEquals(before, parent.hashCode());
+    assertEquals(parent.deepCopy().hashCode(), parent.hashCode());
+  }
+
+  @Test
+  public void hashCode_emptyChildFilledIn_changes() {
+    DefaultContainer child = new DefaultContainer();
+    DefaultContainer parent = new DefaultContainer().setField("a", child);
+    assertEquals(NullData.instance.hashCode(), parent.hashCode());
+
+    child.setField("b", new DefaultPrimitive("x"));
+
+    assertEquals(parent.deepCopy().hashCode(), parent.hashCode());
+    assertNotEquals(NullData.instance.hashCode(), parent.hashCode());
+  }
+
+  @Test
+  public void equals_cachedHashesDiffer_returnsFalse() {
+    Data a = new DefaultContainer().setField("a", new DefaultPrimitive(1.0));
+    Data b = new DefaultContainer().setField("a", new DefaultPrimitive(2.0));
+    assertNotEquals(a.hashCode(), b.hashCode());
+
+    assertNotEquals(a, b);
+    assertEquals(a, a.deepCopy());
+  }
+
+  @Test
+  public void hashCode_randomMutations_matchesFreshCopy() {
+    Random random = new Random(42);
+    String[] fields = {"a", "b", "c"};
+    for (int run = 0; run < 100; run++) {
+      List<Data> values = new ArrayList<>();
+      values.add(new DefaultContainer());
+      for (int step = 0; step < 30; step++) {
+        Data target = values.get(random.nextInt(values.size()));
+        Data value;
+        switch (random.nextInt(4)) {
+          case 0:
+            value = NullData.instance;
+            break;
+          case 1:
+            value = new DefaultPrimitive((double) random.nextInt(3));
+            break;
+          case 2:
+            value = new DefaultArray();
+            values.add(value);
+            break;
+          default:
+            value = new DefaultContainer();
+            values.add(value);
+            break;
+        }
+        if (target.isArray()) {
+          target.asArray().setElement(random.nextInt(3), value);
+        } else if (random.nextInt(5) == 0) {
+          target.asContainer().removeField(fields[random.nextInt(fields.length)]);
+        } else {
+          target.asContainer().setField(fields[random.nextInt(fields.length)], value);
+        }
+        for (Data data : values) {
+          Data fresh = data.deepCopy();
+          assertEquals(data.toString(), fresh.hashCode(), data.hashCode());
+          assertEquals(data.toString(), fresh, data);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void mergeFrom_defaultContainer_mergesFieldwise() {
+    DefaultContainer current =
+        new DefaultContainer(
+            ImmutableMap.of(
+                "a", new DefaultPrimitive(1.),
+                "b", new DefaultContainer(ImmutableMap.of("x", new DefaultPrimitive(1.)))));
+    Container inbound =
+        new DefaultContainer(
+            ImmutableMap.of(
+                "b", new DefaultContainer(ImmutableMap.of("y", new DefaultPrimitive(2.))),
+                "c", new DefaultPrimitive(3.)));
+
+    Container actual = current.mergeFrom(inbound, MergeMode.MERGE, testDTI());
+
+    assertThat(actual).isSameInstanceAs(current);
+    assertEquals(
+        new DefaultContainer(
+            ImmutableMap.of(
+                "a", new DefaultPrimitive(1.),
+                "b",
+                    new DefaultContainer(
+                        ImmutableMap.of(
+                            "x", new DefaultPrimitive(1.), "y", new DefaultPrimitive(2.))),
+                "c", new DefaultPrimitive(3.))),
+        actual);
+  }
+
+  @Test
+  public void mergeFrom_replaceMode_replacesExistingFields() {
+    DefaultContainer current =
+        new DefaultContainer(
+            ImmutableMap.of(
+                "b", new DefaultContainer(ImmutableMap.of("x", new DefaultPrimitive(1.)))));
+    Container inbound =
+        new DefaultContainer(
+            ImmutableMap.of(
+                "b", new DefaultContainer(ImmutableMap.of("y", new DefaultPrimitive(2.)))));
+
+    Container actual = current.mergeFrom(inbound, MergeMode.REPLACE, testDTI());
+
+    assertEquals(inbound, actual);
+  }
+
+  @Test
+  public void mergeFrom_largerInbound_keepsAllFields() {
+    DefaultContainer current =
+        new DefaultContainer(ImmutableMap.of("field0", new DefaultPrimitive("old")));
+    Map<String, Data> fields = new HashMap<>();
+    for (int i = 0; i < 100; i++) {
+      fields.put("field" + i, new DefaultPrimitive((double) i));
+    }
+
+    Container actual = current.mergeFrom(new DefaultContainer(fields), MergeMode.MERGE, testDTI());
+
+    assertEquals(new DefaultContainer(fields), actual);
+    assertEquals(new DefaultContainer(fields).hashCode(), actual.hashCode());
+  }
+
+  @Test
+  public void mergeFrom_otherContainer_mergesFieldwise() {
+    DefaultContainer current =
+        new DefaultContainer(
+            ImmutableMap.of(
+                "b", new DefaultContainer(ImmutableMap.of("x", new DefaultPrimitive(1.)))));
+    Container inbound =
+        new CompactContainer(
+            ImmutableMap.of(
+                "b", new DefaultContainer(ImmutableMap.of("y", new DefaultPrimitive(2.))),
+                "c", new DefaultPrimitive(3.)));
+
+    Container actual = current.mergeFrom(inbound, MergeMode.MERGE, testDTI());
+
+    assertEquals(
+        new DefaultContainer(
+            ImmutableMap.of(
+                "b",
+                new DefaultContainer(
+                    ImmutableMap.of("x", new DefaultPrimitive(1.), "y", new DefaultPrimitive(2.))),
+                "c",
+                new DefaultPrimitive(3.))),
+        actual);
+  }
+
+  @Test
+  public void mergeFrom_self_mergesEachFieldWithItself() {
+    DefaultContainer current =
+        new DefaultContainer(
+            ImmutableMap.of("a", new DefaultArray(ImmutableList.of(new DefaultPrimitive(1.)))));
+
+    Container actual = current.mergeFrom(current, MergeMode.MERGE, testDTI());
+
+    assertEquals(
+        new DefaultArray(ImmutableList.of(new DefaultPrimitive(1.), new DefaultPrimitive(1.))),
+        actual.getField("a"));
+  }
+
   @Test
   public void checkDataInvariants() {
     // empty container
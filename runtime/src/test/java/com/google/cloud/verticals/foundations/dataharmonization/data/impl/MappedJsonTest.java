@@ -0,0 +1,187 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.verticals.foundations.dataharmonization.data.impl;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
+import com.google.cloud.verticals.foundations.dataharmonization.data.serialization.impl.JsonSerializerDeserializer;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for MappedJson, MappedContainer and MappedArray. */
+@RunWith(JUnit4.class)
+public class MappedJsonTest {
+  private static final String JSON =
+      "{\n"
+          + "  \"resourceType\": \"Bundle\",\n"
+          + "  \"total\": 3,\n"
+          + "  \"entry\": [\n"
+          + "    {\"resource\": {\"id\": \"a\", \"value\": -1.5e2, \"active\": true}},\n"
+          + "    {\"resource\": {\"id\": \"b [}\\\"q\\\"\", \"note\": null, \"tags\": []}},\n"
+          + "    {\"resource\": {\"id\": \"\\u00e9t\\u00e9 \\n\\\\ ✓\", \"empty\": {}}}\n"
+          + "  ],\n"
+          + "  \"numbers\": [1, 2.5, false, \"x\", [[]]]\n"
+          + "}";
+
+  private static Data read(String json) {
+    return MappedJson.read(ByteBuffer.wrap(json.getBytes(UTF_8)));
+  }
+
+  @Test
+  public void read_matchesJsonDeserializer() {
+    Data expected = JsonSerializerDeserializer.jsonToData(JSON);
+
+    Data actual = read(JSON);
+
+    assertEquals(expected, actual);
+    assertEquals(actual, expected);
+    assertEquals(expected.hashCode(), actual.hashCode());
+    assertEquals(expected.toString(), actual.toString());
+  }
+
+  @Test
+  public void read_decodesStrings() {
+    Data entries = read(JSON).asContainer().getField("entry");
+
+    assertEquals(
+        "b [}\"q\"",
+        entries
+            .asArray()
+            .getElement(1)
+            .asContainer()
+            .getField("resource")
+            .asContainer()
+            .getField("id")
+            .asPrimitive()
+            .string());
+    assertEquals(
+        "été \n\\ ✓",
+        entries
+            .asArray()
+            .getElement(2)
+            .asContainer()
+            .getField("resource")
+            .asContainer()
+            .getField("id")
+            .asPrimitive()
+            .string());
+  }
+
+  @Test
+  public void read_valuesDecodedOnce() {
+    Data root = read(JSON);
+
+    assertThat(root.asContainer().getField("entry"))
+        .isSameInstanceAs(root.asContainer().getField("entry"));
+    assertThat(root.asContainer().getField("entry").asArray().getElement(0))
+        .isSameInstanceAs(root.asContainer().getField("entry").asArray().getElement(0));
+  }
+
+  @Test
+  public void read_emptyOrNull_returnsNullData() {
+    assertEquals(NullData.instance, read(""));
+    assertEquals(NullData.instance, read(" null "));
+  }
+
+  @Test
+  public void read_topLevelPrimitive() {
+    assertEquals(NumberPrimitive.of(42), read(" 42\n"));
+    assertEquals(StringPrimitive.of("a"), read("\"a\""));
+  }
+
+  @Test
+  public void read_malformed_throws() {
+    assertThrows(IllegalArgumentException.class, () -> read("{\"a\": [1, 2}"));
+    assertThrows(IllegalArgumentException.class, () -> read("{\"a\": 1"));
+    assertThrows(IllegalArgumentException.class, () -> read("{\"a\": 1} 2"));
+    assertThrows(IllegalArgumentException.class, () -> read("\"abc"));
+    assertThrows(
+        IllegalArgumentException.class, () -> read("{\"a\": nope}").asContainer().getField("a"));
+    assertThrows(IllegalArgumentException.class, () -> read("{\"a\" 1}").asContainer().fields());
+  }
+
+  @Test
+  public void read_isReadOnly() {
+    Data root = read(JSON);
+
+    assertFalse(root.isWritable());
+    assertThrows(
+        UnsupportedOperationException.class,
+        () -> root.asContainer().setField("total", NumberPrimitive.of(1)));
+    assertThrows(UnsupportedOperationException.class, () -> root.asContainer().removeField("a"));
+    assertThrows(
+        UnsupportedOperationException.class,
+        () -> root.asContainer().getField("entry").asArray().setElement(0, NullData.instance));
+  }
+
+  @Test
+  public void deepCopy_isWritableAndEqual() {
+    Data root = read(JSON);
+
+    Data copy = root.deepCopy();
+
+    assertTrue(copy.isWritable());
+    assertThat(copy).isInstanceOf(DefaultContainer.class);
+    assertEquals(root, copy);
+    copy.asContainer().setField("total", NumberPrimitive.of(4));
+    assertEquals(NumberPrimitive.of(3), root.asContainer().getField("total"));
+  }
+
+  @Test
+  public void serialize_writesDecodedCopy() throws Exception {
+    Data root = read(JSON);
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+      oos.writeObject(root);
+    }
+    Object copy;
+    try (ObjectInputStream ois =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      copy = ois.readObject();
+    }
+
+    assertThat(copy).isInstanceOf(DefaultContainer.class);
+    assertEquals(root, copy);
+  }
+
+  @Test
+  public void open_mapsFile() throws Exception {
+    Path file = Files.createTempFile("mapped", ".json");
+    try {
+      Files.write(file, JSON.getBytes(UTF_8));
+
+      assertEquals(JsonSerializerDeserializer.jsonToData(JSON), MappedJson.open(file));
+    } finally {
+      Files.delete(file);
+    }
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.verticals.foundations.dataharmonization.data.impl;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Primitive;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for NumberPrimitive. */
+@RunWith(JUnit4.class)
+public class NumberPrimitiveTest {
+  private static final double[] VALUES = {
+    0.0, -0.0, 1.0, -128.0, 1024.0, 1025.0, 3.14, -2.5, 1e20, Double.NaN, Double.POSITIVE_INFINITY
+  };
+
+  @Test
+  public void of_smallIntegers_cached() {
+    assertThat(NumberPrimitive.of(5.0)).isSameInstanceAs(NumberPrimitive.of(5.0));
+    assertThat(NumberPrimitive.of(-128.0)).isSameInstanceAs(NumberPrimitive.of(-128.0));
+    assertThat(NumberPrimitive.of(1024.0)).isSameInstanceAs(NumberPrimitive.of(1024.0));
+  }
+
+  @Test
+  public void of_negativeZero_notCachedAsZero() {
+    assertThat(NumberPrimitive.of(-0.0)).isNotSameInstanceAs(NumberPrimitive.of(0.0));
+    assertNotEquals(NumberPrimitive.of(0.0), NumberPrimitive.of(-0.0));
+  }
+
+  @Test
+  public void numValue_returnsValue() {
+    Primitive primitive = NumberPrimitive.of(3.14);
+
+    assertTrue(primitive.isNumber());
+    assertEquals(3.14, primitive.numValue(), 0.0);
+    assertEquals(3.14, primitive.num(), 0.0);
+    assertFalse(primitive.isNullOrEmpty());
+  }
+
+  @Test
+  public void matchesDefaultPrimitive() {
+    for (double value : VALUES) {
+      Primitive number = NumberPrimitive.of(value);
+      Primitive reference = new DefaultPrimitive(value);
+
+      assertEquals(reference, number);
+      assertEquals(number, reference);
+      assertEquals(reference.hashCode(), number.hashCode());
+      assertEquals(reference.toString(), number.toString());
+    }
+  }
+
+  @Test
+  public void equals_otherTypes_false() {
+    assertNotEquals(NumberPrimitive.of(1.0), new DefaultPrimitive("1"));
+    assertNotEquals(NumberPrimitive.of(1.0), BooleanPrimitive.TRUE);
+    assertNotEquals(NumberPrimitive.of(1.0), NumberPrimitive.of(2.0));
+  }
+
+  @Test
+  public void checkDataInvariants() {
+    new DataImplementationSemanticsTest(() -> NumberPrimitive.of(1.5)).testAll();
+  }
+}
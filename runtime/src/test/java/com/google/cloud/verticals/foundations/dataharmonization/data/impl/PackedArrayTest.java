@@ -0,0 +1,181 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.verticals.foundations.dataharmonization.data.impl;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Array;
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
+import com.google.common.collect.ImmutableList;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for PackedArray. */
+@RunWith(JUnit4.class)
+public class PackedArrayTest {
+  private static final List<Data> NUMBERS =
+      ImmutableList.of(NumberPrimitive.of(1), NumberPrimitive.of(2.5), NumberPrimitive.of(-3));
+  private static final List<Data> STRINGS =
+      ImmutableList.of(StringPrimitive.of("a"), StringPrimitive.EMPTY, StringPrimitive.of("c"));
+
+  @Test
+  public void isPackable() {
+    assertTrue(PackedArray.isPackable(NUMBERS));
+    assertTrue(PackedArray.isPackable(STRINGS));
+    assertFalse(PackedArray.isPackable(ImmutableList.of()));
+    assertFalse(
+        PackedArray.isPackable(ImmutableList.of(NumberPrimitive.of(1), StringPrimitive.of("a"))));
+    assertFalse(PackedArray.isPackable(ImmutableList.of(NumberPrimitive.of(1), NullData.instance)));
+    assertFalse(PackedArray.isPackable(ImmutableList.of(new DefaultPrimitive(1.0))));
+  }
+
+  @Test
+  public void of_numbers_packedAndEqualToDefaultArray() {
+    PackedArray array = PackedArray.of(NUMBERS);
+    DefaultArray reference = new DefaultArray(NUMBERS);
+
+    assertTrue(array.isPacked());
+    assertEquals(3, array.size());
+    assertEquals(NumberPrimitive.of(2.5), array.getElement(1));
+    assertEquals(NullData.instance, array.getElement(3));
+    assertEquals(reference, array);
+    assertEquals(array, reference);
+    assertEquals(reference.hashCode(), array.hashCode());
+    assertEquals(reference.toString(), array.toString());
+  }
+
+  @Test
+  public void of_strings_packedAndEqualToDefaultArray() {
+    PackedArray array = PackedArray.of(STRINGS);
+    DefaultArray reference = new DefaultArray(STRINGS);
+
+    assertTrue(array.isPacked());
+    assertThat(array.getElement(1)).isSameInstanceAs(StringPrimitive.EMPTY);
+    assertEquals(reference, array);
+    assertEquals(array, reference);
+    assertEquals(reference.hashCode(), array.hashCode());
+    assertEquals(reference.toString(), array.toString());
+  }
+
+  @Test
+  public void setElement_sameKind_staysPacked() {
+    PackedArray array = PackedArray.of(NUMBERS);
+    int before = array.hashCode();
+
+    array.setElement(0, NumberPrimitive.of(7)).setElement(3, NumberPrimitive.of(8));
+
+    assertTrue(array.isPacked());
+    assertEquals(4, array.size());
+    assertEquals(NumberPrimitive.of(7), array.getElement(0));
+    assertEquals(NumberPrimitive.of(8), array.getElement(3));
+    assertNotEquals(before, array.hashCode());
+  }
+
+  @Test
+  public void setElement_otherKind_unpacks() {
+    PackedArray array = PackedArray.of(STRINGS);
+    Data container = new DefaultContainer().setField("a", NumberPrimitive.of(1));
+
+    array.setElement(1, container);
+
+    assertFalse(array.isPacked());
+    assertThat(array.getElement(1)).isSameInstanceAs(container);
+    assertEquals(StringPrimitive.of("c"), array.getElement(2));
+  }
+
+  @Test
+  public void setElement_gap_unpacksAndFillsNulls() {
+    PackedArray array = PackedArray.of(NUMBERS);
+
+    array.setElement(5, NumberPrimitive.of(6));
+
+    assertFalse(array.isPacked());
+    assertEquals(6, array.size());
+    assertEquals(NullData.instance, array.getElement(4));
+    assertEquals(NumberPrimitive.of(6), array.getElement(5));
+  }
+
+  @Test
+  public void equals_differentNumbers_false() {
+    assertNotEquals(
+        PackedArray.of(NUMBERS),
+        PackedArray.of(ImmutableList.of(NumberPrimitive.of(1), NumberPrimitive.of(2))));
+    assertNotEquals(PackedArray.of(NUMBERS), PackedArray.of(STRINGS));
+  }
+
+  @Test
+  public void deepCopy_independent() {
+    PackedArray array = PackedArray.of(NUMBERS);
+    Array copy = array.deepCopy().asArray();
+
+    copy.setElement(0, NumberPrimitive.of(9));
+
+    assertEquals(NumberPrimitive.of(1), array.getElement(0));
+    assertEquals(NumberPrimitive.of(9), copy.getElement(0));
+  }
+
+  @Test
+  public void setFixedElement_marksFixed() {
+    PackedArray array = PackedArray.of(NUMBERS);
+    assertFalse(array.isFixed(1));
+
+    array.setFixedElement(1, NumberPrimitive.of(4));
+
+    assertTrue(array.isFixed(1));
+    assertFalse(array.isFixed(0));
+  }
+
+  @Test
+  public void serialization_roundTrips() throws Exception {
+    PackedArray array = PackedArray.of(NUMBERS);
+    array.setFixedElement(3, NumberPrimitive.of(4));
+
+    PackedArray copy = roundTrip(array);
+
+    assertEquals(array, copy);
+    assertTrue(copy.isPacked());
+    assertTrue(copy.isFixed(3));
+    assertEquals(PackedArray.of(STRINGS), roundTrip(PackedArray.of(STRINGS)));
+  }
+
+  private static PackedArray roundTrip(PackedArray array) throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+      oos.writeObject(array);
+    }
+    try (ObjectInputStream ois =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      return (PackedArray) ois.readObject();
+    }
+  }
+
+  @Test
+  public void checkDataInvariants() {
+    new DataImplementationSemanticsTest(() -> PackedArray.of(NUMBERS)).testAll();
+    new DataImplementationSemanticsTest(() -> PackedArray.of(STRINGS)).testAll();
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.verticals.foundations.dataharmonization.data.impl;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Array;
+import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for PersistentArray. */
+@RunWith(JUnit4.class)
+public class PersistentArrayTest {
+
+  private static Array nested() {
+    return new PersistentArray(
+        ImmutableList.of(
+            new DefaultPrimitive(1.0),
+            new PersistentArray().setElement(0, new DefaultPrimitive(2.0)),
+            new PersistentContainer().setField("a", new DefaultPrimitive(3.0))));
+  }
+
+  @Test
+  public void getElement_outOfRange_returnsNull() {
+    assertTrue(new PersistentArray().getElement(3).isNullOrEmpty());
+  }
+
+  @Test
+  public void setElement_outOfRange_padsWithNull() {
+    Array array = new PersistentArray().setElement(2, new DefaultPrimitive(1.0));
+
+    assertEquals(3, array.size());
+    assertTrue(array.getElement(0).isNullOrEmpty());
+  }
+
+  @Test
+  public void deepCopy_equalsOriginal() {
+    Array original = nested();
+
+    assertEquals(original, original.deepCopy());
+    assertEquals(original.hashCode(), original.deepCopy().hashCode());
+    assertEquals(new DefaultArray(nested().stream().collect(toImmutableList())), nested());
+  }
+
+  @Test
+  public void deepCopy_modifyCopy_originalUnchanged() {
+    Array original = nested();
+    Array copy = original.deepCopy().asArray();
+
+    copy.setElement(0, NullData.instance);
+    copy.getElement(1).asArray().setElement(1, new DefaultPrimitive(4.0));
+    copy.getElement(2).asContainer().setField("a", NullData.instance);
+
+    assertEquals(nested(), original);
+    assertEquals(2, copy.getElement(1).asArray().size());
+  }
+
+  @Test
+  public void deepCopy_modifyOriginalThroughStream_copyUnchanged() {
+    Array original = nested();
+    Array copy = original.deepCopy().asArray();
+
+    original.stream()
+        .filter(d -> d.isContainer())
+        .forEach(d -> d.asContainer().setField("a", NullData.instance));
+
+    assertEquals(nested(), copy);
+  }
+
+  @Test
+  public void deepCopy_modifyElementReadBeforeCopy_copyUnchanged() {
+    Array original = nested();
+    Array element = original.getElement(1).asArray();
+    Array copy = original.deepCopy().asArray();
+
+    element.setElement(1, new DefaultPrimitive(4.0));
+
+    assertEquals(nested(), copy);
+    assertSame(element, original.getElement(1));
+  }
+
+  @Test
+  public void deepCopy_fixedElementsNotCopied() {
+    Array original = new PersistentArray().setFixedElement(0, new DefaultPrimitive(1.0));
+
+    assertTrue(original.isFixed(0));
+    assertFalse(original.deepCopy().asArray().isFixed(0));
+  }
+
+  @Test
+  public void checkDataInvariants() {
+    new DataImplementationSemanticsTest(PersistentArray::new).testAll();
+    new DataImplementationSemanticsTest(() -> nested().deepCopy()).testAll();
+  }
+}
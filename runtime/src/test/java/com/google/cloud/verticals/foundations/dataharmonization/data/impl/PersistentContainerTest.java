@@ -0,0 +1,222 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.verticals.foundations.dataharmonization.data.impl;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Container;
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
+import com.google.common.collect.ImmutableMap;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for PersistentContainer. */
+@RunWith(JUnit4.class)
+public class PersistentContainerTest {
+
+  private static Container nested() {
+    return new PersistentContainer()
+        .setField("a", new DefaultPrimitive(1.0))
+        .setField(
+            "b",
+            new PersistentContainer()
+                .setField("c", new DefaultPrimitive(2.0))
+                .setField("d", new PersistentArray().setElement(0, new DefaultPrimitive(3.0))));
+  }
+
+  @Test
+  public void deepCopy_equalsOriginal() {
+    Container original = nested();
+
+    Data copy = original.deepCopy();
+
+    assertEquals(original, copy);
+    assertEquals(original.hashCode(), copy.hashCode());
+    assertEquals(nested(), copy);
+  }
+
+  @Test
+  public void deepCopy_modifyCopy_originalUnchanged() {
+    Container original = nested();
+    Container copy = original.deepCopy().asContainer();
+
+    copy.setField("a", new DefaultPrimitive(10.0));
+    copy.getField("b").asContainer().setField("c", new DefaultPrimitive(20.0));
+    copy.getField("b").asContainer().getField("d").asArray().setElement(1, NullData.instance);
+    copy.getField("b").asContainer().removeField("missing");
+
+    assertEquals(nested(), original);
+    assertNotEquals(original, copy);
+    assertEquals(20.0, copy.getField("b").asContainer().getField("c").asPrimitive().num(), 0.0);
+  }
+
+  @Test
+  public void deepCopy_modifyOriginal_copyUnchanged() {
+    Container original = nested();
+    Container copy = original.deepCopy().asContainer();
+
+    original.getField("b").asContainer().setField("c", new DefaultPrimitive(20.0));
+    original.removeField("a");
+
+    assertEquals(nested(), copy);
+  }
+
+  @Test
+  public void deepCopy_modifyValueReadBeforeCopy_copyUnchanged() {
+    Container original = nested();
+    Container b = original.getField("b").asContainer();
+    Container copy = original.deepCopy().asContainer();
+    Container copyOfCopy = copy.deepCopy().asContainer();
+
+    b.setField("c", new DefaultPrimitive(20.0));
+    b.getField("d").asArray().setElement(1, new DefaultPrimitive(4.0));
+
+    assertEquals(nested(), copy);
+    assertEquals(nested(), copyOfCopy);
+    assertSame(b, original.getField("b"));
+  }
+
+  @Test
+  public void deepCopy_modifyValueSetBeforeCopy_copyUnchanged() {
+    Container value = new PersistentContainer();
+    Container original = new PersistentContainer().setField("v", value);
+    Container copy = original.deepCopy().asContainer();
+
+    value.setField("x", new DefaultPrimitive(1.0));
+
+    assertTrue(copy.getField("v").isNullOrEmpty());
+    assertSame(value, original.getField("v"));
+  }
+
+  @Test
+  public void deepCopy_copyOfCopy_independent() {
+    Container original = nested();
+    Container copy = original.deepCopy().asContainer();
+    Container copyOfCopy = copy.deepCopy().asContainer();
+
+    copy.getField("b").asContainer().setField("c", NullData.instance);
+    copyOfCopy.getField("b").asContainer().setField("e", new DefaultPrimitive(4.0));
+
+    assertEquals(nested(), original);
+    assertTrue(copy.getField("b").asContainer().getField("c").isNullOrEmpty());
+    assertTrue(copy.getField("b").asContainer().getField("e").isNullOrEmpty());
+    assertEquals(
+        2.0, copyOfCopy.getField("b").asContainer().getField("c").asPrimitive().num(), 0.0);
+  }
+
+  @Test
+  public void serialize_sharedCopies_stayIndependent() throws Exception {
+    Container original = nested();
+    List<Data> copies = new ArrayList<>();
+    copies.add(original);
+    copies.add(original.deepCopy());
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+      oos.writeObject(copies);
+    }
+    List<?> deserialized;
+    try (ObjectInputStream ois =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      deserialized = (List<?>) ois.readObject();
+    }
+    Container first = (Container) deserialized.get(0);
+    Container second = (Container) deserialized.get(1);
+
+    first.getField("b").asContainer().setField("c", NullData.instance);
+
+    assertEquals(nested(), second);
+  }
+
+  @Test
+  public void randomMutationsOfCopies_equivalentToDefaultContainer() {
+    Random random = new Random(42);
+    for (int run = 0; run < 50; run++) {
+      List<Container> persistent = new ArrayList<>();
+      List<Container> reference = new ArrayList<>();
+      persistent.add(new PersistentContainer());
+      reference.add(new DefaultContainer());
+      for (int step = 0; step < 40; step++) {
+        int target = random.nextInt(persistent.size());
+        Container p = persistent.get(target);
+        Container r = reference.get(target);
+        String field = "f" + random.nextInt(3);
+        switch (random.nextInt(5)) {
+          case 0:
+            persistent.add(p.deepCopy().asContainer());
+            reference.add(r.deepCopy().asContainer());
+            break;
+          case 1:
+            p.removeField(field);
+            r.removeField(field);
+            break;
+          case 2:
+            Data value = new DefaultPrimitive((double) random.nextInt(3));
+            p.setField(field, value);
+            r.setField(field, value);
+            break;
+          case 3:
+            if (!p.getField(field).isWritable()) {
+              p.setField(field, new PersistentContainer());
+              r.setField(field, new DefaultContainer());
+            }
+            break;
+          default:
+            Data nestedValue = new DefaultPrimitive((double) random.nextInt(3));
+            if (p.getField(field).isWritable()) {
+              p.getField(field).asContainer().setField("n", nestedValue);
+              r.getField(field).asContainer().setField("n", nestedValue);
+            }
+            break;
+        }
+        for (int i = 0; i < persistent.size(); i++) {
+          assertEquals(reference.get(i), persistent.get(i));
+          assertEquals(reference.get(i).hashCode(), persistent.get(i).hashCode());
+          assertEquals(reference.get(i).toString(), persistent.get(i).toString());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void fields_sorted() {
+    Container container =
+        new PersistentContainer(
+            ImmutableMap.of("b", new DefaultPrimitive(1.0), "a", NullData.instance));
+
+    assertThat(container.fields()).containsExactly("a", "b").inOrder();
+    assertThat(container.nonNullFields()).containsExactly("b");
+  }
+
+  @Test
+  public void checkDataInvariants() {
+    new DataImplementationSemanticsTest(PersistentContainer::new).testAll();
+    new DataImplementationSemanticsTest(() -> nested().deepCopy()).testAll();
+  }
+}
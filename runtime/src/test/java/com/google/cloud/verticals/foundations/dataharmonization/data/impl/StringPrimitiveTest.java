@@ -0,0 +1,65 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.verticals.foundations.dataharmonization.data.impl;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
+import com.google.cloud.verticals.foundations.dataharmonization.data.Primitive;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for StringPrimitive. */
+@RunWith(JUnit4.class)
+public class StringPrimitiveTest {
+
+  @Test
+  public void of_empty_sharedAndNullOrEmpty() {
+    assertThat(StringPrimitive.of("")).isSameInstanceAs(StringPrimitive.EMPTY);
+    assertTrue(StringPrimitive.EMPTY.isNullOrEmpty());
+    assertEquals(NullData.instance, StringPrimitive.EMPTY);
+    assertEquals(StringPrimitive.EMPTY, NullData.instance);
+  }
+
+  @Test
+  public void matchesDefaultPrimitive() {
+    for (String value : new String[] {"", "a", "hello world", "1"}) {
+      Primitive string = StringPrimitive.of(value);
+      Primitive reference = new DefaultPrimitive(value);
+
+      assertEquals(reference, string);
+      assertEquals(string, reference);
+      assertEquals(reference.hashCode(), string.hashCode());
+      assertEquals(reference.toString(), string.toString());
+    }
+  }
+
+  @Test
+  public void equals_otherTypes_false() {
+    assertNotEquals(StringPrimitive.of("1"), NumberPrimitive.of(1.0));
+    assertNotEquals(StringPrimitive.of("true"), BooleanPrimitive.TRUE);
+    assertNotEquals(StringPrimitive.of("a"), StringPrimitive.of("b"));
+  }
+
+  @Test
+  public void checkDataInvariants() {
+    new DataImplementationSemanticsTest(() -> StringPrimitive.of("a")).testAll();
+  }
+}
@@ -24,12 +24,16 @@ import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -71,6 +75,17 @@ public class PathTest {
     assertEquals(Path.empty(), Path.parse(""));
   }
 
+  @Test
+  public void parse_sameString_returnsCachedPath() {
+    String path = "a.b[0].c\\.d";
+
+    Path first = Path.parse(path);
+
+    assertSame(first, Path.parse(new StringBuilder(path).toString()));
+    assertEquals(first, Path.parse(new StringBuilder(path)));
+    assertNotSame(first, Path.parse(new StringBuilder(path)));
+  }
+
   @Test
   public void parse_singleDelimiterPath_returnsEmptyPath() {
     assertEquals(Path.empty(), Path.parse("."));
@@ -156,6 +171,42 @@ public class PathTest {
     verify(source).getField("\\x.x[x]");
   }
 
+  @Test
+  public void get_fromSegment_skipsEarlierSegments() {
+    Path path = Path.parse("one.two[3].four");
+    Blob source = infiniteBlob();
+    InOrder inOrder = Mockito.inOrder(source);
+
+    path.get(source, 2);
+
+    inOrder.verify(source).getElement(3);
+    inOrder.verify(source).getField("four");
+    verify(source, never()).getField("one");
+    verify(source, never()).getField("two");
+  }
+
+  @Test
+  public void get_fromSegmentAfterWildcard_matchesSuffix() {
+    Path path = Path.parse("outer.inner[*].field");
+    Data fake = mock(Data.class);
+    Array data = arrayOf(containerOf(fake), 10);
+
+    assertArrayEquals(
+        path.from(1).get(containerOf(data)).asArray().stream().toArray(Data[]::new),
+        path.get(containerOf(data), 1).asArray().stream().toArray(Data[]::new));
+    assertEquals(fake, path.get(containerOf(fake), 3));
+  }
+
+  @Test
+  public void from_returnsRememberedSuffix() {
+    Path path = Path.parse("one.two[3].four");
+
+    assertSame(path, path.from(0));
+    assertEquals(Path.parse("[3].four"), path.from(2));
+    assertSame(path.from(2), path.from(2));
+    assertEquals(Path.empty(), path.from(4));
+  }
+
   @Test
   public void get_singleWildcard_doesNotFlatten() {
     Path path = Path.parse("[*].field");
@@ -374,6 +425,61 @@ public class PathTest {
     assertEquals(DefaultPrimitive.class, four.getClass());
   }
 
+  @Test
+  public void update_multipleSegmentPath_readsAndWritesEachSegmentOnce() {
+    Path path = Path.parse("one.two[3]");
+    Data value = mock(Primitive.class);
+    Blob blob = infiniteBlob();
+    InOrder inOrder = Mockito.inOrder(blob);
+
+    path.update(testDTI(), blob, current -> value);
+
+    inOrder.verify(blob).getField("one");
+    inOrder.verify(blob).getField("two");
+    inOrder.verify(blob).getElement(3);
+    inOrder.verify(blob).setElement(3, value);
+    inOrder.verify(blob).setField("two", blob);
+    inOrder.verify(blob).setField("one", blob);
+    verify(blob, times(1)).getField("one");
+  }
+
+  @Test
+  public void update_missingIntermediates_createsThemAndPassesNull() {
+    Container root = testDTI().emptyContainer();
+    Data value = testDTI().primitiveOf(1.0);
+
+    Data got =
+        Path.parse("a[0].b[]")
+            .update(
+                testDTI(),
+                root,
+                current -> {
+                  assertEquals(NullData.instance, current);
+                  return value;
+                });
+
+    assertEquals(root, got);
+    assertEquals(value, Path.parse("a[0].b[0]").get(root));
+  }
+
+  @Test
+  public void update_throws_leavesRootUnchanged() {
+    Container root = testDTI().emptyContainer();
+
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            Path.parse("a.b")
+                .update(
+                    testDTI(),
+                    root,
+                    current -> {
+                      throw new IllegalStateException();
+                    }));
+
+    assertTrue(root.fields().isEmpty());
+  }
+
   @Test
   public void equals_samePath() {
     Path a = Path.parse("field[0][*][]");
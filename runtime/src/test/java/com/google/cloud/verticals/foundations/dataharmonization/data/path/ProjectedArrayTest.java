@@ -0,0 +1,97 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.verticals.foundations.dataharmonization.data.path;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.cloud.verticals.foundations.dataharmonization.builtins.ArrayFns;
+import com.google.cloud.verticals.foundations.dataharmonization.data.Array;
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.impl.DefaultArray;
+import com.google.cloud.verticals.foundations.dataharmonization.data.impl.PersistentArray;
+import com.google.cloud.verticals.foundations.dataharmonization.data.impl.StringPrimitive;
+import com.google.cloud.verticals.foundations.dataharmonization.data.serialization.impl.JsonSerializerDeserializer;
+import com.google.cloud.verticals.foundations.dataharmonization.function.java.TestContext;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for ProjectedArray. */
+@RunWith(JUnit4.class)
+public class ProjectedArrayTest {
+  private static final Data JSON =
+      JsonSerializerDeserializer.jsonToData("[{\"a\": \"x\"}, {\"b\": 1}, {\"a\": \"y\"}]");
+
+  private static ProjectedArray project(Data data) {
+    Data got = Path.parse("[*].a").get(data);
+    assertThat(got).isInstanceOf(ProjectedArray.class);
+    return (ProjectedArray) got;
+  }
+
+  @Test
+  public void read_doesNotMaterialize() {
+    ProjectedArray got = project(JSON);
+
+    Array want =
+        new DefaultArray(ImmutableList.of(StringPrimitive.of("x"), StringPrimitive.of("y")));
+    assertEquals(2, got.size());
+    assertEquals(StringPrimitive.of("y"), got.getElement(1));
+    assertTrue(got.getElement(2).isNullOrEmpty());
+    assertTrue(Iterators.elementsEqual(want.elements(), got.elements()));
+    assertEquals(want, got);
+    assertEquals(got, want);
+    assertEquals(want.hashCode(), got.hashCode());
+    assertEquals(want.toString(), got.toString());
+    assertFalse(got.isMaterialized());
+  }
+
+  @Test
+  public void listLen_doesNotMaterialize() {
+    ProjectedArray got = project(JSON);
+
+    assertEquals(2.0, ArrayFns.listLen(new TestContext(), got).num(), 0);
+    assertFalse(got.isMaterialized());
+  }
+
+  @Test
+  public void setElement_materializes() {
+    ProjectedArray got = project(JSON);
+
+    got.setElement(2, StringPrimitive.of("z"));
+
+    assertTrue(got.isMaterialized());
+    assertThat(got.materialize()).isInstanceOf(DefaultArray.class);
+    assertEquals(StringPrimitive.of("z"), got.materialize().getElement(2));
+    assertEquals(3, got.size());
+    assertEquals(StringPrimitive.of("z"), got.getElement(2));
+  }
+
+  @Test
+  public void deepCopy_persistentSource_returnsPersistentArray() {
+    Data data =
+        new PersistentArray(ImmutableList.of(StringPrimitive.of("a"), StringPrimitive.of("b")));
+
+    Data got = Path.parse("[*]").get(data).deepCopy();
+
+    assertThat(got).isInstanceOf(PersistentArray.class);
+    assertEquals(data, got);
+  }
+}
@@ -32,7 +32,11 @@ import com.google.cloud.verticals.foundations.dataharmonization.data.Array;
 import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
 import com.google.cloud.verticals.foundations.dataharmonization.data.Dataset;
 import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
+import com.google.cloud.verticals.foundations.dataharmonization.data.impl.PackedArray;
+import com.google.cloud.verticals.foundations.dataharmonization.data.impl.StringPrimitive;
+import com.google.cloud.verticals.foundations.dataharmonization.data.serialization.impl.JsonSerializerDeserializer;
 import com.google.cloud.verticals.foundations.dataharmonization.mock.MockDataset;
+import com.google.common.collect.ImmutableList;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -98,6 +102,42 @@ public class WildcardTest {
     assertArrayEquals(arrayOf(fake, 10).stream().toArray(Data[]::new), gotArr);
   }
 
+  @Test
+  public void get_nestedWildcardsInPath_matchesGetThrough() {
+    Data data =
+        JsonSerializerDeserializer.jsonToData(
+            "[{\"b\": [{\"c\": 1}, {\"c\": null}, {\"c\": [2, 3]}]}, {\"b\": []}, null,"
+                + " {\"b\": [{\"d\": 4}]}, {\"b\": [{\"c\": \"x\"}]}]");
+    Path path = Path.parse("[*].b[*].c");
+
+    Data got = path.get(data);
+
+    Data want = new Wildcard(true).get(data, Path.parse("b[*].c"));
+    assertEquals(want, got);
+    assertEquals(want.getClass(), ((ProjectedArray) got).materialize().getClass());
+    assertEquals(3, got.asArray().size());
+  }
+
+  @Test
+  public void get_packedArrayInPath_returnsPackedArray() {
+    Data data = PackedArray.of(ImmutableList.of(StringPrimitive.of("a"), StringPrimitive.of("b")));
+
+    Data got = Path.parse("[*]").get(data);
+
+    assertThat(((ProjectedArray) got).materialize()).isInstanceOf(PackedArray.class);
+    assertEquals(data, got);
+  }
+
+  @Test
+  public void get_datasetInPath_returnsDataset() {
+    Data fake = mock(Data.class);
+    Dataset data = new MockDataset(arrayOf(containerOf(fake), 10));
+
+    Data got = Path.parse("[*].field").get(data);
+
+    assertTrue(got.isDataset());
+  }
+
   @Test
   public void set_throws() {
     assertThrows(
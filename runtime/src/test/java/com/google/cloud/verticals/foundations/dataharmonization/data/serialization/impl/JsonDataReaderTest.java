@@ -0,0 +1,105 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.verticals.foundations.dataharmonization.data.serialization.impl;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Array;
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
+import com.google.cloud.verticals.foundations.dataharmonization.data.impl.PackedArray;
+import com.google.cloud.verticals.foundations.dataharmonization.data.impl.PersistentContainer;
+import com.google.cloud.verticals.foundations.dataharmonization.data.impl.PersistentDataTypeImplementation;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for JsonDataReader. */
+@RunWith(JUnit4.class)
+public class JsonDataReaderTest {
+  private static final String JSON =
+      "{\"a\": [1, 2.5, -3e2, {\"b\": null, \"c\": \"str\"}, [], {}], \"d\": true,"
+          + " \"e\": {\"f\": {\"g\": false}}, \"h\": null, \"a\": [\"last\"]}";
+
+  @Test
+  public void deserialize_nestedDocument_matchesGsonTree() {
+    Data expected = JsonSerializerDeserializer.jsonObjToData(JsonParser.parseString(JSON));
+
+    assertEquals(expected, new JsonDataReader().deserialize(JSON));
+    assertEquals(expected, new JsonDataReader().deserialize(JSON.getBytes(UTF_8)));
+  }
+
+  @Test
+  public void deserialize_multiByteCharacters_decodesUtf8() {
+    String json = "{\"名前\": \"Zoë 😀\"}";
+
+    Data actual = new JsonDataReader().deserialize(json.getBytes(UTF_8));
+
+    assertEquals("Zoë 😀", actual.asContainer().getField("名前").asPrimitive().string());
+  }
+
+  @Test
+  public void deserialize_repeatedFieldNames_areShared() {
+    Array actual = new JsonDataReader().deserialize("[{\"field\": 1}, {\"field\": 2}]").asArray();
+
+    String first = actual.getElement(0).asContainer().fields().iterator().next();
+    String second = actual.getElement(1).asContainer().fields().iterator().next();
+    assertThat(second).isSameInstanceAs(first);
+  }
+
+  @Test
+  public void deserialize_numericArray_isPacked() {
+    Data actual = new JsonDataReader().deserialize("{\"values\": [1, 2.5, -3e2]}");
+
+    Data values = actual.asContainer().getField("values");
+    assertThat(values).isInstanceOf(PackedArray.class);
+    assertEquals(
+        JsonSerializerDeserializer.jsonObjToData(JsonParser.parseString("[1, 2.5, -3e2]")), values);
+  }
+
+  @Test
+  public void deserialize_emptyOrNullDocument_returnsNullData() {
+    assertThat(new JsonDataReader().deserialize("")).isSameInstanceAs(NullData.instance);
+    assertThat(new JsonDataReader().deserialize("  \n")).isSameInstanceAs(NullData.instance);
+    assertThat(new JsonDataReader().deserialize("null")).isSameInstanceAs(NullData.instance);
+  }
+
+  @Test
+  public void deserialize_withDataTypeImplementation_createsItsData() {
+    Data actual =
+        new JsonDataReader(PersistentDataTypeImplementation.instance).deserialize("{\"a\": 1}");
+
+    assertThat(actual).isInstanceOf(PersistentContainer.class);
+  }
+
+  @Test
+  public void deserialize_trailingData_throws() {
+    assertThrows(JsonSyntaxException.class, () -> new JsonDataReader().deserialize("{} {}"));
+    assertThrows(
+        JsonSyntaxException.class, () -> new JsonDataReader().deserialize("package reflection"));
+  }
+
+  @Test
+  public void deserialize_malformedDocument_throws() {
+    assertThrows(JsonSyntaxException.class, () -> new JsonDataReader().deserialize("{\"a\": 1"));
+    assertThrows(JsonSyntaxException.class, () -> new JsonDataReader().deserialize("[1,,}"));
+  }
+}
@@ -19,6 +19,7 @@ package com.google.cloud.verticals.foundations.dataharmonization.debug;
 import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.assertThrows;
 
+import com.google.cloud.verticals.foundations.dataharmonization.TranspilerData;
 import com.google.cloud.verticals.foundations.dataharmonization.debug.proto.Debug.FileInfo;
 import com.google.cloud.verticals.foundations.dataharmonization.debug.proto.Debug.FunctionInfo;
 import com.google.cloud.verticals.foundations.dataharmonization.debug.proto.Debug.FunctionInfo.FunctionType;
@@ -72,6 +73,25 @@ public class DebugInfoTest {
     assertThat(result).isEqualTo(functionInfo);
   }
 
+  @Test
+  public void getCallSiteSource_withSource_returnsIt() {
+    Source source =
+        Source.newBuilder().setStart(SourcePosition.newBuilder().setLine(7).build()).build();
+    Meta meta =
+        Meta.newBuilder().putEntries(TranspilerData.SOURCE_META_KEY, Any.pack(source)).build();
+    DebugInfo info = DebugInfo.simpleFunction("file", FunctionType.DECLARED);
+
+    assertThat(info.getCallSiteSource(meta)).isEqualTo(source);
+  }
+
+  @Test
+  public void getCallSiteSource_withoutSource_returnsCurrentSource() {
+    DebugInfo info = DebugInfo.simpleFunction("file", FunctionType.DECLARED);
+
+    assertThat(info.getCallSiteSource(Meta.getDefaultInstance()))
+        .isEqualTo(info.getCurrentSource());
+  }
+
   @Test
   public void getMetaEntry_notRegisteredEntryType() {
     FunctionInfo functionInfo = FunctionInfo.newBuilder().setType(FunctionType.BLOCK).build();
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.verticals.foundations.dataharmonization.function;
+
+import static com.google.cloud.verticals.foundations.dataharmonization.data.impl.TestDataTypeImplementation.testDTI;
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Array;
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
+import com.google.cloud.verticals.foundations.dataharmonization.data.Primitive;
+import com.google.cloud.verticals.foundations.dataharmonization.debug.DebugInfo;
+import com.google.cloud.verticals.foundations.dataharmonization.function.CallSiteCache.OverloadGroup;
+import com.google.cloud.verticals.foundations.dataharmonization.function.context.Registries;
+import com.google.cloud.verticals.foundations.dataharmonization.function.context.RuntimeContext;
+import com.google.cloud.verticals.foundations.dataharmonization.function.signature.Signature;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.FunctionCall;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.FunctionCall.FunctionReference;
+import com.google.cloud.verticals.foundations.dataharmonization.registry.PackageRegistry;
+import com.google.cloud.verticals.foundations.dataharmonization.registry.TestFunctionPackageRegistry;
+import com.google.cloud.verticals.foundations.dataharmonization.registry.impl.DefaultPackageRegistry;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Answers;
+
+/** Tests for CallSiteCache. */
+@RunWith(JUnit4.class)
+public class CallSiteCacheTest {
+  private static final String PKG = "pkg";
+  private static final Set<String> PACKAGES = ImmutableSet.of(PKG);
+
+  private static CallableFunction function(String name, Class<? extends Data> arg) {
+    return function(name, arg, false);
+  }
+
+  private static CallableFunction function(
+      String name, Class<? extends Data> arg, boolean variadic) {
+    Signature signature = new Signature(PKG, name, ImmutableList.of(arg), variadic);
+    return new CallableFunction() {
+      @Override
+      protected Data callInternal(RuntimeContext context, Data... args) {
+        return NullData.instance;
+      }
+
+      @Override
+      public Signature getSignature() {
+        return signature;
+      }
+
+      @Override
+      public DebugInfo getDebugInfo() {
+        return null;
+      }
+    };
+  }
+
+  private static Registries registries(PackageRegistry<CallableFunction> registry) {
+    Registries registries = mock(Registries.class);
+    when(registries.getFunctionRegistry(PKG)).thenReturn(registry);
+    return registries;
+  }
+
+  @Test
+  public void forCall_sameProto_sameCache() {
+    FunctionCall call =
+        FunctionCall.newBuilder().setReference(FunctionReference.newBuilder().setName("f")).build();
+
+    assertThat(CallSiteCache.forCall(call)).isSameInstanceAs(CallSiteCache.forCall(call));
+  }
+
+  @Test
+  public void forCall_defaultInstance_notCached() {
+    assertThat(CallSiteCache.forCall(FunctionCall.getDefaultInstance())).isNull();
+  }
+
+  @Test
+  public void getGroup_afterPut_returnsGroup() {
+    DefaultPackageRegistry<CallableFunction> registry = new DefaultPackageRegistry<>();
+    CallableFunction fn = function("f", Data.class);
+    registry.register(PKG, fn);
+    Registries registries = registries(registry);
+    CallSiteCache cache = new CallSiteCache();
+
+    assertThat(cache.getGroup(registries, PACKAGES)).isNull();
+    OverloadGroup group = cache.putGroup(registries, PACKAGES, ImmutableList.of(fn));
+
+    assertThat(cache.getGroup(registries, PACKAGES)).isSameInstanceAs(group);
+    assertThat(cache.getGroup(registries, ImmutableSet.of(PKG))).isSameInstanceAs(group);
+    assertThat(group.getOverloads()).containsExactly(fn);
+  }
+
+  @Test
+  public void getGroup_registryModified_invalidated() {
+    DefaultPackageRegistry<CallableFunction> registry = new DefaultPackageRegistry<>();
+    CallableFunction fn = function("f", Data.class);
+    registry.register(PKG, fn);
+    Registries registries = registries(registry);
+    CallSiteCache cache = new CallSiteCache();
+    cache.putGroup(registries, PACKAGES, ImmutableList.of(fn));
+
+    registry.register(PKG, function("f", Primitive.class));
+
+    assertThat(cache.getGroup(registries, PACKAGES)).isNull();
+  }
+
+  @Test
+  public void getGroup_differentRegistriesOrPackages_invalidated() {
+    DefaultPackageRegistry<CallableFunction> registry = new DefaultPackageRegistry<>();
+    CallableFunction fn = function("f", Data.class);
+    registry.register(PKG, fn);
+    Registries registries = registries(registry);
+    CallSiteCache cache = new CallSiteCache();
+    cache.putGroup(registries, PACKAGES, ImmutableList.of(fn));
+
+    assertThat(cache.getGroup(registries(registry), PACKAGES)).isNull();
+    assertThat(cache.getGroup(registries, ImmutableSet.of(PKG, "other"))).isNull();
+  }
+
+  @Test
+  public void putGroup_unversionedRegistry_notCached() {
+    CallableFunction fn = function("f", Data.class);
+    Registries registries =
+        registries(mock(TestFunctionPackageRegistry.class, Answers.CALLS_REAL_METHODS));
+    CallSiteCache cache = new CallSiteCache();
+
+    assertThat(cache.putGroup(registries, PACKAGES, ImmutableList.of(fn))).isNull();
+    assertThat(cache.getGroup(registries, PACKAGES)).isNull();
+  }
+
+  @Test
+  public void getSelection_matchesArgumentClasses() {
+    DefaultPackageRegistry<CallableFunction> registry = new DefaultPackageRegistry<>();
+    CallableFunction prim = function("f", Primitive.class);
+    CallableFunction arr = function("f", Array.class);
+    registry.register(PKG, prim);
+    registry.register(PKG, arr);
+    OverloadGroup group =
+        new CallSiteCache().putGroup(registries(registry), PACKAGES, ImmutableList.of(prim, arr));
+
+    Data[] primArgs = {testDTI().primitiveOf(1.0)};
+    Data[] arrArgs = {testDTI().arrayOf(ImmutableList.of(testDTI().primitiveOf(1.0)))};
+    group.putSelection(primArgs, prim);
+
+    assertThat(group.getSelection(new Data[] {testDTI().primitiveOf(2.0)}))
+        .isSameInstanceAs(prim);
+    assertThat(group.getSelection(arrArgs)).isNull();
+    assertThat(group.getSelection(new Data[0])).isNull();
+
+    group.putSelection(arrArgs, arr);
+    assertThat(group.getSelection(arrArgs)).isSameInstanceAs(arr);
+  }
+
+  @Test
+  public void getSelection_nullDataOverload_matchesEmptiness() {
+    DefaultPackageRegistry<CallableFunction> registry = new DefaultPackageRegistry<>();
+    CallableFunction nul = function("f", NullData.class);
+    CallableFunction arr = function("f", Array.class);
+    registry.register(PKG, nul);
+    registry.register(PKG, arr);
+    OverloadGroup group =
+        new CallSiteCache().putGroup(registries(registry), PACKAGES, ImmutableList.of(nul, arr));
+
+    group.putSelection(new Data[] {testDTI().emptyArray()}, nul);
+
+    assertThat(group.getSelection(new Data[] {testDTI().emptyArray()})).isSameInstanceAs(nul);
+    assertThat(
+            group.getSelection(
+                new Data[] {testDTI().arrayOf(ImmutableList.of(testDTI().primitiveOf(1.0)))}))
+        .isNull();
+  }
+
+  @Test
+  public void getSelection_variadicOverload_neverCached() {
+    DefaultPackageRegistry<CallableFunction> registry = new DefaultPackageRegistry<>();
+    CallableFunction fn = function("f", Data.class, true);
+    registry.register(PKG, fn);
+    OverloadGroup group =
+        new CallSiteCache().putGroup(registries(registry), PACKAGES, ImmutableList.of(fn));
+
+    Data[] args = {testDTI().primitiveOf(1.0)};
+    group.putSelection(args, fn);
+
+    assertThat(group.getSelection(args)).isNull();
+  }
+
+  @Test
+  public void putSelection_megamorphic_stopsCaching() {
+    DefaultPackageRegistry<CallableFunction> registry = new DefaultPackageRegistry<>();
+    CallableFunction fn = function("f", Data.class);
+    registry.register(PKG, fn);
+    OverloadGroup group =
+        new CallSiteCache().putGroup(registries(registry), PACKAGES, ImmutableList.of(fn));
+
+    List<Data> shapes =
+        ImmutableList.of(
+            testDTI().primitiveOf(1.0),
+            testDTI().emptyArray(),
+            testDTI().emptyContainer(),
+            NullData.instance,
+            mock(Data.class));
+    for (Data shape : shapes) {
+      group.putSelection(new Data[] {shape}, fn);
+    }
+
+    for (int i = 0; i < CallSiteCache.MAX_SELECTIONS; i++) {
+      assertThat(group.getSelection(new Data[] {shapes.get(i)})).isSameInstanceAs(fn);
+    }
+    assertThat(group.getSelection(new Data[] {shapes.get(CallSiteCache.MAX_SELECTIONS)})).isNull();
+  }
+}
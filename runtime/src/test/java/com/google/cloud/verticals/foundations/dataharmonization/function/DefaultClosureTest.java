@@ -237,6 +237,78 @@ public class DefaultClosureTest {
         UnsupportedOperationException.class, () -> fn.bindNextFreeParameter(mock(Data.class)));
   }
 
+  @Test
+  public void invoker_bindsFreeParamsInOrder() {
+    FunctionCall proto =
+        FunctionCall.newBuilder()
+            .setReference(
+                FunctionReference.newBuilder()
+                    .setName("test")
+                    .setPackage(DefaultClosure.FunctionReference.WILDCARD_PACKAGE_NAME))
+            .addArgs(ValueSource.newBuilder().setConstString("one"))
+            .addArgs(ValueSource.newBuilder().setFreeParameter("name1"))
+            .addArgs(ValueSource.newBuilder().setConstString("two"))
+            .addArgs(ValueSource.newBuilder().setFreeParameter("name2"))
+            .build();
+
+    CallableFunction function = mock(CallableFunction.class);
+    when(function.getName()).thenReturn("test");
+    PackageRegistry<CallableFunction> registry = new DefaultPackageRegistry<>();
+    registry.register("pack", function);
+    Registries registries = mock(Registries.class);
+    when(registries.getFunctionRegistry("pack")).thenReturn(registry);
+    when(registries.getAllRegisteredPackages()).thenReturn(ImmutableSet.of("pack"));
+    OverloadSelector selector = mock(OverloadSelector.class);
+    when(selector.select(anyList(), any())).thenReturn(function);
+
+    Data one = mock(Data.class);
+    Data two = mock(Data.class);
+    RuntimeContext context = mock(RuntimeContext.class, Answers.RETURNS_MOCKS);
+    when(context.getRegistries()).thenReturn(registries);
+    when(context.getOverloadSelector()).thenReturn(selector);
+    when(context.evaluate(proto.getArgs(0))).thenReturn(one);
+    when(context.evaluate(proto.getArgs(2))).thenReturn(two);
+
+    Closure fn = DefaultClosure.create(context, proto);
+    Closure.Invoker invoker = fn.invoker(context);
+    Data a = mock(Data.class);
+    Data b = mock(Data.class);
+    Data c = mock(Data.class);
+    invoker.invoke(a, b);
+    invoker.invoke(new Data[] {c, a});
+
+    verify(function).call(context, one, a, two, b);
+    verify(function).call(context, one, c, two, a);
+    // Ensure original function call is unchanged.
+    assertThat(fn.getNumFreeParams()).isEqualTo(2);
+    assertThat(fn.getArgs()[1]).isInstanceOf(FreeParameter.class);
+    assertThat(fn.getArgs()[3]).isInstanceOf(FreeParameter.class);
+  }
+
+  @Test
+  public void invoker_wrongNumberOfFreeParams_throws() {
+    Pipeline.FunctionCall proto =
+        Pipeline.FunctionCall.newBuilder()
+            .setReference(FunctionReference.newBuilder().setName("test"))
+            .addArgs(ValueSource.newBuilder().setFreeParameter("name1"))
+            .addArgs(ValueSource.newBuilder().setFreeParameter("name2"))
+            .build();
+
+    RuntimeContext context = mock(RuntimeContext.class);
+    when(context.getDataTypeImplementation()).thenReturn(testDTI());
+
+    Closure.Invoker invoker = DefaultClosure.create(context, proto).invoker(context);
+    Data value = mock(Data.class);
+    UnsupportedOperationException tooFew =
+        assertThrows(UnsupportedOperationException.class, () -> invoker.invoke(value));
+    UnsupportedOperationException tooMany =
+        assertThrows(
+            UnsupportedOperationException.class, () -> invoker.invoke(value, value, value));
+
+    assertThat(tooFew).hasMessageThat().contains("unbound free parameters");
+    assertThat(tooMany).hasMessageThat().contains("no free parameters to bind");
+  }
+
   @Test
   public void execute_throwsWithFreeParams() {
     Pipeline.FunctionCall proto =
@@ -94,6 +94,25 @@ public class NativeUnaryClosureTest {
     verify(delegate).apply(binding);
   }
 
+  @Test
+  public void invoker_unbound_callsDelegate() {
+    Data binding = mock(Data.class);
+    Function<Data, Data> delegate = mock(DataFunction.class);
+    Closure unbound = new NativeUnaryClosure(delegate);
+    unbound.invoker(mock(RuntimeContext.class)).invoke(binding);
+
+    verify(delegate).apply(binding);
+    assertThat(unbound.getArgs()[0]).isInstanceOf(FreeParameter.class);
+  }
+
+  @Test
+  public void invoker_bound_throws() {
+    Data binding = mock(Data.class);
+    Closure bound = new NativeUnaryClosure(Function.identity(), binding);
+    Closure.Invoker invoker = bound.invoker(mock(RuntimeContext.class));
+    assertThrows(IllegalStateException.class, () -> invoker.invoke(binding));
+  }
+
   @Test
   public void getNumFreeParams_unbound_1() {
     Closure unbound = new NativeUnaryClosure(Function.identity());
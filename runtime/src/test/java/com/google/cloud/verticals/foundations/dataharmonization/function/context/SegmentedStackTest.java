@@ -0,0 +1,301 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.verticals.foundations.dataharmonization.function.context;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
+import com.google.cloud.verticals.foundations.dataharmonization.exceptions.WhistleStackOverflowError;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for SegmentedStack. */
+@RunWith(JUnit4.class)
+public class SegmentedStackTest {
+  private static final int FRAMES = 10;
+
+  private static StackFrame frameWithCount(int count) {
+    StackFrame frame = mock(StackFrame.class);
+    when(frame.getCount()).thenReturn(count);
+    return frame;
+  }
+
+  private static RuntimeContext contextAtLevel(int level) {
+    RuntimeContext context = mock(RuntimeContext.class);
+    StackFrame top = frameWithCount(level * FRAMES);
+    when(context.top()).thenReturn(top);
+    return context;
+  }
+
+  private static Data runOnThread(
+      SegmentedStack stack, RuntimeContext context, AtomicReference<Thread> thread) {
+    return stack.run(
+        context,
+        new Data[0],
+        (ctx, a) -> {
+          thread.set(Thread.currentThread());
+          return NullData.instance;
+        });
+  }
+
+  @Test
+  public void constructor_nonPositiveDepth_throws() {
+    assertThrows(IllegalArgumentException.class, () -> new SegmentedStack(0));
+    assertThrows(IllegalArgumentException.class, () -> new SegmentedStack(-1));
+  }
+
+  @Test
+  public void constructor_nonPositiveFramesPerSegment_throws() {
+    assertThrows(IllegalArgumentException.class, () -> new SegmentedStack(1000, 0));
+    assertThrows(IllegalArgumentException.class, () -> new SegmentedStack(1000, -1));
+  }
+
+  @Test
+  public void startsSegment_everyFramesPerSegment() {
+    SegmentedStack stack = new SegmentedStack(1000, FRAMES);
+
+    assertThat(stack.startsSegment(frameWithCount(0))).isFalse();
+    assertThat(stack.startsSegment(frameWithCount(1))).isFalse();
+    assertThat(stack.startsSegment(frameWithCount(FRAMES - 1))).isFalse();
+    assertThat(stack.startsSegment(frameWithCount(FRAMES))).isTrue();
+    assertThat(stack.startsSegment(frameWithCount(FRAMES * 3))).isTrue();
+  }
+
+  @Test
+  public void startsSegment_defaultFramesPerSegment() {
+    SegmentedStack stack = new SegmentedStack(1000);
+
+    assertThat(stack.getFramesPerSegment()).isEqualTo(SegmentedStack.DEFAULT_FRAMES_PER_SEGMENT);
+    assertThat(stack.startsSegment(frameWithCount(SegmentedStack.DEFAULT_FRAMES_PER_SEGMENT)))
+        .isTrue();
+  }
+
+  @Test
+  public void run_otherThreadWithCurrentContext() {
+    SegmentedStack stack = new SegmentedStack(1000, FRAMES);
+    RuntimeContext context = contextAtLevel(1);
+    Data[] args = new Data[] {NullData.instance};
+    Thread caller = Thread.currentThread();
+
+    Data result =
+        stack.run(
+            context,
+            args,
+            (ctx, a) -> {
+              assertThat(ctx).isSameInstanceAs(context);
+              assertThat(a).isSameInstanceAs(args);
+              assertThat(RuntimeContext.current()).isSameInstanceAs(context);
+              assertThat(Thread.currentThread()).isNotSameInstanceAs(caller);
+              return a[0];
+            });
+
+    assertThat(result).isSameInstanceAs(NullData.instance);
+    assertThat(stack.hasSegment(1)).isTrue();
+  }
+
+  @Test
+  public void run_sameLevel_reusesSegment() {
+    SegmentedStack stack = new SegmentedStack(1000, FRAMES);
+    AtomicReference<Thread> first = new AtomicReference<>();
+    AtomicReference<Thread> second = new AtomicReference<>();
+
+    for (int i = 0; i < 100; i++) {
+      runOnThread(stack, contextAtLevel(1), first);
+      runOnThread(stack, contextAtLevel(1), second);
+      assertThat(second.get()).isSameInstanceAs(first.get());
+    }
+  }
+
+  @Test
+  public void run_nestedLevels_shareChain() {
+    SegmentedStack stack = new SegmentedStack(1000, FRAMES);
+    AtomicReference<Thread> outer = new AtomicReference<>();
+    AtomicReference<Thread> inner = new AtomicReference<>();
+    AtomicReference<Thread> innerAgain = new AtomicReference<>();
+
+    stack.run(
+        contextAtLevel(1),
+        new Data[0],
+        (ctx, a) -> {
+          outer.set(Thread.currentThread());
+          runOnThread(stack, contextAtLevel(2), inner);
+          return runOnThread(stack, contextAtLevel(2), innerAgain);
+        });
+
+    assertThat(inner.get()).isNotSameInstanceAs(outer.get());
+    assertThat(innerAgain.get()).isSameInstanceAs(inner.get());
+    assertThat(stack.hasSegment(1)).isTrue();
+    assertThat(stack.hasSegment(2)).isTrue();
+  }
+
+  @Test
+  public void run_otherCallingThreads_useOwnChains() throws Exception {
+    SegmentedStack stack = new SegmentedStack(1000, FRAMES);
+    AtomicReference<Thread> mine = new AtomicReference<>();
+    AtomicReference<Thread> theirs = new AtomicReference<>();
+
+    runOnThread(stack, contextAtLevel(1), mine);
+    Thread other = new Thread(() -> runOnThread(stack, contextAtLevel(1), theirs));
+    other.start();
+    other.join();
+
+    assertThat(theirs.get()).isNotNull();
+    assertThat(theirs.get()).isNotSameInstanceAs(mine.get());
+  }
+
+  @Test
+  public void run_throwsRuntimeException_rethrowsAsIs() {
+    SegmentedStack stack = new SegmentedStack(1000, FRAMES);
+    IllegalStateException thrown = new IllegalStateException("boom");
+
+    IllegalStateException actual =
+        assertThrows(
+            IllegalStateException.class,
+            () ->
+                stack.run(
+                    contextAtLevel(1),
+                    new Data[0],
+                    (ctx, a) -> {
+                      throw thrown;
+                    }));
+
+    assertThat(actual).isSameInstanceAs(thrown);
+  }
+
+  @Test
+  public void run_throwsError_rethrowsAsIs() {
+    SegmentedStack stack = new SegmentedStack(1000, FRAMES);
+    AssertionError thrown = new AssertionError("boom");
+
+    AssertionError actual =
+        assertThrows(
+            AssertionError.class,
+            () ->
+                stack.run(
+                    contextAtLevel(1),
+                    new Data[0],
+                    (ctx, a) -> {
+                      throw thrown;
+                    }));
+
+    assertThat(actual).isSameInstanceAs(thrown);
+  }
+
+  @Test
+  public void run_noSegmentsLeft_throwsStackOverflow() {
+    SegmentedStack stack = new SegmentedStack(1000, FRAMES);
+    int drained = SegmentedStack.SEGMENTS.drainPermits();
+    SegmentedStack.retireIdleSegments();
+    drained += SegmentedStack.SEGMENTS.drainPermits();
+    try {
+      WhistleStackOverflowError error =
+          assertThrows(
+              WhistleStackOverflowError.class,
+              () -> stack.run(contextAtLevel(1), new Data[0], (ctx, a) -> NullData.instance));
+      assertThat(error).hasMessageThat().contains(String.valueOf(FRAMES));
+    } finally {
+      SegmentedStack.SEGMENTS.release(drained);
+    }
+  }
+
+  @Test
+  public void run_noSegmentsLeft_retiresIdleSegments() {
+    SegmentedStack stack = new SegmentedStack(1000, FRAMES);
+    AtomicReference<Thread> first = new AtomicReference<>();
+    AtomicReference<Thread> second = new AtomicReference<>();
+    runOnThread(stack, contextAtLevel(1), first);
+    int drained = SegmentedStack.SEGMENTS.drainPermits();
+    try {
+      Thread other = new Thread(() -> runOnThread(stack, contextAtLevel(1), second));
+      other.start();
+      Uninterruptibles.joinUninterruptibly(other);
+
+      assertThat(second.get()).isNotNull();
+      assertThat(stack.hasSegment(1)).isFalse();
+    } finally {
+      SegmentedStack.SEGMENTS.release(drained);
+    }
+  }
+
+  @Test
+  public void run_inheritsInheritableThreadLocals() {
+    SegmentedStack stack = new SegmentedStack(1000, FRAMES);
+    InheritableThreadLocal<String> local = new InheritableThreadLocal<>();
+    local.set("value");
+
+    AtomicReference<String> seen = new AtomicReference<>();
+    stack.run(
+        contextAtLevel(1),
+        new Data[0],
+        (ctx, a) -> {
+          seen.set(local.get());
+          return NullData.instance;
+        });
+
+    assertThat(seen.get()).isEqualTo("value");
+  }
+
+  @Test
+  public void run_interrupted_interruptsNestedSegments() throws Exception {
+    SegmentedStack stack = new SegmentedStack(1000, FRAMES);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch innerInterrupted = new CountDownLatch(1);
+    AtomicReference<Throwable> thrown = new AtomicReference<>();
+    Thread caller =
+        new Thread(
+            () -> {
+              try {
+                stack.run(
+                    contextAtLevel(1),
+                    new Data[0],
+                    (ctx, a) ->
+                        stack.run(
+                            contextAtLevel(2),
+                            a,
+                            (innerCtx, innerArgs) -> {
+                              started.countDown();
+                              try {
+                                new CountDownLatch(1).await();
+                              } catch (InterruptedException e) {
+                                innerInterrupted.countDown();
+                              }
+                              return NullData.instance;
+                            }));
+              } catch (RuntimeException e) {
+                thrown.set(e);
+              }
+            });
+    caller.start();
+    assertTrue(started.await(10, TimeUnit.SECONDS));
+
+    caller.interrupt();
+    caller.join();
+
+    assertThat(innerInterrupted.getCount()).isEqualTo(0);
+    assertThat(thrown.get()).isInstanceOf(IllegalStateException.class);
+  }
+}
@@ -16,6 +16,7 @@
 
 package com.google.cloud.verticals.foundations.dataharmonization.function.context.impl;
 
+import com.google.cloud.verticals.foundations.dataharmonization.TranspilerData;
 import static com.google.cloud.verticals.foundations.dataharmonization.data.impl.TestDataTypeImplementation.testDTI;
 import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.assertEquals;
@@ -26,12 +27,18 @@ import static org.mockito.Mockito.mock;
 
 import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
 import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
+import com.google.cloud.verticals.foundations.dataharmonization.debug.DebugInfo;
+import com.google.cloud.verticals.foundations.dataharmonization.debug.proto.Debug.FunctionInfo.FunctionType;
+import com.google.cloud.verticals.foundations.dataharmonization.debug.proto.Debug.Source;
+import com.google.cloud.verticals.foundations.dataharmonization.debug.proto.Debug.SourcePosition;
 import com.google.cloud.verticals.foundations.dataharmonization.exceptions.WhistleStackOverflowError;
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.StackFrame;
 import com.google.cloud.verticals.foundations.dataharmonization.function.context.impl.DefaultStackFrame.DefaultBuilder;
 import com.google.cloud.verticals.foundations.dataharmonization.function.whistle.WhistleFunction;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.Meta;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.protobuf.Any;
 import java.util.Map;
 import java.util.regex.Pattern;
 import org.junit.Assert;
@@ -428,6 +435,33 @@ public class DefaultStackFrameTest {
         .matches(Pattern.compile(".*frameD.*frameC.*frameB.*frameA.*", Pattern.DOTALL));
   }
 
+  @Test
+  public void build_maxDepth_overridesLimit() throws Exception {
+    StackFrame lastStackFrame = null;
+    for (int i = 0; i < DefaultBuilder.STACK_FRAMES_LIMIT * 2; i++) {
+      lastStackFrame =
+          new DefaultBuilder()
+              .setName("testFrame")
+              .setParent(lastStackFrame)
+              .setMaxDepth(DefaultBuilder.STACK_FRAMES_LIMIT * 2)
+              .build();
+    }
+    StackFrame top = lastStackFrame;
+
+    WhistleStackOverflowError error =
+        assertThrows(
+            WhistleStackOverflowError.class,
+            () ->
+                new DefaultBuilder()
+                    .setName("testFrame")
+                    .setParent(top)
+                    .setMaxDepth(DefaultBuilder.STACK_FRAMES_LIMIT * 2)
+                    .build());
+    assertThat(error)
+        .hasMessageThat()
+        .contains("max limit: " + DefaultBuilder.STACK_FRAMES_LIMIT * 2);
+  }
+
   @Test
   public void build_stack_valid() throws Exception {
     StackFrame lastStackFrame = null;
@@ -436,4 +470,21 @@ public class DefaultStackFrameTest {
     lastStackFrame = generateStackFrame("testFrame3", lastStackFrame, true);
     assertNotNull(lastStackFrame);
   }
+
+  @Test
+  public void getCallSiteToNextStackFrame_unpacksCallSiteSource() {
+    Source source =
+        Source.newBuilder().setStart(SourcePosition.newBuilder().setLine(3).setColumn(4)).build();
+    StackFrame sf =
+        new DefaultBuilder()
+            .setDebugInfo(DebugInfo.simpleFunction("file", FunctionType.DECLARED))
+            .build();
+
+    assertThat(sf.getCallSiteToNextStackFrame()).isEqualTo(DebugInfo.UNKNOWN_SOURCE);
+    sf.setCallSiteToNextStackFrame(
+        Meta.newBuilder().putEntries(TranspilerData.SOURCE_META_KEY, Any.pack(source)).build());
+
+    assertThat(sf.getCallSiteToNextStackFrame()).isEqualTo(source);
+    assertThat(sf.stackCopy().getCallSiteToNextStackFrame()).isEqualTo(source);
+  }
 }
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.verticals.foundations.dataharmonization.function.context.impl;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
+import com.google.cloud.verticals.foundations.dataharmonization.function.context.FrameLayout;
+import com.google.cloud.verticals.foundations.dataharmonization.function.context.StackFrame;
+import com.google.cloud.verticals.foundations.dataharmonization.function.context.impl.DefaultStackFrame.DefaultBuilder;
+import com.google.cloud.verticals.foundations.dataharmonization.function.whistle.WhistleFunction;
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for SlotStackFrame. */
+@RunWith(JUnit4.class)
+public class SlotStackFrameTest {
+  private static final FrameLayout LAYOUT =
+      FrameLayout.of(ImmutableList.of("a", WhistleFunction.OUTPUT_VAR, "x"));
+
+  private static StackFrame frame(StackFrame parent, boolean inheritParentVars) {
+    return new DefaultBuilder()
+        .setParent(parent)
+        .setInheritParentVars(inheritParentVars)
+        .setLayout(LAYOUT)
+        .build();
+  }
+
+  @Test
+  public void build_withLayout_buildsSlotStackFrame() {
+    StackFrame sf = frame(null, false);
+
+    assertThat(sf).isInstanceOf(SlotStackFrame.class);
+    assertThat(sf.getLayout()).isSameInstanceAs(LAYOUT);
+    assertThat(sf.newBuilder().build()).isInstanceOf(DefaultStackFrame.class);
+  }
+
+  @Test
+  public void getVar_unsetVar_returnsNull() {
+    StackFrame sf = frame(null, false);
+
+    assertThat(sf.getVar("x")).isEqualTo(NullData.instance);
+    assertThat(sf.getVar(LAYOUT.slotOf("x"))).isEqualTo(NullData.instance);
+    assertThat(sf.getVar("other")).isEqualTo(NullData.instance);
+    assertThat(sf.getVars()).isEmpty();
+  }
+
+  @Test
+  public void setVarGetVar_bySlotOrName_same() {
+    Data value = mock(Data.class);
+    Data other = mock(Data.class);
+    StackFrame sf = frame(null, false);
+
+    sf.setVar(LAYOUT.slotOf("x"), value);
+    sf.setVar("other", other);
+
+    assertThat(sf.getVar("x")).isSameInstanceAs(value);
+    assertThat(sf.getVar(LAYOUT.slotOf("x"))).isSameInstanceAs(value);
+    assertThat(sf.getVar("other")).isSameInstanceAs(other);
+    assertThat(sf.getVars()).containsExactly("x", "other");
+  }
+
+  @Test
+  public void getVar_inheritedVar_readsClosestAncestor() {
+    Data original = mock(Data.class);
+    Data shadow = mock(Data.class);
+    StackFrame grandparent = frame(null, false);
+    grandparent.setVar("x", original);
+    StackFrame parent =
+        new DefaultBuilder().setParent(grandparent).setInheritParentVars(true).build();
+    parent.setVar("x", shadow);
+    StackFrame child = frame(parent, true);
+
+    assertThat(child.getVar(LAYOUT.slotOf("x"))).isSameInstanceAs(shadow);
+    assertThat(child.getVars()).isEmpty();
+  }
+
+  @Test
+  public void setVar_inheritedVar_writesFurthestAncestor() {
+    Data original = mock(Data.class);
+    Data shadow = mock(Data.class);
+    Data updated = mock(Data.class);
+    StackFrame grandparent = frame(null, false);
+    grandparent.setVar("x", original);
+    StackFrame parent = frame(grandparent, true);
+    parent.setLocalVar("x", shadow);
+    StackFrame child = frame(parent, true);
+
+    child.setVar(LAYOUT.slotOf("x"), updated);
+
+    assertThat(grandparent.getVar("x")).isSameInstanceAs(updated);
+    assertThat(parent.getVar("x")).isSameInstanceAs(shadow);
+    assertThat(child.getVars()).isEmpty();
+  }
+
+  @Test
+  public void setVar_notInheriting_setsLocally() {
+    Data value = mock(Data.class);
+    Data updated = mock(Data.class);
+    StackFrame parent = frame(null, false);
+    parent.setVar("x", value);
+    StackFrame child = frame(parent, false);
+
+    child.setVar("x", updated);
+
+    assertThat(parent.getVar("x")).isSameInstanceAs(value);
+    assertThat(child.getVar("x")).isSameInstanceAs(updated);
+  }
+
+  @Test
+  public void setVar_inheritedUnsetVar_setsLocally() {
+    Data value = mock(Data.class);
+    StackFrame parent = frame(null, false);
+    StackFrame child = frame(parent, true);
+
+    child.setVar("x", value);
+
+    assertThat(parent.getVars()).isEmpty();
+    assertThat(child.getVar("x")).isSameInstanceAs(value);
+  }
+
+  @Test
+  public void getVarSetVar_outputVar_neverInherited() {
+    Data value = mock(Data.class);
+    Data local = mock(Data.class);
+    StackFrame parent = frame(null, false);
+    parent.setVar(WhistleFunction.OUTPUT_VAR, value);
+    StackFrame child = frame(parent, true);
+
+    assertThat(child.getVar(WhistleFunction.OUTPUT_VAR)).isEqualTo(NullData.instance);
+    child.setVar(WhistleFunction.OUTPUT_VAR, local);
+
+    assertThat(parent.getVar(WhistleFunction.OUTPUT_VAR)).isSameInstanceAs(value);
+    assertThat(child.getVar(WhistleFunction.OUTPUT_VAR)).isSameInstanceAs(local);
+  }
+
+  @Test
+  public void getVarSetVar_inheritedFromDefaultStackFrame_byName() {
+    Data value = mock(Data.class);
+    Data updated = mock(Data.class);
+    StackFrame parent = new DefaultBuilder().build();
+    parent.setVar("x", value);
+    StackFrame child = frame(parent, true);
+
+    assertThat(child.getVar(LAYOUT.slotOf("x"))).isSameInstanceAs(value);
+    child.setVar(LAYOUT.slotOf("x"), updated);
+
+    assertThat(parent.getVar("x")).isSameInstanceAs(updated);
+    assertThat(child.getVar("x")).isSameInstanceAs(updated);
+  }
+
+  @Test
+  public void stackCopy_copiesSlotsAndParents() {
+    Data value = mock(Data.class);
+    Data other = mock(Data.class);
+    StackFrame parent = frame(null, false);
+    parent.setVar("a", value);
+    StackFrame child = frame(parent, false);
+    child.setVar("x", value);
+    child.setVar("other", other);
+
+    StackFrame copy = child.stackCopy();
+    child.setVar("x", other);
+
+    assertThat(copy).isNotSameInstanceAs(child);
+    assertThat(copy.getLayout()).isSameInstanceAs(LAYOUT);
+    assertThat(copy.getVar("x")).isSameInstanceAs(value);
+    assertThat(copy.getVar("other")).isSameInstanceAs(other);
+    assertThat(copy.getParent().getVar("a")).isSameInstanceAs(value);
+  }
+}
@@ -63,6 +63,30 @@ public abstract class JavaFunctionsFromClassTestBase {
         () -> functionsInInstance(new TestInvalidFunctionsContainer(), PLACEHOLDER_PKG_NAME));
   }
 
+  @Test
+  public void pureMethods_arePure() {
+    List<JavaFunction> got =
+        functionsInClass(TestPureFunctionsContainer.class, PLACEHOLDER_PKG_NAME);
+    assertThat(got).hasSize(2);
+    for (JavaFunction function : got) {
+      assertThat(function.isPure()).isEqualTo(function.getName().equals("pureFunc"));
+    }
+  }
+
+  private static final class TestPureFunctionsContainer implements Serializable {
+    @Keep
+    @PluginFunction(pure = true)
+    public static Data pureFunc() {
+      return NullData.instance;
+    }
+
+    @Keep
+    @PluginFunction
+    public static Data impureFunc() {
+      return NullData.instance;
+    }
+  }
+
   private static final class TestFunctionsContainer implements Serializable {
     // Since these methods are accessed via reflection, so it triggers java error prone warning
     // we use @Keep to suppress these warnings.
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.verticals.foundations.dataharmonization.function.whistle;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.merge.MergeMode;
+import com.google.cloud.verticals.foundations.dataharmonization.data.path.Path;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.FieldMapping;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.FieldMapping.FieldTarget;
+import com.google.cloud.verticals.foundations.dataharmonization.registry.PackageRegistry;
+import com.google.cloud.verticals.foundations.dataharmonization.registry.impl.DefaultPackageRegistry;
+import com.google.cloud.verticals.foundations.dataharmonization.target.Target;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Answers;
+
+/** Tests for TargetPlan. */
+@RunWith(JUnit4.class)
+public class TargetPlanTest {
+
+  private static DefaultPackageRegistry<Target.Constructor> registry() {
+    DefaultPackageRegistry<Target.Constructor> registry = new DefaultPackageRegistry<>();
+    registry.register("builtins", new VarTarget.Constructor());
+    return registry;
+  }
+
+  @Test
+  public void create_varTarget_holdsPathAndMergeMode() {
+    DefaultPackageRegistry<Target.Constructor> registry = registry();
+    VarTarget.Constructor constructor = new VarTarget.Constructor();
+    VarTarget target = new VarTarget("$this", Path.parse("a.b"), MergeMode.MERGE);
+
+    TargetPlan plan = TargetPlan.create(registry, registry.getVersion(), constructor, target);
+
+    assertThat(plan.getConstructor()).isSameInstanceAs(constructor);
+    assertThat(plan.getTarget()).isSameInstanceAs(target);
+    assertThat(plan.getPath()).isEqualTo(Path.parse("a.b"));
+    assertThat(plan.getMergeMode()).isEqualTo(MergeMode.MERGE);
+    assertThat(plan.isValidFor(registry)).isTrue();
+  }
+
+  @Test
+  public void create_sideTarget_planned() {
+    DefaultPackageRegistry<Target.Constructor> registry = registry();
+
+    TargetPlan plan =
+        TargetPlan.create(
+            registry,
+            registry.getVersion(),
+            new SideTarget.Constructor(),
+            new SideTarget(Path.parse("a")));
+
+    assertThat(plan).isNotNull();
+  }
+
+  @Test
+  public void create_otherConstructor_notPlanned() {
+    DefaultPackageRegistry<Target.Constructor> registry = registry();
+
+    assertThat(
+            TargetPlan.create(
+                registry,
+                registry.getVersion(),
+                mock(Target.Constructor.class),
+                new VarTarget("$this", Path.empty())))
+        .isNull();
+    assertThat(
+            TargetPlan.create(
+                registry, registry.getVersion(), new VarTarget.Constructor(), mock(Target.class)))
+        .isNull();
+  }
+
+  @Test
+  public void create_unversionedRegistry_notPlanned() {
+    @SuppressWarnings("unchecked")
+    PackageRegistry<Target.Constructor> registry =
+        mock(PackageRegistry.class, Answers.CALLS_REAL_METHODS);
+
+    assertThat(
+            TargetPlan.create(
+                registry,
+                registry.getVersion(),
+                new VarTarget.Constructor(),
+                new VarTarget("$this", Path.empty())))
+        .isNull();
+  }
+
+  @Test
+  public void isValidFor_modifiedOrOtherRegistry_false() {
+    DefaultPackageRegistry<Target.Constructor> registry = registry();
+    TargetPlan plan =
+        TargetPlan.create(
+            registry,
+            registry.getVersion(),
+            new VarTarget.Constructor(),
+            new VarTarget("$this", Path.empty()));
+
+    assertThat(plan.isValidFor(registry())).isFalse();
+    registry.register("other", new SideTarget.Constructor());
+    assertThat(plan.isValidFor(registry)).isFalse();
+  }
+
+  @Test
+  public void slot_forMapping_sharedPerMapping() {
+    FieldMapping mapping =
+        FieldMapping.newBuilder().setField(FieldTarget.newBuilder().setPath("a")).build();
+    DefaultPackageRegistry<Target.Constructor> registry = registry();
+    TargetPlan plan =
+        TargetPlan.create(
+            registry,
+            registry.getVersion(),
+            new VarTarget.Constructor(),
+            new VarTarget("$this", Path.parse("a")));
+
+    TargetPlan.Slot slot = TargetPlan.Slot.forMapping(mapping);
+    slot.set(plan);
+
+    assertThat(TargetPlan.Slot.forMapping(mapping)).isSameInstanceAs(slot);
+    assertThat(slot.get(registry)).isSameInstanceAs(plan);
+    assertThat(slot.get(registry())).isNull();
+    assertThat(slot.peek()).isSameInstanceAs(plan);
+  }
+}
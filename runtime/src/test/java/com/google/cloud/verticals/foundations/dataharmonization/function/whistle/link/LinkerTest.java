@@ -0,0 +1,347 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.verticals.foundations.dataharmonization.function.whistle.link;
+
+import static com.google.cloud.verticals.foundations.dataharmonization.data.impl.TestDataTypeImplementation.testDTI;
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.Arrays.stream;
+import static java.util.stream.Collectors.toList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.budget.MemoryBudget;
+import com.google.cloud.verticals.foundations.dataharmonization.data.budget.MemoryBudgetContext;
+import com.google.cloud.verticals.foundations.dataharmonization.data.path.Field;
+import com.google.cloud.verticals.foundations.dataharmonization.debug.DebugInfo;
+import com.google.cloud.verticals.foundations.dataharmonization.debug.proto.Debug.FunctionInfo.FunctionType;
+import com.google.cloud.verticals.foundations.dataharmonization.function.CallableFunction;
+import com.google.cloud.verticals.foundations.dataharmonization.function.Closure.FreeParameter;
+import com.google.cloud.verticals.foundations.dataharmonization.function.DefaultClosure;
+import com.google.cloud.verticals.foundations.dataharmonization.function.context.RuntimeContext;
+import com.google.cloud.verticals.foundations.dataharmonization.function.signature.Signature;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.FieldMapping;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.FieldMapping.FieldTarget;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.FieldMapping.FieldTarget.FieldType;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.FieldMapping.VariableTarget;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.FunctionCall;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.FunctionCall.FunctionReference;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.FunctionDefinition;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.ValueSource;
+import com.google.cloud.verticals.foundations.dataharmonization.utils.RuntimeContextUtil;
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link Linker}. */
+@RunWith(JUnit4.class)
+public class LinkerTest {
+  private final Linker linker = new Linker(testDTI());
+
+  private static final ValueSource CONST = ValueSource.newBuilder().setConstString("foo").build();
+
+  @Test
+  public void link_varTarget_usesSetTarget() {
+    FieldMapping mapping =
+        FieldMapping.newBuilder()
+            .setValue(CONST)
+            .setVar(VariableTarget.newBuilder().setName("myVar").setPath("a.b"))
+            .build();
+
+    LinkedMapping linked = linker.link(mapping);
+
+    assertThat(linked.getProto()).isEqualTo(mapping);
+    assertThat(linked.getBuiltinTargetName()).isEqualTo("set");
+    assertThat(linked.getBuiltinTargetArgs())
+        .asList()
+        .containsExactly(testDTI().primitiveOf("myVar"), testDTI().primitiveOf("a.b"))
+        .inOrder();
+  }
+
+  @Test
+  public void link_localField_usesSetTargetOnThis() {
+    FieldMapping mapping =
+        FieldMapping.newBuilder()
+            .setValue(CONST)
+            .setField(FieldTarget.newBuilder().setPath("a.b").setType(FieldType.LOCAL))
+            .build();
+
+    LinkedMapping linked = linker.link(mapping);
+
+    assertThat(linked.getBuiltinTargetName()).isEqualTo("set");
+    assertThat(linked.getBuiltinTargetArgs())
+        .asList()
+        .containsExactly(testDTI().primitiveOf("$this"), testDTI().primitiveOf("a.b"))
+        .inOrder();
+  }
+
+  @Test
+  public void link_thisField_usesEmptyPath() {
+    FieldMapping mapping =
+        FieldMapping.newBuilder()
+            .setValue(CONST)
+            .setField(FieldTarget.newBuilder().setPath("$this").setType(FieldType.LOCAL))
+            .build();
+
+    LinkedMapping linked = linker.link(mapping);
+
+    assertThat(linked.getBuiltinTargetArgs())
+        .asList()
+        .containsExactly(testDTI().primitiveOf("$this"), testDTI().primitiveOf(""))
+        .inOrder();
+  }
+
+  @Test
+  public void link_topLevelLocalField_hasOutputField() {
+    LinkedMapping linked = linker.link(localField("a"));
+
+    assertThat(linked.getOutputField()).isEqualTo(new Field("a"));
+  }
+
+  @Test
+  public void link_nonTopLevelOrIteratedField_hasNoOutputField() {
+    assertThat(linker.link(localField("a.b")).getOutputField()).isNull();
+    assertThat(linker.link(localField("a[0]")).getOutputField()).isNull();
+    assertThat(linker.link(localField("$this")).getOutputField()).isNull();
+    assertThat(
+            linker
+                .link(localField("a").toBuilder().setIterateSource(true).build())
+                .getOutputField())
+        .isNull();
+  }
+
+  @Test
+  public void link_definition_marksRunsOfDistinctOutputFields() {
+    FunctionDefinition def =
+        FunctionDefinition.newBuilder()
+            .addMapping(localField("a"))
+            .addMapping(localField("b"))
+            .addMapping(localField("a"))
+            .addMapping(localField("c"))
+            .addMapping(localField("d"))
+            .addMapping(localField("x.y"))
+            .addMapping(localField("e"))
+            .build();
+
+    LinkedMapping[] linked = linker.link(def);
+
+    assertThat(stream(linked).map(LinkedMapping::getOutputFieldRun).collect(toList()))
+        .containsExactly(2, 0, 3, 0, 0, 0, 0)
+        .inOrder();
+  }
+
+  @Test
+  public void link_sideField_usesSideTarget() {
+    FieldMapping mapping =
+        FieldMapping.newBuilder()
+            .setValue(CONST)
+            .setField(FieldTarget.newBuilder().setPath("a").setType(FieldType.SIDE))
+            .build();
+
+    LinkedMapping linked = linker.link(mapping);
+
+    assertThat(linked.getBuiltinTargetName()).isEqualTo("side");
+    assertThat(linked.getBuiltinTargetArgs()).asList().containsExactly(testDTI().primitiveOf("a"));
+  }
+
+  @Test
+  public void link_customSink_isNotLinked() {
+    FieldMapping mapping =
+        FieldMapping.newBuilder()
+            .setValue(CONST)
+            .setCustomSink(
+                FunctionCall.newBuilder()
+                    .setReference(FunctionReference.newBuilder().setName("sink")))
+            .build();
+
+    LinkedMapping linked = linker.link(mapping);
+
+    assertThat(linked.getBuiltinTargetName()).isNull();
+    assertThat(linked.getBuiltinTargetArgs()).isNull();
+  }
+
+  @Test
+  public void link_constants_evaluateToPrimitives() {
+    assertThat(evaluate(ValueSource.newBuilder().setConstString("foo").build()))
+        .isEqualTo(testDTI().primitiveOf("foo"));
+    assertThat(evaluate(ValueSource.newBuilder().setConstInt(3).build()))
+        .isEqualTo(testDTI().primitiveOf(3.0));
+    assertThat(evaluate(ValueSource.newBuilder().setConstFloat(1.5).build()))
+        .isEqualTo(testDTI().primitiveOf(1.5));
+    assertThat(evaluate(ValueSource.newBuilder().setConstBool(true).build()))
+        .isEqualTo(testDTI().primitiveOf(true));
+  }
+
+  @Test
+  public void link_closure_resolvesReferenceAndFreeParameters() {
+    ValueSource closure =
+        ValueSource.newBuilder()
+            .setFunctionCall(
+                FunctionCall.newBuilder()
+                    .setReference(FunctionReference.newBuilder().setPackage("pkg").setName("fn"))
+                    .setBuildClosure(true)
+                    .addArgs(ValueSource.newBuilder().setFreeParameter("x"))
+                    .addArgs(CONST))
+            .build();
+
+    LinkedValue linked = linker.link(closure);
+
+    assertThat(linked).isInstanceOf(LinkedFunctionCall.class);
+    Data result = evaluate(closure);
+    assertThat(result).isInstanceOf(DefaultClosure.class);
+    DefaultClosure actual = (DefaultClosure) result;
+    assertThat(actual.getFunctionRef())
+        .isEqualTo(new DefaultClosure.FunctionReference("pkg", "fn"));
+    assertThat(actual.getFreeArgIndices()).containsExactly(0);
+    assertThat(actual.getArgs()[0]).isInstanceOf(FreeParameter.class);
+    assertThat(actual.getArgs()[1]).isEqualTo(testDTI().primitiveOf("foo"));
+  }
+
+  @Test
+  public void link_constant_sharedWithBudgetedContext() {
+    RuntimeContext context = RuntimeContextUtil.testContext();
+    MemoryBudget budget = new MemoryBudget(Long.MAX_VALUE);
+    RuntimeContext budgeted = new MemoryBudgetContext(context, budget);
+    LinkedValue linked = new Linker(context.getDataTypeImplementation()).link(CONST);
+
+    assertThat(linked.evaluate(budgeted)).isSameInstanceAs(linked.evaluate(context));
+    assertThat(budget.getUsedBytes()).isEqualTo(0);
+  }
+
+  @Test
+  public void link_constantCallToPureFunction_executedOnce() {
+    RuntimeContext context = RuntimeContextUtil.testContext();
+    CountingFunction function = new CountingFunction(/* pure= */ true);
+    context.getRegistries().getFunctionRegistry("pkg").register("pkg", function);
+    LinkedValue linked = linker.link(call("pkg", "fn", call("pkg", "fn", CONST)));
+
+    Data first = linked.evaluate(context);
+    Data second = linked.evaluate(context);
+
+    assertThat(linked).isInstanceOf(FoldedCall.class);
+    assertThat(second).isSameInstanceAs(first);
+    assertThat(first).isEqualTo(testDTI().primitiveOf("called"));
+    assertThat(function.calls).isEqualTo(2);
+  }
+
+  @Test
+  public void link_constantCallToPureFunction_argumentsNotReevaluated() {
+    RuntimeContext context = spy(RuntimeContextUtil.testContext());
+    CountingFunction function = new CountingFunction(/* pure= */ true);
+    context.getRegistries().getFunctionRegistry("pkg").register("pkg", function);
+    LinkedValue linked = linker.link(call("pkg", "fn", call("pkg", "fn", CONST)));
+
+    Data first = linked.evaluate(context);
+    clearInvocations(context);
+    Data second = linked.evaluate(context);
+
+    assertThat(second).isSameInstanceAs(first);
+    verify(context, never()).evaluateLinked(any());
+  }
+
+  @Test
+  public void link_constantCallToImpureFunction_executedEveryTime() {
+    RuntimeContext context = RuntimeContextUtil.testContext();
+    CountingFunction function = new CountingFunction(/* pure= */ false);
+    context.getRegistries().getFunctionRegistry("pkg").register("pkg", function);
+    LinkedValue linked = linker.link(call("pkg", "fn", CONST));
+
+    linked.evaluate(context);
+    linked.evaluate(context);
+
+    assertThat(linked).isInstanceOf(FoldedCall.class);
+    assertThat(function.calls).isEqualTo(2);
+  }
+
+  @Test
+  public void link_callWithLocalArgument_notFolded() {
+    ValueSource local = ValueSource.newBuilder().setFromLocal("x").build();
+
+    assertThat(linker.link(call("pkg", "fn", local))).isInstanceOf(LinkedFunctionCall.class);
+    assertThat(linker.link(call("pkg", "fn", call("pkg", "fn", local))))
+        .isInstanceOf(LinkedFunctionCall.class);
+  }
+
+  @Test
+  public void link_iteratedArgument_isInterpreted() {
+    ValueSource call =
+        ValueSource.newBuilder()
+            .setFunctionCall(
+                FunctionCall.newBuilder()
+                    .setReference(FunctionReference.newBuilder().setName("fn"))
+                    .addArgs(CONST.toBuilder().setIterate(true)))
+            .build();
+
+    assertThat(linker.link(call)).isInstanceOf(LinkedValue.Interpreted.class);
+  }
+
+  private static ValueSource call(String pkg, String name, ValueSource... args) {
+    FunctionCall.Builder call =
+        FunctionCall.newBuilder()
+            .setReference(FunctionReference.newBuilder().setPackage(pkg).setName(name));
+    for (ValueSource arg : args) {
+      call.addArgs(arg);
+    }
+    return ValueSource.newBuilder().setFunctionCall(call).build();
+  }
+
+  /** A function of a single argument that counts how many times it was called. */
+  private static final class CountingFunction extends CallableFunction {
+    private final boolean pure;
+    private int calls;
+
+    CountingFunction(boolean pure) {
+      this.pure = pure;
+    }
+
+    @Override
+    protected Data callInternal(RuntimeContext context, Data... args) {
+      calls++;
+      return context.getDataTypeImplementation().primitiveOf("called");
+    }
+
+    @Override
+    public Signature getSignature() {
+      return new Signature("pkg", "fn", ImmutableList.of(Data.class), false);
+    }
+
+    @Override
+    public DebugInfo getDebugInfo() {
+      return DebugInfo.simpleFunction("", FunctionType.NATIVE);
+    }
+
+    @Override
+    public boolean isPure() {
+      return pure;
+    }
+  }
+
+  private Data evaluate(ValueSource source) {
+    return linker.link(source).evaluate(RuntimeContextUtil.testContext());
+  }
+
+  private static FieldMapping localField(String path) {
+    return FieldMapping.newBuilder()
+        .setValue(CONST)
+        .setField(FieldTarget.newBuilder().setPath(path).setType(FieldType.LOCAL))
+        .build();
+  }
+}
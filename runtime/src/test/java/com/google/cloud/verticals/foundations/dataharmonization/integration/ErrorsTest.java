@@ -26,6 +26,8 @@ import static org.junit.Assert.fail;
 import com.google.cloud.verticals.foundations.dataharmonization.builtins.error.Errors;
 import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
 import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
+import com.google.cloud.verticals.foundations.dataharmonization.data.budget.DataSize;
+import com.google.cloud.verticals.foundations.dataharmonization.exceptions.MemoryBudgetExceededException;
 import com.google.cloud.verticals.foundations.dataharmonization.exceptions.NoMatchingOverloadsException;
 import com.google.cloud.verticals.foundations.dataharmonization.exceptions.WhistleRuntimeException;
 import com.google.cloud.verticals.foundations.dataharmonization.exceptions.WhistleStackOverflowError;
@@ -88,6 +90,40 @@ public class ErrorsTest {
     }
   }
 
+  @Test
+  public void simpleError_callSiteTrackingDisabled_containsWhistleStackWithoutLines()
+      throws Exception {
+    Engine engine =
+        TESTER
+            .initializeBuilderWithTestFile("errors_simple.wstl")
+            .setCallSiteTracking(false)
+            .initialize()
+            .build();
+
+    WhistleRuntimeException e =
+        assertThrows(WhistleRuntimeException.class, () -> engine.transform(NullData.instance));
+
+    String file = TEST_FOLDER_URI + "errors_simple.wstl";
+    StackTraceElement[] expected =
+        new StackTraceElement[] {
+          at(
+              "com.google.cloud.verticals.foundations.dataharmonization.builtins.Core",
+              "get",
+              "Native",
+              null),
+          at("errors", "three", file, null),
+          at("errors", "two", file, null),
+          at(
+              "com.google.cloud.verticals.foundations.dataharmonization.builtins.Iteration",
+              "iterate",
+              "Native",
+              null),
+          at("errors", "one", file, null),
+          at("errors", "errors_root_function", file, null),
+        };
+    assertArrayEquals(expected, e.getStackTrace());
+  }
+
   @Test
   public void ternaryError_containsOnlyRelevantWhistleStack() {
     try {
@@ -183,6 +219,92 @@ public class ErrorsTest {
     assertThat(error).hasMessageThat().matches(Pattern.compile(".*a:.*loop.*", Pattern.DOTALL));
   }
 
+  @Test
+  public void stackOverflowError_deepRecursion_exceedsDefaultLimit() throws Exception {
+    final Engine engine = TESTER.initializeTestFile("deep_recursion.wstl");
+    WhistleStackOverflowError error =
+        assertThrows(WhistleStackOverflowError.class, () -> engine.transform(NullData.instance));
+    assertThat(error).hasMessageThat().contains("Number of stack frames exceed the max limit");
+  }
+
+  @Test
+  public void maxStackDepth_deepRecursion_runsOnSegmentedStack() throws Exception {
+    Engine engine =
+        TESTER
+            .initializeBuilderWithTestFile("deep_recursion.wstl")
+            .setMaxStackDepth(10000)
+            .initialize()
+            .build();
+
+    Data result = engine.transform(NullData.instance);
+
+    assertThat(result.asContainer().getField("result").asPrimitive().num()).isEqualTo(2000.0);
+  }
+
+  @Test
+  public void framesPerStackSegment_deepRecursion_runsOnSmallSegments() throws Exception {
+    Engine engine =
+        TESTER
+            .initializeBuilderWithTestFile("deep_recursion.wstl")
+            .setMaxStackDepth(10000)
+            .setFramesPerStackSegment(16)
+            .initialize()
+            .build();
+
+    Data result = engine.transform(NullData.instance);
+
+    assertThat(result.asContainer().getField("result").asPrimitive().num()).isEqualTo(2000.0);
+  }
+
+  @Test
+  public void maxStackDepth_exceeded_reportsLimit() throws Exception {
+    final Engine engine =
+        TESTER
+            .initializeBuilderWithTestFile("stack_overflow_1.wstl")
+            .setMaxStackDepth(5000)
+            .initialize()
+            .build();
+    WhistleStackOverflowError error =
+        assertThrows(WhistleStackOverflowError.class, () -> engine.transform(NullData.instance));
+    assertThat(error).hasMessageThat().contains("5000");
+    assertThat(error).hasMessageThat().contains("f: ");
+  }
+
+  @Test
+  public void memoryBudget_exceeded_failsTransform() throws Exception {
+    final Engine engine =
+        TESTER
+            .initializeBuilderWithTestFile("memory_budget.wstl")
+            .setMemoryBudget(1 << 20)
+            .initialize()
+            .build();
+    WhistleRuntimeException error =
+        assertThrows(WhistleRuntimeException.class, () -> engine.transform(NullData.instance));
+    assertThat(error).hasCauseThat().isInstanceOf(MemoryBudgetExceededException.class);
+    assertThat(engine.getPeakMemoryUsage()).isGreaterThan(1L << 20);
+  }
+
+  @Test
+  public void memoryBudget_notExceeded_reportsPeakUsage() throws Exception {
+    Engine engine =
+        TESTER
+            .initializeBuilderWithTestFile("memory_budget.wstl")
+            .setMemoryBudget(1L << 30)
+            .initialize()
+            .build();
+
+    Data result = engine.transform(NullData.instance);
+    long peak = engine.getPeakMemoryUsage();
+
+    assertThat(result.asContainer().getField("result").asArray().size()).isEqualTo(20000);
+    assertThat(peak).isGreaterThan(20000L * 2 * DataSize.ENTRY);
+    assertThat(peak).isLessThan(1L << 30);
+    // Every transform is accounted for separately (later ones may reuse some constants).
+    engine.transform(NullData.instance);
+    assertThat(engine.getPeakMemoryUsage()).isAtMost(peak);
+    assertThat(engine.getPeakMemoryUsage()).isGreaterThan(peak / 2);
+  }
+
   @Test
   public void functionCallError_containsSuggestedFunctionName() throws Exception {
     final Engine engine = TESTER.initializeTestFile("errors_unknown_func.wstl");
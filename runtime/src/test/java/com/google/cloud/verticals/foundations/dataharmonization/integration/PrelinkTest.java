@@ -0,0 +1,204 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.verticals.foundations.dataharmonization.integration;
+
+import static com.google.cloud.verticals.foundations.dataharmonization.utils.AssertUtil.assertDCAPEquals;
+import static org.junit.Assert.assertEquals;
+
+import com.google.cloud.verticals.foundations.dataharmonization.data.Data;
+import com.google.cloud.verticals.foundations.dataharmonization.data.DataTypeImplementation;
+import com.google.cloud.verticals.foundations.dataharmonization.data.NullData;
+import com.google.cloud.verticals.foundations.dataharmonization.data.impl.CompactDataTypeImplementation;
+import com.google.cloud.verticals.foundations.dataharmonization.data.impl.PersistentDataTypeImplementation;
+import com.google.cloud.verticals.foundations.dataharmonization.init.Engine;
+import com.google.common.collect.ImmutableCollection;
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Integration tests for pre-linked engines, and engines with compact, persistent or budgeted data,
+ * which must behave the same as interpreted ones.
+ */
+@RunWith(Parameterized.class)
+public class PrelinkTest {
+  private static final IntegrationTest TESTER = new IntegrationTest();
+
+  @Parameter public String wstlFile;
+
+  @Parameter(1)
+  public String jsonFile;
+
+  @Parameters(name = "{0}")
+  public static ImmutableCollection<Object[]> tests() {
+    return ImmutableList.of(
+        new Object[] {"functioncall/func_as_target.wstl", "functioncall/func_as_target.json"},
+        new Object[] {"functioncall/repeated_call.wstl", "functioncall/repeated_call.json"},
+        new Object[] {"iteration/iterated_call.wstl", "iteration/iterated_call.json"},
+        new Object[] {"iteration/iterated_operators.wstl", "iteration/iterated_operators.json"},
+        new Object[] {"iteration/iterated_target.wstl", "iteration/iterated_target.json"},
+        new Object[] {"merge/output_fields.wstl", "merge/output_fields.json"},
+        new Object[] {"merge/primitives.wstl", "merge/primitives.json"},
+        new Object[] {"operators/eq_heterogenous.wstl", "operators/eq_heterogenous.json"},
+        new Object[] {
+          "overwrite/arrays_with_mixed_indices.wstl", "overwrite/arrays_with_mixed_indices.json"
+        },
+        new Object[] {"selectors/groupby.wstl", "selectors/groupby.json"},
+        new Object[] {"selectors/reduce.wstl", "selectors/reduce.json"},
+        new Object[] {"selectors/sortby.wstl", "selectors/sortby.json"},
+        new Object[] {"selectors/where_containers.wstl", "selectors/where_containers.json"},
+        new Object[] {"side/sides_multi_1.wstl", "side/sides_multi.json"},
+        new Object[] {"side/sides_nested.wstl", "side/sides_nested.json"},
+        new Object[] {"variadic/variadic_null.wstl", "variadic/variadic_null.json"});
+  }
+
+  @Test
+  public void prelinked_matchesExpected() throws Exception {
+    Engine engine =
+        TESTER.initializeBuilderWithTestFile(wstlFile).setPrelink(true).initialize().build();
+    Data actual = engine.transform(NullData.instance);
+
+    Data expected = TESTER.loadJson(jsonFile);
+    assertDCAPEquals(expected, actual);
+  }
+
+  @Test
+  public void prelinked_matchesInterpreted() throws Exception {
+    Data interpreted = TESTER.initializeTestFile(wstlFile).transform(NullData.instance);
+    Data prelinked =
+        TESTER
+            .initializeBuilderWithTestFile(wstlFile)
+            .setPrelink(true)
+            .initialize()
+            .build()
+            .transform(NullData.instance);
+
+    assertDCAPEquals(interpreted, prelinked);
+  }
+
+  @Test
+  public void compactData_matchesInterpreted() throws Exception {
+    Data interpreted = TESTER.initializeTestFile(wstlFile).transform(NullData.instance);
+    Data compact =
+        TESTER
+            .initializeBuilderWithTestFile(wstlFile)
+            .setDataTypeImplementation(CompactDataTypeImplementation.instance)
+            .initialize()
+            .build()
+            .transform(NullData.instance);
+
+    assertDCAPEquals(interpreted, compact);
+  }
+
+  @Test
+  public void prelinkedCompactData_matchesInterpreted() throws Exception {
+    Data interpreted = TESTER.initializeTestFile(wstlFile).transform(NullData.instance);
+    Data compact =
+        TESTER
+            .initializeBuilderWithTestFile(wstlFile)
+            .setDataTypeImplementation(CompactDataTypeImplementation.instance)
+            .setPrelink(true)
+            .initialize()
+            .build()
+            .transform(NullData.instance);
+
+    assertDCAPEquals(interpreted, compact);
+  }
+
+  @Test
+  public void prelinkedCompactData_keepsContainerClasses() throws Exception {
+    assertSameClassesWhenPrelinked(CompactDataTypeImplementation.instance);
+  }
+
+  @Test
+  public void prelinkedPersistentData_keepsContainerClasses() throws Exception {
+    assertSameClassesWhenPrelinked(PersistentDataTypeImplementation.instance);
+  }
+
+  @Test
+  public void persistentData_matchesInterpreted() throws Exception {
+    Data interpreted = TESTER.initializeTestFile(wstlFile).transform(NullData.instance);
+    Data persistent =
+        TESTER
+            .initializeBuilderWithTestFile(wstlFile)
+            .setDataTypeImplementation(PersistentDataTypeImplementation.instance)
+            .initialize()
+            .build()
+            .transform(NullData.instance);
+
+    assertDCAPEquals(interpreted, persistent);
+  }
+
+  @Test
+  public void budgetedData_matchesInterpreted() throws Exception {
+    Data interpreted = TESTER.initializeTestFile(wstlFile).transform(NullData.instance);
+    Data budgeted =
+        TESTER
+            .initializeBuilderWithTestFile(wstlFile)
+            .setMemoryBudget(1L << 30)
+            .initialize()
+            .build()
+            .transform(NullData.instance);
+
+    assertDCAPEquals(interpreted, budgeted);
+  }
+
+  /**
+   * Asserts that pre-linking does not change the classes of the containers and arrays produced with
+   * the given data type implementation, which equality does not check.
+   */
+  private void assertSameClassesWhenPrelinked(DataTypeImplementation dti) throws Exception {
+    Data interpreted =
+        TESTER
+            .initializeBuilderWithTestFile(wstlFile)
+            .setDataTypeImplementation(dti)
+            .initialize()
+            .build()
+            .transform(NullData.instance);
+    Data prelinked =
+        TESTER
+            .initializeBuilderWithTestFile(wstlFile)
+            .setDataTypeImplementation(dti)
+            .setPrelink(true)
+            .initialize()
+            .build()
+            .transform(NullData.instance);
+
+    assertSameClasses("", interpreted, prelinked);
+  }
+
+  private static void assertSameClasses(String path, Data expected, Data actual) {
+    if (expected.isContainer() && actual.isContainer()) {
+      assertEquals(path, expected.getClass(), actual.getClass());
+      for (String field : expected.asContainer().fields()) {
+        assertSameClasses(
+            path + "." + field,
+            expected.asContainer().getField(field),
+            actual.asContainer().getField(field));
+      }
+    } else if (expected.isArray() && actual.isArray()) {
+      assertEquals(path, expected.getClass(), actual.getClass());
+      for (int i = 0; i < expected.asArray().size(); i++) {
+        assertSameClasses(
+            path + "[" + i + "]", expected.asArray().getElement(i), actual.asArray().getElement(i));
+      }
+    }
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2024 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.verticals.foundations.dataharmonization.plugin;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.cloud.verticals.foundations.dataharmonization.builtins.options.MergeModeExperiment;
+import com.google.cloud.verticals.foundations.dataharmonization.builtins.options.SingleNullArrayExperiment;
+import com.google.cloud.verticals.foundations.dataharmonization.function.context.RuntimeContext;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.PipelineConfig;
+import com.google.cloud.verticals.foundations.dataharmonization.registry.Registry;
+import com.google.cloud.verticals.foundations.dataharmonization.registry.impl.DefaultRegistry;
+import com.google.cloud.verticals.foundations.dataharmonization.utils.RuntimeContextUtil;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for ConfigOptions. */
+@RunWith(JUnit4.class)
+public class ConfigOptionsTest {
+  private static final Option MERGE_MODES = new MergeModeExperiment();
+  private static final Option SINGLE_NULL_ARRAY = new SingleNullArrayExperiment();
+
+  private static Registry<Option> registry() {
+    Registry<Option> registry = new DefaultRegistry<>();
+    registry.register(MERGE_MODES);
+    registry.register(SINGLE_NULL_ARRAY);
+    return registry;
+  }
+
+  private static PipelineConfig config(Option... options) {
+    PipelineConfig.Builder config = PipelineConfig.newBuilder();
+    for (Option option : options) {
+      config.addOptions(PipelineConfig.Option.newBuilder().setName(option.getName()));
+    }
+    return config.build();
+  }
+
+  @Test
+  public void forConfig_noOptions_empty() {
+    assertThat(ConfigOptions.forConfig(config(), registry())).isSameInstanceAs(ConfigOptions.EMPTY);
+  }
+
+  @Test
+  public void forConfig_sameConfigAndRegistry_cached() {
+    Registry<Option> registry = registry();
+    PipelineConfig config = config(MERGE_MODES);
+
+    ConfigOptions options = ConfigOptions.forConfig(config, registry);
+
+    assertThat(options.getOptions()).containsExactly(MERGE_MODES);
+    assertThat(ConfigOptions.forConfig(config, registry)).isSameInstanceAs(options);
+    assertThat(options.isValidFor(registry)).isTrue();
+  }
+
+  @Test
+  public void forConfig_otherRegistry_resolvedAgain() {
+    Registry<Option> registry = registry();
+    PipelineConfig config = config(MERGE_MODES);
+    ConfigOptions options = ConfigOptions.forConfig(config, registry);
+
+    Registry<Option> other = registry();
+    ConfigOptions otherOptions = ConfigOptions.forConfig(config, other);
+
+    assertThat(options.isValidFor(other)).isFalse();
+    assertThat(otherOptions).isNotSameInstanceAs(options);
+    assertThat(otherOptions.isValidFor(other)).isTrue();
+  }
+
+  @Test
+  public void apply_noOptions_returnsContext() {
+    RuntimeContext context = RuntimeContextUtil.mockRuntimeContextWithDefaultMetaData();
+
+    assertThat(ConfigOptions.EMPTY.apply(context)).isSameInstanceAs(context);
+  }
+
+  @Test
+  public void apply_newOptions_enablesThem() {
+    RuntimeContext context = RuntimeContextUtil.mockRuntimeContextWithDefaultMetaData();
+    ConfigOptions options =
+        ConfigOptions.resolve(config(MERGE_MODES, SINGLE_NULL_ARRAY).getOptionsList(), registry());
+
+    RuntimeContext actual = options.apply(context);
+
+    assertThat(actual.enabledOptions()).containsExactly(MERGE_MODES, SINGLE_NULL_ARRAY);
+  }
+
+  @Test
+  public void apply_sameOptions_returnsContext() {
+    Registry<Option> registry = registry();
+    RuntimeContext context =
+        ConfigOptions.resolve(config(MERGE_MODES).getOptionsList(), registry)
+            .apply(RuntimeContextUtil.mockRuntimeContextWithDefaultMetaData());
+
+    ConfigOptions options = ConfigOptions.resolve(config(MERGE_MODES).getOptionsList(), registry);
+
+    assertThat(options.apply(context)).isSameInstanceAs(context);
+    assertThat(context.enabledOptions()).containsExactly(MERGE_MODES);
+  }
+
+  @Test
+  public void apply_otherOptions_disablesAndEnables() {
+    Registry<Option> registry = registry();
+    ConfigOptions mergeModes =
+        ConfigOptions.resolve(config(MERGE_MODES).getOptionsList(), registry);
+    ConfigOptions singleNullArray =
+        ConfigOptions.resolve(config(SINGLE_NULL_ARRAY).getOptionsList(), registry);
+
+    // Apply the same transition twice to make sure the remembered one behaves the same.
+    for (int i = 0; i < 2; i++) {
+      RuntimeContext context =
+          mergeModes.apply(RuntimeContextUtil.mockRuntimeContextWithDefaultMetaData());
+
+      RuntimeContext actual = singleNullArray.apply(context);
+
+      assertThat(actual.enabledOptions()).containsExactly(SINGLE_NULL_ARRAY);
+      assertThat(ConfigOptions.EMPTY.apply(actual).enabledOptions()).isEmpty();
+    }
+  }
+}
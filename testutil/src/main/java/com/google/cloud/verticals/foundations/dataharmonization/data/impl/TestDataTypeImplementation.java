@@ -24,7 +24,10 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Map;
 
-/** Utility class for making Data for tests. For now just uses DefaultDTI. */
+/**
+ * Utility class for making Data for tests. For now just uses DefaultDTI, except that primitives are
+ * always {@link DefaultPrimitive}s rather than the unboxed primitives DefaultDTI picks.
+ */
 public class TestDataTypeImplementation implements DataTypeImplementation {
 
   @Override
@@ -54,17 +57,17 @@ public class TestDataTypeImplementation implements DataTypeImplementation {
 
   @Override
   public Primitive primitiveOf(Double num) {
-    return DefaultDataTypeImplementation.instance.primitiveOf(num);
+    return new DefaultPrimitive(num);
   }
 
   @Override
   public Primitive primitiveOf(String str) {
-    return DefaultDataTypeImplementation.instance.primitiveOf(str);
+    return new DefaultPrimitive(str);
   }
 
   @Override
   public Primitive primitiveOf(Boolean bool) {
-    return DefaultDataTypeImplementation.instance.primitiveOf(bool);
+    return new DefaultPrimitive(bool);
   }
 
   /** Utility method to be staticly imported. */
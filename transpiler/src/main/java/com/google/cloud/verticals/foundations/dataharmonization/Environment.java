@@ -16,12 +16,14 @@
 package com.google.cloud.verticals.foundations.dataharmonization;
 
 import static com.google.cloud.verticals.foundations.dataharmonization.TranspilerData.SOURCE_META_KEY;
+import static com.google.cloud.verticals.foundations.dataharmonization.TranspilerData.VARIABLES_META_KEY;
 
 import com.google.cloud.verticals.foundations.dataharmonization.debug.proto.Debug.FileInfo;
 import com.google.cloud.verticals.foundations.dataharmonization.debug.proto.Debug.Source;
 import com.google.cloud.verticals.foundations.dataharmonization.error.ErrorStrategy;
 import com.google.cloud.verticals.foundations.dataharmonization.error.TranspilationIssue;
 import com.google.cloud.verticals.foundations.dataharmonization.error.UndeclaredVariableException;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.DeclaredVariables;
 import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.FieldMapping;
 import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.FunctionCall;
 import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.FunctionCall.FunctionReference;
@@ -71,8 +73,7 @@ public class Environment {
     this.localVars = Sets.newLinkedHashSet(localVars);
     this.varFromParents = Sets.newLinkedHashSet(fromParents);
     this.args = Sets.newLinkedHashSet(args);
-    this.localVars.addAll(
-        Sets.newHashSet(args).stream().map(Argument::getName).collect(Collectors.toList()));
+    this.localVars.addAll(this.args.stream().map(Argument::getName).collect(Collectors.toList()));
   }
 
   /**
@@ -289,10 +290,20 @@ public class Environment {
         .build();
   }
 
+  /**
+   * Returns a definition of the function this environment represents, with the given body. The
+   * variables declared in this environment are recorded in the definition's meta (see {@link
+   * DeclaredVariables}), so callers should merge any further meta into it rather than replace it.
+   */
   public FunctionDefinition.Builder generateDefinition(
       boolean inheritParentVars, List<FieldMapping> body) {
     return FunctionDefinition.newBuilder()
         .setName(this.name)
+        .setMeta(
+            Meta.newBuilder()
+                .putEntries(
+                    VARIABLES_META_KEY,
+                    Any.pack(DeclaredVariables.newBuilder().addAllNames(this.localVars).build())))
         .setInheritParentVars(inheritParentVars)
         .addAllArgs(this.args)
         .addAllArgs(
@@ -49,6 +49,7 @@ public final class LambdaHelper {
   public static void setSeed(int seed) {
     random = new Random(seed);
   }
+
   /**
    * Wraps the given expression in a function call as a body of the given signature. That is, given
    * a signature like (fb, fc) where fb and fc are free params, and an expression like (x + fb + fc)
@@ -101,7 +102,7 @@ public final class LambdaHelper {
             .generateDefinition(
                 type == FunctionType.BLOCK || type == FunctionType.IMPLICIT,
                 Collections.singletonList(FieldMapping.newBuilder().setValue(bodyValue).build()))
-            .setMeta(functionMeta(body, type))
+            .mergeMeta(functionMeta(body, type).build())
             .build();
 
     transpiler.addFunction(lambdaDef);
@@ -347,7 +347,7 @@ public class Transpiler extends WhistleBaseVisitor<AbstractMessage> {
     FunctionDefinition rootBlock =
         this.environment
             .generateDefinition(false, rootMappings)
-            .setMeta(functionMeta(ctx.statement(), FunctionType.ROOT))
+            .mergeMeta(functionMeta(ctx.statement(), FunctionType.ROOT).build())
             .build();
     this.environment = this.environment.getParent();
 
@@ -419,7 +419,7 @@ public class Transpiler extends WhistleBaseVisitor<AbstractMessage> {
       FunctionDefinition def =
           environment
               .generateDefinition(false, mappings)
-              .setMeta(withSymbol(functionMeta(ctx, FunctionType.DECLARED), ctx))
+              .mergeMeta(withSymbol(functionMeta(ctx, FunctionType.DECLARED), ctx).build())
               .build();
       allFunctions.add(def);
 
@@ -611,7 +611,7 @@ public class Transpiler extends WhistleBaseVisitor<AbstractMessage> {
     FunctionDefinition body =
         environment
             .generateDefinition(true, fieldMappings)
-            .setMeta(functionMeta(ctx, FunctionType.BLOCK))
+            .mergeMeta(functionMeta(ctx, FunctionType.BLOCK).build())
             .build();
     allFunctions.add(body);
 
@@ -24,6 +24,7 @@ import com.google.cloud.verticals.foundations.dataharmonization.debug.proto.Debu
 import com.google.cloud.verticals.foundations.dataharmonization.debug.proto.Debug.ImportInfo;
 import com.google.cloud.verticals.foundations.dataharmonization.debug.proto.Debug.Source;
 import com.google.cloud.verticals.foundations.dataharmonization.debug.proto.Debug.Symbols;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.DeclaredVariables;
 import com.google.cloud.verticals.foundations.dataharmonization.targets.FieldTargetProtoGenerator;
 import com.google.cloud.verticals.foundations.dataharmonization.targets.TargetProtoGenerator;
 import com.google.cloud.verticals.foundations.dataharmonization.targets.VarTargetProtoGenerator;
@@ -41,6 +42,7 @@ public final class TranspilerData {
   public static final String SYMBOLS_META_KEY = Symbols.getDescriptor().getFullName();
   public static final String BUILTIN_PKG = "builtins";
   public static final String FUNCTION_INFO_META_KEY = FunctionInfo.getDescriptor().getFullName();
+  public static final String VARIABLES_META_KEY = DeclaredVariables.getDescriptor().getFullName();
   public static final String THIS = "$this";
   static final String PKG_REF_DELIM = "::";
   static final String INIT_ENV_NAME = "<init>";
@@ -19,6 +19,7 @@ import static com.google.cloud.verticals.foundations.dataharmonization.TestHelpe
 import static com.google.cloud.verticals.foundations.dataharmonization.TestHelper.sourceMeta;
 import static com.google.cloud.verticals.foundations.dataharmonization.TestHelper.symbolMeta;
 import static com.google.cloud.verticals.foundations.dataharmonization.TestHelper.symbolRef;
+import static com.google.cloud.verticals.foundations.dataharmonization.TestHelper.variablesMeta;
 import static org.junit.Assert.assertEquals;
 
 import com.google.cloud.verticals.foundations.dataharmonization.debug.proto.Debug.FunctionInfo.FunctionType;
@@ -75,7 +76,8 @@ public class MetaTest {
             "simple block",
             "{\n\tfield: 1;\n\t// Comment\n\tfield2: \"two\";\n}",
             sourceMeta(1, 0, 5, 0),
-            Arrays.asList(sourceMeta(1, 0, 5, 0, FunctionType.BLOCK)),
+            Arrays.asList(
+                mergeMeta(sourceMeta(1, 0, 5, 0, FunctionType.BLOCK), variablesMeta("$this"))),
             (Function<WhistleParser, RuleContext>) WhistleParser::block,
             (Function<Message, Meta>) MetaTest::getValueSourceFunctionCallMeta
           },
@@ -84,8 +86,8 @@ public class MetaTest {
             "{\n\tvar x: 1;\n\t{\n\t\tvar x: 2\n\t}\n}",
             sourceMeta(1, 0, 6, 0),
             Arrays.asList(
-                sourceMeta(3, 1, 5, 1, FunctionType.BLOCK),
-                sourceMeta(1, 0, 6, 0, FunctionType.BLOCK)),
+                mergeMeta(sourceMeta(3, 1, 5, 1, FunctionType.BLOCK), variablesMeta("$this")),
+                mergeMeta(sourceMeta(1, 0, 6, 0, FunctionType.BLOCK), variablesMeta("$this", "x"))),
             (Function<WhistleParser, RuleContext>) WhistleParser::block,
             (Function<Message, Meta>) MetaTest::getValueSourceFunctionCallMeta
           },
@@ -124,7 +126,9 @@ public class MetaTest {
                     false,
                     false,
                     SymbolReference.Type.VARIABLE)),
-            ImmutableList.of(sourceMeta(1, 20, 1, 30, FunctionType.LAMBDA)),
+            ImmutableList.of(
+                mergeMeta(
+                    sourceMeta(1, 20, 1, 30, FunctionType.LAMBDA), variablesMeta("$this", "$"))),
             (Function<WhistleParser, RuleContext>) WhistleParser::expression,
             (Function<Message, Meta>)
                 m -> mergeMeta(getValueSourceFunctionCallMeta(m), ((ValueSource) m).getMeta())
@@ -173,11 +177,13 @@ public class MetaTest {
             "def func(a, b, c) a + b + c",
             mergeMeta(
                 sourceMeta(1, 0, 1, 26, FunctionType.DECLARED),
-                symbolMeta(1, 4, 1, 7, "func", true, SymbolReference.Type.FUNCTION)),
+                symbolMeta(1, 4, 1, 7, "func", true, SymbolReference.Type.FUNCTION),
+                variablesMeta("$this", "a", "b", "c")),
             Arrays.asList(
                 mergeMeta(
                     sourceMeta(1, 0, 1, 26, FunctionType.DECLARED),
-                    symbolMeta(1, 4, 1, 7, "func", true, SymbolReference.Type.FUNCTION))),
+                    symbolMeta(1, 4, 1, 7, "func", true, SymbolReference.Type.FUNCTION),
+                    variablesMeta("$this", "a", "b", "c"))),
             (Function<WhistleParser, RuleContext>) WhistleParser::functionDef,
             (Function<Message, Meta>) v -> ((FunctionDefinition) v).getMeta()
           },
@@ -17,6 +17,7 @@
 package com.google.cloud.verticals.foundations.dataharmonization;
 
 import static com.google.cloud.verticals.foundations.dataharmonization.TranspilerData.SYMBOLS_META_KEY;
+import static com.google.cloud.verticals.foundations.dataharmonization.TranspilerData.VARIABLES_META_KEY;
 
 import com.google.cloud.verticals.foundations.dataharmonization.debug.proto.Debug.FunctionInfo;
 import com.google.cloud.verticals.foundations.dataharmonization.debug.proto.Debug.FunctionInfo.FunctionType;
@@ -24,6 +25,7 @@ import com.google.cloud.verticals.foundations.dataharmonization.debug.proto.Debu
 import com.google.cloud.verticals.foundations.dataharmonization.debug.proto.Debug.SourcePosition;
 import com.google.cloud.verticals.foundations.dataharmonization.debug.proto.Debug.SymbolReference;
 import com.google.cloud.verticals.foundations.dataharmonization.debug.proto.Debug.Symbols;
+import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.DeclaredVariables;
 import com.google.cloud.verticals.foundations.dataharmonization.proto.Pipeline.Meta;
 import com.google.cloud.verticals.foundations.dataharmonization.symbols.SymbolHelper;
 import com.google.common.collect.ImmutableList;
@@ -180,6 +182,15 @@ public final class TestHelper {
         .build();
   }
 
+  public static Meta variablesMeta(String... names) {
+    return Meta.newBuilder()
+        .putEntries(
+            VARIABLES_META_KEY,
+            Any.pack(
+                DeclaredVariables.newBuilder().addAllNames(ImmutableList.copyOf(names)).build()))
+        .build();
+  }
+
   public static Meta mergeMeta(Meta... metas) {
     Meta.Builder merged = Meta.newBuilder();
     for (Meta meta : metas) {